@@ -94,6 +94,20 @@ public class ScopedJobConfiguration
 		}
 	}
 
+	public boolean getBoolean(
+			final Enum<?> property,
+			final boolean defaultValue ) {
+		final String propName = GeoWaveConfiguratorBase.enumToConfKey(
+				scope,
+				property);
+		if (jobConfiguration.getRaw(propName) == null) {
+			logger.warn("Using default for property " + propName);
+		}
+		return jobConfiguration.getBoolean(
+				propName,
+				defaultValue);
+	}
+
 	public double getDouble(
 			final Enum<?> property,
 			final double defaultValue ) {
@@ -55,6 +55,11 @@ import org.slf4j.Logger;
  *                -> distance function used for association of data points to
  *                centroid.
  * 
+ *                "NestedGroupCentroidAssignment.Centroid.AssociationFunctionClass"
+ *                -> function used to find the closest centroid, such as
+ *                {@link mil.nga.giat.geowave.analytic.kmeans.PrunedCentroidAssociationFn}
+ *                to skip centroids that cannot be the closest.
+ * 
  * @see mil.nga.giat.geowave.analytic.clustering.CentroidManagerGeoWave
  * @formatter:on
  * 
@@ -62,7 +67,7 @@ import org.slf4j.Logger;
  */
 public class NestedGroupCentroidAssignment<T>
 {
-	private final CentroidAssociationFn<T> associationdFunction = new CentroidAssociationFn<T>();
+	private final CentroidAssociationFn<T> associationdFunction;
 	private final CentroidManager<T> centroidManager;
 	private final int endZoomLevel;
 	private final String parentBatchID;
@@ -76,6 +81,7 @@ public class NestedGroupCentroidAssignment<T>
 		this.centroidManager = centroidManager;
 		this.endZoomLevel = endZoomLevel;
 		this.parentBatchID = parentBatchID;
+		this.associationdFunction = new CentroidAssociationFn<T>();
 		this.associationdFunction.setDistanceFunction(distanceFunction);
 	}
 
@@ -103,6 +109,12 @@ public class NestedGroupCentroidAssignment<T>
 				CommonParameters.Common.DISTANCE_FUNCTION_CLASS,
 				DistanceFn.class,
 				FeatureCentroidDistanceFn.class);
+		@SuppressWarnings("unchecked")
+		final CentroidAssociationFn<T> associationFunction = config.getInstance(
+				CentroidParameters.Centroid.ASSOCIATION_FUNCTION_CLASS,
+				CentroidAssociationFn.class,
+				CentroidAssociationFn.class);
+		this.associationdFunction = associationFunction;
 		this.associationdFunction.setDistanceFunction(distanceFunction);
 		centroidManager = new CentroidManagerGeoWave<T>(
 				context,
@@ -150,6 +162,7 @@ public class NestedGroupCentroidAssignment<T>
 
 		params.addAll(Arrays.asList(new ParameterEnum<?>[] {
 			CentroidParameters.Centroid.ZOOM_LEVEL,
+			CentroidParameters.Centroid.ASSOCIATION_FUNCTION_CLASS,
 			GlobalParameters.Global.PARENT_BATCH_ID,
 			CommonParameters.Common.DISTANCE_FUNCTION_CLASS
 		}));
@@ -256,6 +269,7 @@ public class NestedGroupCentroidAssignment<T>
 				new ParameterEnum[] {
 					CommonParameters.Common.DISTANCE_FUNCTION_CLASS,
 					CentroidParameters.Centroid.ZOOM_LEVEL,
+					CentroidParameters.Centroid.ASSOCIATION_FUNCTION_CLASS,
 					GlobalParameters.Global.BATCH_ID,
 					GlobalParameters.Global.PARENT_BATCH_ID
 				},
@@ -22,6 +22,7 @@ public class CoordinateCircleDistanceFn implements
 	 */
 	private static final long serialVersionUID = -1245559892132762143L;
 	protected static final CoordinateReferenceSystem DEFAULT_CRS;
+	private static final DefaultEllipsoid DEFAULT_ELLIPSOID;
 
 	static {
 		try {
@@ -34,12 +35,31 @@ public class CoordinateCircleDistanceFn implements
 					"Failed to load default EPSG:4326 coordinate reference system",
 					e);
 		}
+		DEFAULT_ELLIPSOID = DefaultEllipsoid.wrap(CRS.getEllipsoid(DEFAULT_CRS));
 	}
 
 	@Override
 	public double measure(
 			final Coordinate c1,
 			final Coordinate c2 ) {
+		// coordinates of the default CRS are already longitude/latitude, so
+		// the distance is computed on the ellipsoid without a transform or a
+		// geodetic calculator for every call
+		if (getCRS() == DEFAULT_CRS) {
+			try {
+				return DEFAULT_ELLIPSOID.orthodromicDistance(
+						c1.x,
+						c1.y,
+						c2.x,
+						c2.y);
+			}
+			catch (final ArithmeticException e) {
+				// no convergence, such as for nearly antipodal points
+				LOGGER.debug(
+						"Unable to compute orthodromic distance on the ellipsoid",
+						e);
+			}
+		}
 		try {
 			return JTS.orthodromicDistance(
 					c1,
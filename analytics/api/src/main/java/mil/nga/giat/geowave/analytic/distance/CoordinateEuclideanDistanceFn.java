@@ -15,13 +15,10 @@ public class CoordinateEuclideanDistanceFn implements
 	public double measure(
 			final Coordinate x,
 			final Coordinate y ) {
-		return Math.sqrt(Math.pow(
-				(x.x - y.x),
-				2) + Math.pow(
-				(x.y - y.y),
-				2) + Math.pow(
-				(filter(x.z) - filter(y.z)),
-				2));
+		final double dx = x.x - y.x;
+		final double dy = x.y - y.y;
+		final double dz = filter(x.z) - filter(y.z);
+		return Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
 	}
 
 	private static double filter(
@@ -4,6 +4,7 @@ import org.opengis.feature.simple.SimpleFeature;
 
 import com.vividsolutions.jts.geom.Coordinate;
 import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.Point;
 
 /**
  * Calculate distance between two SimpleFeatures, assuming has a Geometry.
@@ -51,9 +52,19 @@ public class FeatureCentroidDistanceFn implements
 			final SimpleFeature y ) {
 
 		return coordinateDistanceFunction.measure(
-				getGeometry(
-						x).getCentroid().getCoordinate(),
-				getGeometry(
-						y).getCentroid().getCoordinate());
+				getCentroid(getGeometry(x)),
+				getCentroid(getGeometry(y)));
+	}
+
+	/**
+	 * The centroid of a point is its own coordinate, which saves computing a
+	 * new point for every measure
+	 */
+	protected static Coordinate getCentroid(
+			final Geometry geometry ) {
+		if (geometry instanceof Point) {
+			return geometry.getCoordinate();
+		}
+		return geometry.getCentroid().getCoordinate();
 	}
 }
@@ -42,8 +42,8 @@ public class GeometryCentroidDistanceFn implements
 			final Geometry y ) {
 
 		return coordinateDistanceFunction.measure(
-				x.getCentroid().getCoordinate(),
-				y.getCentroid().getCoordinate());
+				FeatureCentroidDistanceFn.getCentroid(x),
+				FeatureCentroidDistanceFn.getCentroid(y));
 	}
 
 }
@@ -0,0 +1,181 @@
+package mil.nga.giat.geowave.analytic.kmeans;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.giat.geowave.analytic.AnalyticItemWrapper;
+import mil.nga.giat.geowave.analytic.clustering.CentroidPairing;
+
+/**
+ * Compute the distance of a point to the closest centroid, skipping the
+ * centroids that the triangle inequality proves cannot be closer than the
+ * closest centroid found so far.
+ *
+ * The distances between the centroids of a set are computed once and kept
+ * while the same set is used, with the centroids of each set sorted by their
+ * distance to one another. A point is first measured against the centroid
+ * closest to the previous point of the set. Any centroid c for which d(a,c) >=
+ * 2 d(x,a) is then skipped, since d(x,c) >= d(a,c) - d(x,a) >= d(x,a). As the
+ * points within a split are mostly read in index order, consecutive points tend
+ * to share the same closest centroid and few centroids are measured.
+ *
+ * The distance function must satisfy the triangle inequality (e.g. Euclidean
+ * or orthodromic distance, but not cosine distance). When several centroids
+ * are equally close, any one of them may be chosen. Instances are not thread
+ * safe.
+ */
+public class PrunedCentroidAssociationFn<T> extends
+		CentroidAssociationFn<T>
+{
+	private static final int MAX_CACHED_SETS = 64;
+
+	private final Map<List<AnalyticItemWrapper<T>>, CentroidDistances<T>> distancesPerSet = new IdentityHashMap<List<AnalyticItemWrapper<T>>, CentroidDistances<T>>();
+
+	@Override
+	public double compute(
+			final AnalyticItemWrapper<T> point,
+			final Iterable<AnalyticItemWrapper<T>> targetSet,
+			final AssociationNotification<T> associationNotification ) {
+		if (!(targetSet instanceof List) || (((List<AnalyticItemWrapper<T>>) targetSet).size() < 2)) {
+			return super.compute(
+					point,
+					targetSet,
+					associationNotification);
+		}
+		final CentroidDistances<T> distances = getCentroidDistances((List<AnalyticItemWrapper<T>>) targetSet);
+		final T item = point.getWrappedItem();
+		final int start = distances.lastClosest;
+		final double startDistance = getDistanceFunction().measure(
+				item,
+				distances.centroids[start].getWrappedItem());
+		final double startBound = 2 * startDistance;
+		int closest = start;
+		double closestDistance = startDistance;
+		final int[] neighbors = distances.neighbors[start];
+		final float[] neighborDistances = distances.neighborDistances[start];
+		for (int n = 0; n < neighbors.length; n++) {
+			// the remaining centroids are even further from the start
+			if (neighborDistances[n] >= startBound) {
+				break;
+			}
+			final int c = neighbors[n];
+			if (distances.distances[closest][c] >= (2 * closestDistance)) {
+				continue;
+			}
+			final double distance = getDistanceFunction().measure(
+					item,
+					distances.centroids[c].getWrappedItem());
+			if (distance < closestDistance) {
+				closestDistance = distance;
+				closest = c;
+			}
+		}
+		if (!(closestDistance < Double.POSITIVE_INFINITY)) {
+			// the bounds do not hold for undefined distances
+			return super.compute(
+					point,
+					targetSet,
+					associationNotification);
+		}
+		distances.lastClosest = closest;
+		associationNotification.notify(new CentroidPairing<T>(
+				distances.centroids[closest],
+				point,
+				closestDistance));
+		return closestDistance;
+	}
+
+	private CentroidDistances<T> getCentroidDistances(
+			final List<AnalyticItemWrapper<T>> centroids ) {
+		CentroidDistances<T> distances = distancesPerSet.get(centroids);
+		if ((distances == null) || !distances.matches(centroids)) {
+			if (distancesPerSet.size() >= MAX_CACHED_SETS) {
+				distancesPerSet.clear();
+			}
+			distances = new CentroidDistances<T>(
+					centroids,
+					this);
+			distancesPerSet.put(
+					centroids,
+					distances);
+		}
+		return distances;
+	}
+
+	/**
+	 * The distances between each pair of centroids of a set, with the other
+	 * centroids of each centroid ordered from nearest to furthest. The tables
+	 * grow with the square of the number of centroids.
+	 */
+	private static class CentroidDistances<T>
+	{
+		private final AnalyticItemWrapper<T>[] centroids;
+		private final double[][] distances;
+		private final int[][] neighbors;
+		private final float[][] neighborDistances;
+		private int lastClosest = 0;
+
+		@SuppressWarnings("unchecked")
+		private CentroidDistances(
+				final List<AnalyticItemWrapper<T>> centroidList,
+				final CentroidAssociationFn<T> associationFn ) {
+			centroids = centroidList.toArray(new AnalyticItemWrapper[centroidList.size()]);
+			distances = new double[centroids.length][centroids.length];
+			for (int i = 0; i < centroids.length; i++) {
+				for (int j = i + 1; j < centroids.length; j++) {
+					distances[i][j] = distances[j][i] = associationFn.getDistanceFunction().measure(
+							centroids[i].getWrappedItem(),
+							centroids[j].getWrappedItem());
+				}
+			}
+			neighbors = new int[centroids.length][centroids.length - 1];
+			neighborDistances = new float[centroids.length][centroids.length - 1];
+			final long[] sortKeys = new long[centroids.length - 1];
+			for (int i = 0; i < centroids.length; i++) {
+				// sort the distance and index of each neighbor as one primitive
+				for (int j = 0, k = 0; j < centroids.length; j++) {
+					if (j != i) {
+						sortKeys[k++] = ((long) Float.floatToIntBits(roundDown(distances[i][j])) << 32) | j;
+					}
+				}
+				Arrays.sort(sortKeys);
+				for (int k = 0; k < sortKeys.length; k++) {
+					neighbors[i][k] = (int) sortKeys[k];
+					neighborDistances[i][k] = Float.intBitsToFloat((int) (sortKeys[k] >>> 32));
+				}
+			}
+		}
+
+		/**
+		 * @return the largest float that is not greater than the distance, so
+		 *         the rounded distances are still lower bounds
+		 */
+		private static float roundDown(
+				final double distance ) {
+			final float rounded = (float) distance;
+			return rounded > distance ? Math.nextDown(rounded) : rounded;
+		}
+
+		/**
+		 * The list may be changed in place between calls, so every centroid is
+		 * compared; identity comparisons are cheap next to measuring distances
+		 *
+		 * @return true if the set still holds the same centroids
+		 */
+		private boolean matches(
+				final List<AnalyticItemWrapper<T>> centroidList ) {
+			if (centroidList.size() != centroids.length) {
+				return false;
+			}
+			int i = 0;
+			for (final AnalyticItemWrapper<T> centroid : centroidList) {
+				if (centroid != centroids[i++]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
@@ -1,12 +1,17 @@
 package mil.nga.giat.geowave.analytic.nn;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
 import mil.nga.giat.geowave.analytic.nn.NeighborList.InferType;
 import mil.nga.giat.geowave.analytic.partitioner.Partitioner;
 import mil.nga.giat.geowave.analytic.partitioner.Partitioner.PartitionData;
@@ -37,6 +42,11 @@ import org.slf4j.LoggerFactory;
  * particular neighbor can be inferred and, therefore, can be removed from the
  * set of primaries to be inspected. This has no effect on secondaries.
  * 
+ * For items with a spatial extent, an envelope function can be provided (see
+ * setNeighborEnvelopeFn). While processing, items are then also registered in
+ * a uniform grid and each primary is only compared to the items whose
+ * envelopes intersect its own, rather than to every item in its partitions.
+ * 
  * The processor can be called multiple times, as the 'process' algorithm does
  * not alter its internal state. The notification callback can be used to alter
  * the internal state (e.g. calling 'add' or 'remove' methods). Caution should
@@ -67,6 +77,9 @@ public class NNProcessor<PARTITION_VALUE, STORE_VALUE>
 	protected final double maxDistance;
 	protected final PartitionData parentPartition;
 	private int upperBoundPerPartition = DEFAULT_UPPER_BOUND_PARTIION_SIZE;
+	private NeighborEnvelopeFn<STORE_VALUE> neighborEnvelopeFn = null;
+	// only set while processing
+	private NeighborGrid<STORE_VALUE> neighborGrid = null;
 
 	public static final int DEFAULT_UPPER_BOUND_PARTIION_SIZE = 75000;
 
@@ -143,6 +156,9 @@ public class NNProcessor<PARTITION_VALUE, STORE_VALUE>
 		if (index != null) {
 			index.empty(id);
 		}
+		if (neighborGrid != null) {
+			neighborGrid.remove(id);
+		}
 	}
 
 	public void add(
@@ -169,14 +185,23 @@ public class NNProcessor<PARTITION_VALUE, STORE_VALUE>
 									id);
 							if (singleton != null) {
 								singleton.setPrimary(partitionData.isPrimary() || singleton.isPrimary());
+								final STORE_VALUE existingValue;
 								if (isPrimary)
-									primaries.put(
+									existingValue = primaries.put(
 											id,
 											storeValue);
 								else
-									others.put(
+									existingValue = others.put(
+											id,
+											storeValue);
+								// items added by a notification while
+								// processing are candidates for the remaining
+								// primaries
+								if ((neighborGrid != null) && (existingValue == null)) {
+									neighborGrid.add(
 											id,
 											storeValue);
+								}
 							}
 						}
 					});
@@ -245,7 +270,35 @@ public class NNProcessor<PARTITION_VALUE, STORE_VALUE>
 
 		index = new NeighborIndex<STORE_VALUE>(
 				listFactory);
+		if (neighborEnvelopeFn != null) {
+			// built for each run, as the notifications may change items
+			neighborGrid = new NeighborGrid<STORE_VALUE>(
+					neighborEnvelopeFn,
+					maxDistance);
+			for (Map.Entry<ByteArrayId, STORE_VALUE> entry : primaries.entrySet()) {
+				neighborGrid.add(
+						entry.getKey(),
+						entry.getValue());
+			}
+			for (Map.Entry<ByteArrayId, STORE_VALUE> entry : others.entrySet()) {
+				neighborGrid.add(
+						entry.getKey(),
+						entry.getValue());
+			}
+		}
 
+		try {
+			processPrimaries(notification);
+		}
+		finally {
+			neighborGrid = null;
+		}
+	}
+
+	private void processPrimaries(
+			final CompleteNotifier<STORE_VALUE> notification )
+			throws IOException,
+			InterruptedException {
 		double farthestDistance = 0;
 		ByteArrayId farthestNeighbor = null;
 		ByteArrayId nextStart = startingPoint;
@@ -275,8 +328,29 @@ public class NNProcessor<PARTITION_VALUE, STORE_VALUE>
 					primaryId,
 					primary);
 
-			for (PartitionData pd : partition) {
-				for (ByteArrayId neighborId : partitionsToIds.get(pd)) {
+			final List<Collection<ByteArrayId>> neighborIdSets = new ArrayList<Collection<ByteArrayId>>();
+			if (neighborGrid == null) {
+				for (PartitionData pd : partition) {
+					neighborIdSets.add(partitionsToIds.get(pd));
+				}
+			}
+			else {
+				// only the candidates in nearby grid cells that share a
+				// partition with the primary
+				final List<ByteArrayId> candidateIds = new ArrayList<ByteArrayId>();
+				for (ByteArrayId candidateId : neighborGrid.getCandidates(primary)) {
+					final Set<PartitionData> candidatePartitions = idsToPartition.get(candidateId);
+					if ((candidatePartitions != null) && !Collections.disjoint(
+							partition,
+							candidatePartitions)) {
+						candidateIds.add(candidateId);
+					}
+				}
+				neighborIdSets.add(candidateIds);
+			}
+
+			for (Collection<ByteArrayId> neighborIds : neighborIdSets) {
+				for (ByteArrayId neighborId : neighborIds) {
 					if (neighborId.equals(primaryId)) continue;
 					boolean isAPrimary = true;
 					STORE_VALUE neighbor = primaries.get(neighborId);
@@ -339,4 +413,31 @@ public class NNProcessor<PARTITION_VALUE, STORE_VALUE>
 			int upperBoundPerPartition ) {
 		this.upperBoundPerPartition = upperBoundPerPartition;
 	}
+
+	/**
+	 * Compare each primary only to the items whose envelopes intersect its
+	 * envelope, instead of to every item in its partitions. The distance
+	 * function still decides which candidates are neighbors. If the envelope
+	 * function does not support the distance function, all items within a
+	 * partition are compared.
+	 * 
+	 * @param neighborEnvelopeFn
+	 *            provides the envelope of each item for the maximum distance,
+	 *            or null to compare all items within a partition
+	 * @param distanceFn
+	 *            the function that measures the distance between items
+	 */
+	public void setNeighborEnvelopeFn(
+			NeighborEnvelopeFn<STORE_VALUE> neighborEnvelopeFn,
+			DistanceFn<STORE_VALUE> distanceFn ) {
+		if ((neighborEnvelopeFn != null) && !neighborEnvelopeFn.supports(distanceFn)) {
+			LOGGER.warn("Neighbor envelopes of " + neighborEnvelopeFn.getClass().getName()
+					+ " do not support the distance function "
+					+ (distanceFn == null ? "null" : distanceFn.getClass().getName())
+					+ ", all items within a partition are compared");
+			this.neighborEnvelopeFn = null;
+			return;
+		}
+		this.neighborEnvelopeFn = neighborEnvelopeFn;
+	}
 }
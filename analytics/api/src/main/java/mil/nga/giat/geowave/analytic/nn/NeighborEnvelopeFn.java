@@ -0,0 +1,38 @@
+package mil.nga.giat.geowave.analytic.nn;
+
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+
+/**
+ * Provide the bounds of an item, expanded such that the bounds of any two items
+ * within the maximum distance of each other intersect. The NNProcessor uses
+ * these bounds to only compare items that are candidate neighbors, so the
+ * bounds may be larger than needed but never smaller.
+ * 
+ * @param <ITEM>
+ */
+public interface NeighborEnvelopeFn<ITEM>
+{
+	public MultiDimensionalNumericData getEnvelope(
+			ITEM item,
+			double maxDistance );
+
+	/**
+	 * 
+	 * @return the size, per dimension and in the units of the envelope, of the
+	 *         cells used to look up intersecting envelopes
+	 */
+	public double[] getCellSizePerDimension(
+			double maxDistance );
+
+	/**
+	 * 
+	 * @param distanceFn
+	 *            the function that measures the distance between items
+	 * @return whether the envelopes of any two items within the maximum
+	 *         distance of each other, as measured by the distance function,
+	 *         intersect
+	 */
+	public boolean supports(
+			DistanceFn<ITEM> distanceFn );
+}
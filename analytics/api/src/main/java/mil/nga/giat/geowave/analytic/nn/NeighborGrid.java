@@ -0,0 +1,229 @@
+package mil.nga.giat.geowave.analytic.nn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+
+/**
+ * A uniform grid over the envelopes of items. An item is registered in every
+ * cell its envelope overlaps, so the candidate neighbors of an item are the
+ * items registered in the cells overlapping its envelope.
+ */
+class NeighborGrid<ITEM>
+{
+	/**
+	 * Items whose envelope spans more cells than this are always treated as
+	 * candidates rather than registered in each cell
+	 */
+	private static final int MAX_CELLS_PER_ITEM = 4096;
+
+	private final NeighborEnvelopeFn<ITEM> envelopeFn;
+	private final double maxDistance;
+	private final double[] cellSizePerDimension;
+	private final Map<GridCell, List<ByteArrayId>> cells = new HashMap<GridCell, List<ByteArrayId>>();
+	private final Set<ByteArrayId> oversizedItems = new HashSet<ByteArrayId>();
+	// the cells of each item, as its envelope may change once registered
+	private final Map<ByteArrayId, List<GridCell>> cellsPerItem = new HashMap<ByteArrayId, List<GridCell>>();
+
+	public NeighborGrid(
+			final NeighborEnvelopeFn<ITEM> envelopeFn,
+			final double maxDistance ) {
+		this.envelopeFn = envelopeFn;
+		this.maxDistance = maxDistance;
+		final double[] cellSizes = envelopeFn.getCellSizePerDimension(maxDistance);
+		cellSizePerDimension = new double[cellSizes.length];
+		for (int d = 0; d < cellSizes.length; d++) {
+			// a zero distance still needs a usable cell size
+			cellSizePerDimension[d] = cellSizes[d] > 0 ? cellSizes[d] : Double.MIN_NORMAL;
+		}
+	}
+
+	/**
+	 * Register an item, replacing any previous registration of the same ID
+	 */
+	public void add(
+			final ByteArrayId id,
+			final ITEM item ) {
+		remove(id);
+		final MultiDimensionalNumericData envelope = envelopeFn.getEnvelope(
+				item,
+				maxDistance);
+		final long[] minCells = toCells(envelope.getMinValuesPerDimension());
+		final long[] maxCells = toCells(envelope.getMaxValuesPerDimension());
+		if (countCells(
+				minCells,
+				maxCells) > MAX_CELLS_PER_ITEM) {
+			oversizedItems.add(id);
+			return;
+		}
+		final List<GridCell> itemCells = getCells(
+				minCells,
+				maxCells);
+		for (final GridCell cell : itemCells) {
+			List<ByteArrayId> ids = cells.get(cell);
+			if (ids == null) {
+				ids = new ArrayList<ByteArrayId>(
+						4);
+				cells.put(
+						cell,
+						ids);
+			}
+			ids.add(id);
+		}
+		cellsPerItem.put(
+				id,
+				itemCells);
+	}
+
+	public void remove(
+			final ByteArrayId id ) {
+		if (oversizedItems.remove(id)) {
+			return;
+		}
+		final List<GridCell> itemCells = cellsPerItem.remove(id);
+		if (itemCells == null) {
+			return;
+		}
+		for (final GridCell cell : itemCells) {
+			final List<ByteArrayId> ids = cells.get(cell);
+			ids.remove(id);
+			if (ids.isEmpty()) {
+				cells.remove(cell);
+			}
+		}
+	}
+
+	/**
+	 * 
+	 * @return the IDs of all items that could be within the maximum distance
+	 *         of the item, possibly including the item itself
+	 */
+	public Collection<ByteArrayId> getCandidates(
+			final ITEM item ) {
+		final MultiDimensionalNumericData envelope = envelopeFn.getEnvelope(
+				item,
+				maxDistance);
+		final long[] minCells = toCells(envelope.getMinValuesPerDimension());
+		final long[] maxCells = toCells(envelope.getMaxValuesPerDimension());
+		final Set<ByteArrayId> candidates = new HashSet<ByteArrayId>(
+				oversizedItems);
+		if (countCells(
+				minCells,
+				maxCells) > (cells.size())) {
+			// cheaper to visit every occupied cell
+			for (final Map.Entry<GridCell, List<ByteArrayId>> entry : cells.entrySet()) {
+				if (entry.getKey().within(
+						minCells,
+						maxCells)) {
+					candidates.addAll(entry.getValue());
+				}
+			}
+			return candidates;
+		}
+		for (final GridCell cell : getCells(
+				minCells,
+				maxCells)) {
+			final List<ByteArrayId> ids = cells.get(cell);
+			if (ids != null) {
+				candidates.addAll(ids);
+			}
+		}
+		return candidates;
+	}
+
+	private long[] toCells(
+			final double[] values ) {
+		final long[] retVal = new long[values.length];
+		for (int d = 0; d < values.length; d++) {
+			retVal[d] = (long) Math.floor(values[d] / cellSizePerDimension[d]);
+		}
+		return retVal;
+	}
+
+	private static long countCells(
+			final long[] minCells,
+			final long[] maxCells ) {
+		long count = 1;
+		for (int d = 0; d < minCells.length; d++) {
+			count *= (maxCells[d] - minCells[d]) + 1;
+			if (count > Integer.MAX_VALUE) {
+				return Integer.MAX_VALUE;
+			}
+		}
+		return count;
+	}
+
+	private static List<GridCell> getCells(
+			final long[] minCells,
+			final long[] maxCells ) {
+		final List<GridCell> retVal = new ArrayList<GridCell>();
+		final long[] current = Arrays.copyOf(
+				minCells,
+				minCells.length);
+		while (true) {
+			retVal.add(new GridCell(
+					Arrays.copyOf(
+							current,
+							current.length)));
+			int d = 0;
+			while ((d < current.length) && (current[d] == maxCells[d])) {
+				current[d] = minCells[d];
+				d++;
+			}
+			if (d == current.length) {
+				return retVal;
+			}
+			current[d]++;
+		}
+	}
+
+	private static class GridCell
+	{
+		private final long[] cell;
+		private final int hashCode;
+
+		public GridCell(
+				final long[] cell ) {
+			this.cell = cell;
+			hashCode = Arrays.hashCode(cell);
+		}
+
+		private boolean within(
+				final long[] minCells,
+				final long[] maxCells ) {
+			for (int d = 0; d < cell.length; d++) {
+				if ((cell[d] < minCells[d]) || (cell[d] > maxCells[d])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			return Arrays.equals(
+					cell,
+					((GridCell) obj).cell);
+		}
+	}
+}
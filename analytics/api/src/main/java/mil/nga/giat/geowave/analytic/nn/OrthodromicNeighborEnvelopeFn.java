@@ -0,0 +1,100 @@
+package mil.nga.giat.geowave.analytic.nn;
+
+import mil.nga.giat.geowave.analytic.distance.CoordinateCircleDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+
+/**
+ * The longitude/latitude envelope of the geometry of an item, expanded by half
+ * the maximum orthodromic distance, in meters, in each direction. The
+ * expansion in longitude is taken at the latitude of the envelope furthest
+ * from the equator, and the envelope covers every longitude near the poles or
+ * across the anti-meridian, so the envelopes of two items within the maximum
+ * distance always intersect.
+ * 
+ * This holds for distance functions that measure the orthodromic distance
+ * between points within the envelopes of the two geometries, such as
+ * FeatureGeometryDistanceFn, and subclasses only support those.
+ */
+public abstract class OrthodromicNeighborEnvelopeFn<ITEM> implements
+		NeighborEnvelopeFn<ITEM>
+{
+	// the semi-minor axis of WGS84, so that angles are over-estimated
+	private static final double MIN_EARTH_RADIUS = 6356752.3142;
+	// margin for the difference between the ellipsoid and the sphere
+	private static final double MARGIN = 1.01;
+
+	protected abstract Geometry getGeometry(
+			ITEM item );
+
+	@Override
+	public MultiDimensionalNumericData getEnvelope(
+			final ITEM item,
+			final double maxDistance ) {
+		final Envelope envelope = getGeometry(
+				item).getEnvelopeInternal();
+		final double halfAngle = Math.min(
+				Math.PI,
+				(MARGIN * maxDistance) / (2 * MIN_EARTH_RADIUS));
+		final double latExpansion = Math.toDegrees(halfAngle);
+		// the furthest from the equator a point within the maximum distance of
+		// the geometry can be
+		final double maxLat = Math.max(
+				Math.abs(envelope.getMinY()),
+				Math.abs(envelope.getMaxY())) + (2 * latExpansion);
+		double minLon = -180;
+		double maxLon = 180;
+		if (maxLat < 90) {
+			// on a sphere, two points within an angle of 2a of each other, at
+			// latitudes no further from the equator than maxLat, differ in
+			// longitude by at most 2 asin(sin(a) / cos(maxLat)), by the
+			// haversine formula
+			final double sinLon = Math.sin(halfAngle) / Math.cos(Math.toRadians(maxLat));
+			if (sinLon < 1) {
+				final double lonExpansion = Math.toDegrees(Math.asin(sinLon));
+				if (((envelope.getMinX() - lonExpansion) > -180) && ((envelope.getMaxX() + lonExpansion) < 180)) {
+					minLon = envelope.getMinX() - lonExpansion;
+					maxLon = envelope.getMaxX() + lonExpansion;
+				}
+			}
+		}
+		return new BasicNumericDataset(
+				new NumericData[] {
+					new NumericRange(
+							minLon,
+							maxLon),
+					new NumericRange(
+							envelope.getMinY() - latExpansion,
+							envelope.getMaxY() + latExpansion)
+				});
+	}
+
+	@Override
+	public double[] getCellSizePerDimension(
+			final double maxDistance ) {
+		// the expanded envelope of a point away from the poles
+		final double cellSize = Math.toDegrees((MARGIN * maxDistance) / MIN_EARTH_RADIUS);
+		return new double[] {
+			cellSize,
+			cellSize
+		};
+	}
+
+	/**
+	 * 
+	 * @return whether the coordinate distance function measures orthodromic
+	 *         distances in meters between longitude/latitude coordinates
+	 */
+	protected static boolean isOrthodromic(
+			final DistanceFn<Coordinate> coordinateDistanceFn ) {
+		// a subclass may use another coordinate reference system
+		return (coordinateDistanceFn != null) && CoordinateCircleDistanceFn.class.equals(coordinateDistanceFn.getClass());
+	}
+}
@@ -0,0 +1,54 @@
+package mil.nga.giat.geowave.analytic.nn;
+
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureCentroidDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureCentroidOrthodromicDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureGeometryDistanceFn;
+
+import org.opengis.feature.simple.SimpleFeature;
+
+import com.vividsolutions.jts.geom.Geometry;
+
+/**
+ * The envelope of the same geometry of a feature that FeatureGeometryDistanceFn
+ * measures. The feature distance functions that measure between the nearest
+ * points or the centroids of the geometries are supported, as long as they
+ * measure orthodromic distances.
+ */
+public class SimpleFeatureNeighborEnvelopeFn extends
+		OrthodromicNeighborEnvelopeFn<SimpleFeature>
+{
+	@Override
+	protected Geometry getGeometry(
+			final SimpleFeature feature ) {
+		for (final Object attr : feature.getAttributes()) {
+			if (attr instanceof Geometry) {
+				return (Geometry) attr;
+			}
+		}
+		return (Geometry) feature.getDefaultGeometry();
+	}
+
+	@Override
+	public boolean supports(
+			final DistanceFn<SimpleFeature> distanceFn ) {
+		if (distanceFn == null) {
+			return false;
+		}
+		// subclasses may measure other points
+		final Class<?> distanceFnClass = distanceFn.getClass();
+		if (FeatureGeometryDistanceFn.class.equals(distanceFnClass)) {
+			return isOrthodromic(((FeatureGeometryDistanceFn) distanceFn).getCoordinateDistanceFunction());
+		}
+		if (FeatureDistanceFn.class.equals(distanceFnClass)) {
+			return isOrthodromic(((FeatureDistanceFn) distanceFn).getCoordinateDistanceFunction());
+		}
+		if (FeatureCentroidDistanceFn.class.equals(distanceFnClass)
+				|| FeatureCentroidOrthodromicDistanceFn.class.equals(distanceFnClass)) {
+			// the centroid of a geometry is within its envelope
+			return isOrthodromic(((FeatureCentroidDistanceFn) distanceFn).getCoordinateDistanceFunction());
+		}
+		return false;
+	}
+}
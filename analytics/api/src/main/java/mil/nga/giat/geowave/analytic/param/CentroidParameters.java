@@ -2,6 +2,7 @@ package mil.nga.giat.geowave.analytic.param;
 
 import mil.nga.giat.geowave.analytic.AnalyticItemWrapperFactory;
 import mil.nga.giat.geowave.analytic.extract.CentroidExtractor;
+import mil.nga.giat.geowave.analytic.kmeans.CentroidAssociationFn;
 
 public class CentroidParameters
 {
@@ -49,6 +50,12 @@ public class CentroidParameters
 				"czl",
 				"Zoom Level Number",
 				true,
+				true),
+		ASSOCIATION_FUNCTION_CLASS(
+				CentroidAssociationFn.class,
+				"caf",
+				"Centroid Association Function Class extends mil.nga.giat.geowave.analytic.kmeans.CentroidAssociationFn",
+				true,
 				true);
 		private final ParameterHelper helper;
 
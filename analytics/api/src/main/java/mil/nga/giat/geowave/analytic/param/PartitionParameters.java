@@ -43,6 +43,12 @@ public class PartitionParameters
 				"Maximum number of members selected from a partition",
 				false,
 				true),
+		NEIGHBOR_GRID(
+				Boolean.class,
+				"png",
+				"Within a partition, only compare items whose envelopes, expanded by the max distance in meters, intersect (ignored unless the distance function is orthodromic)",
+				false,
+				false),
 		SECONDARY_PARTITIONER_CLASS(
 				Partitioner.class,
 				"psp",
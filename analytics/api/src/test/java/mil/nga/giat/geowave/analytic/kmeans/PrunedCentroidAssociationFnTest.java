@@ -0,0 +1,189 @@
+package mil.nga.giat.geowave.analytic.kmeans;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import mil.nga.giat.geowave.analytic.AnalyticItemWrapper;
+import mil.nga.giat.geowave.analytic.clustering.CentroidPairing;
+import mil.nga.giat.geowave.analytic.clustering.LongCentroid;
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrunedCentroidAssociationFnTest
+{
+	private static final int CENTROID_COUNT = 300;
+	private static final int POINT_COUNT = 20000;
+	private static final int ITERATIONS = 5;
+
+	@Test
+	public void testSameDistanceAsExhaustive() {
+		final Random random = new Random(
+				3451);
+		final List<AnalyticItemWrapper<Long>> centroids = createItems(
+				random,
+				CENTROID_COUNT);
+		final List<AnalyticItemWrapper<Long>> points = createItems(
+				random,
+				POINT_COUNT);
+		final CountingDistanceFn exhaustiveDistance = new CountingDistanceFn();
+		final CentroidAssociationFn<Long> exhaustiveFn = new CentroidAssociationFn<Long>();
+		exhaustiveFn.setDistanceFunction(exhaustiveDistance);
+		final CountingDistanceFn prunedDistance = new CountingDistanceFn();
+		final CentroidAssociationFn<Long> prunedFn = new PrunedCentroidAssociationFn<Long>();
+		prunedFn.setDistanceFunction(prunedDistance);
+		for (final AnalyticItemWrapper<Long> point : points) {
+			final PairingHolder expected = new PairingHolder();
+			final PairingHolder actual = new PairingHolder();
+			final double expectedDistance = exhaustiveFn.compute(
+					point,
+					centroids,
+					expected);
+			final double actualDistance = prunedFn.compute(
+					point,
+					centroids,
+					actual);
+			Assert.assertEquals(
+					expectedDistance,
+					actualDistance,
+					0.0);
+			Assert.assertEquals(
+					expectedDistance,
+					Math.abs(point.getWrappedItem() - actual.pairing.getCentroid().getWrappedItem()),
+					0.0);
+			Assert.assertSame(
+					point,
+					actual.pairing.getPairedItem());
+		}
+		Assert.assertTrue(prunedDistance.count < exhaustiveDistance.count);
+	}
+
+	@Test
+	public void testPrunesSortedPoints() {
+		final Random random = new Random(
+				7583);
+		final List<AnalyticItemWrapper<Long>> points = createItems(
+				random,
+				POINT_COUNT);
+		// points of a split are read in index order
+		Collections.sort(
+				points,
+				new Comparator<AnalyticItemWrapper<Long>>() {
+					@Override
+					public int compare(
+							final AnalyticItemWrapper<Long> o1,
+							final AnalyticItemWrapper<Long> o2 ) {
+						return o1.getWrappedItem().compareTo(
+								o2.getWrappedItem());
+					}
+				});
+		final CountingDistanceFn exhaustiveDistance = new CountingDistanceFn();
+		final CentroidAssociationFn<Long> exhaustiveFn = new CentroidAssociationFn<Long>();
+		exhaustiveFn.setDistanceFunction(exhaustiveDistance);
+		final CountingDistanceFn prunedDistance = new CountingDistanceFn();
+		final CentroidAssociationFn<Long> prunedFn = new PrunedCentroidAssociationFn<Long>();
+		prunedFn.setDistanceFunction(prunedDistance);
+		final AssociationNotification<Long> notification = new PairingHolder();
+		for (int i = 0; i < ITERATIONS; i++) {
+			// each iteration moves the centroids
+			final List<AnalyticItemWrapper<Long>> centroids = createItems(
+					random,
+					CENTROID_COUNT);
+			Assert.assertEquals(
+					exhaustiveFn.compute(
+							points,
+							centroids,
+							notification),
+					prunedFn.compute(
+							points,
+							centroids,
+							notification),
+					0.0001);
+		}
+		Assert.assertTrue(prunedDistance.count < (exhaustiveDistance.count / 4));
+	}
+
+	@Test
+	public void testCentroidReplacedInPlace() {
+		final Random random = new Random(
+				1297);
+		final List<AnalyticItemWrapper<Long>> centroids = createItems(
+				random,
+				CENTROID_COUNT);
+		final CentroidAssociationFn<Long> prunedFn = new PrunedCentroidAssociationFn<Long>();
+		prunedFn.setDistanceFunction(new CountingDistanceFn());
+		final List<AnalyticItemWrapper<Long>> points = createItems(
+				random,
+				100);
+		final AssociationNotification<Long> notification = new PairingHolder();
+		prunedFn.compute(
+				points,
+				centroids,
+				notification);
+		// replace a centroid in the middle of the same list with one on top of
+		// each point in turn
+		for (final AnalyticItemWrapper<Long> point : points) {
+			centroids.set(
+					CENTROID_COUNT / 2,
+					new LongCentroid(
+							point.getWrappedItem(),
+							"",
+							0));
+			final PairingHolder actual = new PairingHolder();
+			Assert.assertEquals(
+					0.0,
+					prunedFn.compute(
+							point,
+							centroids,
+							actual),
+					0.0);
+			Assert.assertEquals(
+					point.getWrappedItem(),
+					actual.pairing.getCentroid().getWrappedItem());
+		}
+	}
+
+	private static List<AnalyticItemWrapper<Long>> createItems(
+			final Random random,
+			final int count ) {
+		final List<AnalyticItemWrapper<Long>> items = new ArrayList<AnalyticItemWrapper<Long>>();
+		for (int i = 0; i < count; i++) {
+			items.add(new LongCentroid(
+					random.nextInt(1000000),
+					"",
+					0));
+		}
+		return items;
+	}
+
+	private static class PairingHolder implements
+			AssociationNotification<Long>
+	{
+		private CentroidPairing<Long> pairing;
+
+		@Override
+		public void notify(
+				final CentroidPairing<Long> pairing ) {
+			this.pairing = pairing;
+		}
+	}
+
+	private static class CountingDistanceFn implements
+			DistanceFn<Long>
+	{
+		private static final long serialVersionUID = 1L;
+		private long count = 0;
+
+		@Override
+		public double measure(
+				final Long x,
+				final Long y ) {
+			count++;
+			return Math.abs(x.longValue() - y.longValue());
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package mil.nga.giat.geowave.analytic.nn;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -14,13 +15,19 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 
 import mil.nga.giat.geowave.analytic.PropertyManagement;
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
 import mil.nga.giat.geowave.analytic.nn.NNProcessor.CompleteNotifier;
 import mil.nga.giat.geowave.analytic.param.ParameterEnum;
 import mil.nga.giat.geowave.analytic.partitioner.Partitioner;
 import mil.nga.giat.geowave.analytic.partitioner.Partitioner.PartitionData;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapreduce.JobContext;
@@ -74,6 +81,14 @@ public class NNProcessorTest
 	}
 
 	NNProcessor<Integer, Integer> buildProcessor() {
+		return buildProcessor(
+				new IntegerDistanceFn(),
+				200);
+	}
+
+	NNProcessor<Integer, Integer> buildProcessor(
+			final DistanceFn<Integer> distanceFn,
+			final double maxDistance ) {
 		return new NNProcessor<Integer, Integer>(
 				new Partitioner<Object>() {
 
@@ -129,11 +144,13 @@ public class NNProcessorTest
 							final Integer item1,
 							final Integer item2 ) {
 						return new DistanceProfile<Integer>(
-								Math.abs(item1.doubleValue() - item2.doubleValue()),
+								distanceFn.measure(
+										item1,
+										item2),
 								item1);
 					}
 				},
-				200,
+				maxDistance,
 				new PartitionData(
 						new ByteArrayId(
 								"123"),
@@ -172,6 +189,212 @@ public class NNProcessorTest
 				});
 	}
 
+	@Test
+	public void testGridOp()
+			throws IOException,
+			InterruptedException {
+		final NNProcessor<Integer, Integer> processor = buildProcessor();
+		processor.setNeighborEnvelopeFn(
+				new IntegerEnvelopeFn(),
+				new IntegerDistanceFn());
+		runProcess(
+				processor,
+				new CompleteNotifier<Integer>() {
+
+					@Override
+					public void complete(
+							final ByteArrayId id,
+							final Integer value,
+							final NeighborList<Integer> list )
+							throws IOException,
+							InterruptedException {
+						final Iterator<Entry<ByteArrayId, Integer>> it = list.iterator();
+						final List<Integer> expectedResultSet = new ArrayList<Integer>(
+								expectedResults.get(value));
+						assertNotNull(expectedResultSet);
+						while (it.hasNext()) {
+							final Integer result = it.next().getValue();
+							assertTrue(
+									"" + value + " with " + result,
+									expectedResultSet.remove(result));
+						}
+						assertTrue(expectedResultSet.isEmpty());
+					}
+
+				});
+	}
+
+	@Test
+	public void testGridMatchesPartitions()
+			throws IOException,
+			InterruptedException {
+		final Random random = new Random(
+				8675);
+		final List<Integer> values = new ArrayList<Integer>();
+		for (int i = 0; i < 2000; i++) {
+			values.add(random.nextInt(100000));
+		}
+		final NNProcessor<Integer, Integer> processor = buildProcessor();
+		final NNProcessor<Integer, Integer> gridProcessor = buildProcessor();
+		gridProcessor.setNeighborEnvelopeFn(
+				new IntegerEnvelopeFn(),
+				new IntegerDistanceFn());
+		for (final Integer v : values) {
+			addToProcess(
+					processor,
+					v);
+			addToProcess(
+					gridProcessor,
+					v);
+		}
+		// the primaries may be processed in another order, but each has the
+		// same neighbors
+		final Map<Integer, List<Integer>> expected = collectNeighbors(processor);
+		final Map<Integer, List<Integer>> actual = collectNeighbors(gridProcessor);
+		assertEquals(
+				expected,
+				actual);
+		int neighborCount = 0;
+		for (final List<Integer> neighbors : expected.values()) {
+			neighborCount += neighbors.size();
+		}
+		assertTrue(neighborCount > 1000);
+	}
+
+	@Test
+	public void testGridUnsupportedDistanceFn()
+			throws IOException,
+			InterruptedException {
+		final Random random = new Random(
+				8675);
+		final List<Integer> values = new ArrayList<Integer>();
+		for (int i = 0; i < 2000; i++) {
+			values.add(random.nextInt(100000));
+		}
+		// the envelopes are too small for the scaled distance, so the grid is
+		// not used and every item within a partition is compared
+		final DistanceFn<Integer> distanceFn = new ScaledDistanceFn();
+		final NNProcessor<Integer, Integer> processor = buildProcessor(
+				distanceFn,
+				20);
+		final NNProcessor<Integer, Integer> gridProcessor = buildProcessor(
+				distanceFn,
+				20);
+		gridProcessor.setNeighborEnvelopeFn(
+				new IntegerEnvelopeFn(),
+				distanceFn);
+		for (final Integer v : values) {
+			addToProcess(
+					processor,
+					v);
+			addToProcess(
+					gridProcessor,
+					v);
+		}
+		final Map<Integer, List<Integer>> expected = collectNeighbors(processor);
+		final Map<Integer, List<Integer>> actual = collectNeighbors(gridProcessor);
+		assertEquals(
+				expected,
+				actual);
+		// some of the neighbors are further apart than the grid cells that
+		// the envelopes span
+		boolean outsideEnvelope = false;
+		for (final Entry<Integer, List<Integer>> entry : actual.entrySet()) {
+			for (final Integer neighbor : entry.getValue()) {
+				outsideEnvelope |= Math.abs(entry.getKey() - neighbor) > 100;
+			}
+		}
+		assertTrue(outsideEnvelope);
+	}
+
+	@Test
+	public void testGridAfterRemove()
+			throws IOException,
+			InterruptedException {
+		final NNProcessor<Integer, Integer> processor = buildProcessor();
+		processor.setNeighborEnvelopeFn(
+				new IntegerEnvelopeFn(),
+				new IntegerDistanceFn());
+		final Map<Integer, Integer> neighborCounts = new HashMap<Integer, Integer>();
+		runProcess(
+				processor,
+				new CompleteNotifier<Integer>() {
+					@Override
+					public void complete(
+							final ByteArrayId id,
+							final Integer value,
+							final NeighborList<Integer> list )
+							throws IOException,
+							InterruptedException {
+						neighborCounts.put(
+								value,
+								list.size());
+						// the neighbor is not offered to later primaries
+						final Iterator<Entry<ByteArrayId, Integer>> it = list.iterator();
+						while (it.hasNext()) {
+							processor.remove(it.next().getKey());
+						}
+						processor.remove(id);
+					}
+				});
+		assertEquals(
+				0,
+				processor.size());
+		// items added after a run are found by the next run
+		runProcess(
+				processor,
+				new CompleteNotifier<Integer>() {
+					@Override
+					public void complete(
+							final ByteArrayId id,
+							final Integer value,
+							final NeighborList<Integer> list )
+							throws IOException,
+							InterruptedException {
+						assertEquals(
+								expectedResults.get(
+										value).size(),
+								list.size());
+					}
+				});
+	}
+
+	private static Map<Integer, List<Integer>> collectNeighbors(
+			final NNProcessor<Integer, Integer> processor )
+			throws IOException,
+			InterruptedException {
+		final Map<Integer, List<Integer>> results = new HashMap<Integer, List<Integer>>();
+		processor.process(
+				new NeighborListFactory<Integer>() {
+					@Override
+					public NeighborList<Integer> buildNeighborList(
+							final ByteArrayId cnterId,
+							final Integer center ) {
+						return new DefaultNeighborList<Integer>();
+					}
+				},
+				new CompleteNotifier<Integer>() {
+					@Override
+					public void complete(
+							final ByteArrayId id,
+							final Integer value,
+							final NeighborList<Integer> list )
+							throws IOException,
+							InterruptedException {
+						final List<Integer> neighbors = new ArrayList<Integer>();
+						final Iterator<Entry<ByteArrayId, Integer>> it = list.iterator();
+						while (it.hasNext()) {
+							neighbors.add(it.next().getValue());
+						}
+						Collections.sort(neighbors);
+						results.put(
+								value,
+								neighbors);
+					}
+				});
+		return results;
+	}
+
 	@Test
 	public void testRemoveOp()
 			throws IOException,
@@ -294,6 +517,65 @@ public class NNProcessorTest
 
 	}
 
+	private static class IntegerEnvelopeFn implements
+			NeighborEnvelopeFn<Integer>
+	{
+		@Override
+		public MultiDimensionalNumericData getEnvelope(
+				final Integer item,
+				final double maxDistance ) {
+			return new BasicNumericDataset(
+					new NumericData[] {
+						new NumericRange(
+								item.doubleValue() - (maxDistance / 2),
+								item.doubleValue() + (maxDistance / 2))
+					});
+		}
+
+		@Override
+		public double[] getCellSizePerDimension(
+				final double maxDistance ) {
+			return new double[] {
+				maxDistance
+			};
+		}
+
+		@Override
+		public boolean supports(
+				final DistanceFn<Integer> distanceFn ) {
+			return distanceFn instanceof IntegerDistanceFn;
+		}
+	}
+
+	private static class IntegerDistanceFn implements
+			DistanceFn<Integer>
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double measure(
+				final Integer x,
+				final Integer y ) {
+			return Math.abs(x.doubleValue() - y.doubleValue());
+		}
+	}
+
+	/**
+	 * Measures in tenths of the units of the items
+	 */
+	private static class ScaledDistanceFn implements
+			DistanceFn<Integer>
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double measure(
+				final Integer x,
+				final Integer y ) {
+			return Math.abs(x.doubleValue() - y.doubleValue()) / 10;
+		}
+	}
+
 	private static ByteArrayId partition(
 			final Integer v ) {
 		return new ByteArrayId(
@@ -0,0 +1,170 @@
+package mil.nga.giat.geowave.analytic.nn;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import mil.nga.giat.geowave.analytic.distance.CoordinateCircleDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.CoordinateCosineDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.CoordinateEuclideanDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureCentroidDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureCentroidOrthodromicDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.FeatureGeometryDistanceFn;
+import mil.nga.giat.geowave.analytic.distance.GeometryCentroidDistanceFn;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+
+import org.junit.Test;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+
+public class OrthodromicNeighborEnvelopeFnTest
+{
+	private static final double MEAN_EARTH_RADIUS = 6371008.8;
+	private static final GeometryFactory FACTORY = new GeometryFactory();
+
+	private final OrthodromicNeighborEnvelopeFn<Geometry> envelopeFn = new OrthodromicNeighborEnvelopeFn<Geometry>() {
+		@Override
+		protected Geometry getGeometry(
+				final Geometry item ) {
+			return item;
+		}
+
+		@Override
+		public boolean supports(
+				final DistanceFn<Geometry> distanceFn ) {
+			return (distanceFn instanceof GeometryCentroidDistanceFn)
+					&& isOrthodromic(((GeometryCentroidDistanceFn) distanceFn).getCoordinateDistanceFunction());
+		}
+	};
+
+	@Test
+	public void testSupportedDistanceFns() {
+		final SimpleFeatureNeighborEnvelopeFn featureEnvelopeFn = new SimpleFeatureNeighborEnvelopeFn();
+		assertTrue(featureEnvelopeFn.supports(new FeatureGeometryDistanceFn()));
+		assertTrue(featureEnvelopeFn.supports(new FeatureDistanceFn()));
+		assertTrue(featureEnvelopeFn.supports(new FeatureCentroidOrthodromicDistanceFn()));
+		// distances in degrees or of another kind are not bounded by the
+		// envelopes
+		assertFalse(featureEnvelopeFn.supports(new FeatureGeometryDistanceFn(
+				new CoordinateEuclideanDistanceFn())));
+		assertFalse(featureEnvelopeFn.supports(new FeatureCentroidDistanceFn()));
+		assertFalse(featureEnvelopeFn.supports(new FeatureCentroidDistanceFn(
+				new CoordinateCosineDistanceFn())));
+		assertFalse(featureEnvelopeFn.supports(null));
+		assertTrue(envelopeFn.supports(new GeometryCentroidDistanceFn(
+				new CoordinateCircleDistanceFn())));
+		assertFalse(envelopeFn.supports(new GeometryCentroidDistanceFn()));
+	}
+
+	@Test
+	public void testNeighborsIntersect() {
+		final Random random = new Random(
+				4321);
+		for (final double maxDistance : new double[] {
+			100,
+			10000,
+			1000000
+		}) {
+			for (int i = 0; i < 20000; i++) {
+				final double lat;
+				final double lon;
+				switch (i % 3) {
+					case 0:
+						// near the poles
+						lat = Math.copySign(
+								90 - (random.nextDouble() * 2),
+								random.nextDouble() - 0.5);
+						lon = (random.nextDouble() * 360) - 180;
+						break;
+					case 1:
+						// near the anti-meridian
+						lat = (random.nextDouble() * 160) - 80;
+						lon = Math.copySign(
+								180 - (random.nextDouble() * 2),
+								random.nextDouble() - 0.5);
+						break;
+					default:
+						lat = (random.nextDouble() * 180) - 90;
+						lon = (random.nextDouble() * 360) - 180;
+				}
+				final Coordinate neighbor = destination(
+						lon,
+						lat,
+						random.nextDouble() * 2 * Math.PI,
+						random.nextDouble() * maxDistance);
+				final MultiDimensionalNumericData envelope1 = envelopeFn.getEnvelope(
+						FACTORY.createPoint(new Coordinate(
+								lon,
+								lat)),
+						maxDistance);
+				final MultiDimensionalNumericData envelope2 = envelopeFn.getEnvelope(
+						FACTORY.createPoint(neighbor),
+						maxDistance);
+				assertTrue(
+						"(" + lon + "," + lat + ") and (" + neighbor.x + "," + neighbor.y + ")",
+						intersects(
+								envelope1,
+								envelope2));
+			}
+		}
+	}
+
+	@Test
+	public void testCellSize() {
+		// a point at the equator spans a single cell in each dimension
+		final double[] cellSize = envelopeFn.getCellSizePerDimension(1000);
+		final MultiDimensionalNumericData envelope = envelopeFn.getEnvelope(
+				FACTORY.createPoint(new Coordinate(
+						0,
+						0)),
+				1000);
+		for (int d = 0; d < 2; d++) {
+			final NumericData range = envelope.getDataPerDimension()[d];
+			assertTrue((range.getMax() - range.getMin()) <= (cellSize[d] * 1.0001));
+		}
+	}
+
+	private static boolean intersects(
+			final MultiDimensionalNumericData envelope1,
+			final MultiDimensionalNumericData envelope2 ) {
+		for (int d = 0; d < 2; d++) {
+			final NumericData range1 = envelope1.getDataPerDimension()[d];
+			final NumericData range2 = envelope2.getDataPerDimension()[d];
+			if ((range1.getMax() < range2.getMin()) || (range2.getMax() < range1.getMin())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * the point at the given distance and bearing on a sphere
+	 */
+	private static Coordinate destination(
+			final double lon,
+			final double lat,
+			final double bearing,
+			final double distance ) {
+		final double angle = distance / MEAN_EARTH_RADIUS;
+		final double lat1 = Math.toRadians(lat);
+		final double lat2 = Math.asin((Math.sin(lat1) * Math.cos(angle)) + (Math.cos(lat1) * Math.sin(angle) * Math.cos(bearing)));
+		double lon2 = lon + Math.toDegrees(Math.atan2(
+				Math.sin(bearing) * Math.sin(angle) * Math.cos(lat1),
+				Math.cos(angle) - (Math.sin(lat1) * Math.sin(lat2))));
+		if (lon2 > 180) {
+			lon2 -= 360;
+		}
+		else if (lon2 < -180) {
+			lon2 += 360;
+		}
+		return new Coordinate(
+				lon2,
+				Math.toDegrees(lat2));
+	}
+}
@@ -0,0 +1,27 @@
+package mil.nga.giat.geowave.analytic.mapreduce.dbscan;
+
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
+import mil.nga.giat.geowave.analytic.nn.OrthodromicNeighborEnvelopeFn;
+
+import com.vividsolutions.jts.geom.Geometry;
+
+/**
+ * The envelope of the geometry of a cluster item, as measured by
+ * ClusterItemDistanceFn.
+ */
+public class ClusterItemNeighborEnvelopeFn extends
+		OrthodromicNeighborEnvelopeFn<ClusterItem>
+{
+	@Override
+	protected Geometry getGeometry(
+			final ClusterItem item ) {
+		return item.getGeometry();
+	}
+
+	@Override
+	public boolean supports(
+			final DistanceFn<ClusterItem> distanceFn ) {
+		return (distanceFn != null) && ClusterItemDistanceFn.class.equals(distanceFn.getClass())
+				&& isOrthodromic(((ClusterItemDistanceFn) distanceFn).getCoordinateDistanceFunction());
+	}
+}
@@ -26,6 +26,7 @@ import mil.nga.giat.geowave.analytic.mapreduce.nn.NNMapReduce.NNReducer;
 import mil.nga.giat.geowave.analytic.mapreduce.nn.NNMapReduce.PartitionDataWritable;
 import mil.nga.giat.geowave.analytic.nn.NNProcessor;
 import mil.nga.giat.geowave.analytic.nn.NNProcessor.CompleteNotifier;
+import mil.nga.giat.geowave.analytic.nn.NeighborEnvelopeFn;
 import mil.nga.giat.geowave.analytic.nn.NeighborList;
 import mil.nga.giat.geowave.analytic.nn.NeighborListFactory;
 import mil.nga.giat.geowave.analytic.nn.TypeConverter;
@@ -94,6 +95,11 @@ public class DBScanMapReduce
 			return new HashMap<ByteArrayId, Cluster>();
 		}
 
+		@Override
+		protected NeighborEnvelopeFn<ClusterItem> createNeighborEnvelopeFn() {
+			return new ClusterItemNeighborEnvelopeFn();
+		}
+
 		@Override
 		protected void processNeighbors(
 				final PartitionData partitionData,
@@ -75,6 +75,7 @@ public class NNJobRunner extends
 					Partition.SECONDARY_PARTITIONER_CLASS,
 					Partition.MAX_DISTANCE,
 					Partition.MAX_MEMBER_SELECTION,
+					Partition.NEIGHBOR_GRID,
 					Partition.GEOMETRIC_DISTANCE_UNIT,
 					Partition.DISTANCE_THRESHOLDS,
 					CommonParameters.Common.DISTANCE_FUNCTION_CLASS
@@ -97,6 +98,7 @@ public class NNJobRunner extends
 			Partition.MAX_DISTANCE,
 			Partition.SECONDARY_PARTITIONER_CLASS,
 			Partition.MAX_MEMBER_SELECTION,
+			Partition.NEIGHBOR_GRID,
 			Partition.GEOMETRIC_DISTANCE_UNIT,
 			Partition.DISTANCE_THRESHOLDS,
 			CommonParameters.Common.DISTANCE_FUNCTION_CLASS
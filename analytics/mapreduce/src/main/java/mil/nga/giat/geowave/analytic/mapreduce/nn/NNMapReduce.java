@@ -21,8 +21,10 @@ import mil.nga.giat.geowave.analytic.nn.DistanceProfile;
 import mil.nga.giat.geowave.analytic.nn.DistanceProfileGenerateFn;
 import mil.nga.giat.geowave.analytic.nn.NNProcessor;
 import mil.nga.giat.geowave.analytic.nn.NNProcessor.CompleteNotifier;
+import mil.nga.giat.geowave.analytic.nn.NeighborEnvelopeFn;
 import mil.nga.giat.geowave.analytic.nn.NeighborList;
 import mil.nga.giat.geowave.analytic.nn.NeighborListFactory;
+import mil.nga.giat.geowave.analytic.nn.SimpleFeatureNeighborEnvelopeFn;
 import mil.nga.giat.geowave.analytic.nn.TypeConverter;
 import mil.nga.giat.geowave.analytic.param.CommonParameters;
 import mil.nga.giat.geowave.analytic.param.ParameterEnum;
@@ -104,6 +106,10 @@ import com.google.common.primitives.SignedBytes;
  *                <p/>
  *                "NNMapReduce.Partition.PartitionDistance" -> Maximum distance
  *                between item and its neighbors. (double)
+ *                <p/>
+ *                "NNMapReduce.Partition.NeighborGrid" -> Only compare items
+ *                whose envelopes are near each other, for distance functions
+ *                measuring meters between geometries (boolean)
  * 
  * 
  * @formatter:on
@@ -210,6 +216,7 @@ public class NNMapReduce
 		protected double maxDistance = 1.0;
 		protected int maxNeighbors = Integer.MAX_VALUE;
 		protected Partitioner<Object> partitioner;
+		protected NeighborEnvelopeFn<VALUEIN> neighborEnvelopeFn = null;
 
 		protected TypeConverter<VALUEIN> typeConverter = new TypeConverter<VALUEIN>() {
 
@@ -241,6 +248,17 @@ public class NNMapReduce
 					key.partitionData);
 
 			processor.setUpperBoundPerPartition(maxNeighbors);
+			if ((neighborEnvelopeFn != null) && !neighborEnvelopeFn.supports(distanceFn)) {
+				// checked here rather than in setup, as subclasses may set the
+				// distance function after setup, and only warned about once
+				// rather than for every partition
+				LOGGER.warn("Neighbor grid does not support the distance function " + distanceFn.getClass().getName()
+						+ ", all items within a partition are compared");
+				neighborEnvelopeFn = null;
+			}
+			processor.setNeighborEnvelopeFn(
+					neighborEnvelopeFn,
+					distanceFn);
 
 			final PARTITION_SUMMARY summary = createSummary();
 
@@ -295,6 +313,15 @@ public class NNMapReduce
 			return new DefaultNeighborList.DefaultNeighborListFactory<VALUEIN>();
 		}
 
+		/**
+		 * 
+		 * @return the envelope of the values, used when the neighbor grid is
+		 *         enabled, or null if the values have no envelope
+		 */
+		protected NeighborEnvelopeFn<VALUEIN> createNeighborEnvelopeFn() {
+			return null;
+		}
+
 		/**
 		 * 
 		 * @param primaries
@@ -408,6 +435,15 @@ public class NNMapReduce
 			LOGGER.info(
 					"Maximum Neighbors = {}",
 					maxNeighbors);
+
+			if (config.getBoolean(
+					PartitionParameters.Partition.NEIGHBOR_GRID,
+					false)) {
+				neighborEnvelopeFn = createNeighborEnvelopeFn();
+				if (neighborEnvelopeFn == null) {
+					LOGGER.warn("Neighbor grid is not supported by " + getClass().getName());
+				}
+			}
 		}
 
 		protected class LocalDistanceProfileGenerateFn implements
@@ -496,6 +532,11 @@ public class NNMapReduce
 			return Boolean.TRUE;
 		}
 
+		@Override
+		protected NeighborEnvelopeFn<SimpleFeature> createNeighborEnvelopeFn() {
+			return new SimpleFeatureNeighborEnvelopeFn();
+		}
+
 		@Override
 		protected void processSummary(
 				final PartitionData partitionData,
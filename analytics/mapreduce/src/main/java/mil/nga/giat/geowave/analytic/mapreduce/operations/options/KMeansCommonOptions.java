@@ -47,6 +47,13 @@ public class KMeansCommonOptions
 	}, description = "Zoom Level Number")
 	private String centroidZoomLevel;
 
+	@CentroidParameter(CentroidParameters.Centroid.ASSOCIATION_FUNCTION_CLASS)
+	@Parameter(names = {
+		"-caf",
+		"--centroidAssociationFunctionClass"
+	}, description = "Centroid Association Function Class extends mil.nga.giat.geowave.analytic.kmeans.CentroidAssociationFn")
+	private String centroidAssociationFunctionClass;
+
 	@ClusteringParameter(ClusteringParameters.Clustering.CONVERGANCE_TOLERANCE)
 	@Parameter(names = {
 		"-cct",
@@ -202,6 +209,15 @@ public class KMeansCommonOptions
 		this.centroidZoomLevel = centroidZoomLevel;
 	}
 
+	public String getCentroidAssociationFunctionClass() {
+		return centroidAssociationFunctionClass;
+	}
+
+	public void setCentroidAssociationFunctionClass(
+			String centroidAssociationFunctionClass ) {
+		this.centroidAssociationFunctionClass = centroidAssociationFunctionClass;
+	}
+
 	public String getClusteringConverganceTolerance() {
 		return clusteringConverganceTolerance;
 	}
@@ -0,0 +1,128 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.analytic.AnalyticItemWrapper;
+import mil.nga.giat.geowave.analytic.clustering.CentroidPairing;
+import mil.nga.giat.geowave.analytic.clustering.LongCentroid;
+import mil.nga.giat.geowave.analytic.distance.DistanceFn;
+import mil.nga.giat.geowave.analytic.kmeans.AssociationNotification;
+import mil.nga.giat.geowave.analytic.kmeans.CentroidAssociationFn;
+import mil.nga.giat.geowave.analytic.kmeans.PrunedCentroidAssociationFn;
+
+/**
+ * Measures one K-Means iteration, associating a split of points read in index
+ * order with their closest centroid, exhaustively and with pruning.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CentroidAssociationBenchmark
+{
+	private static final int POINT_COUNT = 20000;
+
+	@Param({
+		"exhaustive",
+		"pruned"
+	})
+	public String associationFn;
+
+	@Param({
+		"30",
+		"300"
+	})
+	public int centroidCount;
+
+	private CentroidAssociationFn<Long> fn;
+	private List<AnalyticItemWrapper<Long>> points;
+	private List<AnalyticItemWrapper<Long>> centroids;
+	private final AssociationNotification<Long> notification = new AssociationNotification<Long>() {
+		@Override
+		public void notify(
+				final CentroidPairing<Long> pairing ) {}
+	};
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(
+				7583);
+		points = createItems(
+				random,
+				POINT_COUNT);
+		// points of a split are read in index order
+		Collections.sort(
+				points,
+				new Comparator<AnalyticItemWrapper<Long>>() {
+					@Override
+					public int compare(
+							final AnalyticItemWrapper<Long> o1,
+							final AnalyticItemWrapper<Long> o2 ) {
+						return o1.getWrappedItem().compareTo(
+								o2.getWrappedItem());
+					}
+				});
+		centroids = createItems(
+				random,
+				centroidCount);
+		fn = "pruned".equals(associationFn) ? new PrunedCentroidAssociationFn<Long>()
+				: new CentroidAssociationFn<Long>();
+		fn.setDistanceFunction(new LongDistanceFn());
+	}
+
+	@Benchmark
+	public double associate() {
+		// the centroids move between iterations, so each iteration is given a
+		// new set of centroids
+		return fn.compute(
+				points,
+				new ArrayList<AnalyticItemWrapper<Long>>(
+						centroids),
+				notification);
+	}
+
+	private static List<AnalyticItemWrapper<Long>> createItems(
+			final Random random,
+			final int count ) {
+		final List<AnalyticItemWrapper<Long>> items = new ArrayList<AnalyticItemWrapper<Long>>();
+		for (int i = 0; i < count; i++) {
+			items.add(new LongCentroid(
+					random.nextInt(1000000),
+					"",
+					0));
+		}
+		return items;
+	}
+
+	private static class LongDistanceFn implements
+			DistanceFn<Long>
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public double measure(
+				final Long x,
+				final Long y ) {
+			return Math.abs(x.longValue() - y.longValue());
+		}
+	}
+}
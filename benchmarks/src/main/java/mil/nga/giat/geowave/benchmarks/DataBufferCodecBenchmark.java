@@ -0,0 +1,94 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferFloat;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.adapter.raster.adapter.DataBufferCodec;
+import mil.nga.giat.geowave.adapter.raster.adapter.DataBufferCodec.Compression;
+
+/**
+ * Measures encoding and decoding the data buffer of a three band 256x256 raster
+ * tile with each compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataBufferCodecBenchmark
+{
+	private static final int TILE_SIZE = 256;
+	private static final int NUM_BANKS = 3;
+
+	@Param({
+		"BYTE",
+		"FLOAT"
+	})
+	public String dataType;
+
+	@Param({
+		"NONE",
+		"DEFLATE"
+	})
+	public Compression compression;
+
+	private DataBuffer dataBuffer;
+	private byte[] binary;
+
+	@Setup
+	public void setup() {
+		final int size = TILE_SIZE * TILE_SIZE;
+		if ("BYTE".equals(dataType)) {
+			dataBuffer = new DataBufferByte(
+					size,
+					NUM_BANKS);
+		}
+		else {
+			dataBuffer = new DataBufferFloat(
+					size,
+					NUM_BANKS);
+		}
+		final Random random = new Random(
+				3298L);
+		for (int b = 0; b < NUM_BANKS; b++) {
+			for (int i = 0; i < size; i++) {
+				// mostly smooth values, like imagery, with some noise
+				dataBuffer.setElemDouble(
+						b,
+						i,
+						((i / TILE_SIZE) + (i % TILE_SIZE) + random.nextInt(4)) % 250);
+			}
+		}
+		binary = DataBufferCodec.encode(
+				dataBuffer,
+				compression);
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		return DataBufferCodec.encode(
+				dataBuffer,
+				compression);
+	}
+
+	@Benchmark
+	public DataBuffer decode() {
+		return DataBufferCodec.decode(binary);
+	}
+}
@@ -0,0 +1,100 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.filter.DedupeFilter;
+import mil.nga.giat.geowave.core.store.filter.FingerprintDedupeFilter;
+
+/**
+ * Measures the default and the fingerprint de-duplication filters. Run with
+ * "-prof gc" to compare the heap allocated per filled filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DedupeFilterBenchmark
+{
+	private static final int NUM_ENTRIES = 100000;
+
+	@Param({
+		"default",
+		"fingerprint"
+	})
+	public String filterType;
+
+	private IndexedPersistenceEncoding<Object>[] entries;
+	private DedupeFilter filter;
+	private int entryIndex = 0;
+
+	@SuppressWarnings("unchecked")
+	@Setup
+	public void setup() {
+		entries = new IndexedPersistenceEncoding[NUM_ENTRIES];
+		for (int i = 0; i < NUM_ENTRIES; i++) {
+			entries[i] = new IndexedPersistenceEncoding<Object>(
+					new ByteArrayId(
+							"adapter"),
+					new ByteArrayId(
+							"feature-data-id-" + i),
+					new ByteArrayId(
+							"row"),
+					1,
+					null,
+					null);
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void setupFilter() {
+		filter = createFilter();
+		entryIndex = 0;
+	}
+
+	/**
+	 * accepts each entry once and then revisits the entries as duplicates
+	 */
+	@Benchmark
+	public boolean accept() {
+		entryIndex = (entryIndex + 1) % NUM_ENTRIES;
+		return filter.accept(
+				null,
+				entries[entryIndex]);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public DedupeFilter fill() {
+		final DedupeFilter filledFilter = createFilter();
+		for (final IndexedPersistenceEncoding<Object> entry : entries) {
+			filledFilter.accept(
+					null,
+					entry);
+		}
+		return filledFilter;
+	}
+
+	private DedupeFilter createFilter() {
+		if ("fingerprint".equals(filterType)) {
+			return new FingerprintDedupeFilter();
+		}
+		return new DedupeFilter();
+	}
+}
@@ -0,0 +1,131 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vividsolutions.jts.geom.Coordinate;
+
+import mil.nga.giat.geowave.adapter.vector.FeatureDataAdapter;
+import mil.nga.giat.geowave.core.geotime.GeometryUtils;
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialDimensionalityTypeProvider.SpatialIndexBuilder;
+import mil.nga.giat.geowave.core.store.adapter.AdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.data.PersistentDataset;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
+
+/**
+ * Measures the per feature cost of ingest (encoding a feature and generating
+ * its rows) and of decoding a feature from the fields read back from a row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FeatureDataAdapterBenchmark
+{
+	private FeatureDataAdapter adapter;
+	private PrimaryIndex index;
+	private SimpleFeature feature;
+	private IndexedAdapterPersistenceEncoding encoding;
+
+	@Setup
+	public void setup()
+			throws SchemaException {
+		final SimpleFeatureType type = DataUtilities.createType(
+				"benchmark",
+				"geometry:Point:srid=4326,name:String,count:java.lang.Long,value:Double,when:Date");
+		adapter = new FeatureDataAdapter(
+				type);
+		index = new SpatialIndexBuilder().createIndex();
+		feature = createFeature(
+				type,
+				"feature1",
+				-77.03,
+				38.89);
+		final AdapterPersistenceEncoding adapterEncoding = adapter.encode(
+				feature,
+				index.getIndexModel());
+		encoding = new IndexedAdapterPersistenceEncoding(
+				adapter.getAdapterId(),
+				adapter.getDataId(feature),
+				adapterEncoding.getInsertionIds(
+						index).get(
+						0),
+				0,
+				adapterEncoding.getCommonData(),
+				new PersistentDataset<byte[]>(),
+				adapterEncoding.getAdapterExtendedData());
+	}
+
+	static SimpleFeature createFeature(
+			final SimpleFeatureType type,
+			final String id,
+			final double x,
+			final double y ) {
+		final SimpleFeatureBuilder builder = new SimpleFeatureBuilder(
+				type);
+		builder.set(
+				"geometry",
+				GeometryUtils.GEOMETRY_FACTORY.createPoint(new Coordinate(
+						x,
+						y)));
+		builder.set(
+				"name",
+				id);
+		builder.set(
+				"count",
+				Long.valueOf(42));
+		builder.set(
+				"value",
+				Double.valueOf(x * y));
+		builder.set(
+				"when",
+				new Date(
+						1136214245000L));
+		return builder.buildFeature(id);
+	}
+
+	@Benchmark
+	public AdapterPersistenceEncoding encode() {
+		return adapter.encode(
+				feature,
+				index.getIndexModel());
+	}
+
+	@Benchmark
+	public SimpleFeature decode() {
+		return adapter.decode(
+				encoding,
+				index);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Benchmark
+	public DataStoreEntryInfo getIngestInfo() {
+		return DataStoreUtils.getIngestInfo(
+				adapter,
+				index,
+				feature,
+				DataStoreUtils.UNCONSTRAINED_VISIBILITY);
+	}
+}
@@ -0,0 +1,123 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vividsolutions.jts.geom.Coordinate;
+import com.vividsolutions.jts.geom.Geometry;
+
+import mil.nga.giat.geowave.core.geotime.GeometryUtils;
+import mil.nga.giat.geowave.core.store.data.field.FieldReader;
+import mil.nga.giat.geowave.core.store.data.field.FieldUtils;
+import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+
+/**
+ * Measures the default field readers and writers registered through the field
+ * serialization providers for common attribute types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class FieldSerializationBenchmark
+{
+	private final Double doubleValue = 1234.5678;
+	private final String stringValue = "a typical attribute value";
+	private final Date dateValue = new Date(
+			1136214245000L);
+	private Geometry geometryValue;
+
+	private FieldWriter<?, Double> doubleWriter;
+	private FieldReader<Double> doubleReader;
+	private FieldWriter<?, String> stringWriter;
+	private FieldReader<String> stringReader;
+	private FieldWriter<?, Date> dateWriter;
+	private FieldReader<Date> dateReader;
+	private FieldWriter<?, Geometry> geometryWriter;
+	private FieldReader<Geometry> geometryReader;
+
+	private byte[] doubleBinary;
+	private byte[] stringBinary;
+	private byte[] dateBinary;
+	private byte[] geometryBinary;
+
+	@Setup
+	public void setup() {
+		geometryValue = GeometryUtils.GEOMETRY_FACTORY.createLineString(new Coordinate[] {
+			new Coordinate(
+					-77.1,
+					38.8),
+			new Coordinate(
+					-77.0,
+					38.9),
+			new Coordinate(
+					-76.9,
+					38.85)
+		});
+		doubleWriter = FieldUtils.getDefaultWriterForClass(Double.class);
+		doubleReader = FieldUtils.getDefaultReaderForClass(Double.class);
+		stringWriter = FieldUtils.getDefaultWriterForClass(String.class);
+		stringReader = FieldUtils.getDefaultReaderForClass(String.class);
+		dateWriter = FieldUtils.getDefaultWriterForClass(Date.class);
+		dateReader = FieldUtils.getDefaultReaderForClass(Date.class);
+		geometryWriter = FieldUtils.getDefaultWriterForClass(Geometry.class);
+		geometryReader = FieldUtils.getDefaultReaderForClass(Geometry.class);
+		doubleBinary = doubleWriter.writeField(doubleValue);
+		stringBinary = stringWriter.writeField(stringValue);
+		dateBinary = dateWriter.writeField(dateValue);
+		geometryBinary = geometryWriter.writeField(geometryValue);
+	}
+
+	@Benchmark
+	public byte[] writeDouble() {
+		return doubleWriter.writeField(doubleValue);
+	}
+
+	@Benchmark
+	public Double readDouble() {
+		return doubleReader.readField(doubleBinary);
+	}
+
+	@Benchmark
+	public byte[] writeString() {
+		return stringWriter.writeField(stringValue);
+	}
+
+	@Benchmark
+	public String readString() {
+		return stringReader.readField(stringBinary);
+	}
+
+	@Benchmark
+	public byte[] writeDate() {
+		return dateWriter.writeField(dateValue);
+	}
+
+	@Benchmark
+	public Date readDate() {
+		return dateReader.readField(dateBinary);
+	}
+
+	@Benchmark
+	public byte[] writeGeometry() {
+		return geometryWriter.writeField(geometryValue);
+	}
+
+	@Benchmark
+	public Geometry readGeometry() {
+		return geometryReader.readField(geometryBinary);
+	}
+}
@@ -0,0 +1,127 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+
+import mil.nga.giat.geowave.adapter.vector.FeatureDataAdapter;
+import mil.nga.giat.geowave.core.geotime.GeometryUtils;
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialDimensionalityTypeProvider.SpatialIndexBuilder;
+import mil.nga.giat.geowave.core.geotime.store.query.SpatialQuery;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.IndexWriter;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.memory.MemoryDataStore;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+
+/**
+ * Measures spatial queries of a small and a large extent against an in memory
+ * data store, which exercises query planning, the index scan, filtering and
+ * decoding without the cost of a cluster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MemoryDataStoreBenchmark
+{
+	@Param({
+		"100000"
+	})
+	public int numFeatures;
+
+	private MemoryDataStore dataStore;
+	private FeatureDataAdapter adapter;
+	private PrimaryIndex index;
+	private Geometry smallQueryGeometry;
+	private Geometry largeQueryGeometry;
+
+	@SuppressWarnings("unchecked")
+	@Setup
+	public void setup()
+			throws SchemaException,
+			IOException {
+		final SimpleFeatureType type = DataUtilities.createType(
+				"benchmark",
+				"geometry:Point:srid=4326,name:String,count:java.lang.Long,value:Double,when:Date");
+		adapter = new FeatureDataAdapter(
+				type);
+		index = new SpatialIndexBuilder().createIndex();
+		dataStore = new MemoryDataStore();
+		final Random random = new Random(
+				7L);
+		try (IndexWriter writer = dataStore.createWriter(
+				adapter,
+				index)) {
+			for (int i = 0; i < numFeatures; i++) {
+				final SimpleFeature feature = FeatureDataAdapterBenchmark.createFeature(
+						type,
+						"feature" + i,
+						(random.nextDouble() * 60) - 120,
+						(random.nextDouble() * 30) + 20);
+				writer.write(feature);
+			}
+		}
+		smallQueryGeometry = GeometryUtils.GEOMETRY_FACTORY.toGeometry(new Envelope(
+				-77.5,
+				-76.5,
+				38.5,
+				39.5));
+		largeQueryGeometry = GeometryUtils.GEOMETRY_FACTORY.toGeometry(new Envelope(
+				-100,
+				-80,
+				30,
+				40));
+	}
+
+	@Benchmark
+	public int querySmallExtent()
+			throws IOException {
+		return query(smallQueryGeometry);
+	}
+
+	@Benchmark
+	public int queryLargeExtent()
+			throws IOException {
+		return query(largeQueryGeometry);
+	}
+
+	private int query(
+			final Geometry queryGeometry )
+			throws IOException {
+		int count = 0;
+		try (CloseableIterator<SimpleFeature> it = dataStore.query(
+				new QueryOptions(
+						adapter,
+						index),
+				new SpatialQuery(
+						queryGeometry))) {
+			while (it.hasNext()) {
+				it.next();
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,68 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialDimensionalityTypeProvider.SpatialIndexBuilder;
+import mil.nga.giat.geowave.core.index.NumericIndexStrategy;
+import mil.nga.giat.geowave.core.index.PersistenceUtils;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+
+/**
+ * Measures the generic persistence of an index and of its index strategy,
+ * which is what is (de)serialized when metadata is read and when queries and
+ * indices are distributed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PersistenceUtilsBenchmark
+{
+	private PrimaryIndex index;
+	private byte[] indexBinary;
+	private byte[] indexStrategyBinary;
+
+	@Setup
+	public void setup() {
+		index = new SpatialIndexBuilder().createIndex();
+		indexBinary = PersistenceUtils.toBinary(index);
+		indexStrategyBinary = PersistenceUtils.toBinary(index.getIndexStrategy());
+	}
+
+	@Benchmark
+	public byte[] indexToBinary() {
+		return PersistenceUtils.toBinary(index);
+	}
+
+	@Benchmark
+	public PrimaryIndex indexFromBinary() {
+		return PersistenceUtils.fromBinary(
+				indexBinary,
+				PrimaryIndex.class);
+	}
+
+	@Benchmark
+	public byte[] indexStrategyToBinary() {
+		return PersistenceUtils.toBinary(index.getIndexStrategy());
+	}
+
+	@Benchmark
+	public NumericIndexStrategy indexStrategyFromBinary() {
+		return PersistenceUtils.fromBinary(
+				indexStrategyBinary,
+				NumericIndexStrategy.class);
+	}
+}
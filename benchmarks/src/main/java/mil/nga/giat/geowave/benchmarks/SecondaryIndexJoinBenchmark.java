@@ -0,0 +1,130 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.adapter.vector.FeatureDataAdapter;
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialDimensionalityTypeProvider.SpatialIndexBuilder;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.IndexWriter;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.memory.MemoryDataStore;
+import mil.nga.giat.geowave.core.store.util.SecondaryIndexJoinIterator;
+
+/**
+ * Measures resolving the entries of a selective attribute query on a 'JOIN'
+ * secondary index to the features of the primary index, one row ID query per
+ * entry (a batch size of 1) and in batches. The secondary index scan itself
+ * needs a cluster, so the join entries that scan would return are prepared up
+ * front, referencing the insertion IDs the in memory data store matches row
+ * ID queries against.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SecondaryIndexJoinBenchmark
+{
+	private static final int NUM_FEATURES = 10000;
+
+	@Param({
+		"1",
+		"1000"
+	})
+	public int batchSize;
+
+	/**
+	 * the number of features matching the attribute query
+	 */
+	@Param({
+		"10",
+		"100"
+	})
+	public int numMatches;
+
+	private MemoryDataStore dataStore;
+	private FeatureDataAdapter adapter;
+	private List<Pair<ByteArrayId, ByteArrayId>> joinEntries;
+
+	@SuppressWarnings("unchecked")
+	@Setup
+	public void setup()
+			throws SchemaException,
+			IOException {
+		final SimpleFeatureType type = DataUtilities.createType(
+				"benchmark",
+				"geometry:Point:srid=4326,name:String,count:java.lang.Long,value:Double,when:Date");
+		adapter = new FeatureDataAdapter(
+				type);
+		final PrimaryIndex index = new SpatialIndexBuilder().createIndex();
+		dataStore = new MemoryDataStore();
+		joinEntries = new ArrayList<Pair<ByteArrayId, ByteArrayId>>();
+		final Random random = new Random(
+				7L);
+		// every n-th feature holds the attribute value that is queried
+		final int matchInterval = NUM_FEATURES / numMatches;
+		try (IndexWriter writer = dataStore.createWriter(
+				adapter,
+				index)) {
+			for (int i = 0; i < NUM_FEATURES; i++) {
+				final SimpleFeature feature = FeatureDataAdapterBenchmark.createFeature(
+						type,
+						"feature" + i,
+						(random.nextDouble() * 60) - 120,
+						(random.nextDouble() * 30) + 20);
+				writer.write(feature);
+				if ((i % matchInterval) == 0) {
+					for (final ByteArrayId insertionId : adapter.encode(
+							feature,
+							index.getIndexModel()).getInsertionIds(
+							index)) {
+						joinEntries.add(Pair.of(
+								index.getId(),
+								insertionId));
+					}
+				}
+			}
+		}
+	}
+
+	@Benchmark
+	public int join()
+			throws IOException {
+		int count = 0;
+		try (CloseableIterator<SimpleFeature> it = new SecondaryIndexJoinIterator<SimpleFeature>(
+				dataStore,
+				adapter.getAdapterId(),
+				new CloseableIterator.Wrapper<Pair<ByteArrayId, ByteArrayId>>(
+						joinEntries.iterator()),
+				batchSize)) {
+			while (it.hasNext()) {
+				it.next();
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,166 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.geotime.index.dimension.LatitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LongitudeDefinition;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecomposition;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCaches;
+import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.SpaceFillingCurve;
+import mil.nga.giat.geowave.core.index.sfc.StripedLRURangeDecompositionCache;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+
+/**
+ * Measures the cost of computing a space filling curve ID for a point and of
+ * decomposing a query box into ranges of IDs, for both the Hilbert and Z-order
+ * curves over longitude and latitude.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SpaceFillingCurveBenchmark
+{
+	private static final int NUM_POINTS = 1024;
+	private static final int UNLIMITED_RANGES = -1;
+
+	@Param({
+		"HILBERT",
+		"ZORDER"
+	})
+	public SFCType sfcType;
+
+	@Param({
+		"20",
+		"31"
+	})
+	public int bitsPerDimension;
+
+	/**
+	 * zero measures the decomposition itself rather than the shared cache
+	 */
+	@Param({
+		"0",
+		"2000"
+	})
+	public int rangeDecompositionCacheSize;
+
+	private SpaceFillingCurve sfc;
+	private double[][] points;
+	private int pointIndex = 0;
+	private MultiDimensionalNumericData smallQuery;
+	private MultiDimensionalNumericData largeQuery;
+
+	@Setup
+	public void setup() {
+		// each trial starts from an empty cache of the configured size
+		RangeDecompositionCaches.setCache(new StripedLRURangeDecompositionCache(
+				rangeDecompositionCacheSize));
+		sfc = SFCFactory.createSpaceFillingCurve(
+				new SFCDimensionDefinition[] {
+					new SFCDimensionDefinition(
+							new LongitudeDefinition(),
+							bitsPerDimension),
+					new SFCDimensionDefinition(
+							new LatitudeDefinition(),
+							bitsPerDimension)
+				},
+				sfcType);
+		final Random random = new Random(
+				7L);
+		points = new double[NUM_POINTS][];
+		for (int i = 0; i < NUM_POINTS; i++) {
+			points[i] = new double[] {
+				(random.nextDouble() * 360) - 180,
+				(random.nextDouble() * 180) - 90
+			};
+		}
+		smallQuery = createBox(
+				-77.1,
+				38.8,
+				-76.9,
+				39.0);
+		largeQuery = createBox(
+				-100,
+				25,
+				-65,
+				50);
+	}
+
+	@Benchmark
+	public byte[] getId() {
+		pointIndex = (pointIndex + 1) % NUM_POINTS;
+		return sfc.getId(points[pointIndex]);
+	}
+
+	/**
+	 * computes IDs from several threads sharing the same curve
+	 */
+	@Benchmark
+	@Threads(4)
+	public byte[] getIdConcurrent(
+			final ThreadState state ) {
+		state.pointIndex = (state.pointIndex + 1) % NUM_POINTS;
+		return sfc.getId(points[state.pointIndex]);
+	}
+
+	@Benchmark
+	public RangeDecomposition decomposeSmallRange() {
+		return sfc.decomposeRange(
+				smallQuery,
+				true,
+				UNLIMITED_RANGES);
+	}
+
+	@Benchmark
+	public RangeDecomposition decomposeLargeRange() {
+		return sfc.decomposeRange(
+				largeQuery,
+				true,
+				UNLIMITED_RANGES);
+	}
+
+	static MultiDimensionalNumericData createBox(
+			final double minX,
+			final double minY,
+			final double maxX,
+			final double maxY ) {
+		return new BasicNumericDataset(
+				new NumericData[] {
+					new NumericRange(
+							minX,
+							maxX),
+					new NumericRange(
+							minY,
+							maxY)
+				});
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState
+	{
+		private int pointIndex = 0;
+	}
+}
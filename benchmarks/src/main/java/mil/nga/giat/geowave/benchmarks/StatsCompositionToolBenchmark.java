@@ -0,0 +1,100 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.adapter.vector.FeatureDataAdapter;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.adapter.statistics.StatsCompositionTool;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.memory.MemoryDataStatisticsStore;
+
+/**
+ * Measures accumulating the statistics of a feature adapter on ingest, from a
+ * single thread and from several threads sharing the same tool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StatsCompositionToolBenchmark
+{
+	private static final int NUM_FEATURES = 1024;
+
+	private StatsCompositionTool<SimpleFeature> tool;
+	private SimpleFeature[] features;
+	private DataStoreEntryInfo entryInfo;
+	private int featureIndex = 0;
+
+	@Setup
+	public void setup()
+			throws SchemaException {
+		final SimpleFeatureType type = DataUtilities.createType(
+				"benchmark",
+				"geometry:Point:srid=4326,name:String,count:java.lang.Long,value:Double,when:Date");
+		tool = new StatsCompositionTool<SimpleFeature>(
+				new FeatureDataAdapter(
+						type),
+				new MemoryDataStatisticsStore());
+		final Random random = new Random(
+				7L);
+		features = new SimpleFeature[NUM_FEATURES];
+		for (int i = 0; i < NUM_FEATURES; i++) {
+			features[i] = FeatureDataAdapterBenchmark.createFeature(
+					type,
+					"feature" + i,
+					(random.nextDouble() * 360) - 180,
+					(random.nextDouble() * 180) - 90);
+		}
+		entryInfo = new DataStoreEntryInfo(
+				new byte[0],
+				Collections.<ByteArrayId> emptyList(),
+				Collections.<ByteArrayId> emptyList(),
+				new ArrayList<FieldInfo<?>>());
+	}
+
+	@Benchmark
+	public void entryIngested() {
+		featureIndex = (featureIndex + 1) % NUM_FEATURES;
+		tool.entryIngested(
+				entryInfo,
+				features[featureIndex]);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void entryIngestedConcurrent(
+			final ThreadState state ) {
+		state.featureIndex = (state.featureIndex + 1) % NUM_FEATURES;
+		tool.entryIngested(
+				entryInfo,
+				features[state.featureIndex]);
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState
+	{
+		private int featureIndex = 0;
+	}
+}
@@ -0,0 +1,115 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.geotime.index.dimension.TemporalBinningStrategy;
+import mil.nga.giat.geowave.core.geotime.index.dimension.TemporalBinningStrategy.Unit;
+import mil.nga.giat.geowave.core.index.dimension.bin.BinRange;
+import mil.nga.giat.geowave.core.index.dimension.bin.BinValue;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+
+/**
+ * Measures binning an indexed time and normalizing a one week query range for
+ * each temporal unit, along with the java.util.Calendar computation of the bin
+ * start that binning replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TemporalBinningBenchmark
+{
+	private static final int NUM_TIMES = 1024;
+
+	@Param({
+		"DAY",
+		"MONTH",
+		"YEAR"
+	})
+	public Unit unit;
+
+	@Param({
+		"GMT",
+		"America/New_York"
+	})
+	public String timezone;
+
+	private CalendarBinningStrategy binningStrategy;
+	private long[] times;
+	private int timeIndex = 0;
+	private NumericRange queryRange;
+
+	@Setup
+	public void setup() {
+		binningStrategy = new CalendarBinningStrategy(
+				unit,
+				timezone);
+		final Random random = new Random(
+				7L);
+		times = new long[NUM_TIMES];
+		for (int i = 0; i < NUM_TIMES; i++) {
+			// 2000 to 2020
+			times[i] = 946684800000L + (long) (random.nextDouble() * 631152000000L);
+		}
+		queryRange = new NumericRange(
+				1420070400000L,
+				1420070400000L + (7 * 86400000L));
+	}
+
+	@Benchmark
+	public BinValue getBinnedValue() {
+		timeIndex = (timeIndex + 1) % NUM_TIMES;
+		return binningStrategy.getBinnedValue(times[timeIndex]);
+	}
+
+	@Benchmark
+	public BinRange[] getNormalizedRanges() {
+		return binningStrategy.getNormalizedRanges(queryRange);
+	}
+
+	@Benchmark
+	public long getCalendarBinStart() {
+		timeIndex = (timeIndex + 1) % NUM_TIMES;
+		return binningStrategy.getCalendarBinStart(times[timeIndex]);
+	}
+
+	private static class CalendarBinningStrategy extends
+			TemporalBinningStrategy
+	{
+		private final String timezone;
+
+		private CalendarBinningStrategy(
+				final Unit unit,
+				final String timezone ) {
+			super(
+					unit,
+					timezone);
+			this.timezone = timezone;
+		}
+
+		private long getCalendarBinStart(
+				final long value ) {
+			final Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone(timezone));
+			calendar.setTimeInMillis(value);
+			setToEpoch(calendar);
+			return calendar.getTimeInMillis();
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package mil.nga.giat.geowave.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.geotime.index.dimension.LatitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LongitudeDefinition;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCaches;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.StripedLRURangeDecompositionCache;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.tiered.TieredSFCIndexFactory;
+import mil.nga.giat.geowave.core.index.sfc.tiered.TieredSFCIndexStrategy;
+
+/**
+ * Measures insertion ID generation for points and small boxes, and query range
+ * generation, for a full incremental tiered spatial index strategy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TieredSFCIndexStrategyBenchmark
+{
+	private static final int NUM_ENTRIES = 1024;
+
+	@Param({
+		"HILBERT",
+		"ZORDER"
+	})
+	public SFCType sfcType;
+
+	@Param({
+		"0",
+		"2000"
+	})
+	public int rangeDecompositionCacheSize;
+
+	private TieredSFCIndexStrategy strategy;
+	private MultiDimensionalNumericData[] points;
+	private MultiDimensionalNumericData[] boxes;
+	private int entryIndex = 0;
+	private MultiDimensionalNumericData query;
+
+	@Setup
+	public void setup() {
+		// each trial starts from an empty cache of the configured size
+		RangeDecompositionCaches.setCache(new StripedLRURangeDecompositionCache(
+				rangeDecompositionCacheSize));
+		strategy = TieredSFCIndexFactory.createFullIncrementalTieredStrategy(
+				new NumericDimensionDefinition[] {
+					new LongitudeDefinition(),
+					new LatitudeDefinition()
+				},
+				new int[] {
+					31,
+					31
+				},
+				sfcType);
+		final Random random = new Random(
+				7L);
+		points = new MultiDimensionalNumericData[NUM_ENTRIES];
+		boxes = new MultiDimensionalNumericData[NUM_ENTRIES];
+		for (int i = 0; i < NUM_ENTRIES; i++) {
+			final double x = (random.nextDouble() * 359) - 180;
+			final double y = (random.nextDouble() * 179) - 90;
+			points[i] = SpaceFillingCurveBenchmark.createBox(
+					x,
+					y,
+					x,
+					y);
+			boxes[i] = SpaceFillingCurveBenchmark.createBox(
+					x,
+					y,
+					x + (random.nextDouble() * 0.5),
+					y + (random.nextDouble() * 0.5));
+		}
+		query = SpaceFillingCurveBenchmark.createBox(
+				-77.5,
+				38.5,
+				-76.5,
+				39.5);
+	}
+
+	@Benchmark
+	public List<ByteArrayId> getPointInsertionIds() {
+		entryIndex = (entryIndex + 1) % NUM_ENTRIES;
+		return strategy.getInsertionIds(points[entryIndex]);
+	}
+
+	/**
+	 * computes insertion IDs from several threads sharing the same strategy
+	 */
+	@Benchmark
+	@Threads(4)
+	public List<ByteArrayId> getBoxInsertionIdsConcurrent(
+			final ThreadState state ) {
+		state.entryIndex = (state.entryIndex + 1) % NUM_ENTRIES;
+		return strategy.getInsertionIds(boxes[state.entryIndex]);
+	}
+
+	@Benchmark
+	public List<ByteArrayId> getBoxInsertionIds() {
+		entryIndex = (entryIndex + 1) % NUM_ENTRIES;
+		return strategy.getInsertionIds(boxes[entryIndex]);
+	}
+
+	@Benchmark
+	public List<ByteArrayRange> getQueryRanges() {
+		return strategy.getQueryRanges(query);
+	}
+
+	@State(Scope.Thread)
+	public static class ThreadState
+	{
+		private int entryIndex = 0;
+	}
+}
@@ -0,0 +1,404 @@
+package mil.nga.giat.geowave.core.geotime.index.dimension;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import mil.nga.giat.geowave.core.geotime.index.dimension.TemporalBinningStrategy.Unit;
+
+/**
+ * Computes the bin start and bin ID of a time for a unit and timezone without
+ * creating a java.util.Calendar, giving the same results as the Calendar based
+ * computation in TemporalBinningStrategy.
+ *
+ * Minutes, hours and days are computed with epoch arithmetic using the offset
+ * of the timezone. Months, years and decades are looked up in a table of bin
+ * boundaries that is built once per timezone using a Calendar. Times outside of
+ * 1900 to 2100, times within a day of an offset transition of the timezone
+ * where wall clock times can be skipped or repeated, and weeks (which depend on
+ * the locale) are left to the Calendar based computation.
+ */
+class TemporalBinTable
+{
+	static final long UNKNOWN = Long.MIN_VALUE;
+
+	// 1900-01-01T00:00:00Z
+	private static final long MIN_MILLIS = -2208988800000L;
+	// 2100-01-01T00:00:00Z
+	private static final long MAX_MILLIS = 4102444800000L;
+	private static final long MILLIS_PER_DAY = TemporalBinningStrategy.MILLIS_PER_DAY;
+	// transitions are tracked a little beyond the supported range so that
+	// boundaries at the edges of the range are also guarded
+	private static final long TRANSITION_MARGIN_MILLIS = 3 * MILLIS_PER_DAY;
+	private static final int SELF_CHECK_SAMPLES = 256;
+
+	private static final ConcurrentMap<String, TemporalBinTable> TABLES = new ConcurrentHashMap<String, TemporalBinTable>();
+
+	private final Unit unit;
+	private final TimeZone timeZone;
+	private final long[] transitions;
+	private final long minMillis;
+	private final long[] segmentStarts;
+	private final long[] segmentEpochs;
+	private final byte[][] segmentIds;
+	private final boolean[] unsafeSegmentStarts;
+	private boolean supported;
+
+	public static TemporalBinTable getInstance(
+			final Unit unit,
+			final String timezone ) {
+		final String key = unit.name() + "_" + timezone;
+		TemporalBinTable table = TABLES.get(key);
+		if (table == null) {
+			table = new TemporalBinTable(
+					unit,
+					timezone);
+			final TemporalBinTable existingTable = TABLES.putIfAbsent(
+					key,
+					table);
+			if (existingTable != null) {
+				table = existingTable;
+			}
+		}
+		return table;
+	}
+
+	private TemporalBinTable(
+			final Unit unit,
+			final String timezone ) {
+		this.unit = unit;
+		timeZone = TimeZone.getTimeZone(timezone);
+		transitions = getTransitions(timeZone);
+		boolean supported = (transitions != null) && (Calendar.getInstance(
+				timeZone).getClass() == GregorianCalendar.class);
+		minMillis = supported ? getConsistentMinMillis(
+				timeZone.toZoneId().getRules(),
+				timezone) : MIN_MILLIS;
+		final TemporalBinningStrategy calendarStrategy = new TemporalBinningStrategy(
+				unit,
+				timezone);
+		if (supported && ((unit == Unit.MONTH) || (unit == Unit.YEAR) || (unit == Unit.DECADE))) {
+			// the bin ID of a decade is the year, so decades are looked up by
+			// year
+			final TemporalBinningStrategy segmentStrategy = unit == Unit.DECADE ? new TemporalBinningStrategy(
+					Unit.YEAR,
+					timezone) : calendarStrategy;
+			final long segmentSizeMillis = (long) (unit == Unit.MONTH ? 31 * MILLIS_PER_DAY * 1.5
+					: 366 * MILLIS_PER_DAY * 1.5);
+			final List<Long> starts = new ArrayList<Long>();
+			long start = segmentStrategy.getCalendarBinStartMillis(minMillis);
+			if (start < minMillis) {
+				start = segmentStrategy.getCalendarBinStartMillis(start + segmentSizeMillis);
+			}
+			starts.add(start);
+			while (start < MAX_MILLIS) {
+				start = segmentStrategy.getCalendarBinStartMillis(start + segmentSizeMillis);
+				starts.add(start);
+			}
+			segmentStarts = new long[starts.size()];
+			segmentEpochs = new long[starts.size()];
+			segmentIds = new byte[starts.size()][];
+			unsafeSegmentStarts = new boolean[starts.size()];
+			for (int i = 0; i < segmentStarts.length; i++) {
+				segmentStarts[i] = starts.get(i);
+				segmentEpochs[i] = calendarStrategy.getCalendarBinStartMillis(segmentStarts[i]);
+				segmentIds[i] = calendarStrategy.getCalendarBinId(segmentStarts[i]);
+				unsafeSegmentStarts[i] = !isAwayFromTransitions(
+						segmentStarts[i] - MILLIS_PER_DAY,
+						segmentStarts[i] + MILLIS_PER_DAY);
+			}
+		}
+		else {
+			if ((unit != Unit.MINUTE) && (unit != Unit.HOUR) && (unit != Unit.DAY)) {
+				supported = false;
+			}
+			segmentStarts = null;
+			segmentEpochs = null;
+			segmentIds = null;
+			unsafeSegmentStarts = null;
+		}
+		this.supported = supported;
+		this.supported = selfCheck(calendarStrategy);
+	}
+
+	/**
+	 *
+	 * @return the start of the bin containing the time, or UNKNOWN if it must
+	 *         be computed with a Calendar
+	 */
+	public long getBinStartMillis(
+			final long value ) {
+		if (!supported || (value < minMillis) || (value >= MAX_MILLIS)) {
+			return UNKNOWN;
+		}
+		switch (unit) {
+			case MINUTE:
+			case HOUR:
+			case DAY:
+				final long unitMillis = getUnitMillis();
+				final long start = value - floorMod(
+						value + timeZone.getOffset(value),
+						unitMillis);
+				// the wall clock start of the bin must be unambiguous
+				if (isAwayFromTransitions(
+						start - MILLIS_PER_DAY,
+						value + MILLIS_PER_DAY)) {
+					return start;
+				}
+				return UNKNOWN;
+			default:
+				final int segment = getSegment(value);
+				if (segment < 0) {
+					return UNKNOWN;
+				}
+				return segmentEpochs[segment];
+		}
+	}
+
+	/**
+	 *
+	 * @return the ID of the bin containing the time, or null if it must be
+	 *         computed with a Calendar
+	 */
+	public byte[] getBinId(
+			final long value ) {
+		if (!supported || (value < minMillis) || (value >= MAX_MILLIS)) {
+			return null;
+		}
+		switch (unit) {
+			case MINUTE:
+			case HOUR:
+			case DAY:
+				return getArithmeticBinId(value + timeZone.getOffset(value));
+			default:
+				final int segment = getSegment(value);
+				if (segment < 0) {
+					return null;
+				}
+				return segmentIds[segment].clone();
+		}
+	}
+
+	boolean isSupported() {
+		return supported;
+	}
+
+	private long getUnitMillis() {
+		switch (unit) {
+			case MINUTE:
+				return 60000L;
+			case HOUR:
+				return 3600000L;
+			default:
+				return MILLIS_PER_DAY;
+		}
+	}
+
+	private int getSegment(
+			final long value ) {
+		if ((value < segmentStarts[0]) || (value >= segmentStarts[segmentStarts.length - 1])) {
+			return -1;
+		}
+		int segment = Arrays.binarySearch(
+				segmentStarts,
+				value);
+		if (segment < 0) {
+			segment = -segment - 2;
+		}
+		// near a transition the wall clock start of a bin can be ambiguous
+		if ((unsafeSegmentStarts[segment] && (value < (segmentStarts[segment] + MILLIS_PER_DAY)))
+				|| (unsafeSegmentStarts[segment + 1] && (value >= (segmentStarts[segment + 1] - MILLIS_PER_DAY)))) {
+			return -1;
+		}
+		return segment;
+	}
+
+	private boolean isAwayFromTransitions(
+			final long min,
+			final long max ) {
+		// find the first transition after min
+		int index = Arrays.binarySearch(
+				transitions,
+				min);
+		if (index >= 0) {
+			return false;
+		}
+		index = -index - 1;
+		return (index >= transitions.length) || (transitions[index] > max);
+	}
+
+	private byte[] getArithmeticBinId(
+			final long localMillis ) {
+		// convert days since the epoch to a proleptic Gregorian date, which
+		// matches java.util.GregorianCalendar after its 1582 cutover
+		final long millisOfDay = floorMod(
+				localMillis,
+				MILLIS_PER_DAY);
+		final long z = ((localMillis - millisOfDay) / MILLIS_PER_DAY) + 719468;
+		final long era = (z >= 0 ? z : z - 146096) / 146097;
+		final long dayOfEra = z - (era * 146097);
+		final long yearOfEra = (dayOfEra - (dayOfEra / 1460) + (dayOfEra / 36524) - (dayOfEra / 146096)) / 365;
+		final long dayOfYear = dayOfEra - (((365 * yearOfEra) + (yearOfEra / 4)) - (yearOfEra / 100));
+		final long shiftedMonth = ((5 * dayOfYear) + 2) / 153;
+		final int day = (int) ((dayOfYear - (((153 * shiftedMonth) + 2) / 5)) + 1);
+		// zero based, as with java.util.Calendar
+		final int month = (int) (shiftedMonth < 10 ? shiftedMonth + 2 : shiftedMonth - 10);
+		final int year = (int) ((yearOfEra + (era * 400)) + (month <= 1 ? 1 : 0));
+
+		final byte[] id;
+		switch (unit) {
+			case DAY:
+				id = new byte[10];
+				break;
+			case HOUR:
+				id = new byte[13];
+				break;
+			default:
+				id = new byte[16];
+				break;
+		}
+		id[0] = (byte) ('0' + (year / 1000));
+		id[1] = (byte) ('0' + ((year / 100) % 10));
+		id[2] = (byte) ('0' + ((year / 10) % 10));
+		id[3] = (byte) ('0' + (year % 10));
+		putTwoDigits(
+				id,
+				4,
+				month);
+		putTwoDigits(
+				id,
+				7,
+				day);
+		if (unit != Unit.DAY) {
+			putTwoDigits(
+					id,
+					10,
+					(int) (millisOfDay / 3600000L));
+			if (unit == Unit.MINUTE) {
+				putTwoDigits(
+						id,
+						13,
+						(int) ((millisOfDay / 60000L) % 60));
+			}
+		}
+		return id;
+	}
+
+	private static void putTwoDigits(
+			final byte[] id,
+			final int offset,
+			final int value ) {
+		id[offset] = '_';
+		id[offset + 1] = (byte) ('0' + (value / 10));
+		id[offset + 2] = (byte) ('0' + (value % 10));
+	}
+
+	private static long floorMod(
+			final long value,
+			final long divisor ) {
+		final long mod = value % divisor;
+		return mod < 0 ? mod + divisor : mod;
+	}
+
+	/**
+	 *
+	 * @return the instants the offset of the timezone changes, or null if they
+	 *         can't be determined
+	 */
+	private static long[] getTransitions(
+			final TimeZone timeZone ) {
+		final ZoneRules rules;
+		try {
+			rules = timeZone.toZoneId().getRules();
+		}
+		catch (final DateTimeException e) {
+			return null;
+		}
+		final long min = MIN_MILLIS - TRANSITION_MARGIN_MILLIS;
+		final long max = MAX_MILLIS + TRANSITION_MARGIN_MILLIS;
+		final List<Long> transitionList = new ArrayList<Long>();
+		ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(min));
+		while ((transition != null) && (transition.getInstant().toEpochMilli() <= max)) {
+			transitionList.add(transition.getInstant().toEpochMilli());
+			transition = rules.nextTransition(transition.getInstant());
+		}
+		final long[] transitions = new long[transitionList.size()];
+		for (int i = 0; i < transitions.length; i++) {
+			transitions[i] = transitionList.get(i);
+		}
+		return transitions;
+	}
+
+	/**
+	 * The offsets of java.time and java.util.TimeZone can differ in the local
+	 * mean time used by many timezones before standardization, and there
+	 * java.util.Calendar also does not convert wall clock times back to
+	 * instants with the offset it uses to compute them. The fast path starts
+	 * after the last period of time where either is the case.
+	 */
+	private long getConsistentMinMillis(
+			final ZoneRules rules,
+			final String timezone ) {
+		final TemporalBinningStrategy dayStrategy = new TemporalBinningStrategy(
+				Unit.DAY,
+				timezone);
+		long consistentMinMillis = MIN_MILLIS;
+		long intervalStart = MIN_MILLIS - TRANSITION_MARGIN_MILLIS;
+		for (int i = 0; i <= transitions.length; i++) {
+			final long intervalEnd = i < transitions.length ? transitions[i] : MAX_MILLIS + TRANSITION_MARGIN_MILLIS;
+			final long midpoint = intervalStart + ((intervalEnd - intervalStart) / 2);
+			for (final long probe : new long[] {
+				intervalStart,
+				midpoint,
+				intervalEnd - 1
+			}) {
+				if (timeZone.getOffset(probe) != (rules.getOffset(
+						Instant.ofEpochMilli(probe)).getTotalSeconds() * 1000L)) {
+					consistentMinMillis = intervalEnd + TRANSITION_MARGIN_MILLIS;
+				}
+			}
+			final long dayStart = midpoint - floorMod(
+					midpoint + timeZone.getOffset(midpoint),
+					MILLIS_PER_DAY);
+			if (dayStart != dayStrategy.getCalendarBinStartMillis(midpoint)) {
+				consistentMinMillis = intervalEnd + TRANSITION_MARGIN_MILLIS;
+			}
+			intervalStart = intervalEnd;
+		}
+		return consistentMinMillis;
+	}
+
+	/**
+	 * compare a sample of times against the Calendar based computation, this
+	 * guards against locales that format or define dates differently
+	 */
+	private boolean selfCheck(
+			final TemporalBinningStrategy calendarStrategy ) {
+		if (!supported) {
+			return false;
+		}
+		final long step = (MAX_MILLIS - minMillis) / SELF_CHECK_SAMPLES;
+		for (long value = minMillis + 12345L; value < MAX_MILLIS; value += step) {
+			final long start = getBinStartMillis(value);
+			if ((start != UNKNOWN) && (start != calendarStrategy.getCalendarBinStartMillis(value))) {
+				return false;
+			}
+			final byte[] id = getBinId(value);
+			if ((id != null) && !Arrays.equals(
+					id,
+					calendarStrategy.getCalendarBinId(value))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -93,6 +93,7 @@ public class TemporalBinningStrategy implements
 
 	private Unit unit;
 	private String timezone;
+	private TemporalBinTable binTable;
 
 	protected TemporalBinningStrategy() {}
 
@@ -127,18 +128,60 @@ public class TemporalBinningStrategy implements
 	@Override
 	public BinValue getBinnedValue(
 			final double value ) {
-		// convert to a calendar and subtract the epoch for the bin
+		final long millis = (long) value;
+		return new BinValue(
+				getBinId(millis),
+				millis - getBinStartMillis(millis));
+	}
+
+	private TemporalBinTable getBinTable() {
+		// the tables are shared and immutable so a race here is harmless, and
+		// they only apply to the epochs defined by this class
+		if ((binTable == null) && (getClass() == TemporalBinningStrategy.class)) {
+			binTable = TemporalBinTable.getInstance(
+					unit,
+					timezone);
+		}
+		return binTable;
+	}
+
+	private long getBinStartMillis(
+			final long value ) {
+		final TemporalBinTable table = getBinTable();
+		if (table != null) {
+			final long binStart = table.getBinStartMillis(value);
+			if (binStart != TemporalBinTable.UNKNOWN) {
+				return binStart;
+			}
+		}
+		return getCalendarBinStartMillis(value);
+	}
+
+	private byte[] getBinId(
+			final long value ) {
+		final TemporalBinTable table = getBinTable();
+		if (table != null) {
+			final byte[] binId = table.getBinId(value);
+			if (binId != null) {
+				return binId;
+			}
+		}
+		return getCalendarBinId(value);
+	}
+
+	long getCalendarBinStartMillis(
+			final long value ) {
 		final Calendar epochCal = Calendar.getInstance(TimeZone.getTimeZone(timezone));
-		epochCal.setTimeInMillis((long) value);
+		epochCal.setTimeInMillis(value);
 		setToEpoch(epochCal);
-		// use the value to get the bin ID (although the epoch should work fine
-		// too)
-		final Calendar valueCal = Calendar.getInstance(TimeZone.getTimeZone(timezone));
-		valueCal.setTimeInMillis((long) value);
+		return epochCal.getTimeInMillis();
+	}
 
-		return new BinValue(
-				getBinId(valueCal),
-				valueCal.getTimeInMillis() - epochCal.getTimeInMillis());
+	byte[] getCalendarBinId(
+			final long value ) {
+		final Calendar valueCal = Calendar.getInstance(TimeZone.getTimeZone(timezone));
+		valueCal.setTimeInMillis(value);
+		return getBinId(valueCal);
 	}
 
 	private long getBinSizeMillis() {
@@ -368,15 +411,12 @@ public class TemporalBinningStrategy implements
 		if (range.getMax() < range.getMin()) {
 			return new BinRange[] {};
 		}
-		final Calendar startEpoch = Calendar.getInstance(TimeZone.getTimeZone(timezone));
 		final long binSizeMillis = getBinSizeMillis();
 		// initialize the epoch to the range min and then reset appropriate
 		// values to 0 based on the units
-		startEpoch.setTimeInMillis((long) range.getMin());
-		setToEpoch(startEpoch);
+		final long startEpochMillis = getBinStartMillis((long) range.getMin());
 		// now make sure all bin definitions between the start and end bins
 		// are covered
-		final long startEpochMillis = startEpoch.getTimeInMillis();
 		long epochIterator = startEpochMillis;
 		final List<BinRange> bins = new ArrayList<BinRange>();
 		// track this, so that we can easily declare a range to be the full
@@ -386,17 +426,12 @@ public class TemporalBinningStrategy implements
 		do {
 			// because not every year has 366 days, and not every month has 31
 			// days we need to reset next epoch to the actual epoch
-			final Calendar nextEpochCal = Calendar.getInstance(TimeZone.getTimeZone(timezone));
 			// set it to a value in the middle of the bin just to be sure (for
 			// example if the bin size does not get to the next epoch as is
 			// the case when units are days and the timezone accounts for
 			// daylight savings time)
-			nextEpochCal.setTimeInMillis(epochIterator + (long) (binSizeMillis * 1.5));
-			setToEpoch(nextEpochCal);
-			final long nextEpoch = nextEpochCal.getTimeInMillis();
+			final long nextEpoch = getBinStartMillis(epochIterator + (long) (binSizeMillis * 1.5));
 			final long maxOfBin = nextEpoch - 1;
-			final Calendar cal = Calendar.getInstance(TimeZone.getTimeZone(timezone));
-			cal.setTimeInMillis(epochIterator);
 			long startMillis, endMillis;
 			boolean fullExtent;
 			if ((long) range.getMax() <= maxOfBin) {
@@ -422,7 +457,7 @@ public class TemporalBinningStrategy implements
 			// we have the millis for range, but to normalize for this bin we
 			// need to subtract the epoch of the bin
 			bins.add(new BinRange(
-					getBinId(cal),
+					getBinId(epochIterator),
 					startMillis - epochIterator,
 					endMillis - epochIterator,
 					fullExtent));
@@ -451,6 +486,7 @@ public class TemporalBinningStrategy implements
 		buffer.get(timeZoneName);
 		unit = Unit.getUnit(unitCalendarEnum);
 		timezone = StringUtils.stringFromBinary(timeZoneName);
+		binTable = null;
 	}
 
 	@Override
@@ -1,10 +1,12 @@
 package mil.nga.giat.geowave.core.geotime.index.dimension;
 
 import java.util.Calendar;
+import java.util.Random;
 import java.util.TimeZone;
 
 import mil.nga.giat.geowave.core.geotime.index.dimension.TemporalBinningStrategy.Unit;
 import mil.nga.giat.geowave.core.index.dimension.bin.BinRange;
+import mil.nga.giat.geowave.core.index.dimension.bin.BinValue;
 import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
 
 import org.junit.Assert;
@@ -408,4 +410,88 @@ public class TemporalBinningStrategyTest
 		Assert.assertTrue(ranges[1].getNormalizedMin() == ranges[1].getNormalizedMax());
 		Assert.assertTrue(ranges[1].getNormalizedMin() == binStrategy.getBinMin());
 	}
+
+	@Test
+	public void testMatchesCalendarBinning() {
+		final Random random = new Random(
+				8675309L);
+		for (final String timezone : new String[] {
+			"GMT",
+			"EST",
+			"GMT+05:30",
+			"America/New_York",
+			"America/Sao_Paulo",
+			"America/Havana",
+			"Europe/London",
+			"Asia/Kathmandu",
+			"Australia/Lord_Howe",
+			"Pacific/Apia"
+		}) {
+			final TimeZone tz = TimeZone.getTimeZone(timezone);
+			for (final Unit unit : Unit.values()) {
+				final TemporalBinningStrategy binStrategy = new TemporalBinningStrategy(
+						unit,
+						timezone);
+				for (int i = 0; i < 2000; i++) {
+					// mostly within the range the fast path supports
+					final long time = (long) ((random.nextDouble() * 6000000000000L) - 2500000000000L);
+					assertMatchesCalendar(
+							binStrategy,
+							time);
+					// and around the offset transitions of the timezone
+					final long transitionProbe = time - (time % (3600000L)) + (random.nextInt(7200) * 1000L);
+					if (tz.getOffset(transitionProbe) != tz.getOffset(transitionProbe - 3600000L)) {
+						for (long t = transitionProbe - (2 * TemporalBinningStrategy.MILLIS_PER_DAY); t < (transitionProbe + (2 * TemporalBinningStrategy.MILLIS_PER_DAY)); t += 600000L) {
+							assertMatchesCalendar(
+									binStrategy,
+									t);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void assertMatchesCalendar(
+			final TemporalBinningStrategy binStrategy,
+			final long time ) {
+		final BinValue binValue = binStrategy.getBinnedValue(time);
+		Assert.assertArrayEquals(
+				binStrategy.getCalendarBinId(time),
+				binValue.getBinId());
+		Assert.assertEquals(
+				time - binStrategy.getCalendarBinStartMillis(time),
+				binValue.getNormalizedValue(),
+				0);
+	}
+
+	@Test
+	public void testNormalizedRangesMatchBinnedValues() {
+		for (final Unit unit : new Unit[] {
+			Unit.HOUR,
+			Unit.DAY,
+			Unit.MONTH,
+			Unit.YEAR,
+			Unit.DECADE
+		}) {
+			final TemporalBinningStrategy binStrategy = new TemporalBinningStrategy(
+					unit,
+					"America/New_York");
+			final long start = 1420070400000L;
+			final BinRange[] ranges = binStrategy.getNormalizedRanges(new NumericRange(
+					start,
+					start + (TemporalBinningStrategy.MILLIS_PER_DAY * 400)));
+			for (final BinRange range : ranges) {
+				// each bin starts at its epoch except possibly the first
+				final long epoch = (long) (binStrategy.getDenormalizedRanges(
+						range).getMin() - range.getNormalizedMin());
+				Assert.assertArrayEquals(
+						binStrategy.getCalendarBinId(epoch),
+						range.getBinId());
+				Assert.assertEquals(
+						binStrategy.getCalendarBinStartMillis(epoch),
+						epoch);
+			}
+		}
+	}
 }
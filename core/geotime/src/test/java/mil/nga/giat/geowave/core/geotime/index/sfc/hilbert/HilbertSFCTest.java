@@ -1,6 +1,13 @@
 package mil.nga.giat.geowave.core.geotime.index.sfc.hilbert;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import mil.nga.giat.geowave.core.geotime.index.dimension.LatitudeDefinition;
 import mil.nga.giat.geowave.core.geotime.index.dimension.LongitudeDefinition;
@@ -275,5 +282,71 @@ public class HilbertSFCTest
 
 	}
 
+	@Test
+	public void testGetId_ConcurrentMatchesSequential()
+			throws Exception {
+		final int LATITUDE_BITS = 31;
+		final int LONGITUDE_BITS = 31;
+		final int THREADS = 8;
+		final int VALUES_PER_THREAD = 20000;
+
+		final SFCDimensionDefinition[] SPATIAL_DIMENSIONS = new SFCDimensionDefinition[] {
+			new SFCDimensionDefinition(
+					new LongitudeDefinition(),
+					LONGITUDE_BITS),
+			new SFCDimensionDefinition(
+					new LatitudeDefinition(),
+					LATITUDE_BITS)
+		};
+
+		final SpaceFillingCurve hilbertSFC = SFCFactory.createSpaceFillingCurve(
+				SPATIAL_DIMENSIONS,
+				SFCType.HILBERT);
+		final Random rand = new Random(
+				7777);
+		final double[][] testValues = new double[THREADS * VALUES_PER_THREAD][];
+		final byte[][] expectedIds = new byte[testValues.length][];
+		for (int i = 0; i < testValues.length; i++) {
+			testValues[i] = new double[] {
+				(rand.nextDouble() * 360) - 180,
+				(rand.nextDouble() * 180) - 90
+			};
+			expectedIds[i] = hilbertSFC.getId(testValues[i]);
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int t = 0; t < THREADS; t++) {
+				final int offset = t * VALUES_PER_THREAD;
+				results.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() {
+						for (int i = offset; i < (offset + VALUES_PER_THREAD); i++) {
+							final byte[] id = hilbertSFC.getId(testValues[i]);
+							if (SignedBytes.lexicographicalComparator().compare(
+									expectedIds[i],
+									id) != 0) {
+								return false;
+							}
+							// the inverse shares the same per-thread curve
+							final long[] coordinates = hilbertSFC.getCoordinates(id);
+							if (coordinates.length != 2) {
+								return false;
+							}
+						}
+						return true;
+					}
+				}));
+			}
+			for (final Future<Boolean> result : results) {
+				Assert.assertTrue(result.get());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	/* public void testDecomposeQuery_2DSpatialRanges() {} */
 }
@@ -7,10 +7,16 @@ import static org.junit.Assert.assertTrue;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -410,6 +416,111 @@ public class TieredSFCIndexStrategyTest
 				5));
 	}
 
+	@Test
+	public void testConcurrentSpatialInsertionIds()
+			throws Exception {
+		final Random rand = new Random(
+				3579);
+		final MultiDimensionalNumericData[] entries = new MultiDimensionalNumericData[5000];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = new BasicNumericDataset(
+					new NumericData[] {
+						randomData(
+								rand,
+								-180,
+								180),
+						randomData(
+								rand,
+								-90,
+								90)
+					});
+		}
+		assertConcurrentInsertionIds(
+				new SpatialDimensionalityTypeProvider().createPrimaryIndex().getIndexStrategy(),
+				entries);
+	}
+
+	@Test
+	public void testConcurrentSpatialTemporalInsertionIds()
+			throws Exception {
+		final Random rand = new Random(
+				2468);
+		final long now = System.currentTimeMillis();
+		final MultiDimensionalNumericData[] entries = new MultiDimensionalNumericData[5000];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = new BasicNumericDataset(
+					new NumericData[] {
+						randomData(
+								rand,
+								-180,
+								180),
+						randomData(
+								rand,
+								-90,
+								90),
+						new NumericValue(
+								now - (long) (rand.nextDouble() * 1000L * 60 * 60 * 24 * 365 * 5))
+					});
+		}
+		assertConcurrentInsertionIds(
+				new SpatialTemporalDimensionalityTypeProvider().createPrimaryIndex().getIndexStrategy(),
+				entries);
+	}
+
+	private static NumericData randomData(
+			final Random rand,
+			final double min,
+			final double max ) {
+		final double value = min + (rand.nextDouble() * (max - min));
+		if (rand.nextBoolean()) {
+			return new NumericValue(
+					value);
+		}
+		// small boxes exercise the range decomposition path as well
+		return new NumericRange(
+				value,
+				Math.min(
+						max,
+						value + (rand.nextDouble() * 0.01)));
+	}
+
+	private static void assertConcurrentInsertionIds(
+			final NumericIndexStrategy strategy,
+			final MultiDimensionalNumericData[] entries )
+			throws Exception {
+		final List<List<ByteArrayId>> expectedIds = new ArrayList<List<ByteArrayId>>();
+		for (final MultiDimensionalNumericData entry : entries) {
+			expectedIds.add(strategy.getInsertionIds(entry));
+		}
+		final int threads = Math.max(
+				2,
+				Runtime.getRuntime().availableProcessors());
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<Void>> results = new ArrayList<Future<Void>>();
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				results.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						for (int i = thread; i < entries.length; i += threads) {
+							assertEquals(
+									expectedIds.get(i),
+									strategy.getInsertionIds(entries[i]));
+						}
+						return null;
+					}
+				}));
+			}
+			for (final Future<Void> result : results) {
+				result.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private boolean compare(
 			final byte[] one,
 			final byte[] two,
@@ -0,0 +1,101 @@
+package mil.nga.giat.geowave.core.index;
+
+import mil.nga.giat.geowave.core.index.dimension.BasicDimensionDefinition;
+import mil.nga.giat.geowave.core.index.dimension.UnboundedDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.BinnedNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericValue;
+import mil.nga.giat.geowave.core.index.sfc.hilbert.HilbertSFC;
+import mil.nga.giat.geowave.core.index.sfc.tiered.SingleTierSubStrategy;
+import mil.nga.giat.geowave.core.index.sfc.tiered.TieredSFCIndexStrategy;
+import mil.nga.giat.geowave.core.index.sfc.zorder.ZOrderSFC;
+import mil.nga.giat.geowave.core.index.simple.HashKeyIndexStrategy;
+import mil.nga.giat.geowave.core.index.simple.RoundRobinKeyIndexStrategy;
+import mil.nga.giat.geowave.core.index.simple.SimpleIntegerIndexStrategy;
+import mil.nga.giat.geowave.core.index.simple.SimpleLongIndexStrategy;
+import mil.nga.giat.geowave.core.index.simple.SimpleShortIndexStrategy;
+
+/**
+ * Registers the persistable classes of the core index module, using IDs 100
+ * through 199.
+ */
+public class IndexPersistableRegistry implements
+		PersistableRegistrySpi
+{
+	@Override
+	public PersistableIdAndClass[] getSupportedPersistables() {
+		return new PersistableIdAndClass[] {
+			new PersistableIdAndClass(
+					(short) 100,
+					CompoundIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 101,
+					CoordinateRange.class),
+			new PersistableIdAndClass(
+					(short) 102,
+					MultiDimensionalCoordinateRanges.class),
+			new PersistableIdAndClass(
+					(short) 103,
+					MultiDimensionalCoordinateRangesArray.class),
+			new PersistableIdAndClass(
+					(short) 104,
+					MultiDimensionalCoordinateRangesArray.ArrayOfArrays.class),
+			new PersistableIdAndClass(
+					(short) 105,
+					NullNumericIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 106,
+					NumericIndexStrategyWrapper.class),
+			new PersistableIdAndClass(
+					(short) 107,
+					BasicDimensionDefinition.class),
+			new PersistableIdAndClass(
+					(short) 108,
+					UnboundedDimensionDefinition.class),
+			new PersistableIdAndClass(
+					(short) 109,
+					SFCDimensionDefinition.class),
+			new PersistableIdAndClass(
+					(short) 110,
+					BasicNumericDataset.class),
+			new PersistableIdAndClass(
+					(short) 111,
+					BinnedNumericDataset.class),
+			new PersistableIdAndClass(
+					(short) 112,
+					NumericRange.class),
+			new PersistableIdAndClass(
+					(short) 113,
+					NumericValue.class),
+			new PersistableIdAndClass(
+					(short) 114,
+					HilbertSFC.class),
+			new PersistableIdAndClass(
+					(short) 115,
+					SingleTierSubStrategy.class),
+			new PersistableIdAndClass(
+					(short) 116,
+					TieredSFCIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 117,
+					ZOrderSFC.class),
+			new PersistableIdAndClass(
+					(short) 118,
+					HashKeyIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 119,
+					RoundRobinKeyIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 120,
+					SimpleIntegerIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 121,
+					SimpleLongIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 122,
+					SimpleShortIndexStrategy.class)
+		};
+	}
+}
@@ -0,0 +1,208 @@
+package mil.nga.giat.geowave.core.index;
+
+import java.lang.reflect.Constructor;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.spi.ServiceRegistry;
+
+import mil.nga.giat.geowave.core.index.PersistableRegistrySpi.PersistableIdAndClass;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Creates persistable instances by registered ID or by class name. Registered
+ * IDs are discovered once from every PersistableRegistrySpi on the classpath,
+ * and the no-arg constructor of each class is resolved once and reused.
+ */
+public class PersistableFactory
+{
+	private final static Logger LOGGER = Logger.getLogger(PersistableFactory.class);
+
+	private final Map<Class<?>, Short> classToId = new HashMap<Class<?>, Short>();
+	private final Map<Short, Constructor<?>> idToConstructor = new HashMap<Short, Constructor<?>>();
+	private final Map<String, Constructor<?>> classNameToConstructor = new ConcurrentHashMap<String, Constructor<?>>();
+
+	/**
+	 * The registry is built when this class is first loaded, so lookups don't
+	 * need to lock and the ID maps are never modified afterwards
+	 */
+	private static class SingletonHolder
+	{
+		private static final PersistableFactory INSTANCE = new PersistableFactory();
+	}
+
+	public static PersistableFactory getInstance() {
+		return SingletonHolder.INSTANCE;
+	}
+
+	private PersistableFactory() {
+		initRegistry();
+	}
+
+	private void initRegistry() {
+		final Set<ClassLoader> classLoaders = new LinkedHashSet<ClassLoader>();
+		classLoaders.add(PersistableFactory.class.getClassLoader());
+		try {
+			final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+			if (contextClassLoader != null) {
+				classLoaders.add(contextClassLoader);
+			}
+		}
+		catch (final SecurityException e) {
+			LOGGER.warn(
+					"Unable to get the context class loader",
+					e);
+		}
+		final Set<String> registries = new LinkedHashSet<String>();
+		for (final ClassLoader classLoader : classLoaders) {
+			final Iterator<PersistableRegistrySpi> it = ServiceRegistry.lookupProviders(
+					PersistableRegistrySpi.class,
+					classLoader);
+			while (it.hasNext()) {
+				final PersistableRegistrySpi registry = it.next();
+				// a registry may be visible from more than one class loader
+				if (registries.add(registry.getClass().getName())) {
+					for (final PersistableIdAndClass persistable : registry.getSupportedPersistables()) {
+						register(
+								persistable.getPersistableId(),
+								persistable.getPersistableClass());
+					}
+				}
+			}
+		}
+	}
+
+	private void register(
+			final short persistableId,
+			final Class<? extends Persistable> persistableClass ) {
+		if (persistableId <= 0) {
+			LOGGER.warn("Persistable ID " + persistableId + " for class " + persistableClass.getName()
+					+ " is not positive; the class will be persisted by name");
+			return;
+		}
+		final Constructor<?> existing = idToConstructor.get(persistableId);
+		if (existing != null) {
+			if (!existing.getDeclaringClass().equals(
+					persistableClass)) {
+				LOGGER.warn("Persistable ID " + persistableId + " is already registered for class "
+						+ existing.getDeclaringClass().getName() + "; not able to add " + persistableClass.getName());
+			}
+			return;
+		}
+		final Constructor<?> constructor = getNoArgConstructor(persistableClass);
+		if (constructor != null) {
+			idToConstructor.put(
+					persistableId,
+					constructor);
+			classToId.put(
+					persistableClass,
+					persistableId);
+		}
+	}
+
+	/**
+	 *
+	 * @param persistableClass
+	 *            the class of a persistable
+	 * @return the registered ID of the class, or null if it is not registered
+	 */
+	public Short getPersistableId(
+			final Class<?> persistableClass ) {
+		return classToId.get(persistableClass);
+	}
+
+	/**
+	 *
+	 * @param persistableId
+	 *            a registered ID
+	 * @return a new instance of the class registered with the ID, or null if
+	 *         the ID is not registered
+	 */
+	public Persistable newInstance(
+			final short persistableId ) {
+		final Constructor<?> constructor = idToConstructor.get(persistableId);
+		if (constructor == null) {
+			LOGGER.warn("error creating class: no persistable registered for ID " + persistableId);
+			return null;
+		}
+		return (Persistable) newInstance(constructor);
+	}
+
+	/**
+	 *
+	 * @param className
+	 *            the name of the class to create
+	 * @param expectedType
+	 *            the type the instance must be assignable to
+	 * @return a new instance of the class, or null if it can't be created or is
+	 *         not of the expected type
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T newInstance(
+			final String className,
+			final Class<T> expectedType ) {
+		Constructor<?> constructor = classNameToConstructor.get(className);
+		if (constructor == null) {
+			Class<?> factoryType = null;
+			try {
+				factoryType = Class.forName(className);
+			}
+			catch (final ClassNotFoundException e) {
+				LOGGER.warn(
+						"error creating class: could not find class ",
+						e);
+				return null;
+			}
+			constructor = getNoArgConstructor(factoryType);
+			if (constructor == null) {
+				return null;
+			}
+			classNameToConstructor.put(
+					className,
+					constructor);
+		}
+		if (!expectedType.isAssignableFrom(constructor.getDeclaringClass())) {
+			LOGGER.warn("error creating class, does not implement expected type");
+			return null;
+		}
+		return (T) newInstance(constructor);
+	}
+
+	private static Constructor<?> getNoArgConstructor(
+			final Class<?> factoryType ) {
+		try {
+			// use the no arg constructor and make sure its accessible
+
+			// HP Fortify "Access Specifier Manipulation"
+			// This method is being modified by trusted code,
+			// in a way that is not influenced by user input
+			final Constructor<?> noArgConstructor = factoryType.getDeclaredConstructor();
+			noArgConstructor.setAccessible(true);
+			return noArgConstructor;
+		}
+		catch (final Exception e) {
+			LOGGER.warn(
+					"error creating class: could not create class ",
+					e);
+		}
+		return null;
+	}
+
+	private static Object newInstance(
+			final Constructor<?> constructor ) {
+		try {
+			return constructor.newInstance();
+		}
+		catch (final Exception e) {
+			LOGGER.warn(
+					"error creating class: could not create class ",
+					e);
+		}
+		return null;
+	}
+}
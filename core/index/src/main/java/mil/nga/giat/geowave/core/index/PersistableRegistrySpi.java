@@ -0,0 +1,34 @@
+package mil.nga.giat.geowave.core.index;
+
+/**
+ * Registers short IDs for persistable classes so that PersistenceUtils can
+ * identify them with 2 bytes rather than their full class name. IDs must be
+ * positive, unique across all registries, and never reused for a different
+ * class once data has been written with them. Classes that are not registered
+ * continue to be persisted with their class name.
+ */
+public interface PersistableRegistrySpi
+{
+	public PersistableIdAndClass[] getSupportedPersistables();
+
+	public static class PersistableIdAndClass
+	{
+		private final short persistableId;
+		private final Class<? extends Persistable> persistableClass;
+
+		public PersistableIdAndClass(
+				final short persistableId,
+				final Class<? extends Persistable> persistableClass ) {
+			this.persistableId = persistableId;
+			this.persistableClass = persistableClass;
+		}
+
+		public short getPersistableId() {
+			return persistableId;
+		}
+
+		public Class<? extends Persistable> getPersistableClass() {
+			return persistableClass;
+		}
+	}
+}
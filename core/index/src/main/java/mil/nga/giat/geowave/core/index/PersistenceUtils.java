@@ -1,6 +1,5 @@
 package mil.nga.giat.geowave.core.index;
 
-import java.lang.reflect.Constructor;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -44,10 +43,20 @@ public class PersistenceUtils
 		if (persistable == null) {
 			return new byte[0];
 		}
+		final byte[] persistableBinary = persistable.toBinary();
+		final Short persistableId = PersistableFactory.getInstance().getPersistableId(
+				persistable.getClass());
+		if (persistableId != null) {
+			// preface the payload with the negated registered ID, the first
+			// byte is then never 0 as it is for the length of a class name
+			final ByteBuffer buf = ByteBuffer.allocate(2 + persistableBinary.length);
+			buf.putShort((short) -persistableId);
+			buf.put(persistableBinary);
+			return buf.array();
+		}
 		// preface the payload with the class name and a length of the class
 		// name
 		final byte[] className = StringUtils.stringToBinary(persistable.getClass().getName());
-		final byte[] persistableBinary = persistable.toBinary();
 		final int classNameLength = className.length;
 		final ByteBuffer buf = ByteBuffer.allocate(4 + classNameLength + persistableBinary.length);
 		buf.putInt(classNameLength);
@@ -76,71 +85,45 @@ public class PersistenceUtils
 		return persistables;
 	}
 
+	@SuppressWarnings("unchecked")
 	public static <T extends Persistable> T fromBinary(
 			final byte[] bytes,
 			final Class<T> expectedType ) {
 		final ByteBuffer buf = ByteBuffer.wrap(bytes);
-		final int classNameLength = buf.getInt();
-		final byte[] classNameBinary = new byte[classNameLength];
-		final byte[] persistableBinary = new byte[bytes.length - classNameLength - 4];
-		buf.get(classNameBinary);
+		final T retVal;
+		if (bytes[0] < 0) {
+			final Persistable persistable = PersistableFactory.getInstance().newInstance(
+					(short) -buf.getShort());
+			if ((persistable != null) && !expectedType.isInstance(persistable)) {
+				LOGGER.warn("error creating class, does not implement expected type");
+				return null;
+			}
+			retVal = (T) persistable;
+		}
+		else {
+			final int classNameLength = buf.getInt();
+			final byte[] classNameBinary = new byte[classNameLength];
+			buf.get(classNameBinary);
 
-		final String className = StringUtils.stringFromBinary(classNameBinary);
+			final String className = StringUtils.stringFromBinary(classNameBinary);
 
-		final T retVal = classFactory(
-				className,
-				expectedType);
+			retVal = classFactory(
+					className,
+					expectedType);
+		}
 		if (retVal != null) {
+			final byte[] persistableBinary = new byte[buf.remaining()];
 			buf.get(persistableBinary);
 			retVal.fromBinary(persistableBinary);
 		}
 		return retVal;
 	}
 
-	@SuppressWarnings("unchecked")
 	public static <T> T classFactory(
 			final String className,
 			final Class<T> expectedType ) {
-		Class<?> factoryType = null;
-
-		try {
-			factoryType = Class.forName(className);
-		}
-		catch (final ClassNotFoundException e) {
-			LOGGER.warn(
-					"error creating class: could not find class ",
-					e);
-		}
-
-		if (factoryType != null) {
-			Object factoryClassInst = null;
-
-			try {
-				// use the no arg constructor and make sure its accessible
-
-				// HP Fortify "Access Specifier Manipulation"
-				// This method is being modified by trusted code,
-				// in a way that is not influenced by user input
-				final Constructor<?> noArgConstructor = factoryType.getDeclaredConstructor();
-				noArgConstructor.setAccessible(true);
-				factoryClassInst = noArgConstructor.newInstance();
-			}
-			catch (final Exception e) {
-				LOGGER.warn(
-						"error creating class: could not create class ",
-						e);
-			}
-
-			if (factoryClassInst != null) {
-				if (!expectedType.isAssignableFrom(factoryClassInst.getClass())) {
-					LOGGER.warn("error creating class, does not implement expected type");
-				}
-				else {
-					return ((T) factoryClassInst);
-				}
-			}
-		}
-
-		return null;
+		return PersistableFactory.getInstance().newInstance(
+				className,
+				expectedType);
 	}
 }
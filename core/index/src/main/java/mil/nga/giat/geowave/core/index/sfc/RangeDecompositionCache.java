@@ -0,0 +1,55 @@
+package mil.nga.giat.geowave.core.index.sfc;
+
+/**
+ * A bounded cache of space filling curve range decompositions. A single
+ * instance (see RangeDecompositionCaches) is shared by all space filling curves
+ * so implementations must be safe for concurrent use.
+ *
+ */
+public interface RangeDecompositionCache
+{
+	/**
+	 * Get the cached decomposition for the key
+	 *
+	 * @param key
+	 *            the key describing the curve and the query
+	 * @return the cached decomposition or null if it is not cached
+	 */
+	public RangeDecomposition get(
+			RangeDecompositionCacheKey key );
+
+	/**
+	 * Cache the decomposition for the key, possibly evicting other entries to
+	 * stay within the maximum size
+	 *
+	 * @param key
+	 *            the key describing the curve and the query
+	 * @param decomposition
+	 *            the decomposition to cache
+	 */
+	public void put(
+			RangeDecompositionCacheKey key,
+			RangeDecomposition decomposition );
+
+	/**
+	 * Set the maximum number of decompositions to keep, a size of 0 or less
+	 * disables the cache
+	 *
+	 * @param maxSize
+	 *            the maximum number of cached decompositions
+	 */
+	public void setMaxSize(
+			int maxSize );
+
+	public int getMaxSize();
+
+	public int size();
+
+	public void clear();
+
+	public long getHitCount();
+
+	public long getMissCount();
+
+	public long getEvictionCount();
+}
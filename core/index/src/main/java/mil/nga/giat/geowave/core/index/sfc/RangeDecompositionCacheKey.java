@@ -0,0 +1,170 @@
+package mil.nga.giat.geowave.core.index.sfc;
+
+import java.util.Arrays;
+
+/**
+ * Identifies a range decomposition by the curve that produced it and the bounds
+ * of the query. Curves should supply the bounds quantized to their own cells
+ * whenever the decomposition only depends on those cells so that queries that
+ * differ only within a cell share the same entry; otherwise the raw bits of the
+ * query values are used.
+ *
+ */
+public class RangeDecompositionCacheKey
+{
+	private final SpaceFillingCurve sfc;
+	private final long[] minsPerDimension;
+	private final long[] maxesPerDimension;
+	private final boolean quantized;
+	private final boolean overInclusiveOnEdge;
+	private final int maxFilteredIndexedRanges;
+	private final int hashCode;
+
+	/**
+	 * Create a key from the query bounds quantized by the curve
+	 *
+	 * @param sfc
+	 *            the curve performing the decomposition
+	 * @param minsPerDimension
+	 *            the quantized minimum of the query per dimension
+	 * @param maxesPerDimension
+	 *            the quantized maximum of the query per dimension
+	 * @param overInclusiveOnEdge
+	 *            the edge handling of the decomposition
+	 * @param maxFilteredIndexedRanges
+	 *            the maximum number of ranges of the decomposition
+	 */
+	public RangeDecompositionCacheKey(
+			final SpaceFillingCurve sfc,
+			final long[] minsPerDimension,
+			final long[] maxesPerDimension,
+			final boolean overInclusiveOnEdge,
+			final int maxFilteredIndexedRanges ) {
+		this(
+				sfc,
+				minsPerDimension,
+				maxesPerDimension,
+				true,
+				overInclusiveOnEdge,
+				maxFilteredIndexedRanges);
+	}
+
+	/**
+	 * Create a key from the raw query bounds
+	 *
+	 * @param sfc
+	 *            the curve performing the decomposition
+	 * @param minsPerDimension
+	 *            the minimum of the query per dimension
+	 * @param maxesPerDimension
+	 *            the maximum of the query per dimension
+	 * @param overInclusiveOnEdge
+	 *            the edge handling of the decomposition
+	 * @param maxFilteredIndexedRanges
+	 *            the maximum number of ranges of the decomposition
+	 */
+	public RangeDecompositionCacheKey(
+			final SpaceFillingCurve sfc,
+			final double[] minsPerDimension,
+			final double[] maxesPerDimension,
+			final boolean overInclusiveOnEdge,
+			final int maxFilteredIndexedRanges ) {
+		this(
+				sfc,
+				toBits(minsPerDimension),
+				toBits(maxesPerDimension),
+				false,
+				overInclusiveOnEdge,
+				maxFilteredIndexedRanges);
+	}
+
+	private RangeDecompositionCacheKey(
+			final SpaceFillingCurve sfc,
+			final long[] minsPerDimension,
+			final long[] maxesPerDimension,
+			final boolean quantized,
+			final boolean overInclusiveOnEdge,
+			final int maxFilteredIndexedRanges ) {
+		this.sfc = sfc;
+		this.minsPerDimension = minsPerDimension;
+		this.maxesPerDimension = maxesPerDimension;
+		this.quantized = quantized;
+		this.overInclusiveOnEdge = overInclusiveOnEdge;
+		this.maxFilteredIndexedRanges = maxFilteredIndexedRanges;
+		// the curve's hash code is relatively expensive and the key is hashed
+		// repeatedly while it lives in the cache
+		hashCode = computeHashCode();
+	}
+
+	private static long[] toBits(
+			final double[] values ) {
+		final long[] retVal = new long[values.length];
+		for (int d = 0; d < values.length; d++) {
+			retVal[d] = Double.doubleToLongBits(values[d]);
+		}
+		return retVal;
+	}
+
+	private int computeHashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + maxFilteredIndexedRanges;
+		result = (prime * result) + Arrays.hashCode(maxesPerDimension);
+		result = (prime * result) + Arrays.hashCode(minsPerDimension);
+		result = (prime * result) + (overInclusiveOnEdge ? 1231 : 1237);
+		result = (prime * result) + (quantized ? 1231 : 1237);
+		result = (prime * result) + ((sfc == null) ? 0 : sfc.hashCode());
+		return result;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(
+			final Object obj ) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		final RangeDecompositionCacheKey other = (RangeDecompositionCacheKey) obj;
+		if (hashCode != other.hashCode) {
+			return false;
+		}
+		if (maxFilteredIndexedRanges != other.maxFilteredIndexedRanges) {
+			return false;
+		}
+		if (overInclusiveOnEdge != other.overInclusiveOnEdge) {
+			return false;
+		}
+		if (quantized != other.quantized) {
+			return false;
+		}
+		if (!Arrays.equals(
+				maxesPerDimension,
+				other.maxesPerDimension)) {
+			return false;
+		}
+		if (!Arrays.equals(
+				minsPerDimension,
+				other.minsPerDimension)) {
+			return false;
+		}
+		if (sfc == null) {
+			if (other.sfc != null) {
+				return false;
+			}
+		}
+		else if (!sfc.equals(other.sfc)) {
+			return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,51 @@
+package mil.nga.giat.geowave.core.index.sfc;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Holds the range decomposition cache shared by all space filling curves in
+ * this JVM. As the cache is not owned by any one data store, it is only
+ * configured explicitly: its initial size is read from the
+ * "RangeDecompositionCaches.maxSize" system property, and the application can
+ * resize it or replace it entirely by an alternate implementation.
+ *
+ */
+public class RangeDecompositionCaches
+{
+	private final static Logger LOGGER = Logger.getLogger(RangeDecompositionCaches.class);
+	public static final int DEFAULT_MAX_SIZE = 2000;
+	public static final String MAX_SIZE_PROPERTY = "RangeDecompositionCaches.maxSize";
+	private static volatile RangeDecompositionCache cache = new StripedLRURangeDecompositionCache(
+			getConfiguredMaxSize());
+
+	private static int getConfiguredMaxSize() {
+		final String maxSize = System.getProperty(MAX_SIZE_PROPERTY);
+		if (maxSize != null) {
+			try {
+				return Integer.parseInt(maxSize.trim());
+			}
+			catch (final NumberFormatException e) {
+				LOGGER.warn(
+						"Unable to parse " + MAX_SIZE_PROPERTY + " '" + maxSize + "', using the default size",
+						e);
+			}
+		}
+		return DEFAULT_MAX_SIZE;
+	}
+
+	public static RangeDecompositionCache getCache() {
+		return cache;
+	}
+
+	public static void setCache(
+			final RangeDecompositionCache cache ) {
+		RangeDecompositionCaches.cache = cache;
+	}
+
+	public static void setMaxSize(
+			final int maxSize ) {
+		if (cache.getMaxSize() != maxSize) {
+			cache.setMaxSize(maxSize);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package mil.nga.giat.geowave.core.index.sfc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A range decomposition cache that splits its entries across a fixed number of
+ * independently locked, access ordered stripes. Each stripe evicts its least
+ * recently used entry once it holds more than its share of the maximum size, so
+ * concurrent lookups only contend when their keys hash to the same stripe.
+ *
+ */
+public class StripedLRURangeDecompositionCache implements
+		RangeDecompositionCache
+{
+	private static final int DEFAULT_STRIPES = 16;
+	private final Stripe[] stripes;
+	private volatile int maxSize;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public StripedLRURangeDecompositionCache(
+			final int maxSize ) {
+		this(
+				maxSize,
+				DEFAULT_STRIPES);
+	}
+
+	public StripedLRURangeDecompositionCache(
+			final int maxSize,
+			final int stripeCount ) {
+		stripes = new Stripe[Math.max(
+				1,
+				stripeCount)];
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new Stripe(
+					evictionCount);
+		}
+		setMaxSize(maxSize);
+	}
+
+	private Stripe getStripe(
+			final RangeDecompositionCacheKey key ) {
+		// spread the hash so that keys differing only in the high bits do not
+		// end up in the same stripe
+		final int hash = key.hashCode() ^ (key.hashCode() >>> 16);
+		return stripes[(hash & Integer.MAX_VALUE) % stripes.length];
+	}
+
+	@Override
+	public RangeDecomposition get(
+			final RangeDecompositionCacheKey key ) {
+		final Stripe stripe = getStripe(key);
+		final RangeDecomposition decomposition;
+		synchronized (stripe) {
+			decomposition = stripe.get(key);
+		}
+		if (decomposition == null) {
+			missCount.incrementAndGet();
+		}
+		else {
+			hitCount.incrementAndGet();
+		}
+		return decomposition;
+	}
+
+	@Override
+	public void put(
+			final RangeDecompositionCacheKey key,
+			final RangeDecomposition decomposition ) {
+		if (maxSize <= 0) {
+			return;
+		}
+		final Stripe stripe = getStripe(key);
+		synchronized (stripe) {
+			stripe.put(
+					key,
+					decomposition);
+		}
+	}
+
+	@Override
+	public void setMaxSize(
+			final int maxSize ) {
+		this.maxSize = maxSize;
+		final int maxStripeSize = maxSize <= 0 ? 0 : Math.max(
+				1,
+				(int) Math.ceil((double) maxSize / stripes.length));
+		for (final Stripe stripe : stripes) {
+			synchronized (stripe) {
+				stripe.maxStripeSize = maxStripeSize;
+				stripe.trim();
+			}
+		}
+	}
+
+	@Override
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (final Stripe stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (final Stripe stripe : stripes) {
+			synchronized (stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+	@Override
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	@Override
+	public String toString() {
+		return "StripedLRURangeDecompositionCache [maxSize=" + maxSize + ", size=" + size() + ", hits=" + getHitCount()
+				+ ", misses=" + getMissCount() + ", evictions=" + getEvictionCount() + "]";
+	}
+
+	private static class Stripe extends
+			LinkedHashMap<RangeDecompositionCacheKey, RangeDecomposition>
+	{
+		private static final long serialVersionUID = 1L;
+		private final AtomicLong evictionCount;
+		private int maxStripeSize;
+
+		public Stripe(
+				final AtomicLong evictionCount ) {
+			super(
+					16,
+					.75F,
+					true);
+			this.evictionCount = evictionCount;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<RangeDecompositionCacheKey, RangeDecomposition> eldest ) {
+			if (size() > maxStripeSize) {
+				evictionCount.incrementAndGet();
+				return true;
+			}
+			return false;
+		}
+
+		private void trim() {
+			while (size() > maxStripeSize) {
+				remove(keySet().iterator().next());
+				evictionCount.incrementAndGet();
+			}
+		}
+	}
+}
@@ -4,9 +4,7 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.google.uzaygezen.core.CompactHilbertCurve;
 import com.google.uzaygezen.core.MultiDimensionalSpec;
@@ -14,6 +12,9 @@ import com.google.uzaygezen.core.MultiDimensionalSpec;
 import mil.nga.giat.geowave.core.index.ByteArrayUtils;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
 import mil.nga.giat.geowave.core.index.sfc.RangeDecomposition;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCache;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCacheKey;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCaches;
 import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
 import mil.nga.giat.geowave.core.index.sfc.SpaceFillingCurve;
 import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
@@ -25,87 +26,14 @@ import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
 public class HilbertSFC implements
 		SpaceFillingCurve
 {
-	private static class QueryCacheKey
-	{
-		private final double[] minsPerDimension;
-		private final double[] maxesPerDimension;
-		private final boolean overInclusiveOnEdge;
-		private final int maxFilteredIndexedRanges;
-
-		public QueryCacheKey(
-				final double[] minsPerDimension,
-				final double[] maxesPerDimension,
-				final boolean overInclusiveOnEdge,
-				final int maxFilteredIndexedRanges ) {
-			this.minsPerDimension = minsPerDimension;
-			this.maxesPerDimension = maxesPerDimension;
-			this.overInclusiveOnEdge = overInclusiveOnEdge;
-			this.maxFilteredIndexedRanges = maxFilteredIndexedRanges;
-		}
-
-		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = (prime * result) + maxFilteredIndexedRanges;
-			result = (prime * result) + Arrays.hashCode(maxesPerDimension);
-			result = (prime * result) + Arrays.hashCode(minsPerDimension);
-			result = (prime * result) + (overInclusiveOnEdge ? 1231 : 1237);
-			return result;
-		}
-
-		@Override
-		public boolean equals(
-				final Object obj ) {
-			if (this == obj) {
-				return true;
-			}
-			if (obj == null) {
-				return false;
-			}
-			if (getClass() != obj.getClass()) {
-				return false;
-			}
-			final QueryCacheKey other = (QueryCacheKey) obj;
-			if (maxFilteredIndexedRanges != other.maxFilteredIndexedRanges) {
-				return false;
-			}
-			if (!Arrays.equals(
-					maxesPerDimension,
-					other.maxesPerDimension)) {
-				return false;
-			}
-			if (!Arrays.equals(
-					minsPerDimension,
-					other.minsPerDimension)) {
-				return false;
-			}
-			if (overInclusiveOnEdge != other.overInclusiveOnEdge) {
-				return false;
-			}
-			return true;
-		}
-	}
-
-	private static final int MAX_CACHED_QUERIES = 500;
-	private final Map<QueryCacheKey, RangeDecomposition> queryDecompositionCache = new LinkedHashMap<QueryCacheKey, RangeDecomposition>(
-			MAX_CACHED_QUERIES + 1,
-			.75F,
-			true) {
-		private static final long serialVersionUID = 1L;
-
-		@Override
-		public boolean removeEldestEntry(
-				final Map.Entry<QueryCacheKey, RangeDecomposition> eldest ) {
-			return size() > MAX_CACHED_QUERIES;
-		}
-	};
 	protected CompactHilbertCurve compactHilbertCurve;
 	protected SFCDimensionDefinition[] dimensionDefinitions;
 	protected int totalPrecision;
+	private boolean quantizableCacheKeys;
 
 	/** Tunables **/
 	private final static boolean REMOVE_VACUUM = true;
+	private final static boolean REENTRANT_OPERATIONS = true;
 	protected HilbertSFCOperations getIdOperations;
 	protected HilbertSFCOperations decomposeQueryOperations;
 
@@ -136,6 +64,14 @@ public class HilbertSFC implements
 						bitsPerDimension));
 
 		dimensionDefinitions = dimensionDefs;
+		// normalized values can only serve as cache keys if they fit in a long
+		quantizableCacheKeys = true;
+		for (final Integer bits : bitsPerDimension) {
+			if (bits > 62) {
+				quantizableCacheKeys = false;
+				break;
+			}
+		}
 		setOptimalOperations(
 				totalPrecision,
 				bitsPerDimension,
@@ -157,26 +93,28 @@ public class HilbertSFC implements
 			}
 		}
 		if (primitiveForGetId) {
-			final PrimitiveHilbertSFCOperations primitiveOps = new PrimitiveHilbertSFCOperations();
-			primitiveOps.init(dimensionDefs);
+			final HilbertSFCOperations primitiveOps = createOperations(
+					new PrimitiveHilbertSFCOperations(),
+					dimensionDefs);
 			getIdOperations = primitiveOps;
 			if (primitiveForQueryDecomposition) {
 				decomposeQueryOperations = primitiveOps;
 			}
 			else {
-				final UnboundedHilbertSFCOperations unboundedOps = new UnboundedHilbertSFCOperations();
-				unboundedOps.init(dimensionDefs);
-				decomposeQueryOperations = unboundedOps;
+				decomposeQueryOperations = createOperations(
+						new UnboundedHilbertSFCOperations(),
+						dimensionDefs);
 			}
 		}
 		else {
-			final UnboundedHilbertSFCOperations unboundedOps = new UnboundedHilbertSFCOperations();
-			unboundedOps.init(dimensionDefs);
+			final HilbertSFCOperations unboundedOps = createOperations(
+					new UnboundedHilbertSFCOperations(),
+					dimensionDefs);
 			getIdOperations = unboundedOps;
 			if (primitiveForQueryDecomposition) {
-				final PrimitiveHilbertSFCOperations primitiveOps = new PrimitiveHilbertSFCOperations();
-				primitiveOps.init(dimensionDefs);
-				decomposeQueryOperations = primitiveOps;
+				decomposeQueryOperations = createOperations(
+						new PrimitiveHilbertSFCOperations(),
+						dimensionDefs);
 			}
 			else {
 				decomposeQueryOperations = unboundedOps;
@@ -184,6 +122,26 @@ public class HilbertSFC implements
 		}
 	}
 
+	/**
+	 * Initializes the operations and, if concurrent access is enabled, wraps
+	 * them so that each thread uses its own compact hilbert curve instead of
+	 * synchronizing on the shared one
+	 */
+	private static HilbertSFCOperations createOperations(
+			final HilbertSFCOperations operations,
+			final SFCDimensionDefinition[] dimensionDefs ) {
+		final HilbertSFCOperations retVal;
+		if (REENTRANT_OPERATIONS) {
+			retVal = new ReentrantHilbertSFCOperations(
+					operations);
+		}
+		else {
+			retVal = operations;
+		}
+		retVal.init(dimensionDefs);
+		return retVal;
+	}
+
 	/***
 	 * {@inheritDoc}
 	 */
@@ -220,12 +178,12 @@ public class HilbertSFC implements
 		if (maxFilteredIndexedRanges == -1) {
 			maxFilteredIndexedRanges = Integer.MAX_VALUE;
 		}
-		final QueryCacheKey key = new QueryCacheKey(
-				query.getMinValuesPerDimension(),
-				query.getMaxValuesPerDimension(),
+		final RangeDecompositionCache cache = RangeDecompositionCaches.getCache();
+		final RangeDecompositionCacheKey key = getCacheKey(
+				query,
 				overInclusiveOnEdge,
 				maxFilteredIndexedRanges);
-		RangeDecomposition rangeDecomp = queryDecompositionCache.get(key);
+		RangeDecomposition rangeDecomp = cache.get(key);
 		if (rangeDecomp == null) {
 			rangeDecomp = decomposeQueryOperations.decomposeRange(
 					query.getDataPerDimension(),
@@ -235,13 +193,51 @@ public class HilbertSFC implements
 					maxFilteredIndexedRanges,
 					REMOVE_VACUUM,
 					overInclusiveOnEdge);
-			queryDecompositionCache.put(
+			cache.put(
 					key,
 					rangeDecomp);
 		}
 		return rangeDecomp;
 	}
 
+	/**
+	 * The decomposition only depends on the cells of this curve that the query
+	 * touches, so when possible the query is quantized to those cells using the
+	 * same normalization as the decomposition itself
+	 */
+	private RangeDecompositionCacheKey getCacheKey(
+			final MultiDimensionalNumericData query,
+			final boolean overInclusiveOnEdge,
+			final int maxFilteredIndexedRanges ) {
+		final double[] mins = query.getMinValuesPerDimension();
+		final double[] maxes = query.getMaxValuesPerDimension();
+		if (overInclusiveOnEdge && quantizableCacheKeys) {
+			final long[] quantizedMins = new long[mins.length];
+			final long[] quantizedMaxes = new long[maxes.length];
+			for (int d = 0; d < mins.length; d++) {
+				final long[] range = decomposeQueryOperations.normalizeRange(
+						mins[d],
+						maxes[d],
+						d,
+						dimensionDefinitions[d]);
+				quantizedMins[d] = range[0];
+				quantizedMaxes[d] = range[1];
+			}
+			return new RangeDecompositionCacheKey(
+					this,
+					quantizedMins,
+					quantizedMaxes,
+					overInclusiveOnEdge,
+					maxFilteredIndexedRanges);
+		}
+		return new RangeDecompositionCacheKey(
+				this,
+				mins,
+				maxes,
+				overInclusiveOnEdge,
+				maxFilteredIndexedRanges);
+	}
+
 	protected static byte[] fitExpectedByteCount(
 			final int expectedByteCount,
 			final byte[] bytes ) {
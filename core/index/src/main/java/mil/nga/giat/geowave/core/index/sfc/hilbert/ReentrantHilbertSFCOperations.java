@@ -0,0 +1,138 @@
+package mil.nga.giat.geowave.core.index.sfc.hilbert;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.uzaygezen.core.CompactHilbertCurve;
+import com.google.uzaygezen.core.MultiDimensionalSpec;
+
+import mil.nga.giat.geowave.core.index.sfc.RangeDecomposition;
+import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+
+/**
+ * This wraps another set of Hilbert SFC operations so that they can be called
+ * concurrently without contending on a single shared lock. The compact Hilbert
+ * curve keeps mutable scratch state internally, so rather than serializing all
+ * threads on one curve instance, each thread lazily gets its own curve built
+ * from the same multi-dimensional spec. The curve passed into each method is
+ * ignored in favor of the calling thread's curve.
+ *
+ */
+public class ReentrantHilbertSFCOperations implements
+		HilbertSFCOperations
+{
+	private final HilbertSFCOperations delegate;
+	private ThreadLocal<CompactHilbertCurve> compactHilbertCurve;
+
+	public ReentrantHilbertSFCOperations(
+			final HilbertSFCOperations delegate ) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void init(
+			final SFCDimensionDefinition[] dimensionDefs ) {
+		delegate.init(dimensionDefs);
+		final List<Integer> bitsPerDimension = new ArrayList<Integer>();
+		for (final SFCDimensionDefinition dimension : dimensionDefs) {
+			bitsPerDimension.add(dimension.getBitsOfPrecision());
+		}
+		final MultiDimensionalSpec spec = new MultiDimensionalSpec(
+				bitsPerDimension);
+		compactHilbertCurve = new ThreadLocal<CompactHilbertCurve>() {
+			@Override
+			protected CompactHilbertCurve initialValue() {
+				return new CompactHilbertCurve(
+						spec);
+			}
+		};
+	}
+
+	public HilbertSFCOperations getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public byte[] convertToHilbert(
+			final double[] values,
+			final CompactHilbertCurve sharedCompactHilbertCurve,
+			final SFCDimensionDefinition[] dimensionDefinitions ) {
+		return delegate.convertToHilbert(
+				values,
+				compactHilbertCurve.get(),
+				dimensionDefinitions);
+	}
+
+	@Override
+	public MultiDimensionalNumericData convertFromHilbert(
+			final byte[] hilbertValue,
+			final CompactHilbertCurve sharedCompactHilbertCurve,
+			final SFCDimensionDefinition[] dimensionDefinitions ) {
+		return delegate.convertFromHilbert(
+				hilbertValue,
+				compactHilbertCurve.get(),
+				dimensionDefinitions);
+	}
+
+	@Override
+	public long[] indicesFromHilbert(
+			final byte[] hilbertValue,
+			final CompactHilbertCurve sharedCompactHilbertCurve,
+			final SFCDimensionDefinition[] dimensionDefinitions ) {
+		return delegate.indicesFromHilbert(
+				hilbertValue,
+				compactHilbertCurve.get(),
+				dimensionDefinitions);
+	}
+
+	@Override
+	public RangeDecomposition decomposeRange(
+			final NumericData[] rangePerDimension,
+			final CompactHilbertCurve sharedCompactHilbertCurve,
+			final SFCDimensionDefinition[] dimensionDefinitions,
+			final int totalPrecision,
+			final int maxFilteredIndexedRanges,
+			final boolean removeVacuum,
+			final boolean overInclusiveOnEdge ) {
+		return delegate.decomposeRange(
+				rangePerDimension,
+				compactHilbertCurve.get(),
+				dimensionDefinitions,
+				totalPrecision,
+				maxFilteredIndexedRanges,
+				removeVacuum,
+				overInclusiveOnEdge);
+	}
+
+	@Override
+	public BigInteger getEstimatedIdCount(
+			final MultiDimensionalNumericData data,
+			final SFCDimensionDefinition[] dimensionDefinitions ) {
+		return delegate.getEstimatedIdCount(
+				data,
+				dimensionDefinitions);
+	}
+
+	@Override
+	public long[] normalizeRange(
+			final double minValue,
+			final double maxValue,
+			final int dimension,
+			final SFCDimensionDefinition boundedDimensionDefinition )
+			throws IllegalArgumentException {
+		return delegate.normalizeRange(
+				minValue,
+				maxValue,
+				dimension,
+				boundedDimensionDefinition);
+	}
+
+	@Override
+	public double[] getInsertionIdRangePerDimension(
+			final SFCDimensionDefinition[] dimensionDefinitions ) {
+		return delegate.getInsertionIdRangePerDimension(dimensionDefinitions);
+	}
+}
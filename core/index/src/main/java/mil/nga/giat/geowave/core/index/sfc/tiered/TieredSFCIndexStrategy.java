@@ -56,7 +56,11 @@ public class TieredSFCIndexStrategy implements
 	private ImmutableBiMap<Integer, Byte> orderedSfcIndexToTierId;
 	private NumericDimensionDefinition[] baseDefinitions;
 	private long maxEstimatedDuplicateIdsPerDimension;
-	private final Map<Integer, BigInteger> maxEstimatedDuplicatesPerDimensionalExtent = new HashMap<>();
+	// these lookups are derived from the persisted fields above and are only
+	// ever replaced wholesale (never modified in place) so that insertion IDs
+	// and query ranges can be computed concurrently without synchronization
+	private volatile byte[] orderedSfcIndexToTierIdLookup;
+	private volatile BigInteger[] maxEstimatedDuplicatesPerDimensionalExtent;
 
 	protected TieredSFCIndexStrategy() {}
 
@@ -91,19 +95,28 @@ public class TieredSFCIndexStrategy implements
 		this.baseDefinitions = baseDefinitions;
 		this.orderedSfcIndexToTierId = orderedSfcIndexToTierId;
 		this.maxEstimatedDuplicateIdsPerDimension = maxEstimatedDuplicateIdsPerDimension;
+		initTierIdLookup();
 		initDuplicateIdLookup();
 
 	}
 
+	private void initTierIdLookup() {
+		final byte[] tierIdLookup = new byte[orderedSfcs.length];
+		for (int sfcIndex = 0; sfcIndex < orderedSfcs.length; sfcIndex++) {
+			tierIdLookup[sfcIndex] = orderedSfcIndexToTierId.get(sfcIndex);
+		}
+		orderedSfcIndexToTierIdLookup = tierIdLookup;
+	}
+
 	private void initDuplicateIdLookup() {
+		final BigInteger[] duplicateIdLookup = new BigInteger[baseDefinitions.length + 1];
 		for (int i = 0; i <= baseDefinitions.length; i++) {
 			final long maxEstimatedDuplicateIds = (long) Math.pow(
 					maxEstimatedDuplicateIdsPerDimension,
 					i);
-			maxEstimatedDuplicatesPerDimensionalExtent.put(
-					i,
-					BigInteger.valueOf(maxEstimatedDuplicateIds));
+			duplicateIdLookup[i] = BigInteger.valueOf(maxEstimatedDuplicateIds);
 		}
+		maxEstimatedDuplicatesPerDimensionalExtent = duplicateIdLookup;
 	}
 
 	@Override
@@ -120,13 +133,14 @@ public class TieredSFCIndexStrategy implements
 				baseDefinitions);
 		final TierIndexMetaData metaData = ((hints.length > 0) && (hints[0] != null) && (hints[0] instanceof TierIndexMetaData)) ? (TierIndexMetaData) hints[0]
 				: null;
+		final byte[] tierIdLookup = orderedSfcIndexToTierIdLookup;
 
 		for (int sfcIndex = orderedSfcs.length - 1; sfcIndex >= 0; sfcIndex--) {
 			if ((metaData != null) && (metaData.tierCounts[sfcIndex] == 0)) {
 				continue;
 			}
 			final SpaceFillingCurve sfc = orderedSfcs[sfcIndex];
-			final Byte tier = orderedSfcIndexToTierId.get(sfcIndex);
+			final byte tier = tierIdLookup[sfcIndex];
 			queryRanges.addAll(getQueryRanges(
 					binnedQueries,
 					sfc,
@@ -205,7 +219,7 @@ public class TieredSFCIndexStrategy implements
 			final MultiDimensionalNumericData indexedData ) {
 		return internalGetInsertionIds(
 				indexedData,
-				maxEstimatedDuplicatesPerDimensionalExtent.get(getRanges(indexedData)));
+				maxEstimatedDuplicatesPerDimensionalExtent[getRanges(indexedData)]);
 	}
 
 	private static int getRanges(
@@ -318,13 +332,14 @@ public class TieredSFCIndexStrategy implements
 				baseDefinitions);
 		final TierIndexMetaData metaData = ((hints.length > 0) && (hints[0] != null) && (hints[0] instanceof TierIndexMetaData)) ? (TierIndexMetaData) hints[0]
 				: null;
+		final byte[] tierIdLookup = orderedSfcIndexToTierIdLookup;
 
 		for (int sfcIndex = orderedSfcs.length - 1; sfcIndex >= 0; sfcIndex--) {
 			if ((metaData != null) && (metaData.tierCounts[sfcIndex] == 0)) {
 				continue;
 			}
 			final SpaceFillingCurve sfc = orderedSfcs[sfcIndex];
-			final Byte tier = orderedSfcIndexToTierId.get(sfcIndex);
+			final byte tier = tierIdLookup[sfcIndex];
 			coordRanges.add(getCoordinateRanges(
 					binRangesPerDimension,
 					sfc,
@@ -446,7 +461,7 @@ public class TieredSFCIndexStrategy implements
 		return baseDefinitions;
 	}
 
-	synchronized private List<ByteArrayId> getRowIds(
+	private List<ByteArrayId> getRowIds(
 			final BinnedNumericDataset index,
 			final BigInteger maxEstimatedDuplicateIds ) {
 		// most times this should be a single row ID, but if the lowest
@@ -454,11 +469,12 @@ public class TieredSFCIndexStrategy implements
 		// will be multiple row IDs
 
 		// what tier does this entry belong in?
+		final byte[] tierIdLookup = orderedSfcIndexToTierIdLookup;
 		for (int sfcIndex = orderedSfcs.length - 1; sfcIndex >= 0; sfcIndex--) {
 			final SpaceFillingCurve sfc = orderedSfcs[sfcIndex];
 			// loop through space filling curves and stop when both the min and
 			// max of the ranges fit the same row ID
-			final byte tierId = orderedSfcIndexToTierId.get(sfcIndex);
+			final byte tierId = tierIdLookup[sfcIndex];
 			final List<ByteArrayId> rowIdsAtTier = getRowIdsAtTier(
 					index,
 					tierId,
@@ -625,6 +641,7 @@ public class TieredSFCIndexStrategy implements
 		}
 		orderedSfcIndexToTierId = bimapBuilder.build();
 
+		initTierIdLookup();
 		initDuplicateIdLookup();
 	}
 
@@ -10,6 +10,9 @@ import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.ByteArrayRange;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
 import mil.nga.giat.geowave.core.index.sfc.RangeDecomposition;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCache;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCacheKey;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCaches;
 import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
 import mil.nga.giat.geowave.core.index.sfc.SpaceFillingCurve;
 import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
@@ -23,6 +26,9 @@ import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
 public class ZOrderSFC implements
 		SpaceFillingCurve
 {
+	// the number of bits of precision per dimension that can be exactly
+	// quantized using double arithmetic
+	private static final int MAX_QUANTIZABLE_CARDINALITY = 52;
 	private SFCDimensionDefinition[] dimensionDefs;
 	private int cardinalityPerDimension;
 	private double binsPerDimension;
@@ -133,6 +139,18 @@ public class ZOrderSFC implements
 			normalizedMins[d] = dimensionDefs[d].normalize(queryMins[d]);
 			normalizedMaxes[d] = dimensionDefs[d].normalize(queryMaxes[d]);
 		}
+		final RangeDecompositionCache cache = RangeDecompositionCaches.getCache();
+		final RangeDecompositionCacheKey key = getCacheKey(
+				queryMins,
+				queryMaxes,
+				normalizedMins,
+				normalizedMaxes,
+				overInclusiveOnEdge,
+				maxFilteredIndexedRanges);
+		final RangeDecomposition cachedDecomposition = cache.get(key);
+		if (cachedDecomposition != null) {
+			return cachedDecomposition;
+		}
 		final byte[] minZorder = ZOrderUtils.encode(
 				normalizedMins,
 				cardinalityPerDimension,
@@ -141,7 +159,7 @@ public class ZOrderSFC implements
 				normalizedMaxes,
 				cardinalityPerDimension,
 				query.getDimensionCount());
-		return new RangeDecomposition(
+		final RangeDecomposition decomposition = new RangeDecomposition(
 				new ByteArrayRange[] {
 					new ByteArrayRange(
 							new ByteArrayId(
@@ -149,6 +167,53 @@ public class ZOrderSFC implements
 							new ByteArrayId(
 									maxZorder))
 				});
+		cache.put(
+				key,
+				decomposition);
+		return decomposition;
+	}
+
+	/**
+	 * The Z-Order encoding bisects each normalized value into its bits of
+	 * precision, which is the same cell as flooring the scaled value as long as
+	 * the scaled value is exactly representable as a double
+	 */
+	private RangeDecompositionCacheKey getCacheKey(
+			final double[] queryMins,
+			final double[] queryMaxes,
+			final double[] normalizedMins,
+			final double[] normalizedMaxes,
+			final boolean overInclusiveOnEdge,
+			final int maxFilteredIndexedRanges ) {
+		if (cardinalityPerDimension <= MAX_QUANTIZABLE_CARDINALITY) {
+			final long[] quantizedMins = new long[normalizedMins.length];
+			final long[] quantizedMaxes = new long[normalizedMaxes.length];
+			for (int d = 0; d < normalizedMins.length; d++) {
+				quantizedMins[d] = quantize(normalizedMins[d]);
+				quantizedMaxes[d] = quantize(normalizedMaxes[d]);
+			}
+			return new RangeDecompositionCacheKey(
+					this,
+					quantizedMins,
+					quantizedMaxes,
+					overInclusiveOnEdge,
+					maxFilteredIndexedRanges);
+		}
+		return new RangeDecompositionCacheKey(
+				this,
+				queryMins,
+				queryMaxes,
+				overInclusiveOnEdge,
+				maxFilteredIndexedRanges);
+	}
+
+	private long quantize(
+			final double normalizedValue ) {
+		return Math.max(
+				0L,
+				Math.min(
+						(long) Math.floor(normalizedValue * binsPerDimension),
+						(long) binsPerDimension - 1L));
 	}
 
 	/***
@@ -1,9 +1,13 @@
 package mil.nga.giat.geowave.core.index;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 
+import mil.nga.giat.geowave.core.index.dimension.BasicDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -52,4 +56,56 @@ public class PersistenceUtilsTest
 					persistable
 				}))).size() == 2);
 	}
+
+	@Test
+	public void testRegisteredPersistable() {
+		final NumericRange range = new NumericRange(
+				-10.5,
+				20);
+		final byte[] binary = PersistenceUtils.toBinary(range);
+		// a registered class is identified by 2 bytes instead of its name
+		Assert.assertEquals(
+				2 + range.toBinary().length,
+				binary.length);
+		final NumericRange result = PersistenceUtils.fromBinary(
+				binary,
+				NumericRange.class);
+		Assert.assertEquals(
+				range,
+				result);
+		Assert.assertNull(PersistenceUtils.fromBinary(
+				binary,
+				BasicDimensionDefinition.class));
+	}
+
+	@Test
+	public void testReadsClassNameEncoding() {
+		final NumericRange range = new NumericRange(
+				-10.5,
+				20);
+		// the encoding written before classes were registered
+		final byte[] className = StringUtils.stringToBinary(NumericRange.class.getName());
+		final byte[] rangeBinary = range.toBinary();
+		final ByteBuffer buf = ByteBuffer.allocate(4 + className.length + rangeBinary.length);
+		buf.putInt(className.length);
+		buf.put(className);
+		buf.put(rangeBinary);
+		Assert.assertEquals(
+				range,
+				PersistenceUtils.fromBinary(
+						buf.array(),
+						NumericRange.class));
+
+		// unregistered classes are still written with their name
+		final byte[] binary = PersistenceUtils.toBinary(new APersistable());
+		Assert.assertEquals(
+				APersistable.class,
+				PersistenceUtils.fromBinary(
+						binary,
+						Persistable.class).getClass());
+		Assert.assertEquals(
+				ByteBuffer.wrap(
+						binary).getInt(),
+				StringUtils.stringToBinary(APersistable.class.getName()).length);
+	}
 }
@@ -0,0 +1,256 @@
+package mil.nga.giat.geowave.core.index.sfc;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.dimension.BasicDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+
+public class StripedLRURangeDecompositionCacheTest
+{
+	private RangeDecompositionCache originalCache;
+
+	@Before
+	public void setUp() {
+		originalCache = RangeDecompositionCaches.getCache();
+	}
+
+	@After
+	public void tearDown() {
+		RangeDecompositionCaches.setCache(originalCache);
+	}
+
+	private static SpaceFillingCurve createCurve(
+			final SFCType type ) {
+		return SFCFactory.createSpaceFillingCurve(
+				new SFCDimensionDefinition[] {
+					new SFCDimensionDefinition(
+							new BasicDimensionDefinition(
+									-180,
+									180),
+							20),
+					new SFCDimensionDefinition(
+							new BasicDimensionDefinition(
+									-90,
+									90),
+							20)
+				},
+				type);
+	}
+
+	private static BasicNumericDataset createQuery(
+			final double minX,
+			final double minY,
+			final double maxX,
+			final double maxY ) {
+		return new BasicNumericDataset(
+				new NumericData[] {
+					new NumericRange(
+							minX,
+							maxX),
+					new NumericRange(
+							minY,
+							maxY)
+				});
+	}
+
+	private static RangeDecomposition createDecomposition() {
+		return new RangeDecomposition(
+				new ByteArrayRange[] {
+					new ByteArrayRange(
+							new ByteArrayId(
+									"a"),
+							new ByteArrayId(
+									"b"))
+				});
+	}
+
+	@Test
+	public void testHitsMissesAndEvictions() {
+		final SpaceFillingCurve sfc = createCurve(SFCType.HILBERT);
+		final StripedLRURangeDecompositionCache cache = new StripedLRURangeDecompositionCache(
+				4,
+				1);
+		for (int i = 0; i < 6; i++) {
+			final RangeDecompositionCacheKey key = new RangeDecompositionCacheKey(
+					sfc,
+					new long[] {
+						i
+					},
+					new long[] {
+						i
+					},
+					true,
+					-1);
+			Assert.assertNull(cache.get(key));
+			cache.put(
+					key,
+					createDecomposition());
+			Assert.assertNotNull(cache.get(key));
+		}
+		Assert.assertEquals(
+				4,
+				cache.size());
+		Assert.assertEquals(
+				6,
+				cache.getHitCount());
+		Assert.assertEquals(
+				6,
+				cache.getMissCount());
+		Assert.assertEquals(
+				2,
+				cache.getEvictionCount());
+
+		// the least recently used entries are the ones evicted
+		Assert.assertNull(cache.get(new RangeDecompositionCacheKey(
+				sfc,
+				new long[] {
+					0
+				},
+				new long[] {
+					0
+				},
+				true,
+				-1)));
+		Assert.assertNotNull(cache.get(new RangeDecompositionCacheKey(
+				sfc,
+				new long[] {
+					5
+				},
+				new long[] {
+					5
+				},
+				true,
+				-1)));
+
+		cache.setMaxSize(2);
+		Assert.assertEquals(
+				2,
+				cache.size());
+		Assert.assertEquals(
+				4,
+				cache.getEvictionCount());
+
+		cache.setMaxSize(0);
+		Assert.assertEquals(
+				0,
+				cache.size());
+	}
+
+	@Test
+	public void testKeysDistinguishCurvesAndQuantization() {
+		final SpaceFillingCurve hilbert = createCurve(SFCType.HILBERT);
+		final SpaceFillingCurve zorder = createCurve(SFCType.ZORDER);
+		final RangeDecompositionCacheKey hilbertKey = new RangeDecompositionCacheKey(
+				hilbert,
+				new long[] {
+					1
+				},
+				new long[] {
+					2
+				},
+				true,
+				-1);
+		Assert.assertEquals(
+				hilbertKey,
+				new RangeDecompositionCacheKey(
+						createCurve(SFCType.HILBERT),
+						new long[] {
+							1
+						},
+						new long[] {
+							2
+						},
+						true,
+						-1));
+		Assert.assertNotEquals(
+				hilbertKey,
+				new RangeDecompositionCacheKey(
+						zorder,
+						new long[] {
+							1
+						},
+						new long[] {
+							2
+						},
+						true,
+						-1));
+		Assert.assertNotEquals(
+				hilbertKey,
+				new RangeDecompositionCacheKey(
+						hilbert,
+						new long[] {
+							1
+						},
+						new long[] {
+							2
+						},
+						true,
+						10));
+		Assert.assertNotEquals(
+				hilbertKey,
+				new RangeDecompositionCacheKey(
+						hilbert,
+						new double[] {
+							Double.longBitsToDouble(1)
+						},
+						new double[] {
+							Double.longBitsToDouble(2)
+						},
+						true,
+						-1));
+	}
+
+	@Test
+	public void testQueriesWithinTheSameCellsShareDecompositions() {
+		final StripedLRURangeDecompositionCache cache = new StripedLRURangeDecompositionCache(
+				100);
+		RangeDecompositionCaches.setCache(cache);
+		for (final SFCType type : SFCType.values()) {
+			cache.clear();
+			final SpaceFillingCurve sfc = createCurve(type);
+			final RangeDecomposition decomposition = sfc.decomposeRange(
+					createQuery(
+							10.0,
+							20.0,
+							11.0,
+							21.0),
+					true,
+					-1);
+			final long hits = cache.getHitCount();
+			// a cell at 20 bits of precision is 360/2^20 degrees wide, so
+			// these are within the same cells
+			Assert.assertSame(
+					decomposition,
+					sfc.decomposeRange(
+							createQuery(
+									10.0000001,
+									20.0000001,
+									11.0000001,
+									21.0000001),
+							true,
+							-1));
+			Assert.assertEquals(
+					hits + 1,
+					cache.getHitCount());
+			// but this is not
+			Assert.assertNotSame(
+					decomposition,
+					sfc.decomposeRange(
+							createQuery(
+									10.5,
+									20.0,
+									11.0,
+									21.0),
+							true,
+							-1));
+		}
+	}
+}
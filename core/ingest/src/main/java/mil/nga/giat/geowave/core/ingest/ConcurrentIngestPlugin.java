@@ -0,0 +1,17 @@
+package mil.nga.giat.geowave.core.ingest;
+
+/**
+ * Marks an ingest plugin whose conversion to GeoWaveData is safe to call from
+ * multiple threads at the same time. Ingest drivers and pipelines that convert
+ * with several threads only do so concurrently for plugins with this marker,
+ * and convert the inputs of any other plugin one at a time.
+ * 
+ * @param <I>
+ *            The type for the input data
+ * @param <O>
+ *            The type that represents each data entry being ingested
+ */
+public interface ConcurrentIngestPlugin<I, O> extends
+		IngestPluginBase<I, O>
+{
+}
@@ -2,7 +2,9 @@ package mil.nga.giat.geowave.core.ingest.avro;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.avro.Schema;
@@ -17,7 +19,11 @@ import org.apache.log4j.Logger;
 /**
  * Generic Avro serializer/deserializer, can convert Avro Java object to a byte
  * array and a byte array back to a usable Avro Java object.
- * 
+ *
+ * This is thread-safe without locking, each thread keeps its own datum readers
+ * and writers, output buffer, encoder and decoder which are reused across
+ * calls.
+ *
  * @param <T>
  *            - Base Avro class extended by all generated class files
  */
@@ -27,35 +33,27 @@ public class GenericAvroSerializer<T>
 
 	private static final EncoderFactory ef = EncoderFactory.get();
 	private static final DecoderFactory df = DecoderFactory.get();
-	private static final Map<String, SpecificDatumWriter> writers = new HashMap<>();
-	private static final Map<String, SpecificDatumReader> readers = new HashMap<>();
+	private static final ThreadLocal<SerializerState> serializerState = new ThreadLocal<SerializerState>() {
+		@Override
+		protected SerializerState initialValue() {
+			return new SerializerState();
+		}
+	};
 
 	public GenericAvroSerializer() {}
 
-	synchronized public static <T> byte[] serialize(
+	public static <T> byte[] serialize(
 			final T avroObject,
 			final Schema avroSchema ) {
-
+		final SerializerState state = serializerState.get();
 		try {
-			final ByteArrayOutputStream os = new ByteArrayOutputStream();
-			final BinaryEncoder encoder = ef.binaryEncoder(
-					os,
-					null);
-
-			final String schemaName = getSchemaName(avroSchema);
-			if (!writers.containsKey(schemaName)) {
-				writers.put(
-						schemaName,
-						new SpecificDatumWriter<T>(
-								avroSchema));
-			}
-
-			final SpecificDatumWriter<T> writer = writers.get(schemaName);
+			final SpecificDatumWriter<T> writer = state.getWriter(avroSchema);
+			final BinaryEncoder encoder = state.resetEncoder();
 			writer.write(
 					avroObject,
 					encoder);
 			encoder.flush();
-			return os.toByteArray();
+			return state.out.toByteArray();
 		}
 		catch (final IOException e) {
 			LOGGER.error(
@@ -65,25 +63,61 @@ public class GenericAvroSerializer<T>
 		}
 	}
 
-	synchronized public static <T> T deserialize(
+	/**
+	 * Serialize a batch of records to one byte array, which can be read back
+	 * with deserializeBatch
+	 */
+	public static <T> byte[] serializeBatch(
+			final List<T> avroObjects,
+			final Schema avroSchema ) {
+		final SerializerState state = serializerState.get();
+		try {
+			final SpecificDatumWriter<T> writer = state.getWriter(avroSchema);
+			final BinaryEncoder encoder = state.resetEncoder();
+			for (final T avroObject : avroObjects) {
+				writer.write(
+						avroObject,
+						encoder);
+			}
+			encoder.flush();
+			return state.out.toByteArray();
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Unable to serialize Avro records to byte[]: " + e.getMessage(),
+					e);
+			return null;
+		}
+	}
+
+	public static <T> T deserialize(
 			final byte[] avroData,
 			final Schema avroSchema ) {
+		return deserialize(
+				avroData,
+				avroSchema,
+				null);
+	}
+
+	/**
+	 *
+	 * @param reuse
+	 *            a previously deserialized record that can be overwritten with
+	 *            the contents of this one, or null to create a new record
+	 */
+	public static <T> T deserialize(
+			final byte[] avroData,
+			final Schema avroSchema,
+			final T reuse ) {
+		final SerializerState state = serializerState.get();
 		try {
-			final BinaryDecoder decoder = df.binaryDecoder(
+			final SpecificDatumReader<T> reader = state.getReader(avroSchema);
+			state.decoder = df.binaryDecoder(
 					avroData,
-					null);
-
-			final String schemaName = getSchemaName(avroSchema);
-			if (!readers.containsKey(schemaName)) {
-				readers.put(
-						schemaName,
-						new SpecificDatumReader<T>(
-								avroSchema));
-			}
-			final SpecificDatumReader<T> reader = readers.get(schemaName);
+					state.decoder);
 			return reader.read(
-					null,
-					decoder);
+					reuse,
+					state.decoder);
 		}
 		catch (final IOException e) {
 			LOGGER.error(
@@ -93,8 +127,83 @@ public class GenericAvroSerializer<T>
 		}
 	}
 
+	/**
+	 * Deserialize all of the records in a byte array written by serializeBatch
+	 */
+	public static <T> List<T> deserializeBatch(
+			final byte[] avroData,
+			final Schema avroSchema ) {
+		final SerializerState state = serializerState.get();
+		final List<T> avroObjects = new ArrayList<T>();
+		try {
+			final SpecificDatumReader<T> reader = state.getReader(avroSchema);
+			state.decoder = df.binaryDecoder(
+					avroData,
+					state.decoder);
+			while (!state.decoder.isEnd()) {
+				avroObjects.add(reader.read(
+						null,
+						state.decoder));
+			}
+			return avroObjects;
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Unable to deserialize byte[] to Avro objects: " + e.getMessage(),
+					e);
+			return null;
+		}
+	}
+
 	private static String getSchemaName(
 			final Schema schema ) {
 		return schema.getNamespace() + "." + schema.getName();
 	}
+
+	private static class SerializerState
+	{
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		private final Map<String, SpecificDatumWriter<?>> writers = new HashMap<String, SpecificDatumWriter<?>>();
+		private final Map<String, SpecificDatumReader<?>> readers = new HashMap<String, SpecificDatumReader<?>>();
+		private BinaryEncoder encoder;
+		private BinaryDecoder decoder;
+
+		private BinaryEncoder resetEncoder() {
+			out.reset();
+			encoder = ef.binaryEncoder(
+					out,
+					encoder);
+			return encoder;
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> SpecificDatumWriter<T> getWriter(
+				final Schema avroSchema ) {
+			final String schemaName = getSchemaName(avroSchema);
+			SpecificDatumWriter<T> writer = (SpecificDatumWriter<T>) writers.get(schemaName);
+			if (writer == null) {
+				writer = new SpecificDatumWriter<T>(
+						avroSchema);
+				writers.put(
+						schemaName,
+						writer);
+			}
+			return writer;
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> SpecificDatumReader<T> getReader(
+				final Schema avroSchema ) {
+			final String schemaName = getSchemaName(avroSchema);
+			SpecificDatumReader<T> reader = (SpecificDatumReader<T>) readers.get(schemaName);
+			if (reader == null) {
+				reader = new SpecificDatumReader<T>(
+						avroSchema);
+				readers.put(
+						schemaName,
+						reader);
+			}
+			return reader;
+		}
+	}
 }
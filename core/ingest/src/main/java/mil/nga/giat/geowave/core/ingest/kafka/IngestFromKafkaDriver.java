@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -18,18 +19,13 @@ import org.apache.log4j.Logger;
 import kafka.consumer.Consumer;
 import kafka.consumer.ConsumerConfig;
 import kafka.consumer.ConsumerIterator;
-import kafka.consumer.ConsumerTimeoutException;
 import kafka.consumer.KafkaStream;
 import kafka.javaapi.consumer.ConsumerConnector;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
-import mil.nga.giat.geowave.core.ingest.GeoWaveData;
 import mil.nga.giat.geowave.core.ingest.IngestPluginBase;
 import mil.nga.giat.geowave.core.ingest.avro.AvroFormatPlugin;
-import mil.nga.giat.geowave.core.ingest.avro.GenericAvroSerializer;
 import mil.nga.giat.geowave.core.ingest.index.IndexProvider;
-import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.DataStore;
-import mil.nga.giat.geowave.core.store.IndexWriter;
 import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.operations.remote.options.DataStorePluginOptions;
@@ -160,7 +156,13 @@ public class IngestFromKafkaDriver
 
 	private ConsumerConnector buildKafkaConsumer() {
 
-		Properties kafkaProperties = kafkaOptions.getProperties();
+		final Properties kafkaProperties = new Properties();
+		kafkaProperties.putAll(kafkaOptions.getProperties());
+		// offsets are committed by the ingest pipeline once the messages they
+		// cover have been written and flushed
+		kafkaProperties.setProperty(
+				"auto.commit.enable",
+				"false");
 
 		final ConsumerConnector consumer = Consumer.createJavaConsumerConnector(new ConsumerConfig(
 				kafkaProperties));
@@ -223,6 +225,7 @@ public class IngestFromKafkaDriver
 					formatPluginName,
 					avroFormatPlugin,
 					ingestRunData,
+					consumer,
 					streams.get(0));
 		}
 		finally {
@@ -234,87 +237,69 @@ public class IngestFromKafkaDriver
 			final String formatPluginName,
 			final AvroFormatPlugin<T, ?> avroFormatPlugin,
 			final KafkaIngestRunData ingestRunData,
+			final ConsumerConnector consumer,
 			final KafkaStream<byte[], byte[]> stream ) {
-		int currentBatchId = 0;
-		final int batchSize = kafkaOptions.getBatchSize();
+		final Map<ByteArrayId, PrimaryIndex> indexMap;
 		try {
+			indexMap = getIndexMap(avroFormatPlugin);
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Unable to consume from Kafka topic [" + formatPluginName + "]",
+					e);
+			return;
+		}
+		try (KafkaIngestPipeline<T> pipeline = new KafkaIngestPipeline<T>(
+				formatPluginName,
+				avroFormatPlugin,
+				ingestRunData,
+				indexMap,
+				ingestOptions.getVisibility(),
+				kafkaOptions,
+				new KafkaIngestPipeline.OffsetCommitter() {
+					@Override
+					public void commitOffsets() {
+						consumer.commitOffsets();
+					}
+				})) {
 			final ConsumerIterator<byte[], byte[]> messageIterator = stream.iterator();
-			while (messageIterator.hasNext()) {
-				final byte[] msg = messageIterator.next().message();
-				LOGGER.info("[" + formatPluginName + "] message received");
-				final T dataRecord = GenericAvroSerializer.deserialize(
-						msg,
-						avroFormatPlugin.getAvroSchema());
-
-				if (dataRecord != null) {
-					try {
-						processMessage(
-								dataRecord,
-								ingestRunData,
-								avroFormatPlugin);
-						if (++currentBatchId > batchSize) {
-							if (LOGGER.isDebugEnabled()) {
-								LOGGER.debug(String.format(
-										"Flushing %d items",
-										currentBatchId));
-							}
-							ingestRunData.flush();
-							currentBatchId = 0;
+			pipeline.consume(
+					new Iterator<byte[]>() {
+						@Override
+						public boolean hasNext() {
+							return messageIterator.hasNext();
 						}
-					}
-					catch (final Exception e) {
-						LOGGER.error(
-								"Error processing message: " + e.getMessage(),
-								e);
-					}
-				}
-			}
+
+						@Override
+						public byte[] next() {
+							return messageIterator.next().message();
+						}
+
+						@Override
+						public void remove() {
+							throw new UnsupportedOperationException();
+						}
+					},
+					kafkaOptions.isFlushAndReconnect());
 		}
-		catch (final ConsumerTimeoutException te) {
-			// Flush any outstanding items
-			if (currentBatchId > 0) {
-				if (LOGGER.isDebugEnabled()) {
-					LOGGER.debug(String.format(
-							"Flushing %d items",
-							currentBatchId));
-				}
-				ingestRunData.flush();
-				currentBatchId = 0;
-			}
-			if (kafkaOptions.isFlushAndReconnect()) {
-				LOGGER.info(
-						"Consumer timed out from Kafka topic [" + formatPluginName + "]... Reconnecting...",
-						te);
-				consumeMessages(
-						formatPluginName,
-						avroFormatPlugin,
-						ingestRunData,
-						stream);
-			}
-			else {
-				LOGGER.info(
-						"Consumer timed out from Kafka topic [" + formatPluginName + "]... ",
-						te);
-			}
+		catch (final IOException e) {
+			// the consumer is shut down rather than reconnected, as consuming
+			// on would commit offsets past the messages that were not written
+			LOGGER.error(
+					"Stopped consuming from Kafka topic [" + formatPluginName
+							+ "]; messages after the last committed offset will be consumed again on restart",
+					e);
 		}
 		catch (final Exception e) {
 			LOGGER.warn(
 					"Consuming from Kafka topic [" + formatPluginName + "] was interrupted... ",
 					e);
 		}
-
 	}
 
-	synchronized protected <T> void processMessage(
-			final T dataRecord,
-			final KafkaIngestRunData ingestRunData,
-			final AvroFormatPlugin<T, ?> plugin )
+	private Map<ByteArrayId, PrimaryIndex> getIndexMap(
+			final IndexProvider indexProvider )
 			throws IOException {
-
-		IngestPluginBase<T, ?> ingestPlugin = plugin.getIngestWithAvroPlugin();
-		IndexProvider indexProvider = plugin;
-
-		final Map<ByteArrayId, IndexWriter> writerMap = new HashMap<ByteArrayId, IndexWriter>();
 		final Map<ByteArrayId, PrimaryIndex> indexMap = new HashMap<ByteArrayId, PrimaryIndex>();
 
 		for (IndexPluginOptions indexOption : indexOptions) {
@@ -337,40 +322,7 @@ public class IngestFromKafkaDriver
 						requiredIndex);
 			}
 		}
-
-		try (CloseableIterator<?> geowaveDataIt = ingestPlugin.toGeoWaveData(
-				dataRecord,
-				indexMap.keySet(),
-				ingestOptions.getVisibility())) {
-			while (geowaveDataIt.hasNext()) {
-				final GeoWaveData<?> geowaveData = (GeoWaveData<?>) geowaveDataIt.next();
-				final WritableDataAdapter adapter = ingestRunData.getDataAdapter(geowaveData);
-				if (adapter == null) {
-					LOGGER.warn("Adapter not found for " + geowaveData.getValue());
-					continue;
-				}
-				IndexWriter indexWriter = writerMap.get(adapter.getAdapterId());
-				if (indexWriter == null) {
-					List<PrimaryIndex> indexList = new ArrayList<PrimaryIndex>();
-					for (final ByteArrayId indexId : geowaveData.getIndexIds()) {
-						final PrimaryIndex index = indexMap.get(indexId);
-						if (index == null) {
-							LOGGER.warn("Index '" + indexId.getString() + "' not found for " + geowaveData.getValue());
-							continue;
-						}
-						indexList.add(index);
-					}
-					indexWriter = ingestRunData.getIndexWriter(
-							adapter,
-							indexList.toArray(new PrimaryIndex[indexList.size()]));
-					writerMap.put(
-							adapter.getAdapterId(),
-							indexWriter);
-				}
-				indexWriter.write(geowaveData.getValue());
-
-			}
-		}
+		return indexMap;
 	}
 
 	public List<Future<?>> getFutures() {
@@ -34,6 +34,18 @@ public class KafkaConsumerCommandLineOptions extends
 	@Parameter(names = "--batchSize", description = "The data will automatically flush after this number of entries")
 	private int batchSize = 10000;
 
+	@Parameter(names = "--flushIntervalMs", description = "The data will automatically flush after this many milliseconds, if it has not already flushed because of the batch size (0 to only flush by batch size)")
+	private long flushIntervalMs = 10000;
+
+	@Parameter(names = "--decodeThreads", description = "The number of threads decoding and writing messages")
+	private int decodeThreads = 4;
+
+	@Parameter(names = "--decodeBatchSize", description = "The number of messages handed to a decode thread at a time")
+	private int decodeBatchSize = 100;
+
+	@Parameter(names = "--queueCapacity", description = "The number of message batches that can wait to be decoded before the consumer blocks")
+	private int queueCapacity = 16;
+
 	public boolean isFlushAndReconnect() {
 		return reconnectOnTimeout;
 	}
@@ -101,4 +113,40 @@ public class KafkaConsumerCommandLineOptions extends
 		this.batchSize = batchSize;
 	}
 
+	public long getFlushIntervalMs() {
+		return flushIntervalMs;
+	}
+
+	public void setFlushIntervalMs(
+			long flushIntervalMs ) {
+		this.flushIntervalMs = flushIntervalMs;
+	}
+
+	public int getDecodeThreads() {
+		return decodeThreads;
+	}
+
+	public void setDecodeThreads(
+			int decodeThreads ) {
+		this.decodeThreads = decodeThreads;
+	}
+
+	public int getDecodeBatchSize() {
+		return decodeBatchSize;
+	}
+
+	public void setDecodeBatchSize(
+			int decodeBatchSize ) {
+		this.decodeBatchSize = decodeBatchSize;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(
+			int queueCapacity ) {
+		this.queueCapacity = queueCapacity;
+	}
+
 }
@@ -0,0 +1,588 @@
+package mil.nga.giat.geowave.core.ingest.kafka;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.avro.Schema;
+import org.apache.log4j.Logger;
+
+import kafka.consumer.ConsumerTimeoutException;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.ingest.ConcurrentIngestPlugin;
+import mil.nga.giat.geowave.core.ingest.GeoWaveData;
+import mil.nga.giat.geowave.core.ingest.IngestPluginBase;
+import mil.nga.giat.geowave.core.ingest.avro.AvroFormatPlugin;
+import mil.nga.giat.geowave.core.ingest.avro.GenericAvroSerializer;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.IndexWriter;
+import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.exceptions.MismatchedIndexToAdapterMapping;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+
+/**
+ * Ingests the messages of a Kafka stream in stages. The consuming thread
+ * collects raw messages into batches and hands them to a pool of decode threads
+ * through a bounded queue, which blocks the consumer when decoding falls
+ * behind. Each decode thread deserializes its batch, converts it to
+ * GeoWaveData, groups the data by adapter and writes each group with the shared
+ * index writer for that adapter.
+ *
+ * The writers are flushed after a number of messages or after an interval,
+ * whichever comes first. A flush waits for every batch consumed so far to be
+ * written, so offsets are only committed once the data they cover has been
+ * flushed. If any message fails to be decoded or written, no further offsets
+ * are committed, as they would cover the failed message; consuming stops with
+ * the failure, and the messages after the last committed offset are consumed
+ * again when ingest is restarted.
+ *
+ * Unless the ingest plugin is a ConcurrentIngestPlugin, the decode threads
+ * convert records with the plugin one at a time, while deserializing and
+ * writing still proceed in parallel.
+ */
+public class KafkaIngestPipeline<T> implements
+		Closeable
+{
+	private final static Logger LOGGER = Logger.getLogger(KafkaIngestPipeline.class);
+	private static final List<byte[]> END_OF_STREAM = new ArrayList<byte[]>();
+
+	/**
+	 * Called after a successful flush to commit the offsets of all messages
+	 * consumed so far
+	 */
+	public static interface OffsetCommitter
+	{
+		public void commitOffsets();
+	}
+
+	private final String formatPluginName;
+	private final IngestPluginBase<T, ?> ingestPlugin;
+	private final Schema avroSchema;
+	private final KafkaIngestRunData ingestRunData;
+	private final Map<ByteArrayId, PrimaryIndex> indexMap;
+	private final String globalVisibility;
+	private final OffsetCommitter committer;
+	// null if the plugin can convert several records at the same time
+	private final Object pluginLock;
+
+	private final int flushSize;
+	private final int decodeBatchSize;
+	private final int decodeThreads;
+	private final long flushIntervalMs;
+	private final BlockingQueue<List<byte[]>> decodeQueue;
+	private final ExecutorService decodePool;
+	private final ScheduledExecutorService flushScheduler;
+	private final Metrics metrics = new Metrics();
+	private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+	private final Object inFlightLock = new Object();
+	private int inFlightBatches = 0;
+
+	// guarded by this
+	private List<byte[]> currentBatch;
+	private int messagesSinceFlush = 0;
+	private long lastFlushTime = System.currentTimeMillis();
+
+	public KafkaIngestPipeline(
+			final String formatPluginName,
+			final AvroFormatPlugin<T, ?> avroFormatPlugin,
+			final KafkaIngestRunData ingestRunData,
+			final Map<ByteArrayId, PrimaryIndex> indexMap,
+			final String globalVisibility,
+			final KafkaConsumerCommandLineOptions kafkaOptions,
+			final OffsetCommitter committer ) {
+		this.formatPluginName = formatPluginName;
+		ingestPlugin = avroFormatPlugin.getIngestWithAvroPlugin();
+		avroSchema = avroFormatPlugin.getAvroSchema();
+		this.ingestRunData = ingestRunData;
+		this.indexMap = indexMap;
+		this.globalVisibility = globalVisibility;
+		this.committer = committer;
+		pluginLock = (ingestPlugin instanceof ConcurrentIngestPlugin) ? null : new Object();
+		flushSize = Math.max(
+				1,
+				kafkaOptions.getBatchSize());
+		decodeBatchSize = Math.max(
+				1,
+				kafkaOptions.getDecodeBatchSize());
+		decodeThreads = Math.max(
+				1,
+				kafkaOptions.getDecodeThreads());
+		flushIntervalMs = kafkaOptions.getFlushIntervalMs();
+		decodeQueue = new ArrayBlockingQueue<List<byte[]>>(
+				Math.max(
+						1,
+						kafkaOptions.getQueueCapacity()));
+		currentBatch = new ArrayList<byte[]>(
+				decodeBatchSize);
+
+		decodePool = Executors.newFixedThreadPool(decodeThreads);
+		for (int i = 0; i < decodeThreads; i++) {
+			decodePool.submit(new Runnable() {
+				@Override
+				public void run() {
+					decodeBatches();
+				}
+			});
+		}
+		if (flushIntervalMs > 0) {
+			flushScheduler = Executors.newSingleThreadScheduledExecutor();
+			flushScheduler.scheduleWithFixedDelay(
+					new Runnable() {
+						@Override
+						public void run() {
+							try {
+								flushIfStale();
+							}
+							catch (final Exception e) {
+								LOGGER.error(
+										"Unable to flush [" + formatPluginName + "]",
+										e);
+							}
+						}
+					},
+					flushIntervalMs,
+					flushIntervalMs,
+					TimeUnit.MILLISECONDS);
+		}
+		else {
+			flushScheduler = null;
+		}
+	}
+
+	/**
+	 * Consume messages until the iterator is exhausted, or until the consumer
+	 * times out unless continueOnTimeout is set. Everything consumed is flushed
+	 * when this returns.
+	 *
+	 * @throws IOException
+	 *             if a message could not be decoded or written, in which case
+	 *             the offsets since the last commit are not committed
+	 */
+	public void consume(
+			final Iterator<byte[]> messages,
+			final boolean continueOnTimeout )
+			throws InterruptedException,
+			IOException {
+		while (true) {
+			checkFailure();
+			try {
+				if (!messages.hasNext()) {
+					break;
+				}
+			}
+			catch (final ConsumerTimeoutException te) {
+				flush();
+				if (continueOnTimeout) {
+					LOGGER.info(
+							"Consumer timed out from Kafka topic [" + formatPluginName + "]... Reconnecting...",
+							te);
+					continue;
+				}
+				LOGGER.info(
+						"Consumer timed out from Kafka topic [" + formatPluginName + "]... ",
+						te);
+				break;
+			}
+			synchronized (this) {
+				// the offset advances on next(), so the message must be
+				// batched before a flush can commit it
+				currentBatch.add(messages.next());
+				metrics.messagesConsumed.incrementAndGet();
+				if (currentBatch.size() >= decodeBatchSize) {
+					submitCurrentBatch();
+				}
+				if (++messagesSinceFlush >= flushSize) {
+					flush();
+				}
+			}
+		}
+		flush();
+	}
+
+	/**
+	 * Write everything consumed so far, flush the writers and commit the
+	 * offsets
+	 *
+	 * @throws IOException
+	 *             instead of committing, if any message consumed so far could
+	 *             not be decoded or written
+	 */
+	public synchronized void flush()
+			throws InterruptedException,
+			IOException {
+		submitCurrentBatch();
+		synchronized (inFlightLock) {
+			while (inFlightBatches > 0) {
+				inFlightLock.wait();
+			}
+		}
+		checkFailure();
+		final long start = System.nanoTime();
+		try {
+			ingestRunData.flush();
+		}
+		catch (final RuntimeException e) {
+			failure.compareAndSet(
+					null,
+					e);
+			checkFailure();
+		}
+		if (committer != null) {
+			committer.commitOffsets();
+			metrics.commits.incrementAndGet();
+		}
+		metrics.flushes.incrementAndGet();
+		metrics.flushNanos.addAndGet(System.nanoTime() - start);
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug(String.format(
+					"Flushed %d messages from [%s]; %s",
+					messagesSinceFlush,
+					formatPluginName,
+					metrics));
+		}
+		messagesSinceFlush = 0;
+		lastFlushTime = System.currentTimeMillis();
+	}
+
+	private synchronized void flushIfStale()
+			throws InterruptedException,
+			IOException {
+		// once failed, the consumer reports the failure rather than this
+		if ((failure.get() == null) && (messagesSinceFlush > 0)
+				&& ((System.currentTimeMillis() - lastFlushTime) >= flushIntervalMs)) {
+			flush();
+		}
+	}
+
+	private void checkFailure()
+			throws IOException {
+		final Throwable t = failure.get();
+		if (t != null) {
+			throw new IOException(
+					"Unable to ingest messages from [" + formatPluginName
+							+ "], offsets after the last commit are not committed",
+					t);
+		}
+	}
+
+	private void submitCurrentBatch()
+			throws InterruptedException {
+		if (currentBatch.isEmpty()) {
+			return;
+		}
+		synchronized (inFlightLock) {
+			inFlightBatches++;
+		}
+		final long start = System.nanoTime();
+		try {
+			decodeQueue.put(currentBatch);
+		}
+		catch (final InterruptedException e) {
+			batchDone();
+			throw e;
+		}
+		metrics.queueWaitNanos.addAndGet(System.nanoTime() - start);
+		metrics.batchesQueued.incrementAndGet();
+		currentBatch = new ArrayList<byte[]>(
+				decodeBatchSize);
+	}
+
+	private void batchDone() {
+		synchronized (inFlightLock) {
+			inFlightBatches--;
+			inFlightLock.notifyAll();
+		}
+	}
+
+	private void decodeBatches() {
+		while (true) {
+			final List<byte[]> batch;
+			try {
+				batch = decodeQueue.take();
+			}
+			catch (final InterruptedException e) {
+				return;
+			}
+			if (batch == END_OF_STREAM) {
+				return;
+			}
+			try {
+				// nothing consumed after a failure is committed, so there is
+				// no point in writing it
+				if (failure.get() == null) {
+					write(decode(batch));
+				}
+			}
+			catch (final Throwable e) {
+				// the decode thread keeps taking batches so that the consumer
+				// is not left blocked on a full queue, and the failure is
+				// reported by the next flush
+				if (failure.compareAndSet(
+						null,
+						e)) {
+					LOGGER.error(
+							"Error processing messages from [" + formatPluginName + "]: " + e.getMessage(),
+							e);
+				}
+			}
+			finally {
+				metrics.messagesProcessed.addAndGet(batch.size());
+				batchDone();
+			}
+		}
+	}
+
+	private Map<ByteArrayId, List<GeoWaveData<?>>> decode(
+			final List<byte[]> batch )
+			throws IOException {
+		final long start = System.nanoTime();
+		final Map<ByteArrayId, List<GeoWaveData<?>>> dataByAdapter = new LinkedHashMap<ByteArrayId, List<GeoWaveData<?>>>();
+		for (final byte[] message : batch) {
+			final T dataRecord = GenericAvroSerializer.deserialize(
+					message,
+					avroSchema);
+			if (dataRecord == null) {
+				metrics.decodeErrors.incrementAndGet();
+				throw new IOException(
+						"Unable to deserialize message from [" + formatPluginName + "]");
+			}
+			final List<GeoWaveData<?>> data;
+			try {
+				data = toGeoWaveData(dataRecord);
+			}
+			catch (final IOException | RuntimeException e) {
+				metrics.decodeErrors.incrementAndGet();
+				throw e;
+			}
+			for (final GeoWaveData<?> geowaveData : data) {
+				final WritableDataAdapter<?> adapter = ingestRunData.getDataAdapter(geowaveData);
+				if (adapter == null) {
+					LOGGER.warn("Adapter not found for " + geowaveData.getValue());
+					continue;
+				}
+				List<GeoWaveData<?>> adapterData = dataByAdapter.get(adapter.getAdapterId());
+				if (adapterData == null) {
+					adapterData = new ArrayList<GeoWaveData<?>>();
+					dataByAdapter.put(
+							adapter.getAdapterId(),
+							adapterData);
+				}
+				adapterData.add(geowaveData);
+			}
+		}
+		metrics.decodeNanos.addAndGet(System.nanoTime() - start);
+		return dataByAdapter;
+	}
+
+	private List<GeoWaveData<?>> toGeoWaveData(
+			final T dataRecord )
+			throws IOException {
+		if (pluginLock == null) {
+			return convert(dataRecord);
+		}
+		// the plugin may keep state while converting a record, so the record
+		// is fully converted before another thread uses the plugin
+		synchronized (pluginLock) {
+			return convert(dataRecord);
+		}
+	}
+
+	private List<GeoWaveData<?>> convert(
+			final T dataRecord )
+			throws IOException {
+		final List<GeoWaveData<?>> data = new ArrayList<GeoWaveData<?>>();
+		try (CloseableIterator<? extends GeoWaveData<?>> geowaveDataIt = ingestPlugin.toGeoWaveData(
+				dataRecord,
+				indexMap.keySet(),
+				globalVisibility)) {
+			while (geowaveDataIt.hasNext()) {
+				data.add(geowaveDataIt.next());
+			}
+		}
+		return data;
+	}
+
+	@SuppressWarnings({
+		"rawtypes",
+		"unchecked"
+	})
+	private void write(
+			final Map<ByteArrayId, List<GeoWaveData<?>>> dataByAdapter )
+			throws MismatchedIndexToAdapterMapping {
+		final long start = System.nanoTime();
+		for (final List<GeoWaveData<?>> adapterData : dataByAdapter.values()) {
+			final GeoWaveData<?> first = adapterData.get(0);
+			final List<PrimaryIndex> indexList = new ArrayList<PrimaryIndex>();
+			for (final ByteArrayId indexId : first.getIndexIds()) {
+				final PrimaryIndex index = indexMap.get(indexId);
+				if (index == null) {
+					LOGGER.warn("Index '" + indexId.getString() + "' not found for " + first.getValue());
+					continue;
+				}
+				indexList.add(index);
+			}
+			final IndexWriter indexWriter = ingestRunData.getIndexWriter(
+					ingestRunData.getDataAdapter(first),
+					indexList.toArray(new PrimaryIndex[indexList.size()]));
+			for (final GeoWaveData<?> geowaveData : adapterData) {
+				indexWriter.write(geowaveData.getValue());
+			}
+			metrics.entriesWritten.addAndGet(adapterData.size());
+		}
+		metrics.writeNanos.addAndGet(System.nanoTime() - start);
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Flush and commit everything consumed so far, and stop the decode threads
+	 *
+	 * @throws IOException
+	 *             if a message could not be decoded or written, in which case
+	 *             the offsets since the last commit are not committed
+	 */
+	@Override
+	public void close()
+			throws IOException {
+		if (flushScheduler != null) {
+			flushScheduler.shutdownNow();
+		}
+		try {
+			try {
+				flush();
+			}
+			finally {
+				for (int i = 0; i < decodeThreads; i++) {
+					decodeQueue.put(END_OF_STREAM);
+				}
+				decodePool.shutdown();
+				decodePool.awaitTermination(
+						Long.MAX_VALUE,
+						TimeUnit.MILLISECONDS);
+			}
+		}
+		catch (final InterruptedException e) {
+			LOGGER.warn(
+					"Interrupted while closing ingest of [" + formatPluginName + "]",
+					e);
+			decodePool.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		LOGGER.info("Ingest from [" + formatPluginName + "] complete; " + metrics);
+	}
+
+	/**
+	 * Counts and busy times of each stage of the pipeline
+	 */
+	public static class Metrics
+	{
+		private final long startTime = System.nanoTime();
+		private final AtomicLong messagesConsumed = new AtomicLong();
+		private final AtomicLong batchesQueued = new AtomicLong();
+		private final AtomicLong queueWaitNanos = new AtomicLong();
+		private final AtomicLong messagesProcessed = new AtomicLong();
+		private final AtomicLong decodeErrors = new AtomicLong();
+		private final AtomicLong decodeNanos = new AtomicLong();
+		private final AtomicLong entriesWritten = new AtomicLong();
+		private final AtomicLong writeNanos = new AtomicLong();
+		private final AtomicLong flushes = new AtomicLong();
+		private final AtomicLong commits = new AtomicLong();
+		private final AtomicLong flushNanos = new AtomicLong();
+
+		public long getMessagesConsumed() {
+			return messagesConsumed.get();
+		}
+
+		public long getBatchesQueued() {
+			return batchesQueued.get();
+		}
+
+		public long getMessagesProcessed() {
+			return messagesProcessed.get();
+		}
+
+		public long getDecodeErrors() {
+			return decodeErrors.get();
+		}
+
+		public long getEntriesWritten() {
+			return entriesWritten.get();
+		}
+
+		public long getFlushes() {
+			return flushes.get();
+		}
+
+		public long getCommits() {
+			return commits.get();
+		}
+
+		/**
+		 *
+		 * @return the number of messages that have been consumed but not yet
+		 *         decoded and written
+		 */
+		public long getLag() {
+			return messagesConsumed.get() - messagesProcessed.get();
+		}
+
+		/**
+		 *
+		 * @return the time the consumer has spent blocked on a full decode
+		 *         queue
+		 */
+		public long getQueueWaitMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(queueWaitNanos.get());
+		}
+
+		public long getDecodeMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(decodeNanos.get());
+		}
+
+		public long getWriteMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(writeNanos.get());
+		}
+
+		public long getFlushMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(flushNanos.get());
+		}
+
+		@Override
+		public String toString() {
+			final double elapsedSeconds = Math.max(
+					1,
+					System.nanoTime() - startTime) / 1e9;
+			return String
+					.format(
+							"consumed %d messages (%.1f/s, %d ms blocked on queue), decoded %d messages (%d errors, %d ms), wrote %d entries (%.1f/s, %d ms), %d flushes (%d ms), %d commits, lag %d messages",
+							getMessagesConsumed(),
+							getMessagesConsumed() / elapsedSeconds,
+							getQueueWaitMillis(),
+							getMessagesProcessed(),
+							getDecodeErrors(),
+							getDecodeMillis(),
+							getEntriesWritten(),
+							getEntriesWritten() / elapsedSeconds,
+							getWriteMillis(),
+							getFlushes(),
+							getFlushMillis(),
+							getCommits(),
+							getLag());
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package mil.nga.giat.geowave.core.ingest.local;
+
+import java.io.File;
+
+import mil.nga.giat.geowave.core.ingest.ConcurrentIngestPlugin;
+
+/**
+ * A local file ingest plugin that can parse several files at the same time.
+ * 
+ * @param <O>
+ *            The type of data to write to GeoWave
+ */
+public interface ConcurrentLocalFileIngestPlugin<O> extends
+		LocalFileIngestPlugin<O>,
+		ConcurrentIngestPlugin<File, O>
+{
+}
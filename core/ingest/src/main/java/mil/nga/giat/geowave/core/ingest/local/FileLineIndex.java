@@ -0,0 +1,148 @@
+package mil.nga.giat.geowave.core.ingest.local;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Maps byte offsets of a file to line numbers. The file is read once when the
+ * index is built, counting the line terminators ('\n') before each block of a
+ * fixed size, so the line number of any offset only needs to read the part of
+ * one block preceding it. This lets the ranges of a split file number their
+ * lines within the whole file without each of them counting every line that
+ * precedes it.
+ */
+public class FileLineIndex
+{
+	private static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+	private static final int BUFFER_SIZE = 65536;
+
+	private final File file;
+	private final long length;
+	private final int blockSize;
+	private final long[] blockLineCounts;
+
+	/**
+	 *
+	 * @param file
+	 *            the file to index
+	 */
+	public FileLineIndex(
+			final File file )
+			throws IOException {
+		this(
+				file,
+				DEFAULT_BLOCK_SIZE);
+	}
+
+	protected FileLineIndex(
+			final File file,
+			final int blockSize )
+			throws IOException {
+		this.file = file;
+		this.blockSize = blockSize;
+		length = file.length();
+		blockLineCounts = new long[(int) (length / blockSize) + 1];
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		long count = 0;
+		long position = 0;
+		try (InputStream in = new FileInputStream(
+				file)) {
+			int read;
+			while ((position < length) && ((read = in.read(buffer)) != -1)) {
+				for (int i = 0; i < read; i++) {
+					if (((position + i) % blockSize) == 0) {
+						blockLineCounts[(int) ((position + i) / blockSize)] = count;
+					}
+					if (buffer[i] == '\n') {
+						count++;
+					}
+				}
+				position += read;
+			}
+		}
+		if ((length % blockSize) == 0) {
+			// the offset at the end of the file starts an empty block
+			blockLineCounts[blockLineCounts.length - 1] = count;
+		}
+	}
+
+	/**
+	 *
+	 * @return whether the file has changed length since it was indexed
+	 */
+	public boolean isStale() {
+		return file.length() != length;
+	}
+
+	/**
+	 *
+	 * @param offset
+	 *            a byte offset within the file
+	 * @return the number of line terminators before the offset, which is the
+	 *         zero-based number of a line starting at that offset
+	 */
+	public long getLineNumber(
+			final long offset )
+			throws IOException {
+		final long boundedOffset = Math.max(
+				0,
+				Math.min(
+						offset,
+						length));
+		final int block = (int) (boundedOffset / blockSize);
+		final long blockStart = (long) block * blockSize;
+		long count = blockLineCounts[block];
+		long remaining = boundedOffset - blockStart;
+		if (remaining == 0) {
+			return count;
+		}
+		final byte[] buffer = new byte[(int) Math.min(
+				BUFFER_SIZE,
+				remaining)];
+		try (InputStream in = new FileInputStream(
+				file)) {
+			skipFully(
+					in,
+					blockStart);
+			while (remaining > 0) {
+				final int read = in.read(
+						buffer,
+						0,
+						(int) Math.min(
+								buffer.length,
+								remaining));
+				if (read < 0) {
+					break;
+				}
+				for (int i = 0; i < read; i++) {
+					if (buffer[i] == '\n') {
+						count++;
+					}
+				}
+				remaining -= read;
+			}
+		}
+		return count;
+	}
+
+	private static void skipFully(
+			final InputStream in,
+			final long bytes )
+			throws IOException {
+		long remaining = bytes;
+		while (remaining > 0) {
+			final long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				if (in.read() == -1) {
+					return;
+				}
+				remaining--;
+			}
+			else {
+				remaining -= skipped;
+			}
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package mil.nga.giat.geowave.core.ingest.local;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Reads the lines of a file that start within a byte range. Every line of the
+ * file starts in exactly one range, so a file split into consecutive ranges is
+ * read exactly once no matter where the boundaries fall. Lines are separated by
+ * '\n' with an optional preceding '\r', which only works for charsets where
+ * those bytes can't be part of another character (such as UTF-8 and
+ * ISO-8859-1).
+ */
+public class FileSplitLineReader implements
+		Closeable
+{
+	private static final int BUFFER_SIZE = 65536;
+
+	private final InputStream in;
+	private final long end;
+	private final Charset charset;
+	private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+	private long position;
+	private boolean eof = false;
+
+	/**
+	 *
+	 * @param file
+	 *            the file to read
+	 * @param start
+	 *            the first byte of the range, inclusive
+	 * @param end
+	 *            the last byte of the range, exclusive
+	 * @param charset
+	 *            the charset of the file
+	 */
+	public FileSplitLineReader(
+			final File file,
+			final long start,
+			final long end,
+			final Charset charset )
+			throws IOException {
+		this.end = end;
+		this.charset = charset;
+		in = new BufferedInputStream(
+				new FileInputStream(
+						file),
+				BUFFER_SIZE);
+		try {
+			if (start > 0) {
+				// a line starts at the beginning of the range only if the
+				// previous byte ends a line, otherwise the partial line belongs
+				// to the previous range
+				skipFully(start - 1);
+				position = start - 1;
+				int b;
+				while (((b = in.read()) != -1) && (b != '\n')) {
+					position++;
+				}
+				position++;
+				eof = (b == -1);
+			}
+		}
+		catch (final IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 *
+	 * @return the byte offset of the next line to be read
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 *
+	 * @return the next line starting within the range, without its line
+	 *         terminator, or null when there are no more
+	 */
+	public String readLine()
+			throws IOException {
+		if (eof || (position >= end)) {
+			return null;
+		}
+		line.reset();
+		int b;
+		while (((b = in.read()) != -1) && (b != '\n')) {
+			line.write(b);
+		}
+		if (b == -1) {
+			eof = true;
+			if (line.size() == 0) {
+				return null;
+			}
+		}
+		position += line.size() + ((b == -1) ? 0 : 1);
+		final byte[] bytes = line.toByteArray();
+		int length = bytes.length;
+		if ((length > 0) && (bytes[length - 1] == '\r')) {
+			length--;
+		}
+		return new String(
+				bytes,
+				0,
+				length,
+				charset);
+	}
+
+	@Override
+	public void close()
+			throws IOException {
+		in.close();
+	}
+
+	private void skipFully(
+			final long bytes )
+			throws IOException {
+		long remaining = bytes;
+		while (remaining > 0) {
+			final long skipped = in.skip(remaining);
+			if (skipped <= 0) {
+				if (in.read() == -1) {
+					return;
+				}
+				remaining--;
+			}
+			else {
+				remaining -= skipped;
+			}
+		}
+	}
+}
@@ -9,14 +9,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.ingest.ConcurrentIngestPlugin;
 import mil.nga.giat.geowave.core.ingest.GeoWaveData;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.DataStore;
@@ -34,13 +38,25 @@ public class LocalFileIngestDriver extends
 		AbstractLocalFileDriver<LocalFileIngestPlugin<?>, LocalIngestRunData>
 {
 	public final static int INGEST_BATCH_SIZE = 500;
+	/**
+	 * Files of a splittable plugin are only split into ranges of at least this
+	 * many bytes
+	 */
+	public final static long MIN_SPLIT_SIZE = 16 * 1024 * 1024;
 	private final static Logger LOGGER = LoggerFactory.getLogger(LocalFileIngestDriver.class);
 	protected DataStorePluginOptions storeOptions;
 	protected List<IndexPluginOptions> indexOptions;
 	protected VisibilityOptions ingestOptions;
 	protected Map<String, LocalFileIngestPlugin<?>> ingestPlugins;
 	protected int threads;
+	protected int parserThreads;
 	protected ExecutorService ingestExecutor;
+	protected ExecutorService parserExecutor;
+
+	private Map<ByteArrayId, PrimaryIndex> specifiedPrimaryIndexes;
+	private BlockingQueue<GeoWaveData<?>> queue;
+	private final List<IngestTask> ingestTasks = new ArrayList<IngestTask>();
+	private final List<Future<?>> parserFutures = new ArrayList<Future<?>>();
 
 	public LocalFileIngestDriver(
 			DataStorePluginOptions storeOptions,
@@ -49,6 +65,24 @@ public class LocalFileIngestDriver extends
 			VisibilityOptions ingestOptions,
 			LocalInputCommandLineOptions inputOptions,
 			int threads ) {
+		this(
+				storeOptions,
+				indexOptions,
+				ingestPlugins,
+				ingestOptions,
+				inputOptions,
+				threads,
+				1);
+	}
+
+	public LocalFileIngestDriver(
+			DataStorePluginOptions storeOptions,
+			List<IndexPluginOptions> indexOptions,
+			Map<String, LocalFileIngestPlugin<?>> ingestPlugins,
+			VisibilityOptions ingestOptions,
+			LocalInputCommandLineOptions inputOptions,
+			int threads,
+			int parserThreads ) {
 		super(
 				inputOptions);
 		this.storeOptions = storeOptions;
@@ -56,6 +90,9 @@ public class LocalFileIngestDriver extends
 		this.ingestOptions = ingestOptions;
 		this.ingestPlugins = ingestPlugins;
 		this.threads = threads;
+		this.parserThreads = Math.max(
+				1,
+				parserThreads);
 	}
 
 	public boolean runOperation(
@@ -87,11 +124,17 @@ public class LocalFileIngestDriver extends
 
 			startExecutor();
 
+			startIngestTasks(
+					localFileIngestPlugins,
+					runData);
+
 			processInput(
 					inputPath,
 					localFileIngestPlugins,
 					runData);
 
+			waitForParsers();
+
 			// We place this here and not just in finally because of the way
 			// that try-with-resources works.
 			// We want to wait for our ingesting threads to finish before we
@@ -115,10 +158,112 @@ public class LocalFileIngestDriver extends
 
 	/**
 	 * Create a basic thread pool to ingest file data. We limit it to the amount
-	 * of threads specified on the command line.
+	 * of threads specified on the command line. Files are parsed on a separate
+	 * pool when more than one parser thread is specified.
 	 */
 	private void startExecutor() {
 		ingestExecutor = Executors.newFixedThreadPool(threads);
+		if (parserThreads > 1) {
+			parserExecutor = Executors.newFixedThreadPool(parserThreads);
+		}
+	}
+
+	/**
+	 * Start the workers that write the GeoWaveData parsed from every file. The
+	 * parsers post GeoWaveData to a shared queue until there are no more files,
+	 * at which point the workers are told to complete.
+	 */
+	private void startIngestTasks(
+			final Map<String, LocalFileIngestPlugin<?>> localPlugins,
+			final LocalIngestRunData ingestRunData )
+			throws IOException {
+		// This loads up the primary indexes that are specified on the command
+		// line.
+		// Usually spatial or spatial-temporal
+		specifiedPrimaryIndexes = new HashMap<ByteArrayId, PrimaryIndex>();
+		for (final IndexPluginOptions dimensionType : indexOptions) {
+			final PrimaryIndex primaryIndex = dimensionType.createPrimaryIndex();
+			if (primaryIndex == null) {
+				LOGGER.error("Could not get index instance, getIndex() returned null;");
+				throw new IOException(
+						"Could not get index instance, getIndex() returned null");
+			}
+			specifiedPrimaryIndexes.put(
+					primaryIndex.getId(),
+					primaryIndex);
+		}
+
+		// This gets the list of required indexes from the Plugins.
+		// If for some reason a GeoWaveData specifies an index that isn't
+		// originally
+		// in the specifiedPrimaryIndexes list, then this map is used to
+		// determine
+		// if a Plugin supports it. If it does, then we allow the creation of
+		// the
+		// index.
+		final Map<ByteArrayId, PrimaryIndex> requiredIndexMap = new HashMap<ByteArrayId, PrimaryIndex>();
+		for (final LocalFileIngestPlugin<?> plugin : localPlugins.values()) {
+			final PrimaryIndex[] requiredIndices = plugin.getRequiredIndices();
+			if ((requiredIndices != null) && (requiredIndices.length > 0)) {
+				for (final PrimaryIndex requiredIndex : requiredIndices) {
+					requiredIndexMap.put(
+							requiredIndex.getId(),
+							requiredIndex);
+				}
+			}
+		}
+
+		// Ingest batch size is the total max number of items to read from the
+		// files at a time for the worker threads to execute.
+		queue = LocalIngestRunData.createBlockingQueue(INGEST_BATCH_SIZE * parserThreads);
+
+		// Create our Jobs. We submit as many jobs as we have executors for.
+		// These folks will read our blocking queue
+		LOGGER.debug(String.format(
+				"Creating [%d] threads to ingest files",
+				threads));
+		for (int i = 0; i < threads; i++) {
+			final IngestTask task = new IngestTask(
+					String.format(
+							"ingest-%d",
+							i),
+					ingestRunData,
+					specifiedPrimaryIndexes,
+					requiredIndexMap,
+					queue);
+			ingestTasks.add(task);
+			ingestExecutor.submit(task);
+		}
+	}
+
+	/**
+	 * Wait for every file to be parsed, rethrowing the first parsing failure
+	 */
+	private void waitForParsers()
+			throws IOException {
+		try {
+			for (final Future<?> future : parserFutures) {
+				future.get();
+			}
+		}
+		catch (final InterruptedException e) {
+			throw new RuntimeException(
+					"Interrupted waiting for files to be parsed",
+					e);
+		}
+		catch (final ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new RuntimeException(
+					e.getCause());
+		}
+		finally {
+			parserFutures.clear();
+		}
 	}
 
 	/**
@@ -126,6 +271,15 @@ public class LocalFileIngestDriver extends
 	 * seconds.
 	 */
 	private void shutdownExecutor() {
+		if (parserExecutor != null) {
+			parserExecutor.shutdownNow();
+			parserExecutor = null;
+		}
+		// Terminate our ingest tasks.
+		for (IngestTask task : ingestTasks) {
+			task.terminate();
+		}
+		ingestTasks.clear();
 		if (ingestExecutor != null) {
 			try {
 				ingestExecutor.shutdown();
@@ -151,133 +305,202 @@ public class LocalFileIngestDriver extends
 			final LocalFileIngestPlugin<?> plugin,
 			final LocalIngestRunData ingestRunData )
 			throws IOException {
+		if (parserExecutor == null) {
+			parseFile(
+					file,
+					plugin);
+			return;
+		}
+		if ((plugin instanceof SplittableLocalFileIngestPlugin)
+				&& ((SplittableLocalFileIngestPlugin<?>) plugin).isSplittable(file)) {
+			final long length = file.length();
+			final int splits = getSplitCount(
+					length,
+					parserThreads);
+			if (splits > 1) {
+				LOGGER.debug(String.format(
+						"Splitting file [%s] into [%d] ranges",
+						file.getName(),
+						splits));
+				for (int i = 0; i < splits; i++) {
+					final long start = getSplitOffset(
+							length,
+							splits,
+							i);
+					final long end = getSplitOffset(
+							length,
+							splits,
+							i + 1);
+					parserFutures.add(parserExecutor.submit(new Callable<Void>() {
+						@Override
+						public Void call()
+								throws Exception {
+							parseFileRange(
+									file,
+									start,
+									end,
+									(SplittableLocalFileIngestPlugin<?>) plugin);
+							return null;
+						}
+					}));
+				}
+				return;
+			}
+		}
+		parserFutures.add(parserExecutor.submit(new Callable<Void>() {
+			@Override
+			public Void call()
+					throws Exception {
+				if (plugin instanceof ConcurrentIngestPlugin) {
+					parseFile(
+							file,
+							plugin);
+				}
+				else {
+					// the plugin may keep state while parsing, so only one of
+					// its files is parsed at a time
+					synchronized (plugin) {
+						parseFile(
+								file,
+								plugin);
+					}
+				}
+				return null;
+			}
+		}));
+	}
 
+	/**
+	 * 
+	 * @param length
+	 *            the length of the file in bytes
+	 * @param parserThreads
+	 *            the number of threads parsing files
+	 * @return the number of ranges to split the file into, a file that is not
+	 *         split has one range or none if it is shorter than the minimum
+	 *         split size
+	 */
+	protected static int getSplitCount(
+			final long length,
+			final int parserThreads ) {
+		return (int) Math.min(
+				parserThreads,
+				length / MIN_SPLIT_SIZE);
+	}
+
+	/**
+	 * 
+	 * @param length
+	 *            the length of the file in bytes
+	 * @param splits
+	 *            the number of ranges the file is split into
+	 * @param split
+	 *            the range, from 0 to the number of ranges
+	 * @return the first byte of the range, which is also the end of the
+	 *         previous range
+	 */
+	protected static long getSplitOffset(
+			final long length,
+			final int splits,
+			final int split ) {
+		return (length * split) / splits;
+	}
+
+	private void parseFile(
+			final File file,
+			final LocalFileIngestPlugin<?> plugin )
+			throws IOException {
 		LOGGER.info(String.format(
 				"Beginning ingest for file: [%s]",
 				file.getName()));
 
-		// This loads up the primary indexes that are specified on the command
-		// line.
-		// Usually spatial or spatial-temporal
-		final Map<ByteArrayId, PrimaryIndex> specifiedPrimaryIndexes = new HashMap<ByteArrayId, PrimaryIndex>();
-		for (final IndexPluginOptions dimensionType : indexOptions) {
-			final PrimaryIndex primaryIndex = dimensionType.createPrimaryIndex();
-			if (primaryIndex == null) {
-				LOGGER.error("Could not get index instance, getIndex() returned null;");
-				throw new IOException(
-						"Could not get index instance, getIndex() returned null");
-			}
-			specifiedPrimaryIndexes.put(
-					primaryIndex.getId(),
-					primaryIndex);
+		// Read files until EOF from the command line.
+		try (CloseableIterator<?> geowaveDataIt = plugin.toGeoWaveData(
+				file,
+				specifiedPrimaryIndexes.keySet(),
+				ingestOptions.getVisibility())) {
+			enqueue(geowaveDataIt);
 		}
 
-		// This gets the list of required indexes from the Plugin.
-		// If for some reason a GeoWaveData specifies an index that isn't
-		// originally
-		// in the specifiedPrimaryIndexes list, then this array is used to
-		// determine
-		// if the Plugin supports it. If it does, then we allow the creation of
-		// the
-		// index.
-		final Map<ByteArrayId, PrimaryIndex> requiredIndexMap = new HashMap<ByteArrayId, PrimaryIndex>();
-		final PrimaryIndex[] requiredIndices = plugin.getRequiredIndices();
-		if ((requiredIndices != null) && (requiredIndices.length > 0)) {
-			for (final PrimaryIndex requiredIndex : requiredIndices) {
-				requiredIndexMap.put(
-						requiredIndex.getId(),
-						requiredIndex);
-			}
-		}
+		LOGGER.info(String.format(
+				"Finished ingest for file: [%s]",
+				file.getName()));
+	}
 
-		// Create our queue. We will post GeoWaveData items to these queue until
-		// there are no more items, at which point we will tell the workers to
-		// complete. Ingest batch size is the total max number of items to read
-		// from the file at a time for the worker threads to execute.
-		BlockingQueue<GeoWaveData<?>> queue = LocalIngestRunData.createBlockingQueue(INGEST_BATCH_SIZE);
+	private void parseFileRange(
+			final File file,
+			final long start,
+			final long end,
+			final SplittableLocalFileIngestPlugin<?> plugin )
+			throws IOException {
+		LOGGER.info(String.format(
+				"Beginning ingest for file: [%s] bytes [%d-%d)",
+				file.getName(),
+				start,
+				end));
 
-		// Create our Jobs. We submit as many jobs as we have executors for.
-		// These folks will read our blocking queue
-		LOGGER.debug(String.format(
-				"Creating [%d] threads to ingest file: [%s]",
-				threads,
-				file.getName()));
-		List<IngestTask> ingestTasks = new ArrayList<IngestTask>();
-		try {
-			for (int i = 0; i < threads; i++) {
-				String id = String.format(
-						"%s-%d",
-						file.getName(),
-						i);
-				IngestTask task = new IngestTask(
-						id,
-						ingestRunData,
-						specifiedPrimaryIndexes,
-						requiredIndexMap,
-						queue);
-				ingestTasks.add(task);
-				ingestExecutor.submit(task);
-			}
+		try (CloseableIterator<?> geowaveDataIt = plugin.toGeoWaveData(
+				file,
+				start,
+				end,
+				specifiedPrimaryIndexes.keySet(),
+				ingestOptions.getVisibility())) {
+			enqueue(geowaveDataIt);
+		}
 
-			// Read files until EOF from the command line.
-			try (CloseableIterator<?> geowaveDataIt = plugin.toGeoWaveData(
-					file,
-					specifiedPrimaryIndexes.keySet(),
-					ingestOptions.getVisibility())) {
-
-				while (geowaveDataIt.hasNext()) {
-					final GeoWaveData<?> geowaveData = (GeoWaveData<?>) geowaveDataIt.next();
-					try {
-						while (!queue.offer(
-								geowaveData,
-								100,
-								TimeUnit.MILLISECONDS)) {
-							// Determine if we have any workers left. The point
-							// of this code is so we
-							// aren't hanging after our workers exit (before the
-							// file is done) due to
-							// some un-handled exception.
-							boolean workerAlive = false;
-							for (IngestTask task : ingestTasks) {
-								if (!task.isFinished()) {
-									workerAlive = true;
-									break;
-								}
-							}
-
-							// If the workers are still there, then just try to
-							// offer again.
-							// This will loop forever until there are no workers
-							// left.
-							if (workerAlive) {
-								LOGGER.debug("Worker threads are overwhelmed, waiting 1 second");
-							}
-							else {
-								String message = "Datastore error, all workers have terminated! Aborting...";
-								LOGGER.error(message);
-								throw new RuntimeException(
-										message);
-							}
+		LOGGER.info(String.format(
+				"Finished ingest for file: [%s] bytes [%d-%d)",
+				file.getName(),
+				start,
+				end));
+	}
+
+	/**
+	 * Post the GeoWaveData to the queue for the ingest tasks to write
+	 */
+	private void enqueue(
+			final CloseableIterator<?> geowaveDataIt ) {
+		while (geowaveDataIt.hasNext()) {
+			final GeoWaveData<?> geowaveData = (GeoWaveData<?>) geowaveDataIt.next();
+			try {
+				while (!queue.offer(
+						geowaveData,
+						100,
+						TimeUnit.MILLISECONDS)) {
+					// Determine if we have any workers left. The point
+					// of this code is so we
+					// aren't hanging after our workers exit (before the
+					// file is done) due to
+					// some un-handled exception.
+					boolean workerAlive = false;
+					for (IngestTask task : ingestTasks) {
+						if (!task.isFinished()) {
+							workerAlive = true;
+							break;
 						}
 					}
-					catch (InterruptedException e) {
-						// I can't see how this will ever happen, except maybe
-						// someone kills the process?
+
+					// If the workers are still there, then just try to
+					// offer again.
+					// This will loop forever until there are no workers
+					// left.
+					if (workerAlive) {
+						LOGGER.debug("Worker threads are overwhelmed, waiting 1 second");
+					}
+					else {
+						String message = "Datastore error, all workers have terminated! Aborting...";
+						LOGGER.error(message);
 						throw new RuntimeException(
-								"Interrupted placing GeoWaveData on queue");
+								message);
 					}
 				}
 			}
-		}
-		finally {
-			// Terminate our ingest tasks.
-			for (IngestTask task : ingestTasks) {
-				task.terminate();
+			catch (InterruptedException e) {
+				// I can't see how this will ever happen, except maybe
+				// someone kills the process?
+				throw new RuntimeException(
+						"Interrupted placing GeoWaveData on queue");
 			}
 		}
-
-		LOGGER.info(String.format(
-				"Finished ingest for file: [%s]",
-				file.getName()));
 	}
 }
@@ -0,0 +1,54 @@
+package mil.nga.giat.geowave.core.ingest.local;
+
+import java.io.File;
+import java.util.Collection;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.ingest.GeoWaveData;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+/**
+ * A local file ingest plugin for formats that can be split into byte ranges
+ * (such as line-oriented text) so that a large file can be parsed by several
+ * threads at once. Each range must emit exactly the data whose record starts
+ * within the range, FileSplitLineReader does this for line-oriented formats.
+ * 
+ * @param <O>
+ *            The type of data to write to GeoWave
+ */
+public interface SplittableLocalFileIngestPlugin<O> extends
+		ConcurrentLocalFileIngestPlugin<O>
+{
+	/**
+	 * 
+	 * @param file
+	 *            a file supported by this plugin
+	 * @return whether the file can be split into byte ranges (compressed files
+	 *         for example can not)
+	 */
+	public boolean isSplittable(
+			File file );
+
+	/**
+	 * Convert the records that start within a byte range of a file to
+	 * GeoWaveData
+	 * 
+	 * @param input
+	 *            the file to read
+	 * @param start
+	 *            the first byte of the range, inclusive
+	 * @param end
+	 *            the last byte of the range, exclusive
+	 * @param primaryIndexIds
+	 *            the primary indices to write to
+	 * @param globalVisibility
+	 *            the visibility to apply to all of the data
+	 * @return The objects that can be directly ingested into GeoWave
+	 */
+	public CloseableIterator<GeoWaveData<O>> toGeoWaveData(
+			File input,
+			long start,
+			long end,
+			Collection<ByteArrayId> primaryIndexIds,
+			String globalVisibility );
+}
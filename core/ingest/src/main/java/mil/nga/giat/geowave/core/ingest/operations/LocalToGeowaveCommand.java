@@ -50,6 +50,9 @@ public class LocalToGeowaveCommand implements
 	}, description = "number of threads to use for ingest, default to 1 (optional)")
 	private int threads = 1;
 
+	@Parameter(names = "--parserThreads", description = "number of threads to use for parsing input files, default to 1 (optional)")
+	private int parserThreads = 1;
+
 	private DataStorePluginOptions inputStoreOptions = null;
 
 	private List<IndexPluginOptions> inputIndexOptions = null;
@@ -117,7 +120,8 @@ public class LocalToGeowaveCommand implements
 				ingestPlugins,
 				ingestOptions,
 				localInputOptions,
-				threads);
+				threads,
+				parserThreads);
 
 		// Execute
 		if (!driver.runOperation(inputPath)) {
@@ -176,6 +180,15 @@ public class LocalToGeowaveCommand implements
 		this.threads = threads;
 	}
 
+	public int getParserThreads() {
+		return parserThreads;
+	}
+
+	public void setParserThreads(
+			int parserThreads ) {
+		this.parserThreads = parserThreads;
+	}
+
 	public DataStorePluginOptions getInputStoreOptions() {
 		return inputStoreOptions;
 	}
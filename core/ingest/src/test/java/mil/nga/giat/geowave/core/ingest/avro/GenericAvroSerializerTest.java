@@ -0,0 +1,237 @@
+package mil.nga.giat.geowave.core.ingest.avro;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GenericAvroSerializerTest
+{
+	private static final Schema POINT_SCHEMA = new Schema.Parser().parse("{\"type\":\"record\",\"name\":\"Point\","
+			+ "\"namespace\":\"mil.nga.giat.geowave.core.ingest.avro.test\","
+			+ "\"fields\":[{\"name\":\"x\",\"type\":\"int\"},{\"name\":\"name\",\"type\":\"string\"}]}");
+
+	@Test
+	public void testRoundTrip() {
+		final WholeFile file = createFile(1);
+		final WholeFile result = GenericAvroSerializer.deserialize(
+				GenericAvroSerializer.serialize(
+						file,
+						WholeFile.getClassSchema()),
+				WholeFile.getClassSchema());
+		assertFileEquals(
+				file,
+				result);
+	}
+
+	@Test
+	public void testSerializedBytesAreNotReused() {
+		// the output buffer is reused, the returned bytes must not be
+		final byte[] first = GenericAvroSerializer.serialize(
+				createFile(1),
+				WholeFile.getClassSchema());
+		final byte[] firstCopy = first.clone();
+		GenericAvroSerializer.serialize(
+				createFile(2),
+				WholeFile.getClassSchema());
+		Assert.assertArrayEquals(
+				firstCopy,
+				first);
+		assertFileEquals(
+				createFile(1),
+				GenericAvroSerializer.<WholeFile> deserialize(
+						first,
+						WholeFile.getClassSchema()));
+	}
+
+	@Test
+	public void testDeserializeWithReuse() {
+		final WholeFile reuse = GenericAvroSerializer.deserialize(
+				GenericAvroSerializer.serialize(
+						createFile(1),
+						WholeFile.getClassSchema()),
+				WholeFile.getClassSchema());
+		final WholeFile result = GenericAvroSerializer.deserialize(
+				GenericAvroSerializer.serialize(
+						createFile(2),
+						WholeFile.getClassSchema()),
+				WholeFile.getClassSchema(),
+				reuse);
+		Assert.assertSame(
+				reuse,
+				result);
+		assertFileEquals(
+				createFile(2),
+				result);
+	}
+
+	@Test
+	public void testBatchRoundTrip() {
+		final List<WholeFile> files = new ArrayList<WholeFile>();
+		for (int i = 0; i < 100; i++) {
+			files.add(createFile(i));
+		}
+		final List<WholeFile> results = GenericAvroSerializer.deserializeBatch(
+				GenericAvroSerializer.serializeBatch(
+						files,
+						WholeFile.getClassSchema()),
+				WholeFile.getClassSchema());
+		Assert.assertEquals(
+				files.size(),
+				results.size());
+		for (int i = 0; i < files.size(); i++) {
+			assertFileEquals(
+					files.get(i),
+					results.get(i));
+		}
+		Assert.assertTrue(GenericAvroSerializer.deserializeBatch(
+				GenericAvroSerializer.serializeBatch(
+						Collections.<WholeFile> emptyList(),
+						WholeFile.getClassSchema()),
+				WholeFile.getClassSchema()).isEmpty());
+	}
+
+	@Test
+	public void testBatchIsConcatenatedRecords()
+			throws IOException {
+		final List<WholeFile> files = new ArrayList<WholeFile>();
+		final ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+		for (int i = 0; i < 10; i++) {
+			files.add(createFile(i));
+			concatenated.write(GenericAvroSerializer.serialize(
+					createFile(i),
+					WholeFile.getClassSchema()));
+		}
+		Assert.assertArrayEquals(
+				concatenated.toByteArray(),
+				GenericAvroSerializer.serializeBatch(
+						files,
+						WholeFile.getClassSchema()));
+	}
+
+	@Test
+	public void testInterleavedSchemas() {
+		// each thread keeps a reader and writer per schema
+		for (int i = 0; i < 10; i++) {
+			final GenericRecord point = createPoint(i);
+			final byte[] pointBytes = GenericAvroSerializer.serialize(
+					point,
+					POINT_SCHEMA);
+			final byte[] fileBytes = GenericAvroSerializer.serialize(
+					createFile(i),
+					WholeFile.getClassSchema());
+			final GenericRecord pointResult = GenericAvroSerializer.deserialize(
+					pointBytes,
+					POINT_SCHEMA);
+			Assert.assertEquals(
+					i,
+					pointResult.get("x"));
+			Assert.assertEquals(
+					"point" + i,
+					pointResult.get(
+							"name").toString());
+			assertFileEquals(
+					createFile(i),
+					GenericAvroSerializer.<WholeFile> deserialize(
+							fileBytes,
+							WholeFile.getClassSchema()));
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testConcurrentSerialization()
+			throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int t = 0; t < 8; t++) {
+				final int thread = t;
+				futures.add(executor.submit(new Callable<Void>() {
+					@Override
+					public Void call() {
+						for (int i = 0; i < 1000; i++) {
+							final int id = (thread * 1000) + i;
+							final List<WholeFile> batch = new ArrayList<WholeFile>();
+							batch.add(createFile(id));
+							batch.add(createFile(id + 1));
+							final byte[] single = GenericAvroSerializer.serialize(
+									createFile(id),
+									WholeFile.getClassSchema());
+							final byte[] batchBytes = GenericAvroSerializer.serializeBatch(
+									batch,
+									WholeFile.getClassSchema());
+							assertFileEquals(
+									createFile(id),
+									GenericAvroSerializer.<WholeFile> deserialize(
+											single,
+											WholeFile.getClassSchema()));
+							final List<WholeFile> results = GenericAvroSerializer.deserializeBatch(
+									batchBytes,
+									WholeFile.getClassSchema());
+							Assert.assertEquals(
+									2,
+									results.size());
+							assertFileEquals(
+									createFile(id + 1),
+									results.get(1));
+						}
+						return null;
+					}
+				}));
+			}
+			for (final Future<Void> future : futures) {
+				future.get();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static WholeFile createFile(
+			final int id ) {
+		final byte[] contents = new byte[id % 64];
+		for (int i = 0; i < contents.length; i++) {
+			contents[i] = (byte) (id + i);
+		}
+		return new WholeFile(
+				ByteBuffer.wrap(contents),
+				"file" + id);
+	}
+
+	private static GenericRecord createPoint(
+			final int x ) {
+		final GenericRecord point = new GenericData.Record(
+				POINT_SCHEMA);
+		point.put(
+				"x",
+				x);
+		point.put(
+				"name",
+				"point" + x);
+		return point;
+	}
+
+	private static void assertFileEquals(
+			final WholeFile expected,
+			final WholeFile actual ) {
+		Assert.assertEquals(
+				expected.getOriginalFilePath().toString(),
+				actual.getOriginalFilePath().toString());
+		Assert.assertEquals(
+				expected.getOriginalFile(),
+				actual.getOriginalFile());
+	}
+}
@@ -0,0 +1,493 @@
+package mil.nga.giat.geowave.core.ingest.kafka;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema;
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.NullNumericIndexStrategy;
+import mil.nga.giat.geowave.core.ingest.GeoWaveData;
+import mil.nga.giat.geowave.core.ingest.IngestPluginBase;
+import mil.nga.giat.geowave.core.ingest.avro.AvroFormatPlugin;
+import mil.nga.giat.geowave.core.ingest.avro.GenericAvroSerializer;
+import mil.nga.giat.geowave.core.ingest.avro.WholeFile;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.IndexWriter;
+import mil.nga.giat.geowave.core.store.adapter.AdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
+import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
+import mil.nga.giat.geowave.core.store.data.field.FieldReader;
+import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.dimension.NumericDimensionField;
+import mil.nga.giat.geowave.core.store.index.BasicIndexModel;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+
+public class KafkaIngestPipelineTest
+{
+	private static final PrimaryIndex INDEX = new PrimaryIndex(
+			new NullNumericIndexStrategy(
+					"index"),
+			new BasicIndexModel(
+					new NumericDimensionField[] {}));
+
+	private final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+
+	@Test
+	public void testCommitsAfterWritesInOrder()
+			throws Exception {
+		final TestPlugin plugin = new TestPlugin();
+		try (KafkaIngestPipeline<WholeFile> pipeline = createPipeline(
+				plugin,
+				null,
+				1,
+				4)) {
+			pipeline.consume(
+					createMessages(
+							10).iterator(),
+					false);
+			Assert.assertEquals(
+					Arrays.asList(
+							"write 0",
+							"write 1",
+							"write 2",
+							"write 3",
+							"flush",
+							"commit",
+							"write 4",
+							"write 5",
+							"write 6",
+							"write 7",
+							"flush",
+							"commit",
+							"write 8",
+							"write 9",
+							"flush",
+							"commit"),
+					events);
+			Assert.assertEquals(
+					10,
+					pipeline.getMetrics().getEntriesWritten());
+		}
+	}
+
+	@Test
+	public void testNoCommitAfterPluginFailure()
+			throws Exception {
+		final TestPlugin plugin = new TestPlugin();
+		plugin.failingValue = "5";
+		assertNoCommitAfterFailure(createPipeline(
+				plugin,
+				null,
+				1,
+				4));
+	}
+
+	@Test
+	public void testNoCommitAfterWriteFailure()
+			throws Exception {
+		assertNoCommitAfterFailure(createPipeline(
+				new TestPlugin(),
+				"5",
+				1,
+				4));
+	}
+
+	@Test
+	public void testNoCommitAfterUnreadableMessage()
+			throws Exception {
+		final KafkaIngestPipeline<WholeFile> pipeline = createPipeline(
+				new TestPlugin(),
+				null,
+				1,
+				4);
+		final List<byte[]> messages = createMessages(10);
+		messages.set(
+				5,
+				new byte[] {
+					-1,
+					-1,
+					-1
+				});
+		try {
+			pipeline.consume(
+					messages.iterator(),
+					false);
+			Assert.fail("Expected the unreadable message to fail the ingest");
+		}
+		catch (final IOException e) {
+			// expected
+		}
+		finally {
+			closeFailed(pipeline);
+		}
+		Assert.assertEquals(
+				1,
+				Collections.frequency(
+						events,
+						"commit"));
+		Assert.assertEquals(
+				1,
+				pipeline.getMetrics().getDecodeErrors());
+	}
+
+	@Test
+	public void testNonConcurrentPluginIsSerialized()
+			throws Exception {
+		final TestPlugin plugin = new TestPlugin();
+		plugin.sleepMs = 1;
+		try (KafkaIngestPipeline<WholeFile> pipeline = createPipeline(
+				plugin,
+				null,
+				4,
+				50)) {
+			pipeline.consume(
+					createMessages(
+							200).iterator(),
+					false);
+			Assert.assertEquals(
+					200,
+					pipeline.getMetrics().getEntriesWritten());
+		}
+		Assert.assertEquals(
+				1,
+				plugin.maxActive.get());
+	}
+
+	private void assertNoCommitAfterFailure(
+			final KafkaIngestPipeline<WholeFile> pipeline )
+			throws InterruptedException {
+		try {
+			pipeline.consume(
+					createMessages(
+							10).iterator(),
+					false);
+			Assert.fail("Expected the failed message to fail the ingest");
+		}
+		catch (final IOException e) {
+			// expected
+		}
+		finally {
+			closeFailed(pipeline);
+		}
+		// only the messages before the failure are committed
+		Assert.assertEquals(
+				1,
+				Collections.frequency(
+						events,
+						"commit"));
+		Assert.assertEquals(
+				"commit",
+				events.get(events.indexOf("write 3") + 2));
+	}
+
+	private static void closeFailed(
+			final KafkaIngestPipeline<WholeFile> pipeline ) {
+		try {
+			pipeline.close();
+			Assert.fail("Expected close to report the failure");
+		}
+		catch (final IOException e) {
+			// expected
+		}
+	}
+
+	private KafkaIngestPipeline<WholeFile> createPipeline(
+			final TestPlugin plugin,
+			final String failingWrite,
+			final int decodeThreads,
+			final int flushSize ) {
+		final KafkaConsumerCommandLineOptions options = new KafkaConsumerCommandLineOptions();
+		options.setBatchSize(flushSize);
+		options.setFlushIntervalMs(0);
+		options.setDecodeThreads(decodeThreads);
+		options.setDecodeBatchSize(1);
+		final Map<ByteArrayId, PrimaryIndex> indexMap = new HashMap<ByteArrayId, PrimaryIndex>();
+		indexMap.put(
+				INDEX.getId(),
+				INDEX);
+		return new KafkaIngestPipeline<WholeFile>(
+				"test",
+				plugin,
+				new KafkaIngestRunData(
+						Arrays.<WritableDataAdapter<?>> asList(plugin.adapter),
+						new RecordingDataStore(
+								failingWrite)),
+				indexMap,
+				null,
+				options,
+				new KafkaIngestPipeline.OffsetCommitter() {
+					@Override
+					public void commitOffsets() {
+						events.add("commit");
+					}
+				});
+	}
+
+	private static List<byte[]> createMessages(
+			final int count ) {
+		final List<byte[]> messages = new ArrayList<byte[]>();
+		for (int i = 0; i < count; i++) {
+			messages.add(GenericAvroSerializer.serialize(
+					new WholeFile(
+							ByteBuffer.wrap(new byte[0]),
+							Integer.toString(i)),
+					WholeFile.getClassSchema()));
+		}
+		return messages;
+	}
+
+	private class RecordingDataStore implements
+			DataStore
+	{
+		private final String failingWrite;
+
+		private RecordingDataStore(
+				final String failingWrite ) {
+			this.failingWrite = failingWrite;
+		}
+
+		@Override
+		public <T> IndexWriter createWriter(
+				final DataAdapter<T> adapter,
+				final PrimaryIndex... index ) {
+			return new IndexWriter<String>() {
+				@Override
+				public List<ByteArrayId> write(
+						final String entry ) {
+					if (entry.equals(failingWrite)) {
+						throw new IllegalStateException(
+								"Unable to write " + entry);
+					}
+					events.add("write " + entry);
+					return Collections.emptyList();
+				}
+
+				@Override
+				public List<ByteArrayId> write(
+						final String entry,
+						final VisibilityWriter<String> fieldVisibilityWriter ) {
+					return write(entry);
+				}
+
+				@Override
+				public PrimaryIndex[] getIndices() {
+					return index;
+				}
+
+				@Override
+				public void flush() {
+					events.add("flush");
+				}
+
+				@Override
+				public void close() {}
+			};
+		}
+
+		@Override
+		public <T> CloseableIterator<T> query(
+				final QueryOptions queryOptions,
+				final Query query ) {
+			return new CloseableIterator.Empty<T>();
+		}
+
+		@Override
+		public boolean delete(
+				final QueryOptions queryOptions,
+				final Query query ) {
+			return false;
+		}
+	}
+
+	private static class TestPlugin implements
+			AvroFormatPlugin<WholeFile, String>,
+			IngestPluginBase<WholeFile, String>
+	{
+		private final StringAdapter adapter = new StringAdapter();
+		private final AtomicInteger active = new AtomicInteger();
+		private final AtomicInteger maxActive = new AtomicInteger();
+		private String failingValue;
+		private long sleepMs = 0;
+
+		@Override
+		public CloseableIterator<GeoWaveData<String>> toGeoWaveData(
+				final WholeFile input,
+				final Collection<ByteArrayId> primaryIndexIds,
+				final String globalVisibility ) {
+			final int nowActive = active.incrementAndGet();
+			try {
+				int max = maxActive.get();
+				while ((nowActive > max) && !maxActive.compareAndSet(
+						max,
+						nowActive)) {
+					max = maxActive.get();
+				}
+				if (sleepMs > 0) {
+					Thread.sleep(sleepMs);
+				}
+				final String value = input.getOriginalFilePath();
+				if (value.equals(failingValue)) {
+					throw new IllegalArgumentException(
+							"Unable to convert " + value);
+				}
+				return new CloseableIterator.Wrapper<GeoWaveData<String>>(
+						Collections.singletonList(
+								new GeoWaveData<String>(
+										adapter,
+										primaryIndexIds,
+										value)).iterator());
+			}
+			catch (final InterruptedException e) {
+				throw new RuntimeException(
+						e);
+			}
+			finally {
+				active.decrementAndGet();
+			}
+		}
+
+		@Override
+		public WritableDataAdapter<String>[] getDataAdapters(
+				final String globalVisibility ) {
+			return new WritableDataAdapter[] {
+				adapter
+			};
+		}
+
+		@Override
+		public Class<? extends CommonIndexValue>[] getSupportedIndexableTypes() {
+			return new Class[] {};
+		}
+
+		@Override
+		public IngestPluginBase<WholeFile, String> getIngestWithAvroPlugin() {
+			return this;
+		}
+
+		@Override
+		public Schema getAvroSchema() {
+			return WholeFile.getClassSchema();
+		}
+
+		@Override
+		public WholeFile[] toAvroObjects(
+				final File file ) {
+			return new WholeFile[] {};
+		}
+
+		@Override
+		public PrimaryIndex[] getRequiredIndices() {
+			return new PrimaryIndex[] {
+				INDEX
+			};
+		}
+
+		@Override
+		public String[] getFileExtensionFilters() {
+			return new String[] {};
+		}
+
+		@Override
+		public void init(
+				final File baseDirectory ) {}
+
+		@Override
+		public boolean supportsFile(
+				final File file ) {
+			return false;
+		}
+	}
+
+	private static class StringAdapter implements
+			WritableDataAdapter<String>
+	{
+		private static final ByteArrayId ADAPTER_ID = new ByteArrayId(
+				"string");
+
+		@Override
+		public ByteArrayId getAdapterId() {
+			return ADAPTER_ID;
+		}
+
+		@Override
+		public boolean isSupported(
+				final String entry ) {
+			return true;
+		}
+
+		@Override
+		public ByteArrayId getDataId(
+				final String entry ) {
+			return new ByteArrayId(
+					entry);
+		}
+
+		@Override
+		public String decode(
+				final IndexedAdapterPersistenceEncoding data,
+				final PrimaryIndex index ) {
+			return null;
+		}
+
+		@Override
+		public AdapterPersistenceEncoding encode(
+				final String entry,
+				final CommonIndexModel indexModel ) {
+			return null;
+		}
+
+		@Override
+		public int getPositionOfOrderedField(
+				final CommonIndexModel model,
+				final ByteArrayId fieldId ) {
+			return -1;
+		}
+
+		@Override
+		public ByteArrayId getFieldIdForPosition(
+				final CommonIndexModel model,
+				final int position ) {
+			return null;
+		}
+
+		@Override
+		public FieldReader<Object> getReader(
+				final ByteArrayId fieldId ) {
+			return null;
+		}
+
+		@Override
+		public FieldWriter<String, Object> getWriter(
+				final ByteArrayId fieldId ) {
+			return null;
+		}
+
+		@Override
+		public byte[] toBinary() {
+			return new byte[0];
+		}
+
+		@Override
+		public void fromBinary(
+				final byte[] bytes ) {}
+	}
+}
@@ -0,0 +1,110 @@
+package mil.nga.giat.geowave.core.ingest.local;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.StringUtils;
+
+public class FileLineIndexTest
+{
+	private static final String CONTENTS = "a\nbb\n\nccc\r\ndddd\ne";
+
+	@Test
+	public void testLineNumbers()
+			throws IOException {
+		final File file = FileSplitLineReaderTest.createFile(
+				"FileLineIndexTest.testLineNumbers",
+				CONTENTS);
+		// small blocks so offsets fall on, before and after block boundaries
+		for (int blockSize = 1; blockSize <= (CONTENTS.length() + 1); blockSize++) {
+			final FileLineIndex index = new FileLineIndex(
+					file,
+					blockSize);
+			for (int offset = 0; offset <= CONTENTS.length(); offset++) {
+				Assert.assertEquals(
+						"block size " + blockSize + ", offset " + offset,
+						countLines(offset),
+						index.getLineNumber(offset));
+			}
+		}
+		Assert.assertEquals(
+				countLines(CONTENTS.length()),
+				new FileLineIndex(
+						file).getLineNumber(CONTENTS.length()));
+	}
+
+	@Test
+	public void testEmptyFile()
+			throws IOException {
+		final File file = FileSplitLineReaderTest.createFile(
+				"FileLineIndexTest.testEmptyFile",
+				"");
+		Assert.assertEquals(
+				0,
+				new FileLineIndex(
+						file).getLineNumber(0));
+	}
+
+	@Test
+	public void testLineNumberOfRange()
+			throws IOException {
+		final File file = FileSplitLineReaderTest.createFile(
+				"FileLineIndexTest.testLineNumberOfRange",
+				CONTENTS);
+		final FileLineIndex index = new FileLineIndex(
+				file,
+				4);
+		final String[] lines = CONTENTS.split("\n");
+		for (int start = 0; start <= CONTENTS.length(); start++) {
+			try (FileSplitLineReader reader = new FileSplitLineReader(
+					file,
+					start,
+					CONTENTS.length(),
+					StringUtils.GEOWAVE_CHAR_SET)) {
+				final long lineNumber = index.getLineNumber(reader.getPosition());
+				final String line = reader.readLine();
+				if (line != null) {
+					Assert.assertEquals(
+							"start " + start,
+							lines[(int) lineNumber].replace(
+									"\r",
+									""),
+							line);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testStale()
+			throws IOException {
+		final File file = FileSplitLineReaderTest.createFile(
+				"FileLineIndexTest.testStale",
+				CONTENTS);
+		final FileLineIndex index = new FileLineIndex(
+				file);
+		Assert.assertFalse(index.isStale());
+		try (OutputStream out = new FileOutputStream(
+				file,
+				true)) {
+			out.write(StringUtils.stringToBinary("\nf"));
+		}
+		Assert.assertTrue(index.isStale());
+	}
+
+	private static long countLines(
+			final int offset ) {
+		long count = 0;
+		for (int i = 0; i < offset; i++) {
+			if (CONTENTS.charAt(i) == '\n') {
+				count++;
+			}
+		}
+		return count;
+	}
+}
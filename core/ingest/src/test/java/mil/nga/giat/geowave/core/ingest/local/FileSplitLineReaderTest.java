@@ -0,0 +1,223 @@
+package mil.nga.giat.geowave.core.ingest.local;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.StringUtils;
+
+public class FileSplitLineReaderTest
+{
+	@Test
+	public void testLineStraddlingSplit()
+			throws IOException {
+		final File file = createFile(
+				"FileSplitLineReaderTest.testLineStraddlingSplit",
+				"aaa\nbbbbbb\nccc\n");
+		// the line that starts before the split belongs to the first range
+		Assert.assertEquals(
+				Arrays.asList(
+						"aaa",
+						"bbbbbb"),
+				readRange(
+						file,
+						0,
+						6));
+		Assert.assertEquals(
+				Arrays.asList("ccc"),
+				readRange(
+						file,
+						6,
+						file.length()));
+	}
+
+	@Test
+	public void testSplitAtLineStart()
+			throws IOException {
+		final File file = createFile(
+				"FileSplitLineReaderTest.testSplitAtLineStart",
+				"aaa\nbbbbbb\nccc\n");
+		Assert.assertEquals(
+				Arrays.asList("aaa"),
+				readRange(
+						file,
+						0,
+						4));
+		Assert.assertEquals(
+				Arrays.asList(
+						"bbbbbb",
+						"ccc"),
+				readRange(
+						file,
+						4,
+						file.length()));
+	}
+
+	@Test
+	public void testCrlf()
+			throws IOException {
+		final File file = createFile(
+				"FileSplitLineReaderTest.testCrlf",
+				"a\r\nbb\r\n\r\nc\r\n");
+		assertEverySplit(
+				file,
+				Arrays.asList(
+						"a",
+						"bb",
+						"",
+						"c"));
+	}
+
+	@Test
+	public void testFinalLineWithoutNewline()
+			throws IOException {
+		final File file = createFile(
+				"FileSplitLineReaderTest.testFinalLineWithoutNewline",
+				"aaa\nbbb\ncc");
+		assertEverySplit(
+				file,
+				Arrays.asList(
+						"aaa",
+						"bbb",
+						"cc"));
+	}
+
+	@Test
+	public void testEmptyLines()
+			throws IOException {
+		final File file = createFile(
+				"FileSplitLineReaderTest.testEmptyLines",
+				"\n\na\n\nb\n");
+		assertEverySplit(
+				file,
+				Arrays.asList(
+						"",
+						"",
+						"a",
+						"",
+						"b"));
+	}
+
+	@Test
+	public void testPositionIsLineStart()
+			throws IOException {
+		final File file = createFile(
+				"FileSplitLineReaderTest.testPositionIsLineStart",
+				"aaa\nbbbbbb\nccc\n");
+		final long[] expectedPositions = new long[] {
+			0,
+			4,
+			4,
+			4,
+			4,
+			11,
+			11,
+			11,
+			11,
+			11,
+			11,
+			11,
+			15,
+			15,
+			15
+		};
+		for (int start = 0; start < expectedPositions.length; start++) {
+			try (FileSplitLineReader reader = new FileSplitLineReader(
+					file,
+					start,
+					file.length(),
+					StringUtils.GEOWAVE_CHAR_SET)) {
+				Assert.assertEquals(
+						"start " + start,
+						expectedPositions[start],
+						reader.getPosition());
+			}
+		}
+	}
+
+	/**
+	 * Reads the file split in two and in three at every possible offset, and
+	 * checks every line is read exactly once
+	 */
+	private static void assertEverySplit(
+			final File file,
+			final List<String> expectedLines )
+			throws IOException {
+		final long length = file.length();
+		for (long first = 0; first <= length; first++) {
+			final List<String> lines = new ArrayList<String>();
+			lines.addAll(readRange(
+					file,
+					0,
+					first));
+			lines.addAll(readRange(
+					file,
+					first,
+					length));
+			Assert.assertEquals(
+					"split at " + first,
+					expectedLines,
+					lines);
+			for (long second = first; second <= length; second++) {
+				lines.clear();
+				lines.addAll(readRange(
+						file,
+						0,
+						first));
+				lines.addAll(readRange(
+						file,
+						first,
+						second));
+				lines.addAll(readRange(
+						file,
+						second,
+						length));
+				Assert.assertEquals(
+						"split at " + first + " and " + second,
+						expectedLines,
+						lines);
+			}
+		}
+	}
+
+	protected static List<String> readRange(
+			final File file,
+			final long start,
+			final long end )
+			throws IOException {
+		final List<String> lines = new ArrayList<String>();
+		try (FileSplitLineReader reader = new FileSplitLineReader(
+				file,
+				start,
+				end,
+				StringUtils.GEOWAVE_CHAR_SET)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	protected static File createFile(
+			final String name,
+			final String contents )
+			throws IOException {
+		final File file = File.createTempFile(
+				name,
+				"txt");
+		file.deleteOnExit();
+		try (OutputStream out = new FileOutputStream(
+				file)) {
+			out.write(StringUtils.stringToBinary(contents));
+		}
+		return file;
+	}
+}
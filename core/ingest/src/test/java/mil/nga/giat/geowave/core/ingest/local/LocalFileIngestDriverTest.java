@@ -0,0 +1,131 @@
+package mil.nga.giat.geowave.core.ingest.local;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.StringUtils;
+
+public class LocalFileIngestDriverTest
+{
+	@Test
+	public void testSplitCount() {
+		final long minSplitSize = LocalFileIngestDriver.MIN_SPLIT_SIZE;
+		// files shorter than two minimum ranges are not split
+		Assert.assertEquals(
+				0,
+				LocalFileIngestDriver.getSplitCount(
+						minSplitSize - 1,
+						8));
+		Assert.assertEquals(
+				1,
+				LocalFileIngestDriver.getSplitCount(
+						(2 * minSplitSize) - 1,
+						8));
+		Assert.assertEquals(
+				2,
+				LocalFileIngestDriver.getSplitCount(
+						2 * minSplitSize,
+						8));
+		// never more ranges than parser threads
+		Assert.assertEquals(
+				8,
+				LocalFileIngestDriver.getSplitCount(
+						100 * minSplitSize,
+						8));
+		Assert.assertEquals(
+				1,
+				LocalFileIngestDriver.getSplitCount(
+						100 * minSplitSize,
+						1));
+	}
+
+	@Test
+	public void testSplitOffsets() {
+		final long length = (7 * LocalFileIngestDriver.MIN_SPLIT_SIZE) + 13;
+		for (int splits = 1; splits <= 7; splits++) {
+			Assert.assertEquals(
+					0,
+					LocalFileIngestDriver.getSplitOffset(
+							length,
+							splits,
+							0));
+			Assert.assertEquals(
+					length,
+					LocalFileIngestDriver.getSplitOffset(
+							length,
+							splits,
+							splits));
+			for (int i = 0; i < splits; i++) {
+				final long size = LocalFileIngestDriver.getSplitOffset(
+						length,
+						splits,
+						i + 1) - LocalFileIngestDriver.getSplitOffset(
+						length,
+						splits,
+						i);
+				// the ranges are as even as possible
+				Assert.assertTrue(size >= (length / splits));
+				Assert.assertTrue(size <= ((length / splits) + 1));
+			}
+		}
+	}
+
+	@Test
+	public void testSplitRangesReadEveryLine()
+			throws IOException {
+		final StringBuilder contents = new StringBuilder();
+		final List<String> expectedLines = new ArrayList<String>();
+		for (int i = 0; i < 1000; i++) {
+			final String line = i + "," + (i * 31);
+			expectedLines.add(line);
+			contents.append(
+					line).append(
+					(i % 2) == 0 ? "\n" : "\r\n");
+		}
+		final File file = FileSplitLineReaderTest.createFile(
+				"LocalFileIngestDriverTest.testSplitRangesReadEveryLine",
+				contents.toString());
+		final FileLineIndex index = new FileLineIndex(
+				file,
+				256);
+		final long length = file.length();
+		for (int splits = 1; splits <= 16; splits++) {
+			final List<String> lines = new ArrayList<String>();
+			for (int i = 0; i < splits; i++) {
+				final long start = LocalFileIngestDriver.getSplitOffset(
+						length,
+						splits,
+						i);
+				final List<String> rangeLines = FileSplitLineReaderTest.readRange(
+						file,
+						start,
+						LocalFileIngestDriver.getSplitOffset(
+								length,
+								splits,
+								i + 1));
+				if (!rangeLines.isEmpty()) {
+					// each range knows the number of its first line
+					try (FileSplitLineReader reader = new FileSplitLineReader(
+							file,
+							start,
+							length,
+							StringUtils.GEOWAVE_CHAR_SET)) {
+						Assert.assertEquals(
+								lines.size(),
+								index.getLineNumber(reader.getPosition()));
+					}
+				}
+				lines.addAll(rangeLines);
+			}
+			Assert.assertEquals(
+					"splits " + splits,
+					expectedLines,
+					lines);
+		}
+	}
+}
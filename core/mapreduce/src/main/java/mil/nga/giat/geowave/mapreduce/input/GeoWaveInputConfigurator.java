@@ -23,6 +23,7 @@ public class GeoWaveInputConfigurator extends
 		QUERY_OPTIONS,
 		MIN_SPLITS,
 		MAX_SPLITS,
+		RANGE_PREFETCH,
 		OUTPUT_WRITABLE, // used to inform the input format to output a Writable
 							// from the HadoopDataAdapter
 		AUTHORIZATION
@@ -214,4 +215,31 @@ public class GeoWaveInputConfigurator extends
 					InputConfig.MAX_SPLITS));
 		}
 	}
+
+	public static Integer getRangePrefetchCount(
+			final Class<?> implementingClass,
+			final JobContext context ) {
+		return getIntegerConfigInternal(
+				implementingClass,
+				getConfiguration(context),
+				InputConfig.RANGE_PREFETCH);
+	}
+
+	public static void setRangePrefetchCount(
+			final Class<?> implementingClass,
+			final Configuration config,
+			final Integer prefetchCount ) {
+		if (prefetchCount != null) {
+			config.set(
+					enumToConfKey(
+							implementingClass,
+							InputConfig.RANGE_PREFETCH),
+					prefetchCount.toString());
+		}
+		else {
+			config.unset(enumToConfKey(
+					implementingClass,
+					InputConfig.RANGE_PREFETCH));
+		}
+	}
 }
\ No newline at end of file
@@ -105,6 +105,27 @@ public class GeoWaveInputFormat<T> extends
 				maxSplits);
 	}
 
+	/**
+	 * Set the number of ranges of a split that each record reader reads ahead
+	 * of consumption, each on its own thread. Ranges are read one at a time
+	 * when this is not set.
+	 */
+	public static void setRangePrefetchCount(
+			final Configuration config,
+			final Integer prefetchCount ) {
+		GeoWaveInputConfigurator.setRangePrefetchCount(
+				CLASS,
+				config,
+				prefetchCount);
+	}
+
+	public static Integer getRangePrefetchCount(
+			final JobContext context ) {
+		return GeoWaveInputConfigurator.getRangePrefetchCount(
+				CLASS,
+				context);
+	}
+
 	public static void setIsOutputWritable(
 			final Configuration config,
 			final Boolean isOutputWritable ) {
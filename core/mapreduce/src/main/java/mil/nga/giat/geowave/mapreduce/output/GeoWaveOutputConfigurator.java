@@ -0,0 +1,94 @@
+package mil.nga.giat.geowave.mapreduce.output;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.JobContext;
+
+import mil.nga.giat.geowave.mapreduce.GeoWaveConfiguratorBase;
+
+/**
+ * This class provides utility methods for accessing job context configuration
+ * parameters that are specific to the GeoWaveOutputFormat.
+ */
+public class GeoWaveOutputConfigurator extends
+		GeoWaveConfiguratorBase
+{
+	protected static enum OutputConfig {
+		WRITER_THREADS,
+		WRITER_QUEUE_SIZE
+	}
+
+	private static Integer getIntegerConfigInternal(
+			final Class<?> implementingClass,
+			final Configuration configuration,
+			final OutputConfig outputConfig ) {
+		final String str = configuration.get(
+				enumToConfKey(
+						implementingClass,
+						outputConfig),
+				"");
+		if ((str != null) && !str.isEmpty()) {
+			final Integer retVal = Integer.parseInt(str);
+			return retVal;
+		}
+		return null;
+	}
+
+	private static void setIntegerConfigInternal(
+			final Class<?> implementingClass,
+			final Configuration config,
+			final OutputConfig outputConfig,
+			final Integer value ) {
+		if (value != null) {
+			config.set(
+					enumToConfKey(
+							implementingClass,
+							outputConfig),
+					value.toString());
+		}
+		else {
+			config.unset(enumToConfKey(
+					implementingClass,
+					outputConfig));
+		}
+	}
+
+	public static Integer getWriterThreadCount(
+			final Class<?> implementingClass,
+			final JobContext context ) {
+		return getIntegerConfigInternal(
+				implementingClass,
+				getConfiguration(context),
+				OutputConfig.WRITER_THREADS);
+	}
+
+	public static void setWriterThreadCount(
+			final Class<?> implementingClass,
+			final Configuration config,
+			final Integer writerThreadCount ) {
+		setIntegerConfigInternal(
+				implementingClass,
+				config,
+				OutputConfig.WRITER_THREADS,
+				writerThreadCount);
+	}
+
+	public static Integer getWriterQueueSize(
+			final Class<?> implementingClass,
+			final JobContext context ) {
+		return getIntegerConfigInternal(
+				implementingClass,
+				getConfiguration(context),
+				OutputConfig.WRITER_QUEUE_SIZE);
+	}
+
+	public static void setWriterQueueSize(
+			final Class<?> implementingClass,
+			final Configuration config,
+			final Integer writerQueueSize ) {
+		setIntegerConfigInternal(
+				implementingClass,
+				config,
+				OutputConfig.WRITER_QUEUE_SIZE,
+				writerQueueSize);
+	}
+}
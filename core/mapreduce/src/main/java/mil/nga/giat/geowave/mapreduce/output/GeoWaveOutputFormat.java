@@ -7,9 +7,15 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Counter;
 import org.apache.hadoop.mapreduce.JobContext;
 import org.apache.hadoop.mapreduce.OutputCommitter;
 import org.apache.hadoop.mapreduce.OutputFormat;
@@ -44,6 +50,17 @@ public class GeoWaveOutputFormat extends
 {
 	private static final Class<?> CLASS = GeoWaveOutputFormat.class;
 	protected static final Logger LOGGER = Logger.getLogger(CLASS);
+	private static final int DEFAULT_WRITER_QUEUE_SIZE = 1000;
+
+	/**
+	 * Counters reported by the asynchronous record writer
+	 */
+	public static enum WriterCounter {
+		RECORDS_WRITTEN,
+		RECORDS_SKIPPED,
+		RECORDS_FAILED,
+		WRITER_QUEUE_FULL
+	}
 
 	@Override
 	public RecordWriter<GeoWaveOutputKey<Object>, Object> getRecordWriter(
@@ -99,6 +116,17 @@ public class GeoWaveOutputFormat extends
 					context,
 					persistentIndexStore);
 			final DataStore dataStore = GeoWaveStoreFinder.createDataStore(configOptions);
+			final Integer writerThreadCount = getWriterThreadCount(context);
+			if ((writerThreadCount != null) && (writerThreadCount > 0)) {
+				final Integer writerQueueSize = getWriterQueueSize(context);
+				return new AsyncGeoWaveRecordWriter(
+						context,
+						dataStore,
+						jobContextIndexStore,
+						jobContextAdapterStore,
+						writerThreadCount,
+						writerQueueSize != null ? writerQueueSize : DEFAULT_WRITER_QUEUE_SIZE);
+			}
 			return new GeoWaveRecordWriter(
 					context,
 					dataStore,
@@ -153,6 +181,48 @@ public class GeoWaveOutputFormat extends
 				adapter);
 	}
 
+	/**
+	 * Set the number of threads that each record writer uses to encode and
+	 * write records. Records are written on the task thread when this is not
+	 * set. With writer threads a record is written after write() returns, so
+	 * the key and value given to write() must not be modified afterwards.
+	 */
+	public static void setWriterThreadCount(
+			final Configuration config,
+			final Integer writerThreadCount ) {
+		GeoWaveOutputConfigurator.setWriterThreadCount(
+				CLASS,
+				config,
+				writerThreadCount);
+	}
+
+	public static Integer getWriterThreadCount(
+			final JobContext context ) {
+		return GeoWaveOutputConfigurator.getWriterThreadCount(
+				CLASS,
+				context);
+	}
+
+	/**
+	 * Set the number of records that may be waiting for the writer threads,
+	 * write() blocks while this many records are waiting
+	 */
+	public static void setWriterQueueSize(
+			final Configuration config,
+			final Integer writerQueueSize ) {
+		GeoWaveOutputConfigurator.setWriterQueueSize(
+				CLASS,
+				config,
+				writerQueueSize);
+	}
+
+	public static Integer getWriterQueueSize(
+			final JobContext context ) {
+		return GeoWaveOutputConfigurator.getWriterQueueSize(
+				CLASS,
+				context);
+	}
+
 	protected static IndexStore getJobContextIndexStore(
 			final JobContext context ) {
 		return GeoWaveConfiguratorBase.getJobContextIndexStore(
@@ -271,16 +341,10 @@ public class GeoWaveOutputFormat extends
 				throws IOException {
 			final WritableDataAdapter<?> adapter = ingestKey.getAdapter(adapterStore);
 			if (adapter != null) {
-				final IndexWriter indexWriter = getIndexWriter(
+				write(
 						adapter,
-						ingestKey.getIndexIds());
-				if (indexWriter != null) {
-					indexWriter.write(data);
-				}
-				else {
-					LOGGER.warn("Cannot write to index '"
-							+ StringUtils.stringFromBinary(ingestKey.getAdapterId().getBytes()) + "'");
-				}
+						ingestKey.getIndexIds(),
+						data);
 			}
 			else {
 				LOGGER.warn("Adapter '" + StringUtils.stringFromBinary(ingestKey.getAdapterId().getBytes())
@@ -288,28 +352,53 @@ public class GeoWaveOutputFormat extends
 			}
 		}
 
+		/**
+		 * @return false if none of the indices could be written to
+		 */
+		@SuppressWarnings("unchecked")
+		protected boolean write(
+				final WritableDataAdapter<?> adapter,
+				final Collection<ByteArrayId> indexIds,
+				final Object data )
+				throws IOException {
+			final IndexWriter indexWriter = getIndexWriter(
+					adapter,
+					indexIds);
+			if (indexWriter != null) {
+				indexWriter.write(data);
+				return true;
+			}
+			LOGGER.warn("Cannot write to index '" + StringUtils.stringFromBinary(adapter.getAdapterId().getBytes())
+					+ "'");
+			return false;
+		}
+
 		private synchronized IndexWriter getIndexWriter(
 				final DataAdapter<?> adapter,
 				final Collection<ByteArrayId> indexIds )
 				throws MismatchedIndexToAdapterMapping {
 			IndexWriter writer = adapterIdToIndexWriterCache.get(adapter.getAdapterId());
 			if (writer == null) {
-				final List<PrimaryIndex> indices = new ArrayList<PrimaryIndex>();
-				for (final ByteArrayId indexId : indexIds) {
-					final PrimaryIndex index = (PrimaryIndex) indexStore.getIndex(indexId);
-					if (index != null) {
-						indices.add(index);
-					}
-					else {
-						LOGGER.warn("Index '" + StringUtils.stringFromBinary(indexId.getBytes()) + "' does not exist");
+				// the stores may be shared by the writers of other threads
+				synchronized (dataStore) {
+					final List<PrimaryIndex> indices = new ArrayList<PrimaryIndex>();
+					for (final ByteArrayId indexId : indexIds) {
+						final PrimaryIndex index = (PrimaryIndex) indexStore.getIndex(indexId);
+						if (index != null) {
+							indices.add(index);
+						}
+						else {
+							LOGGER.warn("Index '" + StringUtils.stringFromBinary(indexId.getBytes())
+									+ "' does not exist");
+						}
+
 					}
 
+					writer = dataStore.createWriter(
+							adapter,
+							indices.toArray(new PrimaryIndex[indices.size()]));
 				}
 
-				writer = dataStore.createWriter(
-						adapter,
-						indices.toArray(new PrimaryIndex[indices.size()]));
-
 				adapterIdToIndexWriterCache.put(
 						adapter.getAdapterId(),
 						writer);
@@ -329,4 +418,218 @@ public class GeoWaveOutputFormat extends
 		}
 	}
 
+	/**
+	 * A {@link RecordWriter} that queues records to be encoded and written by a
+	 * pool of writer threads. Each thread keeps its own index writers so
+	 * records are encoded concurrently. The queue is bounded, so write() blocks
+	 * while the writer threads fall behind. The first failure of a writer
+	 * thread is thrown by the next call to write() or by close(), and the
+	 * records written, skipped and failed are reported as job counters.
+	 */
+	protected static class AsyncGeoWaveRecordWriter extends
+			RecordWriter<GeoWaveOutputKey<Object>, Object>
+	{
+		private static final long OFFER_TIMEOUT_MILLIS = 100;
+		private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+		private static final WriteTask END_OF_WRITES = new WriteTask(
+				null,
+				null,
+				null);
+
+		private final AdapterStore adapterStore;
+		private final BlockingQueue<WriteTask> queue;
+		private final List<GeoWaveRecordWriter> writers = new ArrayList<GeoWaveRecordWriter>();
+		private final List<Thread> threads = new ArrayList<Thread>();
+		private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		private final Counter recordsWritten;
+		private final Counter recordsSkipped;
+		private final Counter recordsFailed;
+		private final Counter writerQueueFull;
+		private boolean started = false;
+		private boolean closed = false;
+
+		protected AsyncGeoWaveRecordWriter(
+				final TaskAttemptContext context,
+				final DataStore dataStore,
+				final IndexStore indexStore,
+				final AdapterStore adapterStore,
+				final int writerThreadCount,
+				final int writerQueueSize ) {
+			this.adapterStore = adapterStore;
+			queue = new ArrayBlockingQueue<WriteTask>(
+					Math.max(
+							1,
+							writerQueueSize));
+			recordsWritten = context.getCounter(WriterCounter.RECORDS_WRITTEN);
+			recordsSkipped = context.getCounter(WriterCounter.RECORDS_SKIPPED);
+			recordsFailed = context.getCounter(WriterCounter.RECORDS_FAILED);
+			writerQueueFull = context.getCounter(WriterCounter.WRITER_QUEUE_FULL);
+			for (int i = 0; i < writerThreadCount; i++) {
+				final GeoWaveRecordWriter writer = new GeoWaveRecordWriter(
+						context,
+						dataStore,
+						indexStore,
+						adapterStore);
+				final Thread thread = new Thread(
+						new Runnable() {
+							@Override
+							public void run() {
+								writeQueued(writer);
+							}
+						},
+						"geowave-output-writer-" + THREAD_COUNTER.incrementAndGet());
+				thread.setDaemon(true);
+				writers.add(writer);
+				threads.add(thread);
+			}
+		}
+
+		private void writeQueued(
+				final GeoWaveRecordWriter writer ) {
+			try {
+				WriteTask task;
+				while ((task = queue.take()) != END_OF_WRITES) {
+					// after a failure the queue is still drained so that
+					// write() and close() are not blocked
+					if (failure.get() != null) {
+						recordsFailed.increment(1);
+						continue;
+					}
+					try {
+						if (writer.write(
+								task.adapter,
+								task.indexIds,
+								task.data)) {
+							recordsWritten.increment(1);
+						}
+						else {
+							recordsSkipped.increment(1);
+						}
+					}
+					catch (final Throwable t) {
+						// errors are recorded too, otherwise the thread would
+						// die without draining the queue and block the task
+						recordsFailed.increment(1);
+						if (failure.compareAndSet(
+								null,
+								t)) {
+							LOGGER.error(
+									"Unable to write to GeoWave",
+									t);
+						}
+					}
+				}
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		private void checkFailure()
+				throws IOException {
+			final Throwable t = failure.get();
+			if (t != null) {
+				throw new IOException(
+						"Unable to write to GeoWave",
+						t);
+			}
+		}
+
+		@Override
+		public void write(
+				final GeoWaveOutputKey<Object> ingestKey,
+				final Object data )
+				throws IOException,
+				InterruptedException {
+			checkFailure();
+			if (closed) {
+				throw new IOException(
+						"Record writer is closed");
+			}
+			// adapters are resolved on the task thread, the adapter store is
+			// not thread safe
+			final WritableDataAdapter<?> adapter = ingestKey.getAdapter(adapterStore);
+			if (adapter == null) {
+				LOGGER.warn("Adapter '" + StringUtils.stringFromBinary(ingestKey.getAdapterId().getBytes())
+						+ "' does not exist");
+				recordsSkipped.increment(1);
+				return;
+			}
+			if (!started) {
+				for (final Thread thread : threads) {
+					thread.start();
+				}
+				started = true;
+			}
+			final WriteTask task = new WriteTask(
+					adapter,
+					ingestKey.getIndexIds(),
+					data);
+			if (!queue.offer(task)) {
+				writerQueueFull.increment(1);
+				while (!queue.offer(
+						task,
+						OFFER_TIMEOUT_MILLIS,
+						TimeUnit.MILLISECONDS)) {
+					checkFailure();
+				}
+			}
+		}
+
+		@Override
+		public synchronized void close(
+				final TaskAttemptContext attempt )
+				throws IOException,
+				InterruptedException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (!started) {
+				return;
+			}
+			try {
+				for (int i = 0; i < threads.size(); i++) {
+					queue.put(END_OF_WRITES);
+				}
+				for (final Thread thread : threads) {
+					thread.join();
+				}
+			}
+			catch (final InterruptedException e) {
+				for (final Thread thread : threads) {
+					thread.interrupt();
+				}
+				throw e;
+			}
+			for (final GeoWaveRecordWriter writer : writers) {
+				try {
+					writer.close(attempt);
+				}
+				catch (final IOException | RuntimeException e) {
+					failure.compareAndSet(
+							null,
+							e);
+				}
+			}
+			checkFailure();
+		}
+	}
+
+	private static class WriteTask
+	{
+		private final WritableDataAdapter<?> adapter;
+		private final Collection<ByteArrayId> indexIds;
+		private final Object data;
+
+		private WriteTask(
+				final WritableDataAdapter<?> adapter,
+				final Collection<ByteArrayId> indexIds,
+				final Object data ) {
+			this.adapter = adapter;
+			this.indexIds = indexIds;
+			this.data = data;
+		}
+	}
+
 }
@@ -11,6 +11,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.hadoop.mapreduce.InputSplit;
 import org.apache.hadoop.mapreduce.RecordReader;
@@ -28,6 +29,7 @@ import mil.nga.giat.geowave.core.store.filter.QueryFilter;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.DistributableQuery;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.mapreduce.input.GeoWaveInputFormat;
 import mil.nga.giat.geowave.mapreduce.input.GeoWaveInputKey;
 
 /**
@@ -96,7 +98,10 @@ public abstract class GeoWaveRecordReader<T> extends
 
 		numKeysRead = 0;
 
+		final Integer prefetchCount = attempt == null ? null : GeoWaveInputFormat.getRangePrefetchCount(attempt);
+		final boolean prefetch = (prefetchCount != null) && (prefetchCount > 0);
 		final Map<RangeLocationPair, CloseableIterator<?>> iteratorsPerRange = new LinkedHashMap<RangeLocationPair, CloseableIterator<?>>();
+		final Map<RangeLocationPair, Callable<CloseableIterator<?>>> queriesPerRange = new LinkedHashMap<RangeLocationPair, Callable<CloseableIterator<?>>>();
 
 		final Set<PrimaryIndex> indices = split.getIndices();
 		BigDecimal sum = BigDecimal.ZERO;
@@ -105,21 +110,35 @@ public abstract class GeoWaveRecordReader<T> extends
 
 		for (final PrimaryIndex i : indices) {
 			final List<RangeLocationPair> ranges = split.getRanges(i);
-			List<QueryFilter> queryFilters = null;
-			if (query != null) {
-				queryFilters = query.createFilters(i.getIndexModel());
-			}
+			final List<QueryFilter> queryFilters = query == null ? null : query.createFilters(i.getIndexModel());
 			for (final RangeLocationPair r : ranges) {
 				final QueryOptions rangeQueryOptions = new QueryOptions(
 						queryOptions);
 				rangeQueryOptions.setIndex(i);
-				iteratorsPerRange.put(
-						r,
-						queryRange(
-								i,
-								r.getRange(),
-								queryFilters,
-								rangeQueryOptions));
+				if (prefetch) {
+					// the range is queried by a prefetch thread
+					queriesPerRange.put(
+							r,
+							new Callable<CloseableIterator<?>>() {
+								@Override
+								public CloseableIterator<?> call() {
+									return queryRange(
+											i,
+											r.getRange(),
+											queryFilters,
+											rangeQueryOptions);
+								}
+							});
+				}
+				else {
+					iteratorsPerRange.put(
+							r,
+							queryRange(
+									i,
+									r.getRange(),
+									queryFilters,
+									rangeQueryOptions));
+				}
 				incrementalRangeSums.put(
 						r,
 						sum);
@@ -161,6 +180,21 @@ public abstract class GeoWaveRecordReader<T> extends
 						e);
 			}
 		}
+		final NextRangeCallback nextRangeCallback = new NextRangeCallback() {
+
+			@Override
+			public void setRange(
+					final RangeLocationPair indexPair ) {
+				currentGeoWaveRangeIndexPair = indexPair;
+			}
+		};
+		if (prefetch) {
+			iterator = new RangePrefetchIterator(
+					queriesPerRange,
+					nextRangeCallback,
+					prefetchCount);
+			return;
+		}
 		// concatenate iterators
 		iterator = new CloseableIteratorWrapper<Object>(
 				new Closeable() {
@@ -174,14 +208,7 @@ public abstract class GeoWaveRecordReader<T> extends
 				},
 				concatenateWithCallback(
 						iteratorsPerRange.entrySet().iterator(),
-						new NextRangeCallback() {
-
-							@Override
-							public void setRange(
-									final RangeLocationPair indexPair ) {
-								currentGeoWaveRangeIndexPair = indexPair;
-							}
-						}));
+						nextRangeCallback));
 
 	}
 
@@ -0,0 +1,79 @@
+package mil.nga.giat.geowave.mapreduce.splits;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.util.ParallelCloseableIterator;
+import mil.nga.giat.geowave.mapreduce.splits.GeoWaveRecordReader.NextRangeCallback;
+
+/**
+ * Reads the ranges of a split ahead of consumption. Up to the prefetch count
+ * ranges are opened and scanned concurrently, each into its own bounded buffer,
+ * while the caller consumes the current one. Results are returned range by
+ * range, in the order the ranges are given, and the callback is notified as
+ * each range starts being consumed so progress can still be reported per range.
+ */
+public class RangePrefetchIterator extends
+		ParallelCloseableIterator<Object>
+{
+	private static final int DEFAULT_BUFFER_SIZE = 1000;
+
+	private final List<RangeLocationPair> ranges;
+	private final NextRangeCallback nextRangeCallback;
+
+	public RangePrefetchIterator(
+			final Map<RangeLocationPair, Callable<CloseableIterator<?>>> rangeQueries,
+			final NextRangeCallback nextRangeCallback,
+			final int prefetchCount ) {
+		this(
+				rangeQueries,
+				nextRangeCallback,
+				prefetchCount,
+				DEFAULT_BUFFER_SIZE);
+	}
+
+	public RangePrefetchIterator(
+			final Map<RangeLocationPair, Callable<CloseableIterator<?>>> rangeQueries,
+			final NextRangeCallback nextRangeCallback,
+			final int prefetchCount,
+			final int bufferSize ) {
+		super(
+				toSources(rangeQueries.values()),
+				Math.min(
+						prefetchCount,
+						rangeQueries.size()),
+				true,
+				bufferSize);
+		ranges = new ArrayList<RangeLocationPair>(
+				rangeQueries.keySet());
+		this.nextRangeCallback = nextRangeCallback;
+	}
+
+	@Override
+	protected void sourceStarted(
+			final int sourceIndex ) {
+		nextRangeCallback.setRange(ranges.get(sourceIndex));
+	}
+
+	private static Iterator<Callable<CloseableIterator<Object>>> toSources(
+			final Collection<Callable<CloseableIterator<?>>> rangeQueries ) {
+		final List<Callable<CloseableIterator<Object>>> sources = new ArrayList<Callable<CloseableIterator<Object>>>(
+				rangeQueries.size());
+		for (final Callable<CloseableIterator<?>> rangeQuery : rangeQueries) {
+			sources.add(new Callable<CloseableIterator<Object>>() {
+				@SuppressWarnings("unchecked")
+				@Override
+				public CloseableIterator<Object> call()
+						throws Exception {
+					return (CloseableIterator<Object>) rangeQuery.call();
+				}
+			});
+		}
+		return sources.iterator();
+	}
+}
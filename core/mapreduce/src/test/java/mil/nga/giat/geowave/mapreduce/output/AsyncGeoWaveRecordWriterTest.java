@@ -0,0 +1,461 @@
+package mil.nga.giat.geowave.mapreduce.output;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.Counter;
+import org.apache.hadoop.mapreduce.Counters;
+import org.apache.hadoop.mapreduce.StatusReporter;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.NullNumericIndexStrategy;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.IndexWriter;
+import mil.nga.giat.geowave.core.store.adapter.AdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.exceptions.MismatchedIndexToAdapterMapping;
+import mil.nga.giat.geowave.core.store.data.PersistentDataset;
+import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
+import mil.nga.giat.geowave.core.store.data.field.FieldReader;
+import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.dimension.NumericDimensionField;
+import mil.nga.giat.geowave.core.store.index.BasicIndexModel;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.memory.MemoryAdapterStore;
+import mil.nga.giat.geowave.core.store.memory.MemoryDataStore;
+import mil.nga.giat.geowave.core.store.memory.MemoryIndexStore;
+import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.mapreduce.output.GeoWaveOutputFormat.AsyncGeoWaveRecordWriter;
+import mil.nga.giat.geowave.mapreduce.output.GeoWaveOutputFormat.WriterCounter;
+
+public class AsyncGeoWaveRecordWriterTest
+{
+	private static final PrimaryIndex INDEX = new PrimaryIndex(
+			new NullNumericIndexStrategy(
+					"index"),
+			new BasicIndexModel(
+					new NumericDimensionField[] {}));
+
+	private final Counters counters = new Counters();
+
+	@Test(timeout = 60000)
+	public void testWritesEveryRecord()
+			throws Exception {
+		final StringAdapter adapter = new StringAdapter();
+		final MemoryDataStore dataStore = new MemoryDataStore();
+		final AsyncGeoWaveRecordWriter writer = createWriter(
+				dataStore,
+				4,
+				8);
+		for (int i = 0; i < 1000; i++) {
+			writer.write(
+					createKey(adapter),
+					Integer.toString(i));
+		}
+		writer.close(null);
+		Assert.assertEquals(
+				1000,
+				getCounter(WriterCounter.RECORDS_WRITTEN));
+		Assert.assertEquals(
+				0,
+				getCounter(WriterCounter.RECORDS_FAILED));
+		final Set<String> entries = new HashSet<String>();
+		try (CloseableIterator<String> it = dataStore.query(
+				new QueryOptions(
+						adapter,
+						INDEX),
+				null)) {
+			while (it.hasNext()) {
+				entries.add(it.next());
+			}
+		}
+		Assert.assertEquals(
+				1000,
+				entries.size());
+	}
+
+	@Test(timeout = 60000)
+	public void testUnknownAdapterIsSkipped()
+			throws Exception {
+		final AsyncGeoWaveRecordWriter writer = createWriter(
+				new MemoryDataStore(),
+				2,
+				8);
+		writer.write(
+				new GeoWaveOutputKey<Object>(
+						new ByteArrayId(
+								"unknown"),
+						INDEX.getId()),
+				"0");
+		writer.write(
+				createKey(new StringAdapter()),
+				"1");
+		writer.close(null);
+		Assert.assertEquals(
+				1,
+				getCounter(WriterCounter.RECORDS_WRITTEN));
+		Assert.assertEquals(
+				1,
+				getCounter(WriterCounter.RECORDS_SKIPPED));
+	}
+
+	@Test(timeout = 60000)
+	public void testWriteFailureIsPropagated()
+			throws Exception {
+		final StringAdapter adapter = new StringAdapter();
+		adapter.failingEntry = "13";
+		final Throwable failure = writeUntilFailure(
+				adapter,
+				createWriter(
+						new MemoryDataStore(),
+						4,
+						8));
+		Assert.assertTrue(failure.getCause() instanceof IllegalArgumentException);
+		Assert.assertTrue(getCounter(WriterCounter.RECORDS_FAILED) >= 1);
+	}
+
+	@Test(timeout = 60000)
+	public void testErrorIsPropagated()
+			throws Exception {
+		final StringAdapter adapter = new StringAdapter();
+		adapter.failingEntry = "13";
+		adapter.failWithError = true;
+		final Throwable failure = writeUntilFailure(
+				adapter,
+				createWriter(
+						new MemoryDataStore(),
+						4,
+						8));
+		// the writer thread survives the error and keeps draining the queue,
+		// so neither write() nor close() hangs
+		Assert.assertTrue(failure.getCause() instanceof TestError);
+		Assert.assertTrue(getCounter(WriterCounter.RECORDS_FAILED) >= 1);
+	}
+
+	@Test(timeout = 60000)
+	public void testCloseFailureIsPropagated()
+			throws Exception {
+		final StringAdapter adapter = new StringAdapter();
+		final AsyncGeoWaveRecordWriter writer = createWriter(
+				new FailingCloseDataStore(),
+				2,
+				8);
+		for (int i = 0; i < 100; i++) {
+			writer.write(
+					createKey(adapter),
+					Integer.toString(i));
+		}
+		try {
+			writer.close(null);
+			Assert.fail("Expected close to report the failure");
+		}
+		catch (final IOException e) {
+			Assert.assertEquals(
+					"Unable to close writer",
+					e.getCause().getMessage());
+		}
+		Assert.assertEquals(
+				100,
+				getCounter(WriterCounter.RECORDS_WRITTEN));
+	}
+
+	/**
+	 * @return the failure thrown by write() or close()
+	 */
+	private Throwable writeUntilFailure(
+			final StringAdapter adapter,
+			final AsyncGeoWaveRecordWriter writer )
+			throws InterruptedException {
+		int offered = 0;
+		try {
+			for (int i = 0; i < 1000; i++) {
+				writer.write(
+						createKey(adapter),
+						Integer.toString(i));
+				offered++;
+			}
+		}
+		catch (final IOException e) {
+			// later writes fail after a failure, and so does close()
+			try {
+				writer.close(null);
+				Assert.fail("Expected close to report the failure");
+			}
+			catch (final IOException e2) {
+				Assert.assertSame(
+						e.getCause(),
+						e2.getCause());
+			}
+			assertEveryRecordCounted(offered);
+			return e;
+		}
+		try {
+			writer.close(null);
+			Assert.fail("Expected close to report the failure");
+		}
+		catch (final IOException e) {
+			assertEveryRecordCounted(offered);
+			return e;
+		}
+		return null;
+	}
+
+	private void assertEveryRecordCounted(
+			final int offered ) {
+		Assert.assertEquals(
+				offered,
+				getCounter(WriterCounter.RECORDS_WRITTEN) + getCounter(WriterCounter.RECORDS_FAILED));
+	}
+
+	private AsyncGeoWaveRecordWriter createWriter(
+			final DataStore dataStore,
+			final int writerThreadCount,
+			final int writerQueueSize ) {
+		final MemoryIndexStore indexStore = new MemoryIndexStore();
+		indexStore.addIndex(INDEX);
+		return new AsyncGeoWaveRecordWriter(
+				createContext(),
+				dataStore,
+				indexStore,
+				new MemoryAdapterStore(),
+				writerThreadCount,
+				writerQueueSize);
+	}
+
+	private TaskAttemptContext createContext() {
+		return new TaskAttemptContextImpl(
+				new Configuration(),
+				new TaskAttemptID(),
+				new StatusReporter() {
+					@Override
+					public Counter getCounter(
+							final Enum<?> name ) {
+						return counters.findCounter(name);
+					}
+
+					@Override
+					public Counter getCounter(
+							final String group,
+							final String name ) {
+						return counters.findCounter(
+								group,
+								name);
+					}
+
+					@Override
+					public void progress() {}
+
+					@Override
+					public float getProgress() {
+						return 0;
+					}
+
+					@Override
+					public void setStatus(
+							final String status ) {}
+				});
+	}
+
+	private long getCounter(
+			final WriterCounter counter ) {
+		return counters.findCounter(
+				counter).getValue();
+	}
+
+	@SuppressWarnings({
+		"unchecked",
+		"rawtypes"
+	})
+	private static GeoWaveOutputKey<Object> createKey(
+			final StringAdapter adapter ) {
+		return new GeoWaveOutputKey(
+				adapter,
+				Collections.singletonList(INDEX.getId()));
+	}
+
+	/**
+	 * A memory data store whose writers fail to close
+	 */
+	private static class FailingCloseDataStore implements
+			DataStore
+	{
+		private final MemoryDataStore delegate = new MemoryDataStore();
+
+		@Override
+		public <T> IndexWriter createWriter(
+				final DataAdapter<T> adapter,
+				final PrimaryIndex... index )
+				throws MismatchedIndexToAdapterMapping {
+			final IndexWriter<T> writer = delegate.createWriter(
+					adapter,
+					index);
+			return new IndexWriter<T>() {
+				@Override
+				public List<ByteArrayId> write(
+						final T entry ) {
+					return writer.write(entry);
+				}
+
+				@Override
+				public List<ByteArrayId> write(
+						final T entry,
+						final VisibilityWriter<T> fieldVisibilityWriter ) {
+					return writer.write(
+							entry,
+							fieldVisibilityWriter);
+				}
+
+				@Override
+				public PrimaryIndex[] getIndices() {
+					return writer.getIndices();
+				}
+
+				@Override
+				public void flush() {
+					writer.flush();
+				}
+
+				@Override
+				public void close()
+						throws IOException {
+					writer.close();
+					throw new IOException(
+							"Unable to close writer");
+				}
+			};
+		}
+
+		@Override
+		public <T> CloseableIterator<T> query(
+				final QueryOptions queryOptions,
+				final Query query ) {
+			return delegate.query(
+					queryOptions,
+					query);
+		}
+
+		@Override
+		public boolean delete(
+				final QueryOptions queryOptions,
+				final Query query ) {
+			return delegate.delete(
+					queryOptions,
+					query);
+		}
+	}
+
+	private static class TestError extends
+			Error
+	{
+		private static final long serialVersionUID = 1L;
+
+		private TestError(
+				final String message ) {
+			super(
+					message);
+		}
+	}
+
+	private static class StringAdapter implements
+			WritableDataAdapter<String>
+	{
+		private static final ByteArrayId ADAPTER_ID = new ByteArrayId(
+				"string");
+		private volatile String failingEntry;
+		private volatile boolean failWithError = false;
+
+		@Override
+		public ByteArrayId getAdapterId() {
+			return ADAPTER_ID;
+		}
+
+		@Override
+		public boolean isSupported(
+				final String entry ) {
+			return true;
+		}
+
+		@Override
+		public ByteArrayId getDataId(
+				final String entry ) {
+			return new ByteArrayId(
+					entry);
+		}
+
+		@Override
+		public String decode(
+				final IndexedAdapterPersistenceEncoding data,
+				final PrimaryIndex index ) {
+			return data.getDataId().getString();
+		}
+
+		@Override
+		public AdapterPersistenceEncoding encode(
+				final String entry,
+				final CommonIndexModel indexModel ) {
+			if (entry.equals(failingEntry)) {
+				if (failWithError) {
+					throw new TestError(
+							"Unable to encode " + entry);
+				}
+				throw new IllegalArgumentException(
+						"Unable to encode " + entry);
+			}
+			return new AdapterPersistenceEncoding(
+					ADAPTER_ID,
+					getDataId(entry),
+					new PersistentDataset<CommonIndexValue>(),
+					new PersistentDataset<Object>());
+		}
+
+		@Override
+		public int getPositionOfOrderedField(
+				final CommonIndexModel model,
+				final ByteArrayId fieldId ) {
+			return -1;
+		}
+
+		@Override
+		public ByteArrayId getFieldIdForPosition(
+				final CommonIndexModel model,
+				final int position ) {
+			return null;
+		}
+
+		@Override
+		public FieldReader<Object> getReader(
+				final ByteArrayId fieldId ) {
+			return null;
+		}
+
+		@Override
+		public FieldWriter<String, Object> getWriter(
+				final ByteArrayId fieldId ) {
+			return null;
+		}
+
+		@Override
+		public byte[] toBinary() {
+			return new byte[0];
+		}
+
+		@Override
+		public void fromBinary(
+				final byte[] bytes ) {}
+	}
+}
@@ -0,0 +1,268 @@
+package mil.nga.giat.geowave.mapreduce.splits;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.mapreduce.splits.GeoWaveRecordReader.NextRangeCallback;
+
+public class RangePrefetchIteratorTest
+{
+	private final AtomicInteger opened = new AtomicInteger();
+	private final AtomicInteger closed = new AtomicInteger();
+
+	@Test(timeout = 60000)
+	public void testRangesAreReturnedInOrder()
+			throws IOException {
+		// every third range is empty
+		final int[] rangeSizes = new int[20];
+		for (int i = 0; i < rangeSizes.length; i++) {
+			rangeSizes[i] = (i % 3) == 0 ? 0 : 100 + i;
+		}
+		final List<RangeLocationPair> startedRanges = new ArrayList<RangeLocationPair>();
+		final List<Integer> consumedWhenStarted = new ArrayList<Integer>();
+		final AtomicInteger consumed = new AtomicInteger();
+		final Map<RangeLocationPair, Callable<CloseableIterator<?>>> rangeQueries = createRangeQueries(
+				rangeSizes,
+				-1,
+				-1);
+		final RangePrefetchIterator it = new RangePrefetchIterator(
+				rangeQueries,
+				new NextRangeCallback() {
+					@Override
+					public void setRange(
+							final RangeLocationPair indexPair ) {
+						startedRanges.add(indexPair);
+						consumedWhenStarted.add(consumed.get());
+					}
+				},
+				3,
+				10);
+		int expectedConsumed = 0;
+		final List<Integer> expectedConsumedWhenStarted = new ArrayList<Integer>();
+		for (int i = 0; i < rangeSizes.length; i++) {
+			expectedConsumedWhenStarted.add(expectedConsumed);
+			for (int j = 0; j < rangeSizes[i]; j++) {
+				Assert.assertTrue(it.hasNext());
+				Assert.assertEquals(
+						i + "-" + j,
+						it.next());
+				consumed.incrementAndGet();
+			}
+			expectedConsumed += rangeSizes[i];
+		}
+		Assert.assertFalse(it.hasNext());
+		it.close();
+		// the callback is notified of each range, including the empty ones,
+		// before its first result is returned
+		Assert.assertEquals(
+				new ArrayList<RangeLocationPair>(
+						rangeQueries.keySet()),
+				startedRanges);
+		Assert.assertEquals(
+				expectedConsumedWhenStarted,
+				consumedWhenStarted);
+		Assert.assertEquals(
+				rangeSizes.length,
+				opened.get());
+		Assert.assertEquals(
+				opened.get(),
+				closed.get());
+	}
+
+	@Test(timeout = 60000)
+	public void testFailedRangeIsPropagated()
+			throws IOException {
+		assertFailureIsPropagated(createRangeQueries(
+				createRangeSizes(
+						10,
+						100),
+				4,
+				-1));
+	}
+
+	@Test(timeout = 60000)
+	public void testFailureWhileReadingIsPropagated()
+			throws IOException {
+		assertFailureIsPropagated(createRangeQueries(
+				createRangeSizes(
+						10,
+						100),
+				-1,
+				4));
+	}
+
+	@Test(timeout = 60000)
+	public void testCloseBeforeConsumed()
+			throws IOException {
+		final RangePrefetchIterator it = new RangePrefetchIterator(
+				createRangeQueries(
+						createRangeSizes(
+								10,
+								100),
+						-1,
+						-1),
+				new NextRangeCallback() {
+					@Override
+					public void setRange(
+							final RangeLocationPair indexPair ) {}
+				},
+				4,
+				10);
+		for (int i = 0; i < 150; i++) {
+			Assert.assertTrue(it.hasNext());
+			it.next();
+		}
+		it.close();
+		Assert.assertFalse(it.hasNext());
+		Assert.assertEquals(
+				opened.get(),
+				closed.get());
+	}
+
+	private void assertFailureIsPropagated(
+			final Map<RangeLocationPair, Callable<CloseableIterator<?>>> rangeQueries )
+			throws IOException {
+		final RangePrefetchIterator it = new RangePrefetchIterator(
+				rangeQueries,
+				new NextRangeCallback() {
+					@Override
+					public void setRange(
+							final RangeLocationPair indexPair ) {}
+				},
+				3,
+				10);
+		try {
+			while (it.hasNext()) {
+				it.next();
+			}
+			Assert.fail("Expected the failed range to fail the iteration");
+		}
+		catch (final RuntimeException e) {
+			// expected
+		}
+		finally {
+			it.close();
+		}
+		Assert.assertEquals(
+				opened.get(),
+				closed.get());
+	}
+
+	private static int[] createRangeSizes(
+			final int ranges,
+			final int size ) {
+		final int[] rangeSizes = new int[ranges];
+		for (int i = 0; i < ranges; i++) {
+			rangeSizes[i] = size;
+		}
+		return rangeSizes;
+	}
+
+	/**
+	 * @param failingQuery
+	 *            the range that fails to be queried, or -1
+	 * @param failingRead
+	 *            the range that fails halfway through being read, or -1
+	 */
+	private Map<RangeLocationPair, Callable<CloseableIterator<?>>> createRangeQueries(
+			final int[] rangeSizes,
+			final int failingQuery,
+			final int failingRead ) {
+		final Map<RangeLocationPair, Callable<CloseableIterator<?>>> rangeQueries = new LinkedHashMap<RangeLocationPair, Callable<CloseableIterator<?>>>();
+		for (int i = 0; i < rangeSizes.length; i++) {
+			final int range = i;
+			rangeQueries.put(
+					new TestRangeLocationPair(
+							"location" + i),
+					new Callable<CloseableIterator<?>>() {
+						@Override
+						public CloseableIterator<?> call()
+								throws IOException {
+							if (range == failingQuery) {
+								throw new IOException(
+										"Unable to query range " + range);
+							}
+							opened.incrementAndGet();
+							return new RangeIterator(
+									range,
+									rangeSizes[range],
+									range == failingRead ? rangeSizes[range] / 2 : -1);
+						}
+					});
+		}
+		return rangeQueries;
+	}
+
+	private class RangeIterator implements
+			CloseableIterator<Object>
+	{
+		private final int range;
+		private final int size;
+		private final int failAt;
+		private int next = 0;
+		private boolean isClosed = false;
+
+		private RangeIterator(
+				final int range,
+				final int size,
+				final int failAt ) {
+			this.range = range;
+			this.size = size;
+			this.failAt = failAt;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Object next() {
+			if (next == failAt) {
+				throw new IllegalStateException(
+						"Unable to read range " + range);
+			}
+			return range + "-" + next++;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public synchronized void close() {
+			if (!isClosed) {
+				isClosed = true;
+				closed.incrementAndGet();
+			}
+		}
+	}
+
+	private static class TestRangeLocationPair extends
+			RangeLocationPair
+	{
+		private TestRangeLocationPair(
+				final String location ) {
+			super(
+					null,
+					location,
+					1.0);
+		}
+
+		@Override
+		protected GeoWaveRowRange buildRowRangeInstance() {
+			return null;
+		}
+	}
+}
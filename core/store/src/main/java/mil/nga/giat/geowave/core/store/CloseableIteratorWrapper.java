@@ -43,7 +43,9 @@ public class CloseableIteratorWrapper<E> implements
 
 	@Override
 	public boolean hasNext() {
-		final boolean hasNext = iterator.hasNext();
+		// check the limit first so that the underlying iterator isn't
+		// advanced beyond it
+		final boolean hasNext = ((limit == null) || (limit <= 0) || (count < limit)) && iterator.hasNext();
 		if (!hasNext) {
 			try {
 				closeable.close();
@@ -54,7 +56,6 @@ public class CloseableIteratorWrapper<E> implements
 						e);
 			}
 		}
-		if (limit != null && limit > 0 && count > limit) return false;
 		return hasNext;
 	}
 
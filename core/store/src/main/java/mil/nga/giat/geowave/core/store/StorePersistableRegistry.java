@@ -0,0 +1,152 @@
+package mil.nga.giat.geowave.core.store;
+
+import mil.nga.giat.geowave.core.index.PersistableRegistrySpi;
+import mil.nga.giat.geowave.core.store.adapter.statistics.CountDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DuplicateEntryCount;
+import mil.nga.giat.geowave.core.store.adapter.statistics.MaxDuplicatesStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
+import mil.nga.giat.geowave.core.store.data.visibility.DifferingFieldVisibilityEntryCount;
+import mil.nga.giat.geowave.core.store.data.visibility.FieldVisibilityCount;
+import mil.nga.giat.geowave.core.store.filter.AdapterIdQueryFilter;
+import mil.nga.giat.geowave.core.store.filter.BasicQueryFilter;
+import mil.nga.giat.geowave.core.store.filter.DataIdQueryFilter;
+import mil.nga.giat.geowave.core.store.filter.DedupeFilter;
+import mil.nga.giat.geowave.core.store.filter.DistributableFilterList;
+import mil.nga.giat.geowave.core.store.filter.FingerprintDedupeFilter;
+import mil.nga.giat.geowave.core.store.filter.PrefixIdQueryFilter;
+import mil.nga.giat.geowave.core.store.filter.RowIdQueryFilter;
+import mil.nga.giat.geowave.core.store.index.BasicIndexModel;
+import mil.nga.giat.geowave.core.store.index.CustomIdIndex;
+import mil.nga.giat.geowave.core.store.index.IndexMetaDataSet;
+import mil.nga.giat.geowave.core.store.index.NullIndex;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.index.numeric.NumberRangeFilter;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericFieldIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.temporal.DateRangeFilter;
+import mil.nga.giat.geowave.core.store.index.temporal.TemporalIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.text.TextExactMatchFilter;
+import mil.nga.giat.geowave.core.store.index.text.TextIndexStrategy;
+import mil.nga.giat.geowave.core.store.query.BasicQuery;
+import mil.nga.giat.geowave.core.store.query.CoordinateRangeQuery;
+import mil.nga.giat.geowave.core.store.query.CoordinateRangeQueryFilter;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.query.aggregate.CountResult;
+
+/**
+ * Registers the persistable classes of the core store module, using IDs 200
+ * through 299.
+ */
+public class StorePersistableRegistry implements
+		PersistableRegistrySpi
+{
+	@Override
+	public PersistableIdAndClass[] getSupportedPersistables() {
+		return new PersistableIdAndClass[] {
+			new PersistableIdAndClass(
+					(short) 200,
+					AdapterToIndexMapping.class),
+			new PersistableIdAndClass(
+					(short) 201,
+					CountDataStatistics.class),
+			new PersistableIdAndClass(
+					(short) 202,
+					DuplicateEntryCount.class),
+			new PersistableIdAndClass(
+					(short) 203,
+					MaxDuplicatesStatistics.class),
+			new PersistableIdAndClass(
+					(short) 204,
+					RowRangeDataStatistics.class),
+			new PersistableIdAndClass(
+					(short) 205,
+					RowRangeHistogramStatistics.class),
+			new PersistableIdAndClass(
+					(short) 206,
+					DifferingFieldVisibilityEntryCount.class),
+			new PersistableIdAndClass(
+					(short) 207,
+					FieldVisibilityCount.class),
+			new PersistableIdAndClass(
+					(short) 208,
+					AdapterIdQueryFilter.class),
+			new PersistableIdAndClass(
+					(short) 209,
+					BasicQueryFilter.class),
+			new PersistableIdAndClass(
+					(short) 210,
+					DataIdQueryFilter.class),
+			new PersistableIdAndClass(
+					(short) 211,
+					DedupeFilter.class),
+			new PersistableIdAndClass(
+					(short) 212,
+					DistributableFilterList.class),
+			new PersistableIdAndClass(
+					(short) 213,
+					FingerprintDedupeFilter.class),
+			new PersistableIdAndClass(
+					(short) 214,
+					PrefixIdQueryFilter.class),
+			new PersistableIdAndClass(
+					(short) 215,
+					RowIdQueryFilter.class),
+			new PersistableIdAndClass(
+					(short) 216,
+					BasicIndexModel.class),
+			new PersistableIdAndClass(
+					(short) 217,
+					CustomIdIndex.class),
+			new PersistableIdAndClass(
+					(short) 218,
+					IndexMetaDataSet.class),
+			new PersistableIdAndClass(
+					(short) 219,
+					NullIndex.class),
+			new PersistableIdAndClass(
+					(short) 220,
+					PrimaryIndex.class),
+			new PersistableIdAndClass(
+					(short) 221,
+					SecondaryIndex.class),
+			new PersistableIdAndClass(
+					(short) 222,
+					NumberRangeFilter.class),
+			new PersistableIdAndClass(
+					(short) 223,
+					NumericFieldIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 224,
+					NumericIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 225,
+					DateRangeFilter.class),
+			new PersistableIdAndClass(
+					(short) 226,
+					TemporalIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 227,
+					TextExactMatchFilter.class),
+			new PersistableIdAndClass(
+					(short) 228,
+					TextIndexStrategy.class),
+			new PersistableIdAndClass(
+					(short) 229,
+					BasicQuery.class),
+			new PersistableIdAndClass(
+					(short) 230,
+					CoordinateRangeQuery.class),
+			new PersistableIdAndClass(
+					(short) 231,
+					CoordinateRangeQueryFilter.class),
+			new PersistableIdAndClass(
+					(short) 232,
+					QueryOptions.class),
+			new PersistableIdAndClass(
+					(short) 233,
+					CountResult.class)
+		};
+	}
+}
@@ -1,5 +1,7 @@
 package mil.nga.giat.geowave.core.store.adapter;
 
+import java.util.Set;
+
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.data.CommonIndexedPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.data.PersistentDataset;
@@ -53,4 +55,23 @@ public abstract class AbstractAdapterPersistenceEncoding extends
 	abstract public void convertUnknownValues(
 			final DataAdapter<?> adapter,
 			final CommonIndexModel model );
+
+	/**
+	 * Process the unknownData of only the given fields, for callers that don't
+	 * need every field of the entry. Encodings that can't convert individual
+	 * fields convert all of them.
+	 *
+	 * @param adapter
+	 * @param model
+	 * @param fieldIds
+	 *            the fields to convert
+	 */
+	public void convertUnknownValues(
+			final DataAdapter<?> adapter,
+			final CommonIndexModel model,
+			final Set<ByteArrayId> fieldIds ) {
+		convertUnknownValues(
+				adapter,
+				model);
+	}
 }
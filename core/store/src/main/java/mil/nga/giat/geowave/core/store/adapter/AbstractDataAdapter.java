@@ -2,18 +2,16 @@ package mil.nga.giat.geowave.core.store.adapter;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.Persistable;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
-import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.adapter.NativeFieldHandler.RowBuilder;
 import mil.nga.giat.geowave.core.store.data.PersistentDataset;
 import mil.nga.giat.geowave.core.store.data.PersistentValue;
@@ -49,6 +47,7 @@ abstract public class AbstractDataAdapter<T> implements
 	protected Map<ByteArrayId, IndexFieldHandler<T, ? extends CommonIndexValue, Object>> dimensionMatchingFieldHandlers;
 	protected List<NativeFieldHandler<T, Object>> nativeFieldHandlers;
 	protected FieldVisibilityHandler<T, Object> fieldVisiblityHandler;
+	private transient final Map<String, AdapterFieldCodec<T>> fieldCodecs = new ConcurrentHashMap<String, AdapterFieldCodec<T>>();
 
 	protected AbstractDataAdapter() {}
 
@@ -88,6 +87,9 @@ abstract public class AbstractDataAdapter<T> implements
 	protected void init(
 			final List<? extends IndexFieldHandler<T, ? extends CommonIndexValue, Object>> indexFieldHandlers,
 			final Object defaultIndexHandlerData ) {
+		// the handlers are changing, any previously resolved field layouts
+		// are stale
+		fieldCodecs.clear();
 		dimensionMatchingFieldHandlers = new HashMap<ByteArrayId, IndexFieldHandler<T, ? extends CommonIndexValue, Object>>();
 		typeMatchingFieldHandlers = new HashMap<Class<?>, IndexFieldHandler<T, ? extends CommonIndexValue, Object>>();
 		// split out the dimension matching index handlers from the type
@@ -145,79 +147,21 @@ abstract public class AbstractDataAdapter<T> implements
 	public AdapterPersistenceEncoding encode(
 			final T entry,
 			final CommonIndexModel indexModel ) {
-		final PersistentDataset<CommonIndexValue> indexData = new PersistentDataset<CommonIndexValue>();
-		final Set<ByteArrayId> nativeFieldsInIndex = new HashSet<ByteArrayId>();
-		for (final NumericDimensionField<? extends CommonIndexValue> dimension : indexModel.getDimensions()) {
-			final IndexFieldHandler<T, ? extends CommonIndexValue, Object> fieldHandler = getFieldHandler(dimension);
-			if (fieldHandler == null) {
-				if (LOGGER.isInfoEnabled()) {
-					// dont waste time converting IDs to String if info is not
-					// enabled
-					LOGGER.info("Unable to find field handler for data adapter '"
-							+ StringUtils.stringFromBinary(getAdapterId().getBytes()) + "' and indexed field '"
-							+ StringUtils.stringFromBinary(dimension.getFieldId().getBytes()));
-				}
-				continue;
-			}
-			final CommonIndexValue value = fieldHandler.toIndexValue(entry);
-			indexData.addValue(new PersistentValue<CommonIndexValue>(
-					dimension.getFieldId(),
-					value));
-			nativeFieldsInIndex.addAll(Arrays.asList(fieldHandler.getNativeFieldIds()));
-		}
-		final PersistentDataset<Object> extendedData = new PersistentDataset<Object>();
-		// now for the other data
-		if (nativeFieldHandlers != null) {
-			for (final NativeFieldHandler<T, Object> fieldHandler : nativeFieldHandlers) {
-				final ByteArrayId fieldId = fieldHandler.getFieldId();
-				if (nativeFieldsInIndex.contains(fieldId)) {
-					continue;
-				}
-				extendedData.addValue(new PersistentValue<Object>(
-						fieldId,
-						fieldHandler.getFieldValue(entry)));
-			}
-		}
-		return new AdapterPersistenceEncoding(
-				getAdapterId(),
-				getDataId(entry),
-				indexData,
-				extendedData);
+		return getFieldCodec(
+				indexModel).encode(
+				entry);
 	}
 
-	@SuppressWarnings("unchecked")
 	@Override
 	public T decode(
 			final IndexedAdapterPersistenceEncoding data,
 			final PrimaryIndex index ) {
 		final RowBuilder<T, Object> builder = newBuilder();
 		if (index != null) {
-			final CommonIndexModel indexModel = index.getIndexModel();
-			for (final NumericDimensionField<? extends CommonIndexValue> dimension : indexModel.getDimensions()) {
-				final IndexFieldHandler<T, CommonIndexValue, Object> fieldHandler = (IndexFieldHandler<T, CommonIndexValue, Object>) getFieldHandler(dimension);
-				if (fieldHandler == null) {
-					if (LOGGER.isInfoEnabled()) {
-						// dont waste time converting IDs to String if info is
-						// not
-						// enabled
-						LOGGER.info("Unable to find field handler for data adapter '"
-								+ StringUtils.stringFromBinary(getAdapterId().getBytes()) + "' and indexed field '"
-								+ StringUtils.stringFromBinary(dimension.getFieldId().getBytes()));
-					}
-					continue;
-				}
-				final CommonIndexValue value = data.getCommonData().getValue(
-						dimension.getFieldId());
-				if (value == null) {
-					continue;
-				}
-				final PersistentValue<Object>[] values = fieldHandler.toNativeValues(value);
-				if ((values != null) && (values.length > 0)) {
-					for (final PersistentValue<Object> v : values) {
-						builder.setField(v);
-					}
-				}
-			}
+			return getFieldCodec(
+					index.getIndexModel()).decode(
+					data,
+					builder);
 		}
 		for (final PersistentValue<Object> fieldValue : data.getAdapterExtendedData().getValues()) {
 			builder.setField(fieldValue);
@@ -225,6 +169,70 @@ abstract public class AbstractDataAdapter<T> implements
 		return builder.buildRow(data.getDataId());
 	}
 
+	/**
+	 * Decode only the given native fields of an entry, such as the fields a
+	 * filter needs to evaluate it. The other fields of the row are left unset.
+	 *
+	 * @param data
+	 *            the persistence encoding of the entry
+	 * @param indexModel
+	 *            the common index model of the encoding, or null to decode only
+	 *            extended fields
+	 * @param nativeFieldIds
+	 *            the native fields to decode
+	 * @return the partially populated row
+	 */
+	public T decodeFields(
+			final IndexedAdapterPersistenceEncoding data,
+			final CommonIndexModel indexModel,
+			final Set<ByteArrayId> nativeFieldIds ) {
+		final RowBuilder<T, Object> builder = newBuilder();
+		if (indexModel != null) {
+			return getFieldCodec(
+					indexModel).decode(
+					data,
+					builder,
+					nativeFieldIds);
+		}
+		AdapterFieldCodec.decodeExtendedFields(
+				data,
+				builder,
+				nativeFieldIds);
+		return builder.buildRow(data.getDataId());
+	}
+
+	/**
+	 * Get the field layout of this adapter within an index model, which is
+	 * resolved on first use and reused for every entry encoded or decoded
+	 * within a model with the same ID
+	 *
+	 * @param indexModel
+	 *            the common index model
+	 * @return the codec for this adapter and index model
+	 */
+	public AdapterFieldCodec<T> getFieldCodec(
+			final CommonIndexModel indexModel ) {
+		final AdapterFieldCodec<T> codec = fieldCodecs.get(indexModel.getId());
+		if (codec != null) {
+			return codec;
+		}
+		return createFieldCodec(indexModel);
+	}
+
+	private synchronized AdapterFieldCodec<T> createFieldCodec(
+			final CommonIndexModel indexModel ) {
+		AdapterFieldCodec<T> codec = fieldCodecs.get(indexModel.getId());
+		if (codec == null) {
+			codec = new AdapterFieldCodec<T>(
+					this,
+					indexModel);
+			fieldCodecs.put(
+					indexModel.getId(),
+					codec);
+		}
+		return codec;
+	}
+
 	abstract protected RowBuilder<T, Object> newBuilder();
 
 	protected IndexFieldHandler<T, ? extends CommonIndexValue, Object> getFieldHandler(
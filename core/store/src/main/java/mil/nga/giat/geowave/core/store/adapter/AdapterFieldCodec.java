@@ -0,0 +1,377 @@
+package mil.nga.giat.geowave.core.store.adapter;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.StringUtils;
+import mil.nga.giat.geowave.core.store.adapter.NativeFieldHandler.RowBuilder;
+import mil.nga.giat.geowave.core.store.data.PersistentDataset;
+import mil.nga.giat.geowave.core.store.data.PersistentValue;
+import mil.nga.giat.geowave.core.store.data.field.FieldReader;
+import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.dimension.NumericDimensionField;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
+
+import org.apache.log4j.Logger;
+
+/**
+ * The field layout of an AbstractDataAdapter within one common index model,
+ * resolved once so that entries can be encoded and decoded by position rather
+ * than by looking up handlers, writers and readers for each field of each
+ * entry. Index fields come first in the order of the model's dimensions
+ * (dimensions sharing a field ID share a slot), followed by the adapter's
+ * native fields that are not already part of an index field.
+ *
+ * Instances are immutable and safe to share between threads.
+ *
+ * @param <T>
+ *            The type for the entries handled by the adapter
+ */
+public class AdapterFieldCodec<T>
+{
+	private final static Logger LOGGER = Logger.getLogger(AdapterFieldCodec.class);
+
+	private final AbstractDataAdapter<T> adapter;
+	private final CommonIndexModel indexModel;
+
+	private final ByteArrayId[] indexFieldIds;
+	private final IndexFieldHandler<T, CommonIndexValue, Object>[] indexFieldHandlers;
+	private final FieldWriter<Object, CommonIndexValue>[] indexFieldWriters;
+	private final ByteArrayId[][] indexNativeFieldIds;
+
+	private final ByteArrayId[] extendedFieldIds;
+	private final NativeFieldHandler<T, Object>[] extendedFieldHandlers;
+	private final FieldWriter<T, Object>[] extendedFieldWriters;
+
+	private final FieldSlot[] slotsByPosition;
+
+	@SuppressWarnings("unchecked")
+	protected AdapterFieldCodec(
+			final AbstractDataAdapter<T> adapter,
+			final CommonIndexModel indexModel ) {
+		this.adapter = adapter;
+		this.indexModel = indexModel;
+
+		// a linked map keeps the dimension order, dimensions that share a
+		// field ID (such as latitude and longitude) share a slot
+		final Map<ByteArrayId, IndexFieldHandler<T, ? extends CommonIndexValue, Object>> indexHandlerMap = new LinkedHashMap<ByteArrayId, IndexFieldHandler<T, ? extends CommonIndexValue, Object>>();
+		final Set<ByteArrayId> nativeFieldsInIndex = new HashSet<ByteArrayId>();
+		for (final NumericDimensionField<? extends CommonIndexValue> dimension : indexModel.getDimensions()) {
+			final IndexFieldHandler<T, ? extends CommonIndexValue, Object> fieldHandler = adapter
+					.getFieldHandler(dimension);
+			if (fieldHandler == null) {
+				LOGGER.info("Unable to find field handler for data adapter '"
+						+ StringUtils.stringFromBinary(adapter.getAdapterId().getBytes()) + "' and indexed field '"
+						+ StringUtils.stringFromBinary(dimension.getFieldId().getBytes()));
+				continue;
+			}
+			indexHandlerMap.put(
+					dimension.getFieldId(),
+					fieldHandler);
+			for (final ByteArrayId nativeFieldId : fieldHandler.getNativeFieldIds()) {
+				nativeFieldsInIndex.add(nativeFieldId);
+			}
+		}
+		indexFieldIds = new ByteArrayId[indexHandlerMap.size()];
+		indexFieldHandlers = new IndexFieldHandler[indexFieldIds.length];
+		indexFieldWriters = new FieldWriter[indexFieldIds.length];
+		indexNativeFieldIds = new ByteArrayId[indexFieldIds.length][];
+		int i = 0;
+		for (final Entry<ByteArrayId, IndexFieldHandler<T, ? extends CommonIndexValue, Object>> entry : indexHandlerMap
+				.entrySet()) {
+			indexFieldIds[i] = entry.getKey();
+			indexFieldHandlers[i] = (IndexFieldHandler<T, CommonIndexValue, Object>) entry.getValue();
+			indexFieldWriters[i] = indexModel.getWriter(entry.getKey());
+			indexNativeFieldIds[i] = entry.getValue().getNativeFieldIds();
+			i++;
+		}
+
+		final List<NativeFieldHandler<T, Object>> extendedHandlers = new ArrayList<NativeFieldHandler<T, Object>>();
+		if (adapter.nativeFieldHandlers != null) {
+			for (final NativeFieldHandler<T, Object> fieldHandler : adapter.nativeFieldHandlers) {
+				if (!nativeFieldsInIndex.contains(fieldHandler.getFieldId())) {
+					extendedHandlers.add(fieldHandler);
+				}
+			}
+		}
+		extendedFieldIds = new ByteArrayId[extendedHandlers.size()];
+		extendedFieldHandlers = extendedHandlers.toArray(new NativeFieldHandler[extendedFieldIds.length]);
+		extendedFieldWriters = new FieldWriter[extendedFieldIds.length];
+		for (i = 0; i < extendedFieldIds.length; i++) {
+			extendedFieldIds[i] = extendedFieldHandlers[i].getFieldId();
+			extendedFieldWriters[i] = adapter.getWriter(extendedFieldIds[i]);
+		}
+
+		slotsByPosition = getSlotsByPosition();
+	}
+
+	/**
+	 * Resolve the field ID and reader of every position that this adapter can
+	 * write within the index model. The field ID of a position is resolved the
+	 * same way it is when reading, so that positions shared by several fields
+	 * decode as they always have.
+	 */
+	private FieldSlot[] getSlotsByPosition() {
+		final Map<Integer, FieldSlot> slots = new LinkedHashMap<Integer, FieldSlot>();
+		int maxPosition = -1;
+		final List<ByteArrayId> writtenFieldIds = new ArrayList<ByteArrayId>();
+		for (final ByteArrayId fieldId : indexFieldIds) {
+			writtenFieldIds.add(fieldId);
+		}
+		for (final ByteArrayId fieldId : extendedFieldIds) {
+			writtenFieldIds.add(fieldId);
+		}
+		for (final ByteArrayId writtenFieldId : writtenFieldIds) {
+			final int position = adapter.getPositionOfOrderedField(
+					indexModel,
+					writtenFieldId);
+			if ((position < 0) || slots.containsKey(position)) {
+				continue;
+			}
+			final ByteArrayId fieldId = adapter.getFieldIdForPosition(
+					indexModel,
+					position);
+			if (fieldId == null) {
+				continue;
+			}
+			final FieldReader<CommonIndexValue> indexFieldReader = indexModel.getReader(fieldId);
+			final FieldReader<Object> extendedFieldReader = (indexFieldReader == null) ? adapter.getReader(fieldId)
+					: null;
+			slots.put(
+					position,
+					new FieldSlot(
+							fieldId,
+							indexFieldReader,
+							extendedFieldReader));
+			maxPosition = Math.max(
+					maxPosition,
+					position);
+		}
+		final FieldSlot[] slotArray = new FieldSlot[maxPosition + 1];
+		for (final Entry<Integer, FieldSlot> slot : slots.entrySet()) {
+			slotArray[slot.getKey()] = slot.getValue();
+		}
+		return slotArray;
+	}
+
+	public AbstractDataAdapter<T> getAdapter() {
+		return adapter;
+	}
+
+	public CommonIndexModel getIndexModel() {
+		return indexModel;
+	}
+
+	public PositionalAdapterPersistenceEncoding encode(
+			final T entry ) {
+		final CommonIndexValue[] indexValues = new CommonIndexValue[indexFieldIds.length];
+		final PersistentDataset<CommonIndexValue> indexData = new PersistentDataset<CommonIndexValue>(
+				indexFieldIds.length);
+		for (int i = 0; i < indexFieldIds.length; i++) {
+			indexValues[i] = indexFieldHandlers[i].toIndexValue(entry);
+			indexData.addValue(
+					indexFieldIds[i],
+					indexValues[i]);
+		}
+		final Object[] extendedValues = new Object[extendedFieldIds.length];
+		final PersistentDataset<Object> extendedData = new PersistentDataset<Object>(
+				extendedFieldIds.length);
+		for (int i = 0; i < extendedFieldIds.length; i++) {
+			extendedValues[i] = extendedFieldHandlers[i].getFieldValue(entry);
+			extendedData.addValue(
+					extendedFieldIds[i],
+					extendedValues[i]);
+		}
+		return new PositionalAdapterPersistenceEncoding(
+				adapter.getAdapterId(),
+				adapter.getDataId(entry),
+				this,
+				indexValues,
+				indexData,
+				extendedValues,
+				extendedData);
+	}
+
+	public T decode(
+			final IndexedAdapterPersistenceEncoding data,
+			final RowBuilder<T, Object> builder ) {
+		final PersistentDataset<CommonIndexValue> commonData = data.getCommonData();
+		for (int i = 0; i < indexFieldIds.length; i++) {
+			final CommonIndexValue value = commonData.getValue(indexFieldIds[i]);
+			if (value == null) {
+				continue;
+			}
+			final PersistentValue<Object>[] values = indexFieldHandlers[i].toNativeValues(value);
+			if (values != null) {
+				for (final PersistentValue<Object> v : values) {
+					builder.setField(v);
+				}
+			}
+		}
+		for (final PersistentValue<Object> fieldValue : data.getAdapterExtendedData().getValues()) {
+			builder.setField(fieldValue);
+		}
+		return builder.buildRow(data.getDataId());
+	}
+
+	/**
+	 * Decode only the given native fields of an entry, the others are left
+	 * unset in the row
+	 *
+	 * @param data
+	 *            the persistence encoding of the entry
+	 * @param builder
+	 *            the builder of the row
+	 * @param nativeFieldIds
+	 *            the native fields to decode
+	 * @return the row
+	 */
+	public T decode(
+			final IndexedAdapterPersistenceEncoding data,
+			final RowBuilder<T, Object> builder,
+			final Set<ByteArrayId> nativeFieldIds ) {
+		final PersistentDataset<CommonIndexValue> commonData = data.getCommonData();
+		for (int i = 0; i < indexFieldIds.length; i++) {
+			if (!containsAny(
+					nativeFieldIds,
+					indexNativeFieldIds[i])) {
+				continue;
+			}
+			final CommonIndexValue value = commonData.getValue(indexFieldIds[i]);
+			if (value == null) {
+				continue;
+			}
+			final PersistentValue<Object>[] values = indexFieldHandlers[i].toNativeValues(value);
+			if (values != null) {
+				for (final PersistentValue<Object> v : values) {
+					if (nativeFieldIds.contains(v.getId())) {
+						builder.setField(v);
+					}
+				}
+			}
+		}
+		decodeExtendedFields(
+				data,
+				builder,
+				nativeFieldIds);
+		return builder.buildRow(data.getDataId());
+	}
+
+	protected static <T> void decodeExtendedFields(
+			final IndexedAdapterPersistenceEncoding data,
+			final RowBuilder<T, Object> builder,
+			final Set<ByteArrayId> nativeFieldIds ) {
+		final PersistentDataset<Object> extendedData = data.getAdapterExtendedData();
+		for (final ByteArrayId fieldId : nativeFieldIds) {
+			final Object value = extendedData.getValue(fieldId);
+			if (value != null) {
+				builder.setField(new PersistentValue<Object>(
+						fieldId,
+						value));
+			}
+		}
+	}
+
+	private static boolean containsAny(
+			final Set<ByteArrayId> fieldIds,
+			final ByteArrayId[] candidates ) {
+		for (final ByteArrayId candidate : candidates) {
+			if (fieldIds.contains(candidate)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int getIndexFieldCount() {
+		return indexFieldIds.length;
+	}
+
+	public ByteArrayId getIndexFieldId(
+			final int slot ) {
+		return indexFieldIds[slot];
+	}
+
+	public FieldWriter<Object, CommonIndexValue> getIndexFieldWriter(
+			final int slot ) {
+		return indexFieldWriters[slot];
+	}
+
+	public int getExtendedFieldCount() {
+		return extendedFieldIds.length;
+	}
+
+	public ByteArrayId getExtendedFieldId(
+			final int slot ) {
+		return extendedFieldIds[slot];
+	}
+
+	public FieldWriter<T, Object> getExtendedFieldWriter(
+			final int slot ) {
+		return extendedFieldWriters[slot];
+	}
+
+	/**
+	 *
+	 * @param position
+	 *            the position of a field as written to the data store
+	 * @return the resolved field, or null if this adapter does not write a
+	 *         field at that position
+	 */
+	public FieldSlot getSlotForPosition(
+			final int position ) {
+		if ((position < 0) || (position >= slotsByPosition.length)) {
+			return null;
+		}
+		return slotsByPosition[position];
+	}
+
+	/**
+	 * A field as it is read back from the data store, either an index field or
+	 * an extended field of the adapter
+	 */
+	public static class FieldSlot
+	{
+		private final ByteArrayId fieldId;
+		private final FieldReader<CommonIndexValue> indexFieldReader;
+		private final FieldReader<Object> extendedFieldReader;
+
+		private FieldSlot(
+				final ByteArrayId fieldId,
+				final FieldReader<CommonIndexValue> indexFieldReader,
+				final FieldReader<Object> extendedFieldReader ) {
+			this.fieldId = fieldId;
+			this.indexFieldReader = indexFieldReader;
+			this.extendedFieldReader = extendedFieldReader;
+		}
+
+		public ByteArrayId getFieldId() {
+			return fieldId;
+		}
+
+		/**
+		 *
+		 * @return the index model's reader, or null if this is not an index
+		 *         field
+		 */
+		public FieldReader<CommonIndexValue> getIndexFieldReader() {
+			return indexFieldReader;
+		}
+
+		/**
+		 *
+		 * @return the adapter's reader, or null if this is an index field or
+		 *         the adapter can't read it
+		 */
+		public FieldReader<Object> getExtendedFieldReader() {
+			return extendedFieldReader;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.core.store.adapter;
 
 import java.util.List;
+import java.util.Set;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.data.PersistentDataset;
@@ -50,4 +51,21 @@ public class IndexedAdapterPersistenceEncoding extends
 					value));
 		}
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void convertUnknownValues(
+			final DataAdapter<?> adapter,
+			final CommonIndexModel model,
+			final Set<ByteArrayId> fieldIds ) {
+		final List<PersistentValue<byte[]>> unknownDataValues = getUnknownData().getValues();
+		for (final PersistentValue<byte[]> v : unknownDataValues) {
+			if (fieldIds.contains(v.getId())) {
+				final FieldReader<Object> reader = adapter.getReader(v.getId());
+				final Object value = reader.readField(v.getValue());
+				adapterExtendedData.addValue(new PersistentValue<Object>(
+						v.getId(),
+						value));
+			}
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package mil.nga.giat.geowave.core.store.adapter;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.PersistentDataset;
+import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
+
+/**
+ * This is an adapter persistence encoding produced by an AdapterFieldCodec. In
+ * addition to the field ID/value mappings it keeps the values in the codec's
+ * slot order, so that writing the entry can use the codec's precompiled field
+ * writers instead of looking them up by field ID.
+ */
+public class PositionalAdapterPersistenceEncoding extends
+		AdapterPersistenceEncoding
+{
+	private final AdapterFieldCodec<?> codec;
+	private final CommonIndexValue[] indexValues;
+	private final Object[] extendedValues;
+
+	public PositionalAdapterPersistenceEncoding(
+			final ByteArrayId adapterId,
+			final ByteArrayId dataId,
+			final AdapterFieldCodec<?> codec,
+			final CommonIndexValue[] indexValues,
+			final PersistentDataset<CommonIndexValue> commonData,
+			final Object[] extendedValues,
+			final PersistentDataset<Object> adapterExtendedData ) {
+		super(
+				adapterId,
+				dataId,
+				commonData,
+				adapterExtendedData);
+		this.codec = codec;
+		this.indexValues = indexValues;
+		this.extendedValues = extendedValues;
+	}
+
+	public AdapterFieldCodec<?> getCodec() {
+		return codec;
+	}
+
+	public CommonIndexValue getIndexValue(
+			final int slot ) {
+		return indexValues[slot];
+	}
+
+	public Object getExtendedValue(
+			final int slot ) {
+		return extendedValues[slot];
+	}
+}
@@ -3,8 +3,12 @@ package mil.nga.giat.geowave.core.store.adapter.statistics;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.log4j.Logger;
 
@@ -20,6 +24,11 @@ import mil.nga.giat.geowave.core.store.callback.ScanCallback;
  * null or the provided data adapter does not implement
  * {@link DataStatisticsStore}.
  * 
+ * Each thread that calls back into this tool accumulates statistics in its own
+ * set of builders, so concurrent writers never contend with each other. The
+ * per-thread statistics are merged and incorporated into the statistics store
+ * when the tool is flushed or closed.
+ * 
  * @param <T>
  *            Entry type
  */
@@ -34,9 +43,10 @@ public class StatsCompositionTool<T> implements
 	private final static Logger LOGGER = Logger.getLogger(StatsCompositionTool.class);
 	public static final int FLUSH_STATS_THRESHOLD = 16384;
 
-	int updateCount = 0;
 	DataStatisticsStore statisticsStore;
-	List<DataStatisticsBuilder<T>> statisticsBuilders = null;
+	private StatisticsProvider<T> statisticsProvider = null;
+	private final List<StatisticsAccumulator<T>> accumulators = new CopyOnWriteArrayList<StatisticsAccumulator<T>>();
+	private final ThreadLocal<StatisticsAccumulator<T>> threadAccumulator = new ThreadLocal<StatisticsAccumulator<T>>();
 	final Object MUTEX = new Object();
 	protected boolean skipFlush = false;
 
@@ -59,14 +69,7 @@ public class StatsCompositionTool<T> implements
 
 	private void init(
 			final StatisticsProvider<T> statisticsProvider ) {
-		final ByteArrayId[] statisticsIds = statisticsProvider.getSupportedStatisticsIds();
-		statisticsBuilders = new ArrayList<DataStatisticsBuilder<T>>(
-				statisticsIds.length);
-		for (final ByteArrayId id : statisticsIds) {
-			statisticsBuilders.add(new DataStatisticsBuilder<T>(
-					statisticsProvider,
-					id));
-		}
+		this.statisticsProvider = statisticsProvider;
 		try {
 			final Object v = System.getProperty("StatsCompositionTool.skipFlush");
 			skipFlush = ((v != null) && v.toString().equalsIgnoreCase(
@@ -79,43 +82,55 @@ public class StatsCompositionTool<T> implements
 		}
 	}
 
+	/**
+	 * 
+	 * @return the statistics builders of the calling thread, created on its
+	 *         first update
+	 */
+	private StatisticsAccumulator<T> getAccumulator() {
+		StatisticsAccumulator<T> accumulator = threadAccumulator.get();
+		if (accumulator == null) {
+			accumulator = new StatisticsAccumulator<T>(
+					statisticsProvider);
+			threadAccumulator.set(accumulator);
+			accumulators.add(accumulator);
+		}
+		return accumulator;
+	}
+
 	@Override
 	public void entryDeleted(
 			final DataStoreEntryInfo entryInfo,
 			final T entry ) {
-		if (statisticsBuilders == null) {
+		if (statisticsProvider == null) {
 			return;
 		}
-		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
+		final StatisticsAccumulator<T> accumulator = getAccumulator();
+		// only contended while the statistics are being flushed
+		synchronized (accumulator) {
+			for (final DataStatisticsBuilder<T> builder : accumulator.statisticsBuilders) {
 				builder.entryDeleted(
 						entryInfo,
 						entry);
 			}
-			updateCount++;
-			checkStats();
 		}
-
 	}
 
 	@Override
 	public void entryScanned(
 			final DataStoreEntryInfo entryInfo,
 			final T entry ) {
-		if (statisticsBuilders == null) {
+		if (statisticsProvider == null) {
 			return;
 		}
-
-		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
+		final StatisticsAccumulator<T> accumulator = getAccumulator();
+		synchronized (accumulator) {
+			for (final DataStatisticsBuilder<T> builder : accumulator.statisticsBuilders) {
 				builder.entryScanned(
 						entryInfo,
 						entry);
 			}
-			updateCount++;
-			checkStats();
 		}
-
 	}
 
 	/**
@@ -123,17 +138,39 @@ public class StatsCompositionTool<T> implements
 	 */
 	@Override
 	public void flush() {
-		if (statisticsBuilders == null) {
+		if (statisticsProvider == null) {
 			return;
 		}
 
 		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
-				final Collection<DataStatistics<T>> statistics = builder.getStatistics();
-				for (final DataStatistics<T> s : statistics) {
-					statisticsStore.incorporateStatistics(s);
+			// merge the statistics of each thread so that the store only
+			// incorporates one instance per statistic and visibility
+			final Map<StatisticsKey, DataStatistics<T>> mergedStatistics = new LinkedHashMap<StatisticsKey, DataStatistics<T>>();
+			for (final StatisticsAccumulator<T> accumulator : accumulators) {
+				synchronized (accumulator) {
+					for (final DataStatisticsBuilder<T> builder : accumulator.statisticsBuilders) {
+						final Collection<DataStatistics<T>> statistics = builder.getStatistics();
+						for (final DataStatistics<T> s : statistics) {
+							final StatisticsKey key = new StatisticsKey(
+									s.getDataAdapterId(),
+									s.getStatisticsId(),
+									s.getVisibility());
+							final DataStatistics<T> merged = mergedStatistics.get(key);
+							if (merged == null) {
+								mergedStatistics.put(
+										key,
+										s);
+							}
+							else {
+								merged.merge(s);
+							}
+						}
+						statistics.clear();
+					}
 				}
-				statistics.clear();
+			}
+			for (final DataStatistics<T> s : mergedStatistics.values()) {
+				statisticsStore.incorporateStatistics(s);
 			}
 		}
 	}
@@ -142,14 +179,18 @@ public class StatsCompositionTool<T> implements
 	 * Reset statistics, losing and updates since last flush
 	 */
 	public void reset() {
-		if (statisticsBuilders == null) {
+		if (statisticsProvider == null) {
 			return;
 		}
 
 		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
-				final Collection<DataStatistics<T>> statistics = builder.getStatistics();
-				statistics.clear();
+			for (final StatisticsAccumulator<T> accumulator : accumulators) {
+				synchronized (accumulator) {
+					for (final DataStatisticsBuilder<T> builder : accumulator.statisticsBuilders) {
+						final Collection<DataStatistics<T>> statistics = builder.getStatistics();
+						statistics.clear();
+					}
+				}
 			}
 		}
 	}
@@ -158,18 +199,16 @@ public class StatsCompositionTool<T> implements
 	public void entryIngested(
 			final DataStoreEntryInfo entryInfo,
 			final T entry ) {
-		if (statisticsBuilders == null) {
+		if (statisticsProvider == null) {
 			return;
 		}
-
-		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
+		final StatisticsAccumulator<T> accumulator = getAccumulator();
+		synchronized (accumulator) {
+			for (final DataStatisticsBuilder<T> builder : accumulator.statisticsBuilders) {
 				builder.entryIngested(
 						entryInfo,
 						entry);
 			}
-			updateCount++;
-			checkStats();
 		}
 	}
 
@@ -183,10 +222,83 @@ public class StatsCompositionTool<T> implements
 		this.statisticsStore = statisticsStore;
 	}
 
-	private void checkStats() {
-		if (!skipFlush && (updateCount > FLUSH_STATS_THRESHOLD)) {
-			updateCount = 0;
+	/**
+	 * The statistics builders updated by a single thread
+	 */
+	private static class StatisticsAccumulator<T>
+	{
+		private final List<DataStatisticsBuilder<T>> statisticsBuilders;
+
+		public StatisticsAccumulator(
+				final StatisticsProvider<T> statisticsProvider ) {
+			final ByteArrayId[] statisticsIds = statisticsProvider.getSupportedStatisticsIds();
+			statisticsBuilders = new ArrayList<DataStatisticsBuilder<T>>(
+					statisticsIds.length);
+			for (final ByteArrayId id : statisticsIds) {
+				statisticsBuilders.add(new DataStatisticsBuilder<T>(
+						statisticsProvider,
+						id));
+			}
 		}
 	}
 
+	private static class StatisticsKey
+	{
+		private final ByteArrayId dataAdapterId;
+		private final ByteArrayId statisticsId;
+		private final byte[] visibility;
+
+		public StatisticsKey(
+				final ByteArrayId dataAdapterId,
+				final ByteArrayId statisticsId,
+				final byte[] visibility ) {
+			this.dataAdapterId = dataAdapterId;
+			this.statisticsId = statisticsId;
+			this.visibility = visibility;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + ((dataAdapterId == null) ? 0 : dataAdapterId.hashCode());
+			result = (prime * result) + ((statisticsId == null) ? 0 : statisticsId.hashCode());
+			result = (prime * result) + Arrays.hashCode(visibility);
+			return result;
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			final StatisticsKey other = (StatisticsKey) obj;
+			if (dataAdapterId == null) {
+				if (other.dataAdapterId != null) {
+					return false;
+				}
+			}
+			else if (!dataAdapterId.equals(other.dataAdapterId)) {
+				return false;
+			}
+			if (statisticsId == null) {
+				if (other.statisticsId != null) {
+					return false;
+				}
+			}
+			else if (!statisticsId.equals(other.statisticsId)) {
+				return false;
+			}
+			return Arrays.equals(
+					visibility,
+					other.visibility);
+		}
+	}
 }
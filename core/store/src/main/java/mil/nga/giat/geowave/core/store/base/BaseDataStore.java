@@ -49,6 +49,7 @@ import mil.nga.giat.geowave.core.store.query.PrefixIdQuery;
 import mil.nga.giat.geowave.core.store.query.Query;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
 import mil.nga.giat.geowave.core.store.query.RowIdQuery;
+import mil.nga.giat.geowave.core.store.util.ParallelCloseableIterator;
 
 public abstract class BaseDataStore
 {
@@ -184,7 +185,11 @@ public abstract class BaseDataStore
 		final QueryOptions sanitizedQueryOptions = (queryOptions == null) ? new QueryOptions() : queryOptions;
 		final Query sanitizedQuery = (query == null) ? new EverythingQuery() : query;
 
-		final DedupeFilter filter = new DedupeFilter();
+		// row ID queries reset the limit of the options, so keep the requested
+		// limit to apply it to the combined results
+		final Integer limit = sanitizedQueryOptions.getLimit();
+
+		final DedupeFilter filter = sanitizedQueryOptions.createDedupeFilter();
 		MemoryAdapterStore tempAdapterStore;
 		try {
 			tempAdapterStore = new MemoryAdapterStore(
@@ -256,6 +261,19 @@ public abstract class BaseDataStore
 					"Failed to resolve adapter or index for query",
 					e1);
 		}
+		if ((sanitizedQueryOptions.getQueryParallelism() > 1) && (results.size() > 1)) {
+			// the dedupe filter is shared by all of the scans, which is safe
+			// because it is thread-safe
+			final ParallelCloseableIterator<Object> parallelResults = new ParallelCloseableIterator<Object>(
+					results,
+					sanitizedQueryOptions.getQueryParallelism());
+			// each scan only applies the limit to itself, so limit the combined
+			// results and stop every scan once the limit is reached
+			return (CloseableIterator<T>) new CloseableIteratorWrapper<Object>(
+					parallelResults,
+					parallelResults,
+					limit);
+		}
 		return new CloseableIteratorWrapper<T>(
 				new Closeable() {
 					@Override
@@ -25,6 +25,19 @@ public class PersistentDataset<T>
 		fieldIdToValueMap = new HashMap<ByteArrayId, T>();
 	}
 
+	/**
+	 * Create an empty data set sized to hold the given number of values without
+	 * rehashing
+	 *
+	 * @param expectedSize
+	 *            the number of values expected to be added
+	 */
+	public PersistentDataset(
+			final int expectedSize ) {
+		fieldIdToValueMap = new HashMap<ByteArrayId, T>(
+				(int) (expectedSize / 0.75f) + 1);
+	}
+
 	public PersistentDataset(
 			final PersistentValue<T> value ) {
 		this();
@@ -49,6 +62,22 @@ public class PersistentDataset<T>
 				value.getValue());
 	}
 
+	/**
+	 * Add the field ID/value pair to this data set. Do not overwrite.
+	 *
+	 * @param fieldId
+	 *            the field ID
+	 * @param value
+	 *            the field value
+	 */
+	public void addValue(
+			final ByteArrayId fieldId,
+			final T value ) {
+		fieldIdToValueMap.put(
+				fieldId,
+				value);
+	}
+
 	/**
 	 * Given a field ID, get the associated value
 	 * 
@@ -1,9 +1,9 @@
 package mil.nga.giat.geowave.core.store.filter;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
@@ -12,18 +12,31 @@ import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
 /**
  * This filter will perform de-duplication using the combination of data adapter
  * ID and data ID to determine uniqueness. It can be performed client-side
- * and/or distributed.
+ * and/or distributed. A single instance can safely be shared by threads
+ * scanning different indices concurrently.
  * 
  */
 public class DedupeFilter implements
 		DistributableQueryFilter
 {
-	private final Map<ByteArrayId, Set<ByteArrayId>> adapterIdToVisitedDataIdMap;
+	private final ConcurrentMap<ByteArrayId, Set<ByteArrayId>> adapterIdToVisitedDataIdMap;
 
-	private boolean dedupAcrossIndices = false;
+	private volatile boolean dedupAcrossIndices = false;
 
 	public DedupeFilter() {
-		adapterIdToVisitedDataIdMap = new HashMap<ByteArrayId, Set<ByteArrayId>>();
+		this(
+				new ConcurrentHashMap<ByteArrayId, Set<ByteArrayId>>());
+	}
+
+	/**
+	 * 
+	 * @param adapterIdToVisitedDataIdMap
+	 *            the visited data IDs of each adapter, or null if the subclass
+	 *            overrides visit and keeps its own record of visited entries
+	 */
+	protected DedupeFilter(
+			final ConcurrentMap<ByteArrayId, Set<ByteArrayId>> adapterIdToVisitedDataIdMap ) {
+		this.adapterIdToVisitedDataIdMap = adapterIdToVisitedDataIdMap;
 	}
 
 	@Override
@@ -42,20 +55,36 @@ public class DedupeFilter implements
 			// and this is only intended to support a single index
 			return true;
 		}
-		final ByteArrayId adapterId = persistenceEncoding.getAdapterId();
-		final ByteArrayId dataId = persistenceEncoding.getDataId();
+		return visit(
+				persistenceEncoding.getAdapterId(),
+				persistenceEncoding.getDataId());
+	}
+
+	/**
+	 * Record the visit of a data ID for an adapter
+	 * 
+	 * @param adapterId
+	 *            the adapter of the entry
+	 * @param dataId
+	 *            the data ID of the entry
+	 * @return true only for the first visit of the adapter and data ID
+	 */
+	protected boolean visit(
+			final ByteArrayId adapterId,
+			final ByteArrayId dataId ) {
 		Set<ByteArrayId> visitedDataIds = adapterIdToVisitedDataIdMap.get(adapterId);
 		if (visitedDataIds == null) {
-			visitedDataIds = new HashSet<ByteArrayId>();
-			adapterIdToVisitedDataIdMap.put(
+			visitedDataIds = Collections.newSetFromMap(new ConcurrentHashMap<ByteArrayId, Boolean>());
+			final Set<ByteArrayId> existingDataIds = adapterIdToVisitedDataIdMap.putIfAbsent(
 					adapterId,
 					visitedDataIds);
+			if (existingDataIds != null) {
+				visitedDataIds = existingDataIds;
+			}
 		}
-		else if (visitedDataIds.contains(dataId)) {
-			return false;
-		}
-		visitedDataIds.add(dataId);
-		return true;
+		// add is atomic, so only the first thread to visit the data ID accepts
+		// it
+		return visitedDataIds.add(dataId);
 	}
 
 	public void setDedupAcrossIndices(
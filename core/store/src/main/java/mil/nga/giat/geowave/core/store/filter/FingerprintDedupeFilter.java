@@ -0,0 +1,245 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+
+/**
+ * A de-duplication filter that only retains a 128-bit fingerprint of the
+ * adapter ID and data ID of each visited entry rather than the IDs themselves.
+ * The fingerprints are kept in striped open-addressing tables of primitive
+ * longs, so each visited entry costs 32 to 64 bytes of heap regardless of the
+ * length of its data ID, where the default filter keeps the ID and a hash set
+ * node per entry. Distinct entries are only conflated if their fingerprints
+ * collide, which for a 128-bit hash is negligible even for billions of entries.
+ *
+ */
+public class FingerprintDedupeFilter extends
+		DedupeFilter
+{
+	private static final long C1 = 0x87c37b91114253d5L;
+	private static final long C2 = 0x4cf5ad432745937fL;
+	private static final int STRIPE_COUNT = 16;
+	private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+	private final FingerprintTable[] stripes;
+
+	public FingerprintDedupeFilter() {
+		// visited entries are only recorded in the fingerprint tables
+		super(
+				null);
+		stripes = new FingerprintTable[STRIPE_COUNT];
+		for (int i = 0; i < STRIPE_COUNT; i++) {
+			stripes[i] = new FingerprintTable(
+					INITIAL_STRIPE_CAPACITY);
+		}
+	}
+
+	@Override
+	protected boolean visit(
+			final ByteArrayId adapterId,
+			final ByteArrayId dataId ) {
+		// the adapter ID is folded into the seed so that the same data ID in
+		// different adapters has an unrelated fingerprint
+		final long[] adapterHash = murmur3(
+				adapterId.getBytes(),
+				0,
+				0);
+		final long[] fingerprint = murmur3(
+				dataId.getBytes(),
+				adapterHash[0],
+				adapterHash[1]);
+		final long high = fingerprint[0];
+		final long low = fingerprint[1];
+		final FingerprintTable stripe = stripes[(int) (high >>> 60) & (STRIPE_COUNT - 1)];
+		synchronized (stripe) {
+			return stripe.add(
+					high,
+					low);
+		}
+	}
+
+	/**
+	 * MurmurHash3 x64 128-bit, with separately seeded halves
+	 */
+	private static long[] murmur3(
+			final byte[] bytes,
+			final long seed1,
+			final long seed2 ) {
+		long h1 = seed1;
+		long h2 = seed2;
+		final int blocks = bytes.length / 16;
+		for (int i = 0; i < blocks; i++) {
+			long k1 = getLong(
+					bytes,
+					i * 16);
+			long k2 = getLong(
+					bytes,
+					(i * 16) + 8);
+			k1 *= C1;
+			k1 = Long.rotateLeft(
+					k1,
+					31);
+			k1 *= C2;
+			h1 ^= k1;
+			h1 = Long.rotateLeft(
+					h1,
+					27);
+			h1 += h2;
+			h1 = (h1 * 5) + 0x52dce729;
+			k2 *= C2;
+			k2 = Long.rotateLeft(
+					k2,
+					33);
+			k2 *= C1;
+			h2 ^= k2;
+			h2 = Long.rotateLeft(
+					h2,
+					31);
+			h2 += h1;
+			h2 = (h2 * 5) + 0x38495ab5;
+		}
+		long k1 = 0;
+		long k2 = 0;
+		final int tail = blocks * 16;
+		for (int i = bytes.length - 1; i >= tail; i--) {
+			final long b = bytes[i] & 0xffL;
+			if ((i - tail) >= 8) {
+				k2 ^= b << ((i - tail - 8) * 8);
+			}
+			else {
+				k1 ^= b << ((i - tail) * 8);
+			}
+		}
+		k2 *= C2;
+		k2 = Long.rotateLeft(
+				k2,
+				33);
+		k2 *= C1;
+		h2 ^= k2;
+		k1 *= C1;
+		k1 = Long.rotateLeft(
+				k1,
+				31);
+		k1 *= C2;
+		h1 ^= k1;
+		h1 ^= bytes.length;
+		h2 ^= bytes.length;
+		h1 += h2;
+		h2 += h1;
+		h1 = fmix(h1);
+		h2 = fmix(h2);
+		h1 += h2;
+		h2 += h1;
+		return new long[] {
+			h1,
+			h2
+		};
+	}
+
+	private static long getLong(
+			final byte[] bytes,
+			final int offset ) {
+		long value = 0;
+		for (int i = 7; i >= 0; i--) {
+			value = (value << 8) | (bytes[offset + i] & 0xffL);
+		}
+		return value;
+	}
+
+	private static long fmix(
+			long k ) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+	/**
+	 *
+	 * @return the number of distinct entries visited
+	 */
+	public long getVisitedCount() {
+		long count = 0;
+		for (final FingerprintTable stripe : stripes) {
+			synchronized (stripe) {
+				count += stripe.size;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 *
+	 * @return the number of bytes allocated for the fingerprint tables
+	 */
+	public long getTableSizeInBytes() {
+		long bytes = 0;
+		for (final FingerprintTable stripe : stripes) {
+			synchronized (stripe) {
+				bytes += (long) stripe.fingerprints.length * 8;
+			}
+		}
+		return bytes;
+	}
+
+	/**
+	 * A linear probing hash set of 128-bit fingerprints stored as pairs of
+	 * longs, the all-zero pair marks an empty slot
+	 */
+	private static class FingerprintTable
+	{
+		private static final double MAX_LOAD_FACTOR = 0.5;
+		private long[] fingerprints;
+		private int mask;
+		private int size = 0;
+
+		public FingerprintTable(
+				final int capacity ) {
+			fingerprints = new long[capacity * 2];
+			mask = capacity - 1;
+		}
+
+		private boolean add(
+				long high,
+				final long low ) {
+			if ((high == 0) && (low == 0)) {
+				// the empty marker can't be stored, so shift it onto a
+				// (just as unlikely) neighbor
+				high = 1;
+			}
+			if ((size + 1) > ((mask + 1) * MAX_LOAD_FACTOR)) {
+				resize();
+			}
+			int slot = (int) (low ^ (low >>> 32)) & mask;
+			while (true) {
+				final int i = slot * 2;
+				if ((fingerprints[i] == 0) && (fingerprints[i + 1] == 0)) {
+					fingerprints[i] = high;
+					fingerprints[i + 1] = low;
+					size++;
+					return true;
+				}
+				if ((fingerprints[i] == high) && (fingerprints[i + 1] == low)) {
+					return false;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+
+		private void resize() {
+			final long[] oldFingerprints = fingerprints;
+			final int capacity = (mask + 1) * 2;
+			fingerprints = new long[capacity * 2];
+			mask = capacity - 1;
+			size = 0;
+			for (int i = 0; i < oldFingerprints.length; i += 2) {
+				if ((oldFingerprints[i] != 0) || (oldFingerprints[i + 1] != 0)) {
+					add(
+							oldFingerprints[i],
+							oldFingerprints[i + 1]);
+				}
+			}
+		}
+	}
+}
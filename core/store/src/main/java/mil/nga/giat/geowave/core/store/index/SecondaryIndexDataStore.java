@@ -2,6 +2,8 @@ package mil.nga.giat.geowave.core.store.index;
 
 import java.util.List;
 
+import org.apache.commons.lang3.tuple.Pair;
+
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.DataStore;
@@ -83,6 +85,24 @@ public interface SecondaryIndexDataStore
 			final DistributableQuery query,
 			final String... authorizations );
 
+	/**
+	 * Execute a query against the given 'JOIN' secondary index without
+	 * resolving its entries to the primary rows they reference
+	 * 
+	 * @param secondaryIndex
+	 * @param indexedAttributeFieldId
+	 * @param adapter
+	 * @param query
+	 * @param authorizations
+	 * @return the primary index ID and primary row ID of each matching entry
+	 */
+	public <T> CloseableIterator<Pair<ByteArrayId, ByteArrayId>> queryJoinEntries(
+			final SecondaryIndex<T> secondaryIndex,
+			final ByteArrayId indexedAttributeFieldId,
+			final DataAdapter<T> adapter,
+			final DistributableQuery query,
+			final String... authorizations );
+
 	public void deleteJoinEntry(
 			final ByteArrayId secondaryIndexId,
 			final ByteArrayId indexedAttributeValue,
@@ -36,6 +36,22 @@ public class NumericQueryConstraint implements
 		return fieldId;
 	}
 
+	public Number getLowerValue() {
+		return lowerValue;
+	}
+
+	public Number getUpperValue() {
+		return upperValue;
+	}
+
+	public boolean isInclusiveLow() {
+		return inclusiveLow;
+	}
+
+	public boolean isInclusiveHigh() {
+		return inclusiveHigh;
+	}
+
 	@Override
 	public int getDimensionCount() {
 		return 1;
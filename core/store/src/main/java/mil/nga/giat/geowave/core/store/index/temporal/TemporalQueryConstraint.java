@@ -49,6 +49,22 @@ public class TemporalQueryConstraint implements
 		this.inclusiveLow = inclusiveLow;
 	}
 
+	public Date getStart() {
+		return start;
+	}
+
+	public Date getEnd() {
+		return end;
+	}
+
+	public boolean isInclusiveLow() {
+		return inclusiveLow;
+	}
+
+	public boolean isInclusiveHigh() {
+		return inclusiveHigh;
+	}
+
 	@Override
 	public int getDimensionCount() {
 		return 1;
@@ -2,15 +2,19 @@ package mil.nga.giat.geowave.core.store.memory;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
@@ -18,6 +22,9 @@ import org.apache.log4j.Logger;
 import com.google.common.collect.Iterators;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.ByteArrayRange.MergeOperation;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
 import mil.nga.giat.geowave.core.store.AdapterToIndexMapping;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.CloseableIteratorWrapper;
@@ -32,6 +39,7 @@ import mil.nga.giat.geowave.core.store.adapter.exceptions.MismatchedIndexToAdapt
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.base.DataStoreCallbackManager;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.base.EntryRowID;
 import mil.nga.giat.geowave.core.store.callback.IngestCallback;
 import mil.nga.giat.geowave.core.store.callback.ScanCallback;
 import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
@@ -47,18 +55,20 @@ import mil.nga.giat.geowave.core.store.index.IndexStore;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
 import mil.nga.giat.geowave.core.store.index.writer.IndexCompositeWriter;
+import mil.nga.giat.geowave.core.store.query.ConstraintsQuery;
 import mil.nga.giat.geowave.core.store.query.Query;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
 import mil.nga.giat.geowave.core.store.query.aggregate.Aggregation;
 import mil.nga.giat.geowave.core.store.query.aggregate.CommonIndexAggregation;
 import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
+import mil.nga.giat.geowave.core.store.util.ParallelCloseableIterator;
 
 public class MemoryDataStore implements
 		DataStore
 {
 	private final static Logger LOGGER = Logger.getLogger(MemoryDataStore.class);
-	private final Map<ByteArrayId, TreeSet<MemoryEntryRow>> storeData = Collections
-			.synchronizedMap(new HashMap<ByteArrayId, TreeSet<MemoryEntryRow>>());
+	private static final Comparator<EntryRowID> ROW_ID_COMPARATOR = new RowIdComparator();
+	private final ConcurrentMap<ByteArrayId, ConcurrentNavigableMap<EntryRowID, MemoryEntryRow>> storeData = new ConcurrentHashMap<ByteArrayId, ConcurrentNavigableMap<EntryRowID, MemoryEntryRow>>();
 	private final AdapterStore adapterStore;
 	private final IndexStore indexStore;
 	private final DataStatisticsStore statsStore;
@@ -72,6 +82,7 @@ public class MemoryDataStore implements
 		statsStore = new MemoryDataStatisticsStore();
 		secondaryIndexDataStore = new MemorySecondaryIndexDataStore();
 		adapterIndexMappingStore = new MemoryAdapterIndexMappingStore();
+		secondaryIndexDataStore.setDataStore(this);
 	}
 
 	public MemoryDataStore(
@@ -86,6 +97,7 @@ public class MemoryDataStore implements
 		this.statsStore = statsStore;
 		this.secondaryIndexDataStore = secondaryIndexDataStore;
 		this.adapterIndexMappingStore = adapterIndexMappingStore;
+		secondaryIndexDataStore.setDataStore(this);
 	}
 
 	@Override
@@ -166,15 +178,13 @@ public class MemoryDataStore implements
 					entry,
 					callback,
 					fieldVisibilityWriter);
+			final ConcurrentNavigableMap<EntryRowID, MemoryEntryRow> indexRows = getRowsForIndex(index.getId());
 			for (final MemoryEntryRow row : rows) {
 				ids.add(row.getRowId());
-				final TreeSet<MemoryEntryRow> rowTreeSet = getRowsForIndex(index.getId());
-				if (rowTreeSet.contains(row)) {
-					rowTreeSet.remove(row);
-				}
-				if (!rowTreeSet.add(row)) {
-					LOGGER.warn("Unable to add new entry");
-				}
+				// replaces any existing entry with the same row ID
+				indexRows.put(
+						row.getTableRowId(),
+						row);
 			}
 
 			return ids;
@@ -201,16 +211,52 @@ public class MemoryDataStore implements
 
 	}
 
-	private TreeSet<MemoryEntryRow> getRowsForIndex(
+	private ConcurrentNavigableMap<EntryRowID, MemoryEntryRow> getRowsForIndex(
 			final ByteArrayId id ) {
-		TreeSet<MemoryEntryRow> set = storeData.get(id);
-		if (set == null) {
-			set = new TreeSet<MemoryEntryRow>();
-			storeData.put(
+		ConcurrentNavigableMap<EntryRowID, MemoryEntryRow> rows = storeData.get(id);
+		if (rows == null) {
+			rows = new ConcurrentSkipListMap<EntryRowID, MemoryEntryRow>(
+					ROW_ID_COMPARATOR);
+			final ConcurrentNavigableMap<EntryRowID, MemoryEntryRow> existingRows = storeData.putIfAbsent(
 					id,
-					set);
+					rows);
+			if (existingRows != null) {
+				rows = existingRows;
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * Get the ranges of insertion IDs that the query is constrained to within
+	 * the index, sorted and merged
+	 *
+	 * @return the ranges, or null if the entire index must be scanned
+	 */
+	private static List<ByteArrayRange> getRanges(
+			final PrimaryIndex index,
+			final Query query ) {
+		if ((query == null) || !query.isSupported(index)) {
+			return null;
+		}
+		final List<MultiDimensionalNumericData> constraints = query.getIndexConstraints(index.getIndexStrategy());
+		if ((constraints == null) || constraints.isEmpty()) {
+			return null;
 		}
-		return set;
+		final List<ByteArrayRange> ranges = new ArrayList<ByteArrayRange>();
+		for (final MultiDimensionalNumericData constraint : constraints) {
+			final List<ByteArrayRange> constraintRanges = index.getIndexStrategy().getQueryRanges(
+					constraint,
+					ConstraintsQuery.MAX_RANGE_DECOMPOSITION);
+			if ((constraintRanges == null) || constraintRanges.isEmpty()) {
+				// the index strategy is unable to constrain the query
+				return null;
+			}
+			ranges.addAll(constraintRanges);
+		}
+		return ByteArrayRange.mergeIntersections(
+				ranges,
+				MergeOperation.UNION);
 	}
 
 	@Override
@@ -305,6 +351,15 @@ public class MemoryDataStore implements
 							callbackManager);
 				}
 			}
+			if (!isDelete && (queryOptions.getQueryParallelism() > 1) && (results.size() > 1)) {
+				final ParallelCloseableIterator<Object> parallelResults = new ParallelCloseableIterator<Object>(
+						results,
+						queryOptions.getQueryParallelism());
+				return new CloseableIteratorWrapper(
+						parallelResults,
+						parallelResults,
+						queryOptions.getLimit());
+			}
 			return new CloseableIteratorWrapper(
 					new Closeable() {
 						@Override
@@ -339,8 +394,15 @@ public class MemoryDataStore implements
 			final QueryOptions queryOptions,
 			final boolean isDelete,
 			final DataStoreCallbackManager callbackCache ) {
-		final TreeSet<MemoryEntryRow> set = getRowsForIndex(index.getId());
-		final Iterator<MemoryEntryRow> rowIt = ((TreeSet<MemoryEntryRow>) set.clone()).iterator();
+		final ConcurrentNavigableMap<EntryRowID, MemoryEntryRow> rows = getRowsForIndex(index.getId());
+		// the skip list iterators are weakly consistent, so rows can be read
+		// while they are concurrently written without copying them
+		final List<ByteArrayRange> ranges = getRanges(
+				index,
+				query);
+		final Iterator<MemoryEntryRow> rowIt = (ranges == null) ? rows.values().iterator() : new RangeRowIterator(
+				rows,
+				ranges);
 		final List<QueryFilter> filters = (query == null) ? new ArrayList<QueryFilter>() : new ArrayList<QueryFilter>(
 				query.createFilters(index.getIndexModel()));
 		filters.add(new QueryFilter() {
@@ -421,7 +483,9 @@ public class MemoryDataStore implements
 			@Override
 			public void remove() {
 				if (currentRow != null) {
-					set.remove(currentRow);
+					rows.remove(
+							currentRow.getTableRowId(),
+							currentRow);
 				}
 			}
 
@@ -525,4 +589,153 @@ public class MemoryDataStore implements
 	public DataStatisticsStore getStatsStore() {
 		return statsStore;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Iterates the rows within a sorted list of insertion ID ranges, seeking
+	 * directly to the start of each range. The end of a range is treated as an
+	 * inclusive prefix, consistent with the other data stores.
+	 */
+	private static class RangeRowIterator implements
+			Iterator<MemoryEntryRow>
+	{
+		private final ConcurrentNavigableMap<EntryRowID, MemoryEntryRow> rows;
+		private final Iterator<ByteArrayRange> rangeIt;
+		private ByteArrayRange currentRange = null;
+		private Iterator<Map.Entry<EntryRowID, MemoryEntryRow>> currentIt = null;
+		private EntryRowID lastRowId = null;
+		private MemoryEntryRow nextRow = null;
+
+		public RangeRowIterator(
+				final ConcurrentNavigableMap<EntryRowID, MemoryEntryRow> rows,
+				final List<ByteArrayRange> ranges ) {
+			this.rows = rows;
+			rangeIt = ranges.iterator();
+		}
+
+		private void computeNext() {
+			while (nextRow == null) {
+				if ((currentIt != null) && currentIt.hasNext()) {
+					final Map.Entry<EntryRowID, MemoryEntryRow> entry = currentIt.next();
+					if (isBeforeEnd(
+							entry.getKey().getInsertionId(),
+							currentRange.getEnd().getBytes())) {
+						lastRowId = entry.getKey();
+						nextRow = entry.getValue();
+						return;
+					}
+				}
+				if (!rangeIt.hasNext()) {
+					return;
+				}
+				currentRange = rangeIt.next();
+				final EntryRowID startRowId = new EntryRowID(
+						currentRange.getStart().getBytes(),
+						new byte[0],
+						new byte[0],
+						0);
+				// ranges can overlap by prefix, so never go back over rows
+				// that have already been returned
+				if ((lastRowId != null) && (ROW_ID_COMPARATOR.compare(
+						lastRowId,
+						startRowId) >= 0)) {
+					currentIt = rows.tailMap(
+							lastRowId,
+							false).entrySet().iterator();
+				}
+				else {
+					currentIt = rows.tailMap(
+							startRowId,
+							true).entrySet().iterator();
+				}
+			}
+		}
+
+		private static boolean isBeforeEnd(
+				final byte[] insertionId,
+				final byte[] end ) {
+			final int compare = compareUnsigned(
+					insertionId,
+					end);
+			if (compare <= 0) {
+				return true;
+			}
+			// anything prefixed by the end of the range is within the range
+			if (insertionId.length < end.length) {
+				return false;
+			}
+			for (int i = 0; i < end.length; i++) {
+				if (insertionId[i] != end[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean hasNext() {
+			computeNext();
+			return nextRow != null;
+		}
+
+		@Override
+		public MemoryEntryRow next() {
+			computeNext();
+			if (nextRow == null) {
+				throw new NoSuchElementException();
+			}
+			final MemoryEntryRow row = nextRow;
+			nextRow = null;
+			return row;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static int compareUnsigned(
+			final byte[] a,
+			final byte[] b ) {
+		for (int i = 0; (i < a.length) && (i < b.length); i++) {
+			final int val = (a[i] & 0xff) - (b[i] & 0xff);
+			if (val != 0) {
+				return val;
+			}
+		}
+		return a.length - b.length;
+	}
+
+	/**
+	 * Orders rows by insertion ID, then data ID and adapter ID, comparing bytes
+	 * as unsigned values so that the order matches the query ranges of the
+	 * index strategies
+	 */
+	private static class RowIdComparator implements
+			Comparator<EntryRowID>,
+			Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public int compare(
+				final EntryRowID o1,
+				final EntryRowID o2 ) {
+			int compare = compareUnsigned(
+					o1.getInsertionId(),
+					o2.getInsertionId());
+			if (compare != 0) {
+				return compare;
+			}
+			compare = compareUnsigned(
+					o1.getDataId(),
+					o2.getDataId());
+			if (compare != 0) {
+				return compare;
+			}
+			return compareUnsigned(
+					o1.getAdapterId(),
+					o2.getAdapterId());
+		}
+	}
+}
@@ -1,8 +1,19 @@
 package mil.nga.giat.geowave.core.store.memory;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.commons.lang3.tuple.Pair;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.DataStore;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
@@ -10,23 +21,48 @@ import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexType;
 import mil.nga.giat.geowave.core.store.query.DistributableQuery;
+import mil.nga.giat.geowave.core.store.util.SecondaryIndexJoinIterator;
 
+/**
+ * Only the entries of 'JOIN' secondary indices are kept, the entries of
+ * 'PARTIAL' and 'FULL' secondary indices are ignored.
+ */
 public class MemorySecondaryIndexDataStore implements
 		SecondaryIndexDataStore
 {
+	private final ConcurrentMap<ByteArrayId, ConcurrentNavigableMap<ByteArrayId, Set<JoinEntry>>> joinEntries = new ConcurrentHashMap<ByteArrayId, ConcurrentNavigableMap<ByteArrayId, Set<JoinEntry>>>();
+	private DataStore dataStore = null;
 
 	@Override
 	public void storeJoinEntry(
-			ByteArrayId secondaryIndexId,
-			ByteArrayId indexedAttributeValue,
-			ByteArrayId adapterId,
-			ByteArrayId indexedAttributeFieldId,
-			ByteArrayId primaryIndexId,
-			ByteArrayId primaryIndexRowId,
-			ByteArrayId attributeVisibility ) {
-		// TODO Auto-generated method stub
-
+			final ByteArrayId secondaryIndexId,
+			final ByteArrayId indexedAttributeValue,
+			final ByteArrayId adapterId,
+			final ByteArrayId indexedAttributeFieldId,
+			final ByteArrayId primaryIndexId,
+			final ByteArrayId primaryIndexRowId,
+			final ByteArrayId attributeVisibility ) {
+		ConcurrentNavigableMap<ByteArrayId, Set<JoinEntry>> indexEntries = joinEntries.get(secondaryIndexId);
+		if (indexEntries == null) {
+			joinEntries.putIfAbsent(
+					secondaryIndexId,
+					new ConcurrentSkipListMap<ByteArrayId, Set<JoinEntry>>());
+			indexEntries = joinEntries.get(secondaryIndexId);
+		}
+		Set<JoinEntry> valueEntries = indexEntries.get(indexedAttributeValue);
+		if (valueEntries == null) {
+			indexEntries.putIfAbsent(
+					indexedAttributeValue,
+					Collections.newSetFromMap(new ConcurrentHashMap<JoinEntry, Boolean>()));
+			valueEntries = indexEntries.get(indexedAttributeValue);
+		}
+		valueEntries.add(new JoinEntry(
+				adapterId,
+				indexedAttributeFieldId,
+				primaryIndexId,
+				primaryIndexRowId));
 	}
 
 	@Override
@@ -44,14 +80,23 @@ public class MemorySecondaryIndexDataStore implements
 
 	@Override
 	public void deleteJoinEntry(
-			ByteArrayId secondaryIndexId,
-			ByteArrayId indexedAttributeValue,
-			ByteArrayId adapterId,
-			ByteArrayId indexedAttributeFieldId,
-			ByteArrayId primaryIndexId,
-			ByteArrayId primaryIndexRowId ) {
-		// TODO Auto-generated method stub
-
+			final ByteArrayId secondaryIndexId,
+			final ByteArrayId indexedAttributeValue,
+			final ByteArrayId adapterId,
+			final ByteArrayId indexedAttributeFieldId,
+			final ByteArrayId primaryIndexId,
+			final ByteArrayId primaryIndexRowId ) {
+		final ConcurrentNavigableMap<ByteArrayId, Set<JoinEntry>> indexEntries = joinEntries.get(secondaryIndexId);
+		if (indexEntries != null) {
+			final Set<JoinEntry> valueEntries = indexEntries.get(indexedAttributeValue);
+			if (valueEntries != null) {
+				valueEntries.remove(new JoinEntry(
+						adapterId,
+						indexedAttributeFieldId,
+						primaryIndexId,
+						primaryIndexRowId));
+			}
+		}
 	}
 
 	@Override
@@ -67,15 +112,11 @@ public class MemorySecondaryIndexDataStore implements
 	}
 
 	@Override
-	public void flush() {
-		// TODO Auto-generated method stub
-
-	}
+	public void flush() {}
 
 	@Override
 	public void removeAll() {
-		// TODO Auto-generated method stub
-
+		joinEntries.clear();
 	}
 
 	@Override
@@ -86,15 +127,104 @@ public class MemorySecondaryIndexDataStore implements
 			final PrimaryIndex primaryIndex,
 			final DistributableQuery query,
 			final String... authorizations ) {
-		// TODO Auto-generated method stub
-		return null;
+		if (!secondaryIndex.getSecondaryIndexType().equals(
+				SecondaryIndexType.JOIN)) {
+			return new CloseableIterator.Empty<T>();
+		}
+		return new SecondaryIndexJoinIterator<T>(
+				dataStore,
+				adapter.getAdapterId(),
+				queryJoinEntries(
+						secondaryIndex,
+						indexedAttributeFieldId,
+						adapter,
+						query,
+						authorizations),
+				authorizations);
+	}
+
+	@Override
+	public <T> CloseableIterator<Pair<ByteArrayId, ByteArrayId>> queryJoinEntries(
+			final SecondaryIndex<T> secondaryIndex,
+			final ByteArrayId indexedAttributeFieldId,
+			final DataAdapter<T> adapter,
+			final DistributableQuery query,
+			final String... authorizations ) {
+		final ConcurrentNavigableMap<ByteArrayId, Set<JoinEntry>> indexEntries = joinEntries
+				.get(secondaryIndex.getId());
+		final List<ByteArrayRange> ranges = query.getSecondaryIndexConstraints(secondaryIndex);
+		if ((indexEntries == null) || (ranges == null) || ranges.isEmpty()) {
+			return new CloseableIterator.Empty<Pair<ByteArrayId, ByteArrayId>>();
+		}
+		// the entries are read eagerly, so the results don't change with
+		// later writes
+		final Set<Pair<ByteArrayId, ByteArrayId>> results = new LinkedHashSet<Pair<ByteArrayId, ByteArrayId>>();
+		for (final ByteArrayRange range : ranges) {
+			for (final Entry<ByteArrayId, Set<JoinEntry>> valueEntries : indexEntries.subMap(
+					range.getStart(),
+					true,
+					range.isSingleValue() ? range.getStart() : range.getEnd(),
+					true).entrySet()) {
+				for (final JoinEntry entry : valueEntries.getValue()) {
+					if (entry.adapterId.equals(adapter.getAdapterId()) && entry.fieldId.equals(indexedAttributeFieldId)) {
+						results.add(Pair.of(
+								entry.primaryIndexId,
+								entry.primaryIndexRowId));
+					}
+				}
+			}
+		}
+		return new CloseableIterator.Wrapper<Pair<ByteArrayId, ByteArrayId>>(
+				results.iterator());
 	}
 
 	@Override
 	public void setDataStore(
 			final DataStore dataStore ) {
-		// TODO Auto-generated method stub
-
+		this.dataStore = dataStore;
 	}
 
-}
\ No newline at end of file
+	private static class JoinEntry
+	{
+		private final ByteArrayId adapterId;
+		private final ByteArrayId fieldId;
+		private final ByteArrayId primaryIndexId;
+		private final ByteArrayId primaryIndexRowId;
+
+		private JoinEntry(
+				final ByteArrayId adapterId,
+				final ByteArrayId fieldId,
+				final ByteArrayId primaryIndexId,
+				final ByteArrayId primaryIndexRowId ) {
+			this.adapterId = adapterId;
+			this.fieldId = fieldId;
+			this.primaryIndexId = primaryIndexId;
+			this.primaryIndexRowId = primaryIndexRowId;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + adapterId.hashCode();
+			result = (prime * result) + fieldId.hashCode();
+			result = (prime * result) + primaryIndexId.hashCode();
+			result = (prime * result) + primaryIndexRowId.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final JoinEntry other = (JoinEntry) obj;
+			return adapterId.equals(other.adapterId) && fieldId.equals(other.fieldId)
+					&& primaryIndexId.equals(other.primaryIndexId) && primaryIndexRowId.equals(other.primaryIndexRowId);
+		}
+	}
+}
@@ -26,6 +26,8 @@ import mil.nga.giat.geowave.core.store.adapter.AdapterStore;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.callback.ScanCallback;
+import mil.nga.giat.geowave.core.store.filter.DedupeFilter;
+import mil.nga.giat.geowave.core.store.filter.FingerprintDedupeFilter;
 import mil.nga.giat.geowave.core.store.index.IndexStore;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.aggregate.Aggregation;
@@ -88,6 +90,10 @@ public class QueryOptions implements
 	private Integer limit = -1;
 	private double[] maxResolutionSubsamplingPerDimension = null;
 	private transient ScanCallback<?> scanCallback = DEFAULT_CALLBACK;
+	private int queryParallelism = 1;
+	private boolean fingerprintDedupe = false;
+	private int decodeParallelism = 1;
+	private boolean unorderedResults = false;
 	private String[] authorizations = new String[0];
 	private Pair<List<String>, DataAdapter<?>> fieldIdsAdapterPair;
 
@@ -147,6 +153,10 @@ public class QueryOptions implements
 		authorizations = options.authorizations;
 		adapters = options.adapters;
 		index = options.index;
+		queryParallelism = options.queryParallelism;
+		fingerprintDedupe = options.fingerprintDedupe;
+		decodeParallelism = options.decodeParallelism;
+		unorderedResults = options.unorderedResults;
 		aggregationAdapterPair = options.aggregationAdapterPair;
 	}
 
@@ -303,6 +313,92 @@ public class QueryOptions implements
 		this.limit = limit;
 	}
 
+	/**
+	 * 
+	 * @return the maximum number of index/adapter queries that are scanned
+	 *         concurrently on the client
+	 */
+	public int getQueryParallelism() {
+		return queryParallelism;
+	}
+
+	/**
+	 * When a query spans multiple indices or adapters, the result of each of
+	 * them is scanned sequentially by default. A value > 1 scans up to that
+	 * many of them concurrently, returning results in the order they are
+	 * produced rather than index by index.
+	 * 
+	 * @param queryParallelism
+	 *            the maximum number of concurrently scanned queries
+	 */
+	public void setQueryParallelism(
+			final int queryParallelism ) {
+		this.queryParallelism = queryParallelism;
+	}
+
+	public boolean isFingerprintDedupe() {
+		return fingerprintDedupe;
+	}
+
+	/**
+	 * Queries that visit a very large number of duplicated entries can use a
+	 * compact de-duplication filter that retains a fingerprint of each entry
+	 * rather than its data ID, see FingerprintDedupeFilter.
+	 * 
+	 * @param fingerprintDedupe
+	 *            whether to de-duplicate using fingerprints
+	 */
+	public void setFingerprintDedupe(
+			final boolean fingerprintDedupe ) {
+		this.fingerprintDedupe = fingerprintDedupe;
+	}
+
+	/**
+	 * 
+	 * @return the number of threads decoding the rows of a scan on the client
+	 */
+	public int getDecodeParallelism() {
+		return decodeParallelism;
+	}
+
+	/**
+	 * Rows are decoded into entries on the caller's thread by default. Data
+	 * stores that support it decode the rows of a scan with up to this many
+	 * threads when the value is > 1, in which case the scan callback is called
+	 * from those threads and must be thread-safe.
+	 * 
+	 * @param decodeParallelism
+	 *            the number of threads decoding rows
+	 */
+	public void setDecodeParallelism(
+			final int decodeParallelism ) {
+		this.decodeParallelism = decodeParallelism;
+	}
+
+	public boolean isUnorderedResults() {
+		return unorderedResults;
+	}
+
+	/**
+	 * Allow results that are decoded in parallel to be returned as they are
+	 * decoded, rather than in the order they are scanned.
+	 * 
+	 * @param unorderedResults
+	 *            whether results may be returned out of scan order
+	 */
+	public void setUnorderedResults(
+			final boolean unorderedResults ) {
+		this.unorderedResults = unorderedResults;
+	}
+
+	/**
+	 * 
+	 * @return a new de-duplication filter of the type selected by these options
+	 */
+	public DedupeFilter createDedupeFilter() {
+		return fingerprintDedupe ? new FingerprintDedupeFilter() : new DedupeFilter();
+	}
+
 	public boolean isAllAdapters() {
 		return ((adapterIds == null) || adapterIds.isEmpty());
 	}
@@ -21,9 +21,13 @@ import mil.nga.giat.geowave.core.index.IndexMetaData;
 import mil.nga.giat.geowave.core.index.NumericIndexStrategy;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.store.adapter.AbstractDataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.AdapterFieldCodec;
+import mil.nga.giat.geowave.core.store.adapter.AdapterFieldCodec.FieldSlot;
 import mil.nga.giat.geowave.core.store.adapter.AdapterPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.PositionalAdapterPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
 import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
@@ -79,6 +83,7 @@ public class DataStoreUtils
 		return count;
 	}
 
+	@SuppressWarnings("unchecked")
 	public static <T> void readFieldInfo(
 			final List<FieldInfo<?>> fieldInfoList,
 			final PersistentDataset<CommonIndexValue> indexData,
@@ -96,11 +101,24 @@ public class DataStoreUtils
 				byteValue,
 				commonVisiblity,
 				-1).getFieldsRead();
+		// field IDs and readers are resolved once per index model by the
+		// codec of an abstract data adapter
+		final AdapterFieldCodec<T> codec = (adapter instanceof AbstractDataAdapter) ? ((AbstractDataAdapter<T>) adapter)
+				.getFieldCodec(indexModel) : null;
 		for (final FlattenedFieldInfo fieldInfo : fieldInfos) {
-			final ByteArrayId fieldId = adapter.getFieldIdForPosition(
-					indexModel,
-					fieldInfo.getFieldPosition());
-			final FieldReader<? extends CommonIndexValue> indexFieldReader = indexModel.getReader(fieldId);
+			final FieldSlot slot = (codec != null) ? codec.getSlotForPosition(fieldInfo.getFieldPosition()) : null;
+			final ByteArrayId fieldId;
+			final FieldReader<? extends CommonIndexValue> indexFieldReader;
+			if (slot != null) {
+				fieldId = slot.getFieldId();
+				indexFieldReader = slot.getIndexFieldReader();
+			}
+			else {
+				fieldId = adapter.getFieldIdForPosition(
+						indexModel,
+						fieldInfo.getFieldPosition());
+				indexFieldReader = indexModel.getReader(fieldId);
+			}
 			if (indexFieldReader != null) {
 				final CommonIndexValue indexValue = indexFieldReader.readField(fieldInfo.getValue());
 				indexValue.setVisibility(commonVisiblity);
@@ -114,7 +132,8 @@ public class DataStoreUtils
 						commonVisiblity));
 			}
 			else {
-				final FieldReader<?> extFieldReader = adapter.getReader(fieldId);
+				final FieldReader<?> extFieldReader = (slot != null) ? slot.getExtendedFieldReader() : adapter
+						.getReader(fieldId);
 				if (extFieldReader != null) {
 					final Object value = extFieldReader.readField(fieldInfo.getValue());
 					final PersistentValue<Object> val = new PersistentValue<Object>(
@@ -319,10 +338,6 @@ public class DataStoreUtils
 		final List<ByteArrayId> insertionIds = encodedData.getInsertionIds(index);
 		final List<ByteArrayId> rowIds = new ArrayList<ByteArrayId>(
 				insertionIds.size());
-		final PersistentDataset extendedData = encodedData.getAdapterExtendedData();
-		final PersistentDataset indexedData = encodedData.getCommonData();
-		final List<PersistentValue> extendedValues = extendedData.getValues();
-		final List<PersistentValue> commonValues = indexedData.getValues();
 
 		final List<FieldInfo<?>> fieldInfoList = new ArrayList<FieldInfo<?>>();
 
@@ -336,20 +351,24 @@ public class DataStoreUtils
 					dataWriter.getAdapterId().getBytes(),
 					encodedData.isDeduplicationEnabled());
 
-			for (final PersistentValue fieldValue : commonValues) {
-				final FieldInfo<T> fieldInfo = getFieldInfo(
-						indexModel,
-						fieldValue,
+			if ((encodedData instanceof PositionalAdapterPersistenceEncoding)
+					&& (((PositionalAdapterPersistenceEncoding) encodedData).getCodec().getAdapter() == dataWriter)) {
+				// the field writers have already been resolved by the
+				// adapter's codec
+				addFieldInfo(
+						fieldInfoList,
+						(PositionalAdapterPersistenceEncoding) encodedData,
 						entry,
 						customFieldVisibilityWriter);
-				if (fieldInfo != null) {
-					fieldInfoList.add(fieldInfo);
-				}
 			}
-			for (final PersistentValue fieldValue : extendedValues) {
-				if (fieldValue.getValue() != null) {
+			else {
+				final PersistentDataset extendedData = encodedData.getAdapterExtendedData();
+				final PersistentDataset indexedData = encodedData.getCommonData();
+				final List<PersistentValue> extendedValues = extendedData.getValues();
+				final List<PersistentValue> commonValues = indexedData.getValues();
+				for (final PersistentValue fieldValue : commonValues) {
 					final FieldInfo<T> fieldInfo = getFieldInfo(
-							dataWriter,
+							indexModel,
 							fieldValue,
 							entry,
 							customFieldVisibilityWriter);
@@ -357,6 +376,18 @@ public class DataStoreUtils
 						fieldInfoList.add(fieldInfo);
 					}
 				}
+				for (final PersistentValue fieldValue : extendedValues) {
+					if (fieldValue.getValue() != null) {
+						final FieldInfo<T> fieldInfo = getFieldInfo(
+								dataWriter,
+								fieldValue,
+								entry,
+								customFieldVisibilityWriter);
+						if (fieldInfo != null) {
+							fieldInfoList.add(fieldInfo);
+						}
+					}
+				}
 			}
 			return new DataStoreEntryInfo(
 					dataId,
@@ -384,28 +415,109 @@ public class DataStoreUtils
 			final T entry,
 			final VisibilityWriter<T> customFieldVisibilityWriter ) {
 		final FieldWriter fieldWriter = dataWriter.getWriter(fieldValue.getId());
+		if (fieldWriter != null) {
+			return getFieldInfo(
+					fieldWriter,
+					fieldValue,
+					entry,
+					customFieldVisibilityWriter);
+		}
+		else if (fieldValue.getValue() != null) {
+			LOGGER.warn("Data writer of class " + dataWriter.getClass() + " does not support field for "
+					+ fieldValue.getValue());
+		}
+		return null;
+	}
+
+	@SuppressWarnings({
+		"rawtypes",
+		"unchecked"
+	})
+	private static <T> FieldInfo<T> getFieldInfo(
+			final FieldWriter fieldWriter,
+			final PersistentValue<T> fieldValue,
+			final T entry,
+			final VisibilityWriter<T> customFieldVisibilityWriter ) {
 		final FieldVisibilityHandler<T, Object> customVisibilityHandler = customFieldVisibilityWriter
 				.getFieldVisibilityHandler(fieldValue.getId());
+		final Object value = fieldValue.getValue();
+		return new FieldInfo<T>(
+				fieldValue,
+				fieldWriter.writeField(value),
+				merge(
+						customVisibilityHandler.getVisibility(
+								entry,
+								fieldValue.getId(),
+								value),
+						fieldWriter.getVisibility(
+								entry,
+								fieldValue.getId(),
+								value)));
+	}
+
+	/**
+	 * Add the field info of an entry encoded by an adapter's codec, in the same
+	 * way as getFieldInfo would with the data writer and index model
+	 */
+	@SuppressWarnings({
+		"rawtypes",
+		"unchecked"
+	})
+	private static <T> void addFieldInfo(
+			final List<FieldInfo<?>> fieldInfoList,
+			final PositionalAdapterPersistenceEncoding encodedData,
+			final T entry,
+			final VisibilityWriter<T> customFieldVisibilityWriter ) {
+		final AdapterFieldCodec<?> codec = encodedData.getCodec();
+		for (int i = 0; i < codec.getIndexFieldCount(); i++) {
+			addFieldInfo(
+					fieldInfoList,
+					codec.getIndexFieldWriter(i),
+					new PersistentValue(
+							codec.getIndexFieldId(i),
+							encodedData.getIndexValue(i)),
+					entry,
+					customFieldVisibilityWriter,
+					codec.getIndexModel());
+		}
+		for (int i = 0; i < codec.getExtendedFieldCount(); i++) {
+			final Object value = encodedData.getExtendedValue(i);
+			if (value != null) {
+				addFieldInfo(
+						fieldInfoList,
+						codec.getExtendedFieldWriter(i),
+						new PersistentValue(
+								codec.getExtendedFieldId(i),
+								value),
+						entry,
+						customFieldVisibilityWriter,
+						codec.getAdapter());
+			}
+		}
+	}
+
+	@SuppressWarnings({
+		"rawtypes",
+		"unchecked"
+	})
+	private static <T> void addFieldInfo(
+			final List<FieldInfo<?>> fieldInfoList,
+			final FieldWriter fieldWriter,
+			final PersistentValue fieldValue,
+			final T entry,
+			final VisibilityWriter<T> customFieldVisibilityWriter,
+			final DataWriter dataWriter ) {
 		if (fieldWriter != null) {
-			final Object value = fieldValue.getValue();
-			return new FieldInfo<T>(
+			fieldInfoList.add(getFieldInfo(
+					fieldWriter,
 					fieldValue,
-					fieldWriter.writeField(value),
-					merge(
-							customVisibilityHandler.getVisibility(
-									entry,
-									fieldValue.getId(),
-									value),
-							fieldWriter.getVisibility(
-									entry,
-									fieldValue.getId(),
-									value)));
+					entry,
+					customFieldVisibilityWriter));
 		}
 		else if (fieldValue.getValue() != null) {
 			LOGGER.warn("Data writer of class " + dataWriter.getClass() + " does not support field for "
 					+ fieldValue.getValue());
 		}
-		return null;
 	}
 
 	@SuppressWarnings({
@@ -0,0 +1,585 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.Logger;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+/**
+ * Reads several sources of results concurrently so that the scans behind them
+ * (one per index, region, range or batch of rows) proceed in parallel while the
+ * caller consumes the results. Sources are opened in the order they are given,
+ * by at most the given number of threads at a time, and each source is read by
+ * a single thread and closed as soon as it is exhausted. The threads are taken
+ * from a pool shared by every parallel iterator and are only started once the
+ * results are first requested.
+ *
+ * Unordered, the results of every source are returned through one bounded queue
+ * in the order they are produced. Ordered, the results are returned one source
+ * after another, each source read ahead into its own bounded buffer, and a
+ * bounded number of sources is read ahead of the one being consumed.
+ *
+ * The first failure of any source stops every thread and is thrown by
+ * hasNext(), which closes this iterator. Closing this iterator stops the
+ * threads before closing the sources they opened.
+ *
+ * @param <T>
+ *            The type to iterate on
+ */
+public class ParallelCloseableIterator<T> implements
+		CloseableIterator<T>
+{
+	private final static Logger LOGGER = Logger.getLogger(ParallelCloseableIterator.class);
+	private static final int DEFAULT_QUEUE_SIZE = 1000;
+	// sources opened ahead of the one being consumed, per thread, when ordered
+	private static final int SOURCES_PER_THREAD = 4;
+	private static final long POLL_TIMEOUT_MILLIS = 100;
+	private static final long CLOSE_TIMEOUT_MILLIS = 60000;
+	private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+	private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+		@Override
+		public Thread newThread(
+				final Runnable r ) {
+			final Thread thread = new Thread(
+					r,
+					"geowave-parallel-iterator-" + THREAD_COUNTER.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	// queue markers, null values are wrapped so they can be queued as well
+	private static final Object NULL_VALUE = new Object();
+	private static final Object END_OF_SOURCE = new Object();
+	private static final Object END_OF_RESULTS = new Object();
+
+	private final Iterator<Callable<CloseableIterator<T>>> sources;
+	private final int parallelism;
+	private final int bufferSize;
+	private final boolean ordered;
+	private final List<IteratorSource<T>> iteratorSources;
+	// the queue of every source when unordered
+	private final BlockingQueue<Object> sharedQueue;
+	private final Semaphore sourcePermits;
+	private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+	// held while reading the next source, which may read from a scan
+	private final Object sourceLock = new Object();
+	private final Object lock = new Object();
+	// the buffers of the sources that are not consumed yet when ordered
+	private final Queue<BlockingQueue<Object>> buffers = new ArrayDeque<BlockingQueue<Object>>();
+	private final Set<CloseableIterator<T>> openIterators = new HashSet<CloseableIterator<T>>();
+	private final List<Future<?>> workers = new ArrayList<Future<?>>();
+	private int activeWorkers = 0;
+	private int openedSources = 0;
+	private boolean sourcesExhausted = false;
+	private boolean started = false;
+	private volatile boolean closed = false;
+	private int consumedSources = 0;
+	private int startedSource = -1;
+	private Object nextValue = null;
+
+	public ParallelCloseableIterator(
+			final List<CloseableIterator<T>> iterators,
+			final int parallelism ) {
+		this(
+				iterators,
+				parallelism,
+				DEFAULT_QUEUE_SIZE);
+	}
+
+	/**
+	 * Reads the iterators unordered. Every iterator is closed once it is
+	 * exhausted or this iterator is closed.
+	 */
+	public ParallelCloseableIterator(
+			final List<CloseableIterator<T>> iterators,
+			final int parallelism,
+			final int queueSize ) {
+		this(
+				toSources(iterators),
+				Math.min(
+						parallelism,
+						iterators.size()),
+				false,
+				queueSize);
+	}
+
+	/**
+	 * @param sources
+	 *            opens each source when it is read, the next source is only
+	 *            requested by one thread at a time
+	 * @param parallelism
+	 *            the number of sources read at the same time
+	 * @param ordered
+	 *            whether results are returned source by source
+	 * @param bufferSize
+	 *            the number of results read ahead per source when ordered, or
+	 *            for all of the sources when unordered
+	 */
+	public ParallelCloseableIterator(
+			final Iterator<Callable<CloseableIterator<T>>> sources,
+			final int parallelism,
+			final boolean ordered,
+			final int bufferSize ) {
+		this.sources = sources;
+		this.parallelism = Math.max(
+				1,
+				parallelism);
+		this.bufferSize = Math.max(
+				1,
+				bufferSize);
+		this.ordered = ordered;
+		iteratorSources = (sources instanceof IteratorSources) ? ((IteratorSources<T>) sources).sources : Collections
+				.<IteratorSource<T>> emptyList();
+		sharedQueue = ordered ? null : new LinkedBlockingQueue<Object>(
+				this.bufferSize);
+		sourcePermits = ordered ? new Semaphore(
+				this.parallelism * SOURCES_PER_THREAD) : null;
+	}
+
+	/**
+	 * Called on the consuming thread as each source starts being consumed,
+	 * before any of its results are returned, including sources without
+	 * results. Only called when ordered.
+	 *
+	 * @param sourceIndex
+	 *            the position of the source in the order they are given
+	 */
+	protected void sourceStarted(
+			final int sourceIndex ) {}
+
+	private void start() {
+		synchronized (lock) {
+			if (started || closed) {
+				return;
+			}
+			started = true;
+			for (int i = 0; i < parallelism; i++) {
+				workers.add(EXECUTOR.submit(new Runnable() {
+					@Override
+					public void run() {
+						readSources();
+					}
+				}));
+			}
+		}
+	}
+
+	private void readSources() {
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+			activeWorkers++;
+		}
+		try {
+			while (!isStopped()) {
+				final Callable<CloseableIterator<T>> source;
+				final BlockingQueue<Object> buffer;
+				if ((sourcePermits != null) && !acquireSourcePermit()) {
+					return;
+				}
+				synchronized (sourceLock) {
+					if (isStopped() || !sources.hasNext()) {
+						synchronized (lock) {
+							sourcesExhausted = true;
+							lock.notifyAll();
+						}
+						return;
+					}
+					source = sources.next();
+					synchronized (lock) {
+						openedSources++;
+						if (ordered) {
+							buffer = new LinkedBlockingQueue<Object>(
+									bufferSize);
+							buffers.add(buffer);
+						}
+						else {
+							buffer = sharedQueue;
+						}
+						lock.notifyAll();
+					}
+				}
+				readSource(
+						source,
+						buffer);
+			}
+		}
+		catch (final Throwable t) {
+			fail(t);
+		}
+		finally {
+			synchronized (lock) {
+				activeWorkers--;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	private void readSource(
+			final Callable<CloseableIterator<T>> source,
+			final BlockingQueue<Object> buffer ) {
+		CloseableIterator<T> it = null;
+		boolean registered = false;
+		try {
+			it = source.call();
+			synchronized (lock) {
+				if (!closed) {
+					openIterators.add(it);
+					registered = true;
+				}
+			}
+			while (!isStopped() && it.hasNext()) {
+				final T value = it.next();
+				if (!offer(
+						buffer,
+						value == null ? NULL_VALUE : value)) {
+					break;
+				}
+			}
+		}
+		catch (final Throwable t) {
+			fail(t);
+		}
+		finally {
+			if (it != null) {
+				final boolean open;
+				synchronized (lock) {
+					// otherwise it was closed by close()
+					open = !registered || openIterators.remove(it);
+				}
+				if (open) {
+					closeQuietly(it);
+				}
+			}
+			// the consumer must not wait on a source that ended
+			offer(
+					buffer,
+					END_OF_SOURCE);
+		}
+	}
+
+	private boolean acquireSourcePermit() {
+		try {
+			while (!isStopped()) {
+				if (sourcePermits.tryAcquire(
+						POLL_TIMEOUT_MILLIS,
+						TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	private boolean offer(
+			final BlockingQueue<Object> buffer,
+			final Object value ) {
+		try {
+			while (!closed) {
+				if (buffer.offer(
+						value,
+						POLL_TIMEOUT_MILLIS,
+						TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return false;
+	}
+
+	private void fail(
+			final Throwable t ) {
+		if (!failure.compareAndSet(
+				null,
+				t)) {
+			LOGGER.debug(
+					"Parallel read failed after an earlier failure",
+					t);
+		}
+	}
+
+	private boolean isStopped() {
+		return closed || (failure.get() != null);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextValue != null) {
+			return true;
+		}
+		start();
+		try {
+			while (!closed) {
+				throwIfFailed();
+				final Object value = ordered ? pollOrdered() : pollUnordered();
+				if (value == END_OF_RESULTS) {
+					// a source may fail after its last result was queued
+					throwIfFailed();
+					break;
+				}
+				if (value != null) {
+					nextValue = value;
+					return true;
+				}
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			closeQuietly();
+			throw new RuntimeException(
+					"Interrupted while waiting for results",
+					e);
+		}
+		closeQuietly();
+		return false;
+	}
+
+	/**
+	 * @return the next result, END_OF_RESULTS, or null if there is nothing to
+	 *         return yet
+	 */
+	private Object pollUnordered()
+			throws InterruptedException {
+		synchronized (lock) {
+			// every result of a source is queued before the end of the source
+			if (sourcesExhausted && (consumedSources == openedSources)) {
+				return END_OF_RESULTS;
+			}
+		}
+		final Object value = sharedQueue.poll(
+				POLL_TIMEOUT_MILLIS,
+				TimeUnit.MILLISECONDS);
+		if (value == END_OF_SOURCE) {
+			consumedSources++;
+			return null;
+		}
+		return value;
+	}
+
+	/**
+	 * @return the next result, END_OF_RESULTS, or null if there is nothing to
+	 *         return yet
+	 */
+	private Object pollOrdered()
+			throws InterruptedException {
+		final BlockingQueue<Object> buffer;
+		synchronized (lock) {
+			buffer = buffers.peek();
+			if (buffer == null) {
+				if (sourcesExhausted) {
+					return END_OF_RESULTS;
+				}
+				lock.wait(POLL_TIMEOUT_MILLIS);
+				return null;
+			}
+		}
+		if (startedSource < consumedSources) {
+			startedSource = consumedSources;
+			sourceStarted(consumedSources);
+		}
+		final Object value = buffer.poll(
+				POLL_TIMEOUT_MILLIS,
+				TimeUnit.MILLISECONDS);
+		if (value == END_OF_SOURCE) {
+			synchronized (lock) {
+				buffers.poll();
+			}
+			consumedSources++;
+			sourcePermits.release();
+			return null;
+		}
+		return value;
+	}
+
+	private void throwIfFailed() {
+		final Throwable t = failure.get();
+		if (t == null) {
+			return;
+		}
+		closeQuietly();
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		}
+		if (t instanceof Error) {
+			throw (Error) t;
+		}
+		throw new RuntimeException(
+				"Unable to read results",
+				t);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Object value = nextValue;
+		nextValue = null;
+		return value == NULL_VALUE ? null : (T) value;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException(
+				"remove() is not supported by a parallel iterator");
+	}
+
+	private void closeQuietly() {
+		try {
+			close();
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to close iterator",
+					e);
+		}
+	}
+
+	private static void closeQuietly(
+			final CloseableIterator<?> it ) {
+		try {
+			it.close();
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to close iterator",
+					e);
+		}
+	}
+
+	@Override
+	public void close()
+			throws IOException {
+		final List<CloseableIterator<T>> iteratorsToClose = new ArrayList<CloseableIterator<T>>();
+		synchronized (lock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			for (final Future<?> worker : workers) {
+				worker.cancel(true);
+			}
+			// the sources should not be closed while they are still being read
+			final long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+			while (activeWorkers > 0) {
+				final long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					LOGGER.warn("Parallel iterator threads did not terminate");
+					break;
+				}
+				try {
+					lock.wait(remaining);
+				}
+				catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			iteratorsToClose.addAll(openIterators);
+			openIterators.clear();
+			for (final IteratorSource<T> source : iteratorSources) {
+				if (!source.called) {
+					iteratorsToClose.add(source.iterator);
+				}
+			}
+			buffers.clear();
+			if (sharedQueue != null) {
+				sharedQueue.clear();
+			}
+		}
+		for (final CloseableIterator<T> it : iteratorsToClose) {
+			closeQuietly(it);
+		}
+	}
+
+	private static <T> Iterator<Callable<CloseableIterator<T>>> toSources(
+			final List<CloseableIterator<T>> iterators ) {
+		final List<IteratorSource<T>> sources = new ArrayList<IteratorSource<T>>();
+		for (final CloseableIterator<T> iterator : iterators) {
+			sources.add(new IteratorSource<T>(
+					iterator));
+		}
+		return new IteratorSources<T>(
+				sources);
+	}
+
+	/**
+	 * An iterator that is already open, which is closed with this iterator even
+	 * if it is never read
+	 */
+	private static class IteratorSource<T> implements
+			Callable<CloseableIterator<T>>
+	{
+		private final CloseableIterator<T> iterator;
+		private volatile boolean called = false;
+
+		private IteratorSource(
+				final CloseableIterator<T> iterator ) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public CloseableIterator<T> call() {
+			called = true;
+			return iterator;
+		}
+	}
+
+	private static class IteratorSources<T> implements
+			Iterator<Callable<CloseableIterator<T>>>
+	{
+		private final List<IteratorSource<T>> sources;
+		private final Iterator<IteratorSource<T>> it;
+
+		private IteratorSources(
+				final List<IteratorSource<T>> sources ) {
+			this.sources = sources;
+			it = sources.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return it.hasNext();
+		}
+
+		@Override
+		public Callable<CloseableIterator<T>> next() {
+			return it.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+/**
+ * Decodes the rows of an EntryIteratorWrapper with a pool of threads rather
+ * than on the caller's thread. The scanned rows are read into batches, one
+ * thread at a time, and each batch is decoded (including client-side filtering)
+ * by one of the decode threads. Results are returned in the order the rows were
+ * scanned, or in the order they are decoded when ordering is not required.
+ *
+ * The number of rows read ahead of the caller is bounded, so the scan is paused
+ * while the caller falls behind. The client filters and scan callback of the
+ * wrapped iterator are called from the decode threads and must be thread-safe.
+ * Closing this iterator stops reading and decoding, but does not close the scan
+ * itself, which should be closed afterwards.
+ *
+ * @param <T>
+ *            The type for the entry
+ */
+public class ParallelDecodeIterator<T> extends
+		ParallelCloseableIterator<T>
+{
+	private static final int DEFAULT_BATCH_SIZE = 128;
+
+	public ParallelDecodeIterator(
+			final EntryIteratorWrapper<T> rowIterator,
+			final int decodeThreads,
+			final boolean ordered ) {
+		this(
+				rowIterator,
+				decodeThreads,
+				ordered,
+				DEFAULT_BATCH_SIZE);
+	}
+
+	public ParallelDecodeIterator(
+			final EntryIteratorWrapper<T> rowIterator,
+			final int decodeThreads,
+			final boolean ordered,
+			final int batchSize ) {
+		super(
+				new RowBatches<T>(
+						rowIterator,
+						Math.max(
+								1,
+								batchSize)),
+				decodeThreads,
+				ordered,
+				// a decoded batch is never larger than the batch of rows
+				ordered ? batchSize : batchSize * Math.max(
+						1,
+						decodeThreads));
+	}
+
+	/**
+	 * Reads the scanned rows into batches that are decoded when they are read
+	 */
+	private static class RowBatches<T> implements
+			Iterator<Callable<CloseableIterator<T>>>
+	{
+		private final EntryIteratorWrapper<T> rowIterator;
+		private final int batchSize;
+
+		private RowBatches(
+				final EntryIteratorWrapper<T> rowIterator,
+				final int batchSize ) {
+			this.rowIterator = rowIterator;
+			this.batchSize = batchSize;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return rowIterator.hasNextScannedResult();
+		}
+
+		@Override
+		public Callable<CloseableIterator<T>> next() {
+			final List<Object> rows = new ArrayList<Object>(
+					batchSize);
+			while ((rows.size() < batchSize) && rowIterator.hasNextScannedResult()) {
+				rows.add(rowIterator.getNextEncodedResult());
+			}
+			return new Callable<CloseableIterator<T>>() {
+				@Override
+				public CloseableIterator<T> call() {
+					return new CloseableIterator.Wrapper<T>(
+							decode(
+									rows).iterator());
+				}
+			};
+		}
+
+		private List<T> decode(
+				final List<Object> rows ) {
+			final List<T> results = new ArrayList<T>(
+					rows.size());
+			for (final Object row : rows) {
+				final T decodedValue = rowIterator.decodeRow(
+						row,
+						rowIterator.clientFilter,
+						rowIterator.index,
+						rowIterator.wholeRowEncoding);
+				if (decodedValue != null) {
+					results.add(decodedValue);
+				}
+			}
+			return results;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
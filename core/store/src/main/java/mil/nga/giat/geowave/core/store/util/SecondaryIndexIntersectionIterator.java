@@ -0,0 +1,106 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.log4j.Logger;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+/**
+ * Intersects the join entries of several 'JOIN' secondary indices, so that only
+ * the primary rows referenced by every index are joined. The entries of all but
+ * the last index are read into memory when the iterator is first used and the
+ * entries of the last index are streamed, so the index with the most matching
+ * entries should be last.
+ */
+public class SecondaryIndexIntersectionIterator implements
+		CloseableIterator<Pair<ByteArrayId, ByteArrayId>>
+{
+	private final static Logger LOGGER = Logger.getLogger(SecondaryIndexIntersectionIterator.class);
+
+	private final List<CloseableIterator<Pair<ByteArrayId, ByteArrayId>>> joinEntries;
+	private Set<Pair<ByteArrayId, ByteArrayId>> retained = null;
+	private Pair<ByteArrayId, ByteArrayId> next = null;
+
+	public SecondaryIndexIntersectionIterator(
+			final List<CloseableIterator<Pair<ByteArrayId, ByteArrayId>>> joinEntries ) {
+		if (joinEntries.size() < 2) {
+			throw new IllegalArgumentException(
+					"An intersection requires the entries of at least two secondary indices");
+		}
+		this.joinEntries = joinEntries;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next != null) {
+			return true;
+		}
+		if (retained == null) {
+			retained = readAllButLast();
+		}
+		final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> last = joinEntries.get(joinEntries.size() - 1);
+		while (!retained.isEmpty() && last.hasNext()) {
+			final Pair<ByteArrayId, ByteArrayId> entry = last.next();
+			// removing the entry returns each primary row once
+			if ((entry != null) && retained.remove(entry)) {
+				next = entry;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private Set<Pair<ByteArrayId, ByteArrayId>> readAllButLast() {
+		Set<Pair<ByteArrayId, ByteArrayId>> intersection = null;
+		for (int i = 0; i < (joinEntries.size() - 1); i++) {
+			final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> entries = joinEntries.get(i);
+			final Set<Pair<ByteArrayId, ByteArrayId>> matches = new HashSet<Pair<ByteArrayId, ByteArrayId>>();
+			while (entries.hasNext() && ((intersection == null) || !intersection.isEmpty())) {
+				final Pair<ByteArrayId, ByteArrayId> entry = entries.next();
+				if ((entry != null) && ((intersection == null) || intersection.contains(entry))) {
+					matches.add(entry);
+				}
+			}
+			intersection = matches;
+		}
+		return intersection;
+	}
+
+	@Override
+	public Pair<ByteArrayId, ByteArrayId> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Pair<ByteArrayId, ByteArrayId> result = next;
+		next = null;
+		return result;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException(
+				"remove() is not supported by a secondary index intersection");
+	}
+
+	@Override
+	public void close()
+			throws IOException {
+		for (final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> entries : joinEntries) {
+			try {
+				entries.close();
+			}
+			catch (final IOException e) {
+				LOGGER.warn(
+						"Unable to close secondary index entries",
+						e);
+			}
+		}
+	}
+}
@@ -0,0 +1,169 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.log4j.Logger;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.query.RowIdQuery;
+
+/**
+ * Resolves the entries of a 'JOIN' secondary index to the rows of the primary
+ * index they reference. Rather than querying the primary index once per join
+ * entry, the primary row IDs are collected in batches and each batch is fetched
+ * with a single row ID query per primary index. Batches are only read as the
+ * results of the previous batch are consumed.
+ *
+ * @param <T>
+ *            The type for the entry
+ */
+public class SecondaryIndexJoinIterator<T> implements
+		CloseableIterator<T>
+{
+	private final static Logger LOGGER = Logger.getLogger(SecondaryIndexJoinIterator.class);
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private final DataStore dataStore;
+	private final ByteArrayId adapterId;
+	private final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> joinEntries;
+	private final int batchSize;
+	private final String[] authorizations;
+	private Iterator<Entry<ByteArrayId, Set<ByteArrayId>>> currentBatch = null;
+	private CloseableIterator<T> currentResults = null;
+	private boolean closed = false;
+
+	public SecondaryIndexJoinIterator(
+			final DataStore dataStore,
+			final ByteArrayId adapterId,
+			final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> joinEntries,
+			final String... authorizations ) {
+		this(
+				dataStore,
+				adapterId,
+				joinEntries,
+				DEFAULT_BATCH_SIZE,
+				authorizations);
+	}
+
+	public SecondaryIndexJoinIterator(
+			final DataStore dataStore,
+			final ByteArrayId adapterId,
+			final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> joinEntries,
+			final int batchSize,
+			final String... authorizations ) {
+		this.dataStore = dataStore;
+		this.adapterId = adapterId;
+		this.joinEntries = joinEntries;
+		this.batchSize = Math.max(
+				1,
+				batchSize);
+		this.authorizations = authorizations;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!closed) {
+			if ((currentResults != null) && currentResults.hasNext()) {
+				return true;
+			}
+			closeResults();
+			if ((currentBatch == null) || !currentBatch.hasNext()) {
+				currentBatch = nextBatch();
+				if (currentBatch == null) {
+					break;
+				}
+			}
+			final Entry<ByteArrayId, Set<ByteArrayId>> primaryIndexRowIds = currentBatch.next();
+			final QueryOptions queryOptions = new QueryOptions(
+					adapterId,
+					primaryIndexRowIds.getKey());
+			queryOptions.setAuthorizations(authorizations);
+			currentResults = dataStore.query(
+					queryOptions,
+					new RowIdQuery(
+							new ArrayList<ByteArrayId>(
+									primaryIndexRowIds.getValue())));
+		}
+		return false;
+	}
+
+	/**
+	 * @return the primary row IDs of the next batch of join entries grouped by
+	 *         primary index, or null when there are no more join entries
+	 */
+	private Iterator<Entry<ByteArrayId, Set<ByteArrayId>>> nextBatch() {
+		final Map<ByteArrayId, Set<ByteArrayId>> batch = new LinkedHashMap<ByteArrayId, Set<ByteArrayId>>();
+		int count = 0;
+		while ((count < batchSize) && joinEntries.hasNext()) {
+			final Pair<ByteArrayId, ByteArrayId> entry = joinEntries.next();
+			if (entry == null) {
+				continue;
+			}
+			Set<ByteArrayId> rowIds = batch.get(entry.getLeft());
+			if (rowIds == null) {
+				rowIds = new LinkedHashSet<ByteArrayId>();
+				batch.put(
+						entry.getLeft(),
+						rowIds);
+			}
+			if (rowIds.add(entry.getRight())) {
+				count++;
+			}
+		}
+		if (batch.isEmpty()) {
+			return null;
+		}
+		return batch.entrySet().iterator();
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentResults.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException(
+				"remove() is not supported by a secondary index join");
+	}
+
+	private void closeResults() {
+		if (currentResults != null) {
+			try {
+				currentResults.close();
+			}
+			catch (final IOException e) {
+				LOGGER.warn(
+						"Unable to close primary index results",
+						e);
+			}
+			currentResults = null;
+		}
+	}
+
+	@Override
+	public void close()
+			throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		closeResults();
+		joinEntries.close();
+	}
+}
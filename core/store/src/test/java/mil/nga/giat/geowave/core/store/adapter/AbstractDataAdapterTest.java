@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.core.store.adapter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 
 import junit.framework.Assert;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
@@ -64,6 +65,71 @@ public class AbstractDataAdapterTest
 				afterValue);
 	}
 
+	@Test
+	public void testFieldCodec() {
+		final ArrayList<PersistentIndexFieldHandler<Integer, ? extends CommonIndexValue, Object>> indexFieldHandlers = new ArrayList<PersistentIndexFieldHandler<Integer, ? extends CommonIndexValue, Object>>();
+		indexFieldHandlers.add(new TestPersistentIndexFieldHandler());
+
+		final ArrayList<NativeFieldHandler<Integer, Object>> nativeFieldHandlers = new ArrayList<NativeFieldHandler<Integer, Object>>();
+		nativeFieldHandlers.add(new TestNativeFieldHandler());
+
+		final MockAbstractDataAdapter mockAbstractDataAdapter = new MockAbstractDataAdapter(
+				indexFieldHandlers,
+				nativeFieldHandlers);
+		final MockComponents.TestIndexModel testIndexModel = new MockComponents.TestIndexModel();
+		final AdapterFieldCodec<Integer> codec = mockAbstractDataAdapter.getFieldCodec(testIndexModel);
+		Assert.assertSame(
+				codec,
+				mockAbstractDataAdapter.getFieldCodec(new MockComponents.TestIndexModel()));
+
+		final AdapterPersistenceEncoding encoding = mockAbstractDataAdapter.encode(
+				123456,
+				testIndexModel);
+		Assert.assertTrue(encoding instanceof PositionalAdapterPersistenceEncoding);
+		final PositionalAdapterPersistenceEncoding positionalEncoding = (PositionalAdapterPersistenceEncoding) encoding;
+		for (int i = 0; i < codec.getIndexFieldCount(); i++) {
+			Assert.assertSame(
+					encoding.getCommonData().getValue(
+							codec.getIndexFieldId(i)),
+					positionalEncoding.getIndexValue(i));
+			// every written field resolves back to itself by its position
+			Assert.assertEquals(
+					codec.getIndexFieldId(i),
+					codec.getSlotForPosition(
+							mockAbstractDataAdapter.getPositionOfOrderedField(
+									testIndexModel,
+									codec.getIndexFieldId(i))).getFieldId());
+		}
+		for (int i = 0; i < codec.getExtendedFieldCount(); i++) {
+			Assert.assertSame(
+					encoding.getAdapterExtendedData().getValue(
+							codec.getExtendedFieldId(i)),
+					positionalEncoding.getExtendedValue(i));
+		}
+
+		// decoding only the requested fields
+		Assert.assertEquals(
+				new Integer(
+						123456),
+				mockAbstractDataAdapter.decodeFields(
+						new IndexedAdapterPersistenceEncoding(
+								encoding.getAdapterId(),
+								encoding.getDataId(),
+								null,
+								1,
+								encoding.getCommonData(),
+								new PersistentDataset<byte[]>(),
+								encoding.getAdapterExtendedData()),
+						testIndexModel,
+						Collections.singleton(MockAbstractDataAdapter.INTEGER)));
+
+		// deserializing resets the field handlers and so the codecs
+		mockAbstractDataAdapter.fromBinary(mockAbstractDataAdapter.toBinary());
+		Assert.assertNotSame(
+				codec,
+				mockAbstractDataAdapter.getFieldCodec(testIndexModel));
+	}
+
 	@Test
 	public void testAbstractDataAdapterPersistance() {
 		final ArrayList<PersistentIndexFieldHandler<Integer, ? extends CommonIndexValue, Object>> indexFieldHandlers = new ArrayList<PersistentIndexFieldHandler<Integer, ? extends CommonIndexValue, Object>>();
@@ -0,0 +1,121 @@
+package mil.nga.giat.geowave.core.store.adapter.statistics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.StringUtils;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents.IntegerRangeDataStatistics;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.data.PersistentValue;
+import mil.nga.giat.geowave.core.store.memory.MemoryDataStatisticsStore;
+
+public class StatsCompositionToolTest
+{
+	private static DataStoreEntryInfo createEntryInfo(
+			final String visibility ) {
+		final List<FieldInfo<?>> fieldInfo = new ArrayList<FieldInfo<?>>();
+		fieldInfo.add(new FieldInfo<Integer>(
+				new PersistentValue<Integer>(
+						new MockComponents.TestDimensionField().getFieldId(),
+						1),
+				new byte[0],
+				StringUtils.stringToBinary(visibility)));
+		return new DataStoreEntryInfo(
+				new byte[0],
+				Collections.<ByteArrayId> emptyList(),
+				Collections.<ByteArrayId> emptyList(),
+				fieldInfo);
+	}
+
+	@Test
+	public void testConcurrentIngest()
+			throws InterruptedException {
+		final MockComponents.MockAbstractDataAdapter adapter = new MockComponents.MockAbstractDataAdapter();
+		final MemoryDataStatisticsStore statisticsStore = new MemoryDataStatisticsStore();
+		final StatsCompositionTool<Integer> tool = new StatsCompositionTool<Integer>(
+				adapter,
+				statisticsStore);
+		final int threadCount = 4;
+		final int entriesPerThread = 25000;
+		final DataStoreEntryInfo[] entryInfos = new DataStoreEntryInfo[] {
+			createEntryInfo("a"),
+			createEntryInfo("b")
+		};
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < threadCount; t++) {
+			final int offset = t * entriesPerThread;
+			threads.add(new Thread(
+					new Runnable() {
+						@Override
+						public void run() {
+							for (int i = 0; i < entriesPerThread; i++) {
+								tool.entryIngested(
+										entryInfos[i % 2],
+										offset + i);
+							}
+						}
+					}));
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		tool.close();
+
+		long count = 0;
+		double min = Double.MAX_VALUE;
+		double max = -Double.MAX_VALUE;
+		for (final String visibility : new String[] {
+			"a",
+			"b"
+		}) {
+			final CountDataStatistics<?> countStats = (CountDataStatistics<?>) statisticsStore.getDataStatistics(
+					adapter.getAdapterId(),
+					CountDataStatistics.STATS_ID,
+					visibility);
+			count += countStats.getCount();
+			final IntegerRangeDataStatistics rangeStats = (IntegerRangeDataStatistics) statisticsStore
+					.getDataStatistics(
+							adapter.getAdapterId(),
+							new IntegerRangeDataStatistics(
+									adapter.getAdapterId(),
+									adapter.getAdapterId()).getStatisticsId(),
+							visibility);
+			min = Math.min(
+					min,
+					rangeStats.getMin());
+			max = Math.max(
+					max,
+					rangeStats.getMax());
+		}
+		Assert.assertEquals(
+				threadCount * entriesPerThread,
+				count);
+		Assert.assertEquals(
+				0,
+				min,
+				0);
+		Assert.assertEquals(
+				(threadCount * entriesPerThread) - 1,
+				max,
+				0);
+
+		// a second flush has nothing new to incorporate
+		tool.flush();
+		Assert.assertEquals(
+				entriesPerThread * 2,
+				((CountDataStatistics<?>) statisticsStore.getDataStatistics(
+						adapter.getAdapterId(),
+						CountDataStatistics.STATS_ID,
+						"a")).getCount());
+	}
+}
@@ -0,0 +1,142 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
+
+public class FingerprintDedupeFilterTest
+{
+	private static IndexedPersistenceEncoding<Object> createEncoding(
+			final String adapterId,
+			final String dataId,
+			final int duplicateCount ) {
+		return new IndexedPersistenceEncoding<Object>(
+				new ByteArrayId(
+						adapterId),
+				new ByteArrayId(
+						dataId),
+				new ByteArrayId(
+						"row"),
+				duplicateCount,
+				null,
+				null);
+	}
+
+	@Test
+	public void testDedupe() {
+		final FingerprintDedupeFilter filter = new FingerprintDedupeFilter();
+		for (int i = 0; i < 10000; i++) {
+			Assert.assertTrue(filter.accept(
+					null,
+					createEncoding(
+							"adapter1",
+							"data" + i,
+							1)));
+			// the same data ID in a different adapter is distinct
+			Assert.assertTrue(filter.accept(
+					null,
+					createEncoding(
+							"adapter2",
+							"data" + i,
+							1)));
+		}
+		for (int i = 0; i < 10000; i++) {
+			Assert.assertFalse(filter.accept(
+					null,
+					createEncoding(
+							"adapter1",
+							"data" + i,
+							1)));
+		}
+		// entries that aren't duplicated or don't support de-duplication are
+		// always accepted
+		Assert.assertTrue(filter.accept(
+				null,
+				createEncoding(
+						"adapter1",
+						"data0",
+						0)));
+		Assert.assertTrue(filter.accept(
+				null,
+				createEncoding(
+						"adapter1",
+						"data0",
+						-1)));
+		Assert.assertEquals(
+				20000,
+				filter.getVisitedCount());
+	}
+
+	@Test
+	public void testConcurrentDedupe()
+			throws Exception {
+		final FingerprintDedupeFilter filter = new FingerprintDedupeFilter();
+		final int threads = 4;
+		final int entries = 50000;
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(executor.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() {
+					int accepted = 0;
+					for (int i = 0; i < entries; i++) {
+						if (filter.accept(
+								null,
+								createEncoding(
+										"adapter",
+										"data" + i,
+										1))) {
+							accepted++;
+						}
+					}
+					return accepted;
+				}
+			}));
+		}
+		int accepted = 0;
+		for (final Future<Integer> future : futures) {
+			accepted += future.get();
+		}
+		executor.shutdown();
+		// every entry is accepted exactly once across all threads
+		Assert.assertEquals(
+				entries,
+				accepted);
+	}
+
+	@Test
+	public void testTableGrowth() {
+		final int entries = 200000;
+		final FingerprintDedupeFilter filter = new FingerprintDedupeFilter();
+		for (int i = 0; i < entries; i++) {
+			Assert.assertTrue(filter.accept(
+					null,
+					createEncoding(
+							"adapter",
+							"feature-data-id-" + i,
+							1)));
+		}
+		// every entry is still remembered after the tables have grown
+		for (int i = 0; i < entries; i++) {
+			Assert.assertFalse(filter.accept(
+					null,
+					createEncoding(
+							"adapter",
+							"feature-data-id-" + i,
+							1)));
+		}
+		Assert.assertEquals(
+				entries,
+				filter.getVisitedCount());
+	}
+}
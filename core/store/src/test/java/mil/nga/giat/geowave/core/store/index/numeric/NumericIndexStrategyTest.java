@@ -77,7 +77,7 @@ public class NumericIndexStrategyTest
 				0).equals(
 				new ByteArrayRange(
 						new ByteArrayId(
-								Lexicoders.DOUBLE.toByteArray((double) Lexicoders.DOUBLE.getMinimumValue())),
+								Lexicoders.DOUBLE.toByteArray(-Double.MAX_VALUE)),
 						new ByteArrayId(
 								Lexicoders.DOUBLE.toByteArray((double) number)))));
 	}
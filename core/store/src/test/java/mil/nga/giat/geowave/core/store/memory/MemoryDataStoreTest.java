@@ -4,16 +4,23 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.NumericIndexStrategy;
+import mil.nga.giat.geowave.core.index.dimension.BasicDimensionDefinition;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.tiered.TieredSFCIndexFactory;
 import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
 import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
 import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
@@ -22,6 +29,7 @@ import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.DataStore;
 import mil.nga.giat.geowave.core.store.IndexWriter;
 import mil.nga.giat.geowave.core.store.StoreFactoryFamilySpi;
+import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.MockComponents;
 import mil.nga.giat.geowave.core.store.adapter.MockComponents.IntegerRangeDataStatistics;
 import mil.nga.giat.geowave.core.store.adapter.MockComponents.TestIndexModel;
@@ -32,6 +40,8 @@ import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeDataStatistics;
 import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.callback.ScanCallback;
 import mil.nga.giat.geowave.core.store.data.CommonIndexedPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
@@ -459,6 +469,187 @@ public class MemoryDataStoreTest
 		return true;
 	}
 
+	@Test
+	public void testRangeSeekingAndLimit()
+			throws IOException,
+			MismatchedIndexToAdapterMapping {
+		// a real tiered index strategy so that queries seek to their ranges
+		final PrimaryIndex index = new PrimaryIndex(
+				TieredSFCIndexFactory.createFullIncrementalTieredStrategy(
+						new NumericDimensionDefinition[] {
+							new BasicDimensionDefinition(
+									0,
+									1000)
+						},
+						new int[] {
+							8
+						},
+						SFCType.ZORDER),
+				new MockComponents.TestIndexModel());
+		final DataStore dataStore = new MemoryDataStore();
+		final WritableDataAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+		try (final IndexWriter indexWriter = dataStore.createWriter(
+				adapter,
+				index)) {
+			for (int i = 0; i < 1000; i++) {
+				indexWriter.write(new Integer(
+						i));
+			}
+		}
+		final List<Integer> results = new ArrayList<Integer>();
+		try (CloseableIterator<Integer> itemIt = dataStore.query(
+				new QueryOptions(
+						adapter,
+						index),
+				new TestQuery(
+						100,
+						200))) {
+			while (itemIt.hasNext()) {
+				results.add(itemIt.next());
+			}
+		}
+		Collections.sort(results);
+		assertEquals(
+				100,
+				results.size());
+		assertEquals(
+				new Integer(
+						100),
+				results.get(0));
+		assertEquals(
+				new Integer(
+						199),
+				results.get(99));
+
+		final QueryOptions limitedOptions = new QueryOptions(
+				adapter,
+				index);
+		limitedOptions.setLimit(10);
+		int count = 0;
+		try (CloseableIterator<Integer> itemIt = dataStore.query(
+				limitedOptions,
+				new TestQuery(
+						100,
+						200))) {
+			while (itemIt.hasNext()) {
+				itemIt.next();
+				count++;
+			}
+		}
+		assertEquals(
+				10,
+				count);
+	}
+
+	@Test(timeout = 60000)
+	public void testParallelQueryLimit()
+			throws IOException,
+			MismatchedIndexToAdapterMapping {
+		final PrimaryIndex index1 = new PrimaryIndex(
+				new MockComponents.MockIndexStrategy(),
+				new MockComponents.TestIndexModel(
+						"tm1"));
+		final PrimaryIndex index2 = new PrimaryIndex(
+				new MockComponents.MockIndexStrategy(),
+				new MockComponents.TestIndexModel(
+						"tm2"));
+		final WritableDataAdapter<Integer> adapter1 = new MockComponents.MockAbstractDataAdapter(
+				new ByteArrayId(
+						"adapter1"));
+		final WritableDataAdapter<Integer> adapter2 = new MockComponents.MockAbstractDataAdapter(
+				new ByteArrayId(
+						"adapter2"));
+		final DataStore dataStore = new MemoryDataStore();
+		try (final IndexWriter indexWriter = dataStore.createWriter(
+				adapter1,
+				index1)) {
+			for (int i = 0; i < 500; i++) {
+				indexWriter.write(new Integer(
+						i));
+			}
+		}
+		try (final IndexWriter indexWriter = dataStore.createWriter(
+				adapter2,
+				index2)) {
+			for (int i = 0; i < 500; i++) {
+				indexWriter.write(new Integer(
+						i));
+			}
+		}
+		final List<DataAdapter<?>> adapters = Arrays.<DataAdapter<?>> asList(
+				adapter1,
+				adapter2);
+
+		// without a limit, every result of both scans is returned
+		final CountingScanCallback allCallback = new CountingScanCallback();
+		final QueryOptions allOptions = new QueryOptions(
+				adapters);
+		allOptions.setQueryParallelism(2);
+		allOptions.setScanCallback(allCallback);
+		int count = 0;
+		try (CloseableIterator<Integer> itemIt = dataStore.query(
+				allOptions,
+				null)) {
+			while (itemIt.hasNext()) {
+				itemIt.next();
+				count++;
+			}
+		}
+		assertEquals(
+				1000,
+				count);
+		assertEquals(
+				2,
+				allCallback.closed.get());
+
+		// the limit applies to the combined results, and reaching it closes
+		// every scan before the iterator itself is closed
+		final CountingScanCallback limitedCallback = new CountingScanCallback();
+		final QueryOptions limitedOptions = new QueryOptions(
+				adapters);
+		limitedOptions.setQueryParallelism(2);
+		limitedOptions.setLimit(10);
+		limitedOptions.setScanCallback(limitedCallback);
+		count = 0;
+		try (CloseableIterator<Integer> itemIt = dataStore.query(
+				limitedOptions,
+				null)) {
+			while (itemIt.hasNext()) {
+				itemIt.next();
+				count++;
+			}
+			assertEquals(
+					2,
+					limitedCallback.closed.get());
+		}
+		assertEquals(
+				10,
+				count);
+		assertEquals(
+				2,
+				limitedCallback.closed.get());
+	}
+
+	/**
+	 * Each scan closes the scan callback when it is closed
+	 */
+	private static class CountingScanCallback implements
+			ScanCallback<Integer>,
+			Closeable
+	{
+		private final AtomicInteger closed = new AtomicInteger();
+
+		@Override
+		public void entryScanned(
+				final DataStoreEntryInfo entryInfo,
+				final Integer entry ) {}
+
+		@Override
+		public void close() {
+			closed.incrementAndGet();
+		}
+	}
+
 	private class TestQueryFilter implements
 			QueryFilter
 	{
@@ -0,0 +1,170 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.index.FilterableConstraints;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexType;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericFieldIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericGreaterThanOrEqualToConstraint;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericLessThanConstraint;
+import mil.nga.giat.geowave.core.store.query.BasicQuery;
+
+public class MemorySecondaryIndexDataStoreTest
+{
+	private static final ByteArrayId FIELD_ID = new ByteArrayId(
+			"value");
+	private static final ByteArrayId OTHER_FIELD_ID = new ByteArrayId(
+			"other");
+	private static final ByteArrayId PRIMARY_INDEX_ID = new ByteArrayId(
+			"primary");
+
+	private final MockComponents.MockAbstractDataAdapter adapter = new MockComponents.MockAbstractDataAdapter();
+	private final SecondaryIndex<Integer> secondaryIndex = new SecondaryIndex<Integer>(
+			new NumericFieldIndexStrategy(),
+			FIELD_ID,
+			Collections.<DataStatistics<Integer>> emptyList(),
+			SecondaryIndexType.JOIN);
+
+	@Test
+	public void testQueryJoinEntries()
+			throws IOException {
+		final MemorySecondaryIndexDataStore store = new MemorySecondaryIndexDataStore();
+		for (int i = -10; i < 10; i++) {
+			storeJoinEntry(
+					store,
+					adapter.getAdapterId(),
+					FIELD_ID,
+					i);
+		}
+		// entries of another adapter or field with the same value are not
+		// returned
+		storeJoinEntry(
+				store,
+				new ByteArrayId(
+						"otherAdapter"),
+				FIELD_ID,
+				20);
+		storeJoinEntry(
+				store,
+				adapter.getAdapterId(),
+				OTHER_FIELD_ID,
+				-5);
+
+		// negative values are within the range of a "less than" constraint,
+		// the ranges are inclusive and the exact bound is left to the filter
+		Assert.assertEquals(
+				rowIds(
+						-10,
+						-9,
+						-8,
+						-7,
+						-6,
+						-5),
+				queryRowIds(
+						store,
+						new NumericLessThanConstraint(
+								FIELD_ID,
+								-5)));
+		Assert.assertEquals(
+				rowIds(
+						8,
+						9),
+				queryRowIds(
+						store,
+						new NumericGreaterThanOrEqualToConstraint(
+								FIELD_ID,
+								8)));
+
+		store.deleteJoinEntry(
+				secondaryIndex.getId(),
+				new ByteArrayId(
+						NumericFieldIndexStrategy.toIndexByte(9)),
+				adapter.getAdapterId(),
+				FIELD_ID,
+				PRIMARY_INDEX_ID,
+				rowId(9));
+		Assert.assertEquals(
+				rowIds(8),
+				queryRowIds(
+						store,
+						new NumericGreaterThanOrEqualToConstraint(
+								FIELD_ID,
+								8)));
+
+		store.removeAll();
+		Assert.assertTrue(queryRowIds(
+				store,
+				new NumericGreaterThanOrEqualToConstraint(
+						FIELD_ID,
+						8)).isEmpty());
+	}
+
+	private void storeJoinEntry(
+			final MemorySecondaryIndexDataStore store,
+			final ByteArrayId adapterId,
+			final ByteArrayId fieldId,
+			final int value ) {
+		store.storeJoinEntry(
+				secondaryIndex.getId(),
+				new ByteArrayId(
+						NumericFieldIndexStrategy.toIndexByte(value)),
+				adapterId,
+				fieldId,
+				PRIMARY_INDEX_ID,
+				rowId(value),
+				new ByteArrayId(
+						""));
+	}
+
+	private Set<ByteArrayId> queryRowIds(
+			final MemorySecondaryIndexDataStore store,
+			final FilterableConstraints constraint )
+			throws IOException {
+		final Set<ByteArrayId> rowIds = new HashSet<ByteArrayId>();
+		try (CloseableIterator<Pair<ByteArrayId, ByteArrayId>> it = store.queryJoinEntries(
+				secondaryIndex,
+				FIELD_ID,
+				adapter,
+				new BasicQuery(
+						new BasicQuery.Constraints(),
+						Collections.singletonMap(
+								FIELD_ID,
+								constraint)))) {
+			while (it.hasNext()) {
+				final Pair<ByteArrayId, ByteArrayId> entry = it.next();
+				Assert.assertEquals(
+						PRIMARY_INDEX_ID,
+						entry.getLeft());
+				rowIds.add(entry.getRight());
+			}
+		}
+		return rowIds;
+	}
+
+	private static Set<ByteArrayId> rowIds(
+			final int... values ) {
+		final Set<ByteArrayId> rowIds = new HashSet<ByteArrayId>();
+		for (final int value : values) {
+			rowIds.add(rowId(value));
+		}
+		return rowIds;
+	}
+
+	private static ByteArrayId rowId(
+			final int value ) {
+		return new ByteArrayId(
+				"row" + value);
+	}
+}
@@ -0,0 +1,326 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+public class ParallelCloseableIteratorTest
+{
+	private static CloseableIterator<Integer> createIterator(
+			final int start,
+			final int count,
+			final AtomicInteger closeCount ) {
+		final List<Integer> values = new ArrayList<Integer>();
+		for (int i = start; i < (start + count); i++) {
+			values.add(i);
+		}
+		final Iterator<Integer> it = values.iterator();
+		return new CloseableIterator<Integer>() {
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public Integer next() {
+				return it.next();
+			}
+
+			@Override
+			public void remove() {
+				it.remove();
+			}
+
+			@Override
+			public void close()
+					throws IOException {
+				closeCount.incrementAndGet();
+			}
+		};
+	}
+
+	@Test
+	public void testAllResultsReturnedAndClosed()
+			throws IOException {
+		final AtomicInteger closeCount = new AtomicInteger();
+		final List<CloseableIterator<Integer>> iterators = new ArrayList<CloseableIterator<Integer>>();
+		for (int i = 0; i < 5; i++) {
+			iterators.add(createIterator(
+					i * 10000,
+					10000,
+					closeCount));
+		}
+		iterators.add(createIterator(
+				0,
+				0,
+				closeCount));
+		final Set<Integer> results = new HashSet<Integer>();
+		try (final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				iterators,
+				3,
+				10)) {
+			while (it.hasNext()) {
+				Assert.assertTrue(results.add(it.next()));
+			}
+			Assert.assertFalse(it.hasNext());
+		}
+		Assert.assertEquals(
+				50000,
+				results.size());
+		Assert.assertEquals(
+				6,
+				closeCount.get());
+	}
+
+	@Test
+	public void testCloseBeforeExhausted()
+			throws IOException {
+		final AtomicInteger closeCount = new AtomicInteger();
+		final List<CloseableIterator<Integer>> iterators = new ArrayList<CloseableIterator<Integer>>();
+		for (int i = 0; i < 4; i++) {
+			iterators.add(createIterator(
+					0,
+					100000,
+					closeCount));
+		}
+		final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				iterators,
+				4,
+				10);
+		for (int i = 0; i < 5; i++) {
+			Assert.assertTrue(it.hasNext());
+			it.next();
+		}
+		it.close();
+		it.close();
+		Assert.assertFalse(it.hasNext());
+		Assert.assertEquals(
+				4,
+				closeCount.get());
+	}
+
+	@Test
+	public void testFailureIsPropagated()
+			throws IOException {
+		final AtomicInteger closeCount = new AtomicInteger();
+		final CloseableIterator<Integer> failing = new CloseableIterator.Wrapper<Integer>(
+				new Iterator<Integer>() {
+					@Override
+					public boolean hasNext() {
+						return true;
+					}
+
+					@Override
+					public Integer next() {
+						throw new IllegalStateException(
+								"scan failed");
+					}
+
+					@Override
+					public void remove() {}
+				});
+		final List<CloseableIterator<Integer>> iterators = new ArrayList<CloseableIterator<Integer>>();
+		iterators.add(createIterator(
+				0,
+				10,
+				closeCount));
+		iterators.add(failing);
+		final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				iterators,
+				2);
+		try {
+			while (it.hasNext()) {
+				it.next();
+			}
+			Assert.fail("the failure of the scan should be propagated");
+		}
+		catch (final IllegalStateException e) {
+			Assert.assertEquals(
+					"scan failed",
+					e.getMessage());
+		}
+		Assert.assertEquals(
+				1,
+				closeCount.get());
+	}
+
+	@Test
+	public void testOrderedSources()
+			throws IOException {
+		final AtomicInteger closeCount = new AtomicInteger();
+		final AtomicInteger openCount = new AtomicInteger();
+		final List<Callable<CloseableIterator<Integer>>> sources = new ArrayList<Callable<CloseableIterator<Integer>>>();
+		for (int i = 0; i < 20; i++) {
+			final int start = i * 1000;
+			// every fifth source is empty
+			final int count = (i % 5) == 4 ? 0 : 1000;
+			sources.add(new Callable<CloseableIterator<Integer>>() {
+				@Override
+				public CloseableIterator<Integer> call() {
+					openCount.incrementAndGet();
+					return createIterator(
+							start,
+							count,
+							closeCount);
+				}
+			});
+		}
+		final List<Integer> startedSources = new ArrayList<Integer>();
+		int expected = 0;
+		try (final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				sources.iterator(),
+				3,
+				true,
+				10) {
+			@Override
+			protected void sourceStarted(
+					final int sourceIndex ) {
+				startedSources.add(sourceIndex);
+			}
+		}) {
+			while (it.hasNext()) {
+				if ((expected % 5000) == 4000) {
+					expected += 1000;
+				}
+				final Integer value = it.next();
+				Assert.assertEquals(
+						Integer.valueOf(expected++),
+						value);
+				// the source of a value has started before it is returned
+				Assert.assertEquals(
+						Integer.valueOf(value / 1000),
+						startedSources.get(startedSources.size() - 1));
+			}
+		}
+		// the last source is empty
+		Assert.assertEquals(
+				19000,
+				expected);
+		Assert.assertEquals(
+				20,
+				startedSources.size());
+		for (int i = 0; i < 20; i++) {
+			Assert.assertEquals(
+					Integer.valueOf(i),
+					startedSources.get(i));
+		}
+		Assert.assertEquals(
+				20,
+				openCount.get());
+		Assert.assertEquals(
+				20,
+				closeCount.get());
+	}
+
+	@Test(timeout = 60000)
+	public void testFailsFast()
+			throws IOException {
+		final AtomicInteger closeCount = new AtomicInteger();
+		final List<Callable<CloseableIterator<Integer>>> sources = new ArrayList<Callable<CloseableIterator<Integer>>>();
+		// the first source never ends until it is interrupted
+		sources.add(new Callable<CloseableIterator<Integer>>() {
+			@Override
+			public CloseableIterator<Integer> call() {
+				return new CloseableIterator.Wrapper<Integer>(
+						new Iterator<Integer>() {
+							@Override
+							public boolean hasNext() {
+								try {
+									Thread.sleep(Long.MAX_VALUE);
+								}
+								catch (final InterruptedException e) {
+									Thread.currentThread().interrupt();
+								}
+								return false;
+							}
+
+							@Override
+							public Integer next() {
+								return null;
+							}
+
+							@Override
+							public void remove() {}
+						});
+			}
+		});
+		sources.add(new Callable<CloseableIterator<Integer>>() {
+			@Override
+			public CloseableIterator<Integer> call()
+					throws IOException {
+				throw new IOException(
+						"open failed");
+			}
+		});
+		sources.add(new Callable<CloseableIterator<Integer>>() {
+			@Override
+			public CloseableIterator<Integer> call() {
+				return createIterator(
+						0,
+						10,
+						closeCount);
+			}
+		});
+		final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				sources.iterator(),
+				2,
+				true,
+				10);
+		try {
+			// the failure of the second source is thrown while the first is
+			// still being read
+			it.hasNext();
+			Assert.fail("the failure of the source should be propagated");
+		}
+		catch (final RuntimeException e) {
+			Assert.assertTrue(e.getCause() instanceof IOException);
+		}
+		// the iterator is closed, stopping the first source
+		Assert.assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testErrorIsPropagated()
+			throws IOException {
+		final List<CloseableIterator<Integer>> iterators = new ArrayList<CloseableIterator<Integer>>();
+		iterators.add(new CloseableIterator.Wrapper<Integer>(
+				new Iterator<Integer>() {
+					@Override
+					public boolean hasNext() {
+						throw new OutOfMemoryError(
+								"decode failed");
+					}
+
+					@Override
+					public Integer next() {
+						return null;
+					}
+
+					@Override
+					public void remove() {}
+				}));
+		final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				iterators,
+				2);
+		try {
+			it.hasNext();
+			Assert.fail("the error of the scan should be propagated");
+		}
+		catch (final OutOfMemoryError e) {
+			Assert.assertEquals(
+					"decode failed",
+					e.getMessage());
+		}
+		Assert.assertFalse(it.hasNext());
+	}
+}
@@ -0,0 +1,104 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.store.filter.QueryFilter;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+
+public class ParallelDecodeIteratorTest
+{
+	private static final int ROW_COUNT = 10000;
+
+	/**
+	 * decodes even rows to their negative value and filters out odd rows
+	 */
+	private static EntryIteratorWrapper<Integer> createRowIterator() {
+		final List<Integer> rows = new ArrayList<Integer>();
+		for (int i = 0; i < ROW_COUNT; i++) {
+			rows.add(i);
+		}
+		return new EntryIteratorWrapper<Integer>(
+				false,
+				null,
+				null,
+				rows.iterator(),
+				null,
+				null) {
+			@Override
+			protected Integer decodeRow(
+					final Object row,
+					final QueryFilter clientFilter,
+					final PrimaryIndex index,
+					final boolean wholeRowEncoding ) {
+				final int value = (Integer) row;
+				return (value % 2) == 0 ? -value : null;
+			}
+		};
+	}
+
+	@Test
+	public void testOrderedDecode()
+			throws IOException {
+		int expected = 0;
+		try (final ParallelDecodeIterator<Integer> it = new ParallelDecodeIterator<Integer>(
+				createRowIterator(),
+				4,
+				true,
+				7)) {
+			while (it.hasNext()) {
+				Assert.assertEquals(
+						Integer.valueOf(-expected),
+						it.next());
+				expected += 2;
+			}
+			Assert.assertFalse(it.hasNext());
+		}
+		Assert.assertEquals(
+				ROW_COUNT,
+				expected);
+	}
+
+	@Test
+	public void testUnorderedDecode()
+			throws IOException {
+		final Set<Integer> results = new HashSet<Integer>();
+		try (final ParallelDecodeIterator<Integer> it = new ParallelDecodeIterator<Integer>(
+				createRowIterator(),
+				4,
+				false,
+				7)) {
+			while (it.hasNext()) {
+				Assert.assertTrue(results.add(it.next()));
+			}
+		}
+		Assert.assertEquals(
+				ROW_COUNT / 2,
+				results.size());
+		for (int i = 0; i < ROW_COUNT; i += 2) {
+			Assert.assertTrue(results.contains(-i));
+		}
+	}
+
+	@Test
+	public void testCloseBeforeExhausted()
+			throws IOException {
+		final ParallelDecodeIterator<Integer> it = new ParallelDecodeIterator<Integer>(
+				createRowIterator(),
+				2,
+				true,
+				1);
+		Assert.assertTrue(it.hasNext());
+		Assert.assertEquals(
+				Integer.valueOf(0),
+				it.next());
+		it.close();
+		Assert.assertFalse(it.hasNext());
+	}
+}
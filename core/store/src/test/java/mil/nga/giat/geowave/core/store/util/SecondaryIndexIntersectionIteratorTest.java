@@ -0,0 +1,126 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+public class SecondaryIndexIntersectionIteratorTest
+{
+	@Test
+	public void testIntersection()
+			throws IOException {
+		final List<TrackedIterator> joinEntries = Arrays.asList(
+				new TrackedIterator(
+						1,
+						2,
+						3,
+						4,
+						5),
+				new TrackedIterator(
+						2,
+						4,
+						6),
+				// a primary row repeated within an index is returned once
+				new TrackedIterator(
+						0,
+						4,
+						2,
+						4,
+						7));
+		final List<ByteArrayId> results = new ArrayList<ByteArrayId>();
+		try (final SecondaryIndexIntersectionIterator it = new SecondaryIndexIntersectionIterator(
+				new ArrayList<CloseableIterator<Pair<ByteArrayId, ByteArrayId>>>(
+						joinEntries))) {
+			while (it.hasNext()) {
+				results.add(it.next().getRight());
+			}
+		}
+		Assert.assertEquals(
+				Arrays.asList(
+						rowId(4),
+						rowId(2)),
+				results);
+		for (final TrackedIterator entries : joinEntries) {
+			Assert.assertTrue(entries.closed);
+		}
+	}
+
+	@Test
+	public void testEmptyIntersection()
+			throws IOException {
+		final TrackedIterator last = new TrackedIterator(
+				1,
+				2);
+		try (final SecondaryIndexIntersectionIterator it = new SecondaryIndexIntersectionIterator(
+				Arrays.<CloseableIterator<Pair<ByteArrayId, ByteArrayId>>> asList(
+						new TrackedIterator(),
+						last))) {
+			Assert.assertFalse(it.hasNext());
+		}
+		// the last index isn't read once nothing can match
+		Assert.assertEquals(
+				0,
+				last.read);
+		Assert.assertTrue(last.closed);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSingleIndex() {
+		new SecondaryIndexIntersectionIterator(
+				Arrays.<CloseableIterator<Pair<ByteArrayId, ByteArrayId>>> asList(new TrackedIterator(
+						1)));
+	}
+
+	private static ByteArrayId rowId(
+			final int row ) {
+		return new ByteArrayId(
+				"row" + row);
+	}
+
+	private static class TrackedIterator implements
+			CloseableIterator<Pair<ByteArrayId, ByteArrayId>>
+	{
+		private final List<Pair<ByteArrayId, ByteArrayId>> entries = new ArrayList<Pair<ByteArrayId, ByteArrayId>>();
+		private int read = 0;
+		private boolean closed = false;
+
+		private TrackedIterator(
+				final int... rows ) {
+			for (final int row : rows) {
+				entries.add(Pair.of(
+						new ByteArrayId(
+								"index"),
+						rowId(row)));
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return read < entries.size();
+		}
+
+		@Override
+		public Pair<ByteArrayId, ByteArrayId> next() {
+			return entries.get(read++);
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close()
+				throws IOException {
+			closed = true;
+		}
+	}
+}
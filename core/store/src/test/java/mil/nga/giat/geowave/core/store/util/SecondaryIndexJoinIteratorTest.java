@@ -0,0 +1,97 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.IndexWriter;
+import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.query.RowIdQuery;
+
+public class SecondaryIndexJoinIteratorTest
+{
+	private static final int ENTRY_COUNT = 2500;
+
+	@Test
+	public void testBatchedJoin()
+			throws IOException {
+		final List<Pair<ByteArrayId, ByteArrayId>> joinEntries = new ArrayList<Pair<ByteArrayId, ByteArrayId>>();
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			joinEntries.add(Pair.of(
+					new ByteArrayId(
+							"index" + (i % 2)),
+					new ByteArrayId(
+							"row" + i)));
+		}
+		// an entry repeated within a batch is only fetched once
+		joinEntries.add(
+				1,
+				joinEntries.get(0));
+		final RowIdDataStore dataStore = new RowIdDataStore();
+		final Set<ByteArrayId> results = new HashSet<ByteArrayId>();
+		try (final SecondaryIndexJoinIterator<ByteArrayId> it = new SecondaryIndexJoinIterator<ByteArrayId>(
+				dataStore,
+				new ByteArrayId(
+						"adapter"),
+				new CloseableIterator.Wrapper<Pair<ByteArrayId, ByteArrayId>>(
+						joinEntries.iterator()),
+				1000)) {
+			while (it.hasNext()) {
+				Assert.assertTrue(results.add(it.next()));
+			}
+		}
+		Assert.assertEquals(
+				ENTRY_COUNT,
+				results.size());
+		// three batches, each split across the two primary indices
+		Assert.assertEquals(
+				6,
+				dataStore.rowIdsPerQuery.size());
+		for (final Integer rowIds : dataStore.rowIdsPerQuery) {
+			Assert.assertTrue(rowIds <= 500);
+		}
+	}
+
+	private static class RowIdDataStore implements
+			DataStore
+	{
+		private final List<Integer> rowIdsPerQuery = new ArrayList<Integer>();
+
+		@Override
+		public <T> IndexWriter createWriter(
+				final DataAdapter<T> adapter,
+				final PrimaryIndex... index ) {
+			throw new UnsupportedOperationException();
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> CloseableIterator<T> query(
+				final QueryOptions queryOptions,
+				final Query query ) {
+			final List<ByteArrayId> rowIds = ((RowIdQuery) query).getRowIds();
+			rowIdsPerQuery.add(rowIds.size());
+			return (CloseableIterator<T>) new CloseableIterator.Wrapper<ByteArrayId>(
+					rowIds.iterator());
+		}
+
+		@Override
+		public boolean delete(
+				final QueryOptions queryOptions,
+				final Query query ) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -0,0 +1,387 @@
+package mil.nga.giat.geowave.adapter.raster.adapter;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A compact binary encoding of a raster tile's data buffer. A small header
+ * (data type, compression, bank count, size and bank offsets) is followed by
+ * the primitive elements of each bank, optionally deflated per bank. This
+ * avoids the class descriptors and per-object overhead of Java serialization.
+ * The encoding starts with a magic number that can't begin a Java
+ * serialization stream so that it can be distinguished from tiles written in
+ * the legacy format.
+ */
+public class DataBufferCodec
+{
+	public static enum Compression {
+		NONE,
+		DEFLATE
+	}
+
+	private static final byte[] MAGIC = new byte[] {
+		(byte) 0x47,
+		(byte) 0x57
+	};
+	private static final byte VERSION = 1;
+	private static final int HEADER_LENGTH = MAGIC.length + 3 + 8;
+
+	/**
+	 *
+	 * @param binary
+	 *            an encoded data buffer
+	 * @return true if the binary uses this encoding rather than the legacy
+	 *         Java serialization
+	 */
+	public static boolean isEncoded(
+			final byte[] binary ) {
+		return (binary.length >= HEADER_LENGTH) && (binary[0] == MAGIC[0]) && (binary[1] == MAGIC[1])
+				&& (binary[2] == VERSION);
+	}
+
+	/**
+	 *
+	 * @param binary
+	 *            a data buffer binary in either format
+	 * @return the compression of an encoded data buffer, or NONE for the
+	 *         legacy format
+	 */
+	public static Compression getCompression(
+			final byte[] binary ) {
+		if (!isEncoded(binary)) {
+			return Compression.NONE;
+		}
+		return Compression.values()[binary[MAGIC.length + 2]];
+	}
+
+	public static byte[] encode(
+			final DataBuffer dataBuffer ) {
+		return encode(
+				dataBuffer,
+				Compression.NONE);
+	}
+
+	public static byte[] encode(
+			final DataBuffer dataBuffer,
+			final Compression compression ) {
+		final int numBanks = dataBuffer.getNumBanks();
+		final int[] offsets = dataBuffer.getOffsets();
+		final byte[][] banks = new byte[numBanks][];
+		int length = HEADER_LENGTH + (4 * numBanks);
+		for (int b = 0; b < numBanks; b++) {
+			banks[b] = getBankBinary(
+					dataBuffer,
+					b);
+			if (compression == Compression.DEFLATE) {
+				banks[b] = deflate(banks[b]);
+			}
+			length += 8 + banks[b].length;
+		}
+		final ByteBuffer buf = ByteBuffer.allocate(length);
+		buf.put(MAGIC);
+		buf.put(VERSION);
+		buf.put((byte) dataBuffer.getDataType());
+		buf.put((byte) compression.ordinal());
+		buf.putInt(numBanks);
+		buf.putInt(dataBuffer.getSize());
+		for (int b = 0; b < numBanks; b++) {
+			buf.putInt(offsets[b]);
+		}
+		for (int b = 0; b < numBanks; b++) {
+			buf.putInt(getBankLength(
+					dataBuffer,
+					b));
+			buf.putInt(banks[b].length);
+			buf.put(banks[b]);
+		}
+		return buf.array();
+	}
+
+	public static DataBuffer decode(
+			final byte[] binary ) {
+		final ByteBuffer buf = ByteBuffer.wrap(binary);
+		buf.position(MAGIC.length + 1);
+		final int dataType = buf.get();
+		final Compression compression = Compression.values()[buf.get()];
+		final int numBanks = buf.getInt();
+		final int size = buf.getInt();
+		final int[] offsets = new int[numBanks];
+		for (int b = 0; b < numBanks; b++) {
+			offsets[b] = buf.getInt();
+		}
+		final ByteBuffer[] banks = new ByteBuffer[numBanks];
+		final int[] bankLengths = new int[numBanks];
+		for (int b = 0; b < numBanks; b++) {
+			bankLengths[b] = buf.getInt();
+			final int encodedLength = buf.getInt();
+			if (compression == Compression.DEFLATE) {
+				banks[b] = ByteBuffer.wrap(inflate(
+						binary,
+						buf.position(),
+						encodedLength,
+						bankLengths[b] * (DataBuffer.getDataTypeSize(dataType) / 8)));
+			}
+			else {
+				banks[b] = ByteBuffer.wrap(
+						binary,
+						buf.position(),
+						encodedLength).slice();
+			}
+			buf.position(buf.position() + encodedLength);
+		}
+		switch (dataType) {
+			case DataBuffer.TYPE_BYTE: {
+				final byte[][] data = new byte[numBanks][];
+				for (int b = 0; b < numBanks; b++) {
+					data[b] = new byte[bankLengths[b]];
+					banks[b].get(data[b]);
+				}
+				return new DataBufferByte(
+						data,
+						size,
+						offsets);
+			}
+			case DataBuffer.TYPE_USHORT: {
+				final short[][] data = new short[numBanks][];
+				for (int b = 0; b < numBanks; b++) {
+					data[b] = new short[bankLengths[b]];
+					banks[b].asShortBuffer().get(
+							data[b]);
+				}
+				return new DataBufferUShort(
+						data,
+						size,
+						offsets);
+			}
+			case DataBuffer.TYPE_SHORT: {
+				final short[][] data = new short[numBanks][];
+				for (int b = 0; b < numBanks; b++) {
+					data[b] = new short[bankLengths[b]];
+					banks[b].asShortBuffer().get(
+							data[b]);
+				}
+				return new DataBufferShort(
+						data,
+						size,
+						offsets);
+			}
+			case DataBuffer.TYPE_INT: {
+				final int[][] data = new int[numBanks][];
+				for (int b = 0; b < numBanks; b++) {
+					data[b] = new int[bankLengths[b]];
+					banks[b].asIntBuffer().get(
+							data[b]);
+				}
+				return new DataBufferInt(
+						data,
+						size,
+						offsets);
+			}
+			case DataBuffer.TYPE_FLOAT: {
+				final float[][] data = new float[numBanks][];
+				for (int b = 0; b < numBanks; b++) {
+					data[b] = new float[bankLengths[b]];
+					banks[b].asFloatBuffer().get(
+							data[b]);
+				}
+				return new DataBufferFloat(
+						data,
+						size,
+						offsets);
+			}
+			case DataBuffer.TYPE_DOUBLE: {
+				final double[][] data = new double[numBanks][];
+				for (int b = 0; b < numBanks; b++) {
+					data[b] = new double[bankLengths[b]];
+					banks[b].asDoubleBuffer().get(
+							data[b]);
+				}
+				return new DataBufferDouble(
+						data,
+						size,
+						offsets);
+			}
+			default:
+				throw new IllegalArgumentException(
+						"Unsupported data buffer type " + dataType);
+		}
+	}
+
+	/**
+	 *
+	 * @return the number of elements in the bank, the bank's backing array can
+	 *         be longer than the size of the buffer plus its offset
+	 */
+	private static int getBankLength(
+			final DataBuffer dataBuffer,
+			final int bank ) {
+		if (dataBuffer instanceof DataBufferByte) {
+			return ((DataBufferByte) dataBuffer).getData(bank).length;
+		}
+		else if (dataBuffer instanceof DataBufferUShort) {
+			return ((DataBufferUShort) dataBuffer).getData(bank).length;
+		}
+		else if (dataBuffer instanceof DataBufferShort) {
+			return ((DataBufferShort) dataBuffer).getData(bank).length;
+		}
+		else if (dataBuffer instanceof DataBufferInt) {
+			return ((DataBufferInt) dataBuffer).getData(bank).length;
+		}
+		else if (dataBuffer instanceof DataBufferFloat) {
+			return ((DataBufferFloat) dataBuffer).getData(bank).length;
+		}
+		else if (dataBuffer instanceof DataBufferDouble) {
+			return ((DataBufferDouble) dataBuffer).getData(bank).length;
+		}
+		return dataBuffer.getSize() + dataBuffer.getOffsets()[bank];
+	}
+
+	private static byte[] getBankBinary(
+			final DataBuffer dataBuffer,
+			final int bank ) {
+		final int bankLength = getBankLength(
+				dataBuffer,
+				bank);
+		final int dataType = dataBuffer.getDataType();
+		final ByteBuffer buf = ByteBuffer.allocate(bankLength * (DataBuffer.getDataTypeSize(dataType) / 8));
+		if (dataBuffer instanceof DataBufferByte) {
+			buf.put(((DataBufferByte) dataBuffer).getData(bank));
+		}
+		else if (dataBuffer instanceof DataBufferUShort) {
+			buf.asShortBuffer().put(
+					((DataBufferUShort) dataBuffer).getData(bank));
+		}
+		else if (dataBuffer instanceof DataBufferShort) {
+			buf.asShortBuffer().put(
+					((DataBufferShort) dataBuffer).getData(bank));
+		}
+		else if (dataBuffer instanceof DataBufferInt) {
+			buf.asIntBuffer().put(
+					((DataBufferInt) dataBuffer).getData(bank));
+		}
+		else if (dataBuffer instanceof DataBufferFloat) {
+			buf.asFloatBuffer().put(
+					((DataBufferFloat) dataBuffer).getData(bank));
+		}
+		else if (dataBuffer instanceof DataBufferDouble) {
+			buf.asDoubleBuffer().put(
+					((DataBufferDouble) dataBuffer).getData(bank));
+		}
+		else {
+			// other implementations (such as JAI's) are read element by
+			// element; the offset is already applied by getElem so each
+			// element is read relative to the start of the bank
+			final int offset = dataBuffer.getOffsets()[bank];
+			for (int i = -offset; i < (bankLength - offset); i++) {
+				switch (dataType) {
+					case DataBuffer.TYPE_BYTE:
+						buf.put((byte) dataBuffer.getElem(
+								bank,
+								i));
+						break;
+					case DataBuffer.TYPE_USHORT:
+					case DataBuffer.TYPE_SHORT:
+						buf.putShort((short) dataBuffer.getElem(
+								bank,
+								i));
+						break;
+					case DataBuffer.TYPE_INT:
+						buf.putInt(dataBuffer.getElem(
+								bank,
+								i));
+						break;
+					case DataBuffer.TYPE_FLOAT:
+						buf.putFloat(dataBuffer.getElemFloat(
+								bank,
+								i));
+						break;
+					case DataBuffer.TYPE_DOUBLE:
+						buf.putDouble(dataBuffer.getElemDouble(
+								bank,
+								i));
+						break;
+					default:
+						throw new IllegalArgumentException(
+								"Unsupported data buffer type " + dataType);
+				}
+			}
+		}
+		return buf.array();
+	}
+
+	private static byte[] deflate(
+			final byte[] bytes ) {
+		final Deflater deflater = new Deflater(
+				Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			final ByteArrayOutputStream out = new ByteArrayOutputStream(
+					Math.max(
+							64,
+							bytes.length / 4));
+			final byte[] chunk = new byte[8192];
+			while (!deflater.finished()) {
+				final int length = deflater.deflate(chunk);
+				out.write(
+						chunk,
+						0,
+						length);
+			}
+			return out.toByteArray();
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] inflate(
+			final byte[] bytes,
+			final int offset,
+			final int length,
+			final int inflatedLength ) {
+		final Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(
+					bytes,
+					offset,
+					length);
+			final byte[] inflated = new byte[inflatedLength];
+			int position = 0;
+			while ((position < inflatedLength) && !inflater.finished()) {
+				final int read = inflater.inflate(
+						inflated,
+						position,
+						inflatedLength - position);
+				if ((read == 0) && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				position += read;
+			}
+			if (position != inflatedLength) {
+				throw new IllegalArgumentException(
+						"Data buffer bank is truncated, expected " + inflatedLength + " bytes but found "
+								+ position);
+			}
+			return inflated;
+		}
+		catch (final DataFormatException e) {
+			throw new IllegalArgumentException(
+					"Unable to inflate data buffer bank",
+					e);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+}
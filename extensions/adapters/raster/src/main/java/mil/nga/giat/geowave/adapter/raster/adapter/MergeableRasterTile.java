@@ -2,6 +2,7 @@ package mil.nga.giat.geowave.adapter.raster.adapter;
 
 import java.awt.image.DataBuffer;
 
+import mil.nga.giat.geowave.adapter.raster.adapter.DataBufferCodec.Compression;
 import mil.nga.giat.geowave.adapter.raster.adapter.merge.RootMergeStrategy;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.Mergeable;
@@ -18,9 +19,24 @@ public class MergeableRasterTile<T extends Persistable> extends
 			final T metadata,
 			final RootMergeStrategy<T> mergeStrategy,
 			final ByteArrayId dataAdapterId ) {
+		this(
+				dataBuffer,
+				metadata,
+				mergeStrategy,
+				dataAdapterId,
+				Compression.NONE);
+	}
+
+	public MergeableRasterTile(
+			final DataBuffer dataBuffer,
+			final T metadata,
+			final RootMergeStrategy<T> mergeStrategy,
+			final ByteArrayId dataAdapterId,
+			final Compression compression ) {
 		super(
 				dataBuffer,
-				metadata);
+				metadata,
+				compression);
 		this.mergeStrategy = mergeStrategy;
 		this.dataAdapterId = dataAdapterId;
 	}
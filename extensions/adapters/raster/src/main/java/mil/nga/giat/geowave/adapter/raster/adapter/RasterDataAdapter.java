@@ -80,6 +80,7 @@ import com.vividsolutions.jts.geom.PrecisionModel;
 import mil.nga.giat.geowave.adapter.raster.FitToIndexGridCoverage;
 import mil.nga.giat.geowave.adapter.raster.RasterUtils;
 import mil.nga.giat.geowave.adapter.raster.Resolution;
+import mil.nga.giat.geowave.adapter.raster.adapter.DataBufferCodec.Compression;
 import mil.nga.giat.geowave.adapter.raster.adapter.merge.RasterTileMergeStrategy;
 import mil.nga.giat.geowave.adapter.raster.adapter.merge.RasterTileRowTransform;
 import mil.nga.giat.geowave.adapter.raster.adapter.merge.RootMergeStrategy;
@@ -173,6 +174,7 @@ public class RasterDataAdapter implements
 	private RootMergeStrategy<?> mergeStrategy;
 	private boolean equalizeHistogram;
 	private Interpolation interpolation;
+	private Compression compression = Compression.NONE;
 
 	protected RasterDataAdapter() {}
 
@@ -339,6 +341,7 @@ public class RasterDataAdapter implements
 				adapter.buildPyramid,
 				adapter.mergeStrategy == null ? null : adapter.mergeStrategy.getChildMergeStrategy(adapter
 						.getAdapterId()));
+		compression = adapter.compression;
 	}
 
 	public RasterDataAdapter(
@@ -361,6 +364,7 @@ public class RasterDataAdapter implements
 				interpolationToByte(adapter.interpolation),
 				adapter.buildPyramid,
 				mergeStrategy);
+		compression = adapter.compression;
 	}
 
 	public RasterDataAdapter(
@@ -1183,7 +1187,8 @@ public class RasterDataAdapter implements
 						getProperties(entry),
 						this),
 				mergeStrategy,
-				getAdapterId());
+				getAdapterId(),
+				compression);
 	}
 
 	public Raster getRaster(
@@ -1339,7 +1344,7 @@ public class RasterDataAdapter implements
 		final ByteBuffer buf = ByteBuffer.allocate(coverageNameBytes.length + sampleModelBinary.length
 				+ colorModelBinary.length + metadataBinaryLength + histogramConfigBinary.length + noDataBinary.length
 				+ minsBinary.length + maxesBinary.length + namesBinary.length + backgroundBinary.length
-				+ mergeStrategyBinary.length + 47);
+				+ mergeStrategyBinary.length + 48);
 		buf.putInt(tileSize);
 		buf.putInt(coverageNameBytes.length);
 		buf.put(coverageNameBytes);
@@ -1369,6 +1374,7 @@ public class RasterDataAdapter implements
 		buf.put(buildPyramid ? (byte) 1 : (byte) 0);
 		buf.put(equalizeHistogram ? (byte) 1 : (byte) 0);
 		buf.put(interpolationToByte(interpolation));
+		buf.put((byte) compression.ordinal());
 		return buf.array();
 	}
 
@@ -1608,6 +1614,8 @@ public class RasterDataAdapter implements
 		buildPyramid = (buf.get() != 0);
 		equalizeHistogram = (buf.get() != 0);
 		interpolation = Interpolation.getInstance(buf.get());
+		// adapters persisted before tile compression was configurable end here
+		compression = buf.hasRemaining() ? Compression.values()[buf.get()] : Compression.NONE;
 		init();
 	}
 
@@ -1883,7 +1891,8 @@ public class RasterDataAdapter implements
 				return new GridCoverageWritable(
 						new RasterTile(
 								dataBuffer,
-								metadata),
+								metadata,
+								compression),
 						env.getMinimum(0),
 						env.getMaximum(0),
 						env.getMinimum(1),
@@ -1923,6 +1932,23 @@ public class RasterDataAdapter implements
 		return interpolation;
 	}
 
+	public Compression getCompression() {
+		return compression;
+	}
+
+	/**
+	 * Set the compression of the data buffer of each tile written for this
+	 * adapter. Tiles are decoded according to their own header, so changing it
+	 * does not affect tiles that have already been written.
+	 *
+	 * @param compression
+	 *            the tile compression
+	 */
+	public void setCompression(
+			final Compression compression ) {
+		this.compression = compression;
+	}
+
 	@Override
 	public Map<String, String> getOptions(
 			final Map<String, String> existingOptions ) {
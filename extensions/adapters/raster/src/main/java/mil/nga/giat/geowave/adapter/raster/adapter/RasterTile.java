@@ -11,6 +11,7 @@ import java.nio.ByteBuffer;
 import javax.media.jai.remote.SerializableState;
 import javax.media.jai.remote.SerializerFactory;
 
+import mil.nga.giat.geowave.adapter.raster.adapter.DataBufferCodec.Compression;
 import mil.nga.giat.geowave.core.index.Mergeable;
 import mil.nga.giat.geowave.core.index.Persistable;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
@@ -23,6 +24,7 @@ public class RasterTile<T extends Persistable> implements
 	private final static Logger LOGGER = Logger.getLogger(RasterTile.class);
 	private DataBuffer dataBuffer;
 	private T metadata;
+	private Compression compression = Compression.NONE;
 
 	protected RasterTile() {
 		super();
@@ -31,8 +33,19 @@ public class RasterTile<T extends Persistable> implements
 	public RasterTile(
 			final DataBuffer dataBuffer,
 			final T metadata ) {
+		this(
+				dataBuffer,
+				metadata,
+				Compression.NONE);
+	}
+
+	public RasterTile(
+			final DataBuffer dataBuffer,
+			final T metadata,
+			final Compression compression ) {
 		this.dataBuffer = dataBuffer;
 		this.metadata = metadata;
+		this.compression = compression;
 	}
 
 	public DataBuffer getDataBuffer() {
@@ -43,8 +56,36 @@ public class RasterTile<T extends Persistable> implements
 		return metadata;
 	}
 
+	public Compression getCompression() {
+		return compression;
+	}
+
 	protected static byte[] getDataBufferBinary(
 			final DataBuffer dataBuffer ) {
+		return DataBufferCodec.encode(dataBuffer);
+	}
+
+	protected static byte[] getDataBufferBinary(
+			final DataBuffer dataBuffer,
+			final Compression compression ) {
+		return DataBufferCodec.encode(
+				dataBuffer,
+				compression);
+	}
+
+	protected static DataBuffer getDataBuffer(
+			final byte[] binary )
+			throws IOException,
+			ClassNotFoundException {
+		if (DataBufferCodec.isEncoded(binary)) {
+			return DataBufferCodec.decode(binary);
+		}
+		// tiles written before the compact encoding used Java serialization
+		return getLegacyDataBuffer(binary);
+	}
+
+	protected static byte[] getLegacyDataBufferBinary(
+			final DataBuffer dataBuffer ) {
 		final SerializableState serializableDataBuffer = SerializerFactory.getState(dataBuffer);
 		try {
 			final ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -61,7 +102,7 @@ public class RasterTile<T extends Persistable> implements
 		return new byte[] {};
 	}
 
-	protected static DataBuffer getDataBuffer(
+	protected static DataBuffer getLegacyDataBuffer(
 			final byte[] binary )
 			throws IOException,
 			ClassNotFoundException {
@@ -78,7 +119,9 @@ public class RasterTile<T extends Persistable> implements
 
 	@Override
 	public byte[] toBinary() {
-		final byte[] dataBufferBinary = getDataBufferBinary(dataBuffer);
+		final byte[] dataBufferBinary = getDataBufferBinary(
+				dataBuffer,
+				compression);
 		byte[] metadataBytes;
 		if (metadata != null) {
 			metadataBytes = PersistenceUtils.toBinary(metadata);
@@ -109,6 +152,8 @@ public class RasterTile<T extends Persistable> implements
 			final byte[] dataBufferBytes = new byte[bytes.length - metadataLength - 4];
 			buf.get(dataBufferBytes);
 			dataBuffer = getDataBuffer(dataBufferBytes);
+			// a tile that is merged and written again keeps its compression
+			compression = DataBufferCodec.getCompression(dataBufferBytes);
 		}
 		catch (final Exception e) {
 			LOGGER.warn(
@@ -0,0 +1,179 @@
+package mil.nga.giat.geowave.adapter.raster.adapter;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.adapter.raster.adapter.DataBufferCodec.Compression;
+import mil.nga.giat.geowave.core.index.Persistable;
+
+public class DataBufferCodecTest
+{
+	private static final int TILE_SIZE = 256;
+	private static final int NUM_BANKS = 3;
+
+	private static DataBuffer createDataBuffer(
+			final int dataType,
+			final Random random ) {
+		final int size = TILE_SIZE * TILE_SIZE;
+		final int[] offsets = new int[NUM_BANKS];
+		final DataBuffer dataBuffer;
+		switch (dataType) {
+			case DataBuffer.TYPE_BYTE:
+				dataBuffer = new DataBufferByte(
+						size,
+						NUM_BANKS);
+				break;
+			case DataBuffer.TYPE_USHORT:
+				dataBuffer = new DataBufferUShort(
+						size,
+						NUM_BANKS);
+				break;
+			case DataBuffer.TYPE_SHORT:
+				dataBuffer = new DataBufferShort(
+						size,
+						NUM_BANKS);
+				break;
+			case DataBuffer.TYPE_INT:
+				dataBuffer = new DataBufferInt(
+						size,
+						NUM_BANKS);
+				break;
+			case DataBuffer.TYPE_FLOAT:
+				// a non-zero offset and a longer backing array than needed
+				offsets[1] = 7;
+				dataBuffer = new DataBufferFloat(
+						new float[][] {
+							new float[size],
+							new float[size + 10],
+							new float[size]
+						},
+						size,
+						offsets);
+				break;
+			default:
+				dataBuffer = new DataBufferDouble(
+						size,
+						NUM_BANKS);
+		}
+		for (int b = 0; b < NUM_BANKS; b++) {
+			for (int i = 0; i < size; i++) {
+				// mostly smooth values, like imagery, with some noise
+				dataBuffer.setElemDouble(
+						b,
+						i,
+						((i / TILE_SIZE) + (i % TILE_SIZE) + random.nextInt(4)) % 250);
+			}
+		}
+		return dataBuffer;
+	}
+
+	private static void assertDataBufferEquals(
+			final DataBuffer expected,
+			final DataBuffer actual ) {
+		Assert.assertEquals(
+				expected.getDataType(),
+				actual.getDataType());
+		Assert.assertEquals(
+				expected.getNumBanks(),
+				actual.getNumBanks());
+		Assert.assertEquals(
+				expected.getSize(),
+				actual.getSize());
+		Assert.assertTrue(Arrays.equals(
+				expected.getOffsets(),
+				actual.getOffsets()));
+		for (int b = 0; b < expected.getNumBanks(); b++) {
+			for (int i = 0; i < expected.getSize(); i++) {
+				Assert.assertEquals(
+						expected.getElemDouble(
+								b,
+								i),
+						actual.getElemDouble(
+								b,
+								i),
+						0);
+			}
+		}
+	}
+
+	@Test
+	public void testRoundTrip() {
+		final Random random = new Random(
+				3298L);
+		for (final int dataType : new int[] {
+			DataBuffer.TYPE_BYTE,
+			DataBuffer.TYPE_USHORT,
+			DataBuffer.TYPE_SHORT,
+			DataBuffer.TYPE_INT,
+			DataBuffer.TYPE_FLOAT,
+			DataBuffer.TYPE_DOUBLE
+		}) {
+			final DataBuffer dataBuffer = createDataBuffer(
+					dataType,
+					random);
+			for (final Compression compression : Compression.values()) {
+				final byte[] binary = DataBufferCodec.encode(
+						dataBuffer,
+						compression);
+				Assert.assertTrue(DataBufferCodec.isEncoded(binary));
+				assertDataBufferEquals(
+						dataBuffer,
+						DataBufferCodec.decode(binary));
+			}
+		}
+	}
+
+	@Test
+	public void testReadsLegacyFormat()
+			throws Exception {
+		final DataBuffer dataBuffer = createDataBuffer(
+				DataBuffer.TYPE_FLOAT,
+				new Random(
+						3298L));
+		final byte[] legacyBinary = RasterTile.getLegacyDataBufferBinary(dataBuffer);
+		Assert.assertFalse(DataBufferCodec.isEncoded(legacyBinary));
+		assertDataBufferEquals(
+				dataBuffer,
+				RasterTile.getDataBuffer(legacyBinary));
+		assertDataBufferEquals(
+				dataBuffer,
+				RasterTile.getDataBuffer(RasterTile.getDataBufferBinary(dataBuffer)));
+	}
+
+	@Test
+	public void testTileKeepsCompression() {
+		final DataBuffer dataBuffer = createDataBuffer(
+				DataBuffer.TYPE_FLOAT,
+				new Random(
+						3298L));
+		final byte[] binary = new RasterTile<Persistable>(
+				dataBuffer,
+				null,
+				Compression.DEFLATE).toBinary();
+		Assert.assertTrue(binary.length < new RasterTile<Persistable>(
+				dataBuffer,
+				null).toBinary().length);
+		final RasterTile<Persistable> tile = new RasterTile<Persistable>();
+		tile.fromBinary(binary);
+		assertDataBufferEquals(
+				dataBuffer,
+				tile.getDataBuffer());
+		// a tile that is read, merged and written again stays compressed
+		Assert.assertEquals(
+				Compression.DEFLATE,
+				tile.getCompression());
+		Assert.assertArrayEquals(
+				binary,
+				tile.toBinary());
+	}
+}
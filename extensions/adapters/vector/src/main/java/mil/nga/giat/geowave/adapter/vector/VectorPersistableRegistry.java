@@ -0,0 +1,35 @@
+package mil.nga.giat.geowave.adapter.vector;
+
+import mil.nga.giat.geowave.adapter.vector.query.cql.CQLQuery;
+import mil.nga.giat.geowave.adapter.vector.query.cql.CQLQueryFilter;
+import mil.nga.giat.geowave.adapter.vector.render.DistributedRenderOptions;
+import mil.nga.giat.geowave.core.index.PersistableRegistrySpi;
+
+/**
+ * Registers the persistable classes of the vector adapter module, using IDs
+ * 500 through 599.
+ */
+public class VectorPersistableRegistry implements
+		PersistableRegistrySpi
+{
+	@Override
+	public PersistableIdAndClass[] getSupportedPersistables() {
+		return new PersistableIdAndClass[] {
+			new PersistableIdAndClass(
+					(short) 500,
+					FeatureDataAdapter.class),
+			new PersistableIdAndClass(
+					(short) 501,
+					WholeFeatureDataAdapter.class),
+			new PersistableIdAndClass(
+					(short) 502,
+					CQLQuery.class),
+			new PersistableIdAndClass(
+					(short) 503,
+					CQLQueryFilter.class),
+			new PersistableIdAndClass(
+					(short) 504,
+					DistributedRenderOptions.class)
+		};
+	}
+}
@@ -0,0 +1,657 @@
+package mil.nga.giat.geowave.adapter.vector.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.log4j.Logger;
+import org.opengis.feature.simple.SimpleFeature;
+
+import mil.nga.giat.geowave.adapter.vector.query.cql.PropertyConstraintSet;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureCountMinSketchStatistics;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureHyperLogLogStatistics;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureNumericHistogramStatistics;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureNumericRangeStatistics;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureTimeRangeStatistics;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LatitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LongitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.TimeDefinition;
+import mil.nga.giat.geowave.core.geotime.store.statistics.BoundingBoxDataStatistics;
+import mil.nga.giat.geowave.core.geotime.store.statistics.TimeRangeDataStatistics;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.IndexUtils;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.adapter.statistics.CountDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.NumericRangeDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
+import mil.nga.giat.geowave.core.store.index.FieldIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.FilterableConstraints;
+import mil.nga.giat.geowave.core.store.index.Index;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexType;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericFieldIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericQueryConstraint;
+import mil.nga.giat.geowave.core.store.index.temporal.TemporalIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.temporal.TemporalQueryConstraint;
+import mil.nga.giat.geowave.core.store.index.text.TextIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.text.TextQueryConstraint;
+import mil.nga.giat.geowave.core.store.query.BasicQuery;
+import mil.nga.giat.geowave.core.store.query.ConstraintsQuery;
+import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
+
+/**
+ * Chooses the primary index that is estimated to scan the smallest fraction of
+ * its rows for the query, unless reading the entries of the 'JOIN' secondary
+ * indices that match the attribute constraints of the query and joining them
+ * to their primary rows is estimated to cost less.
+ *
+ * The fraction a primary index scans is taken from the row range histogram of
+ * the index when it is available, otherwise from the fraction of the bounding
+ * box and time range statistics that the union of the query constraints
+ * covers on each dimension of the index. Indices with the same estimate are
+ * ordered by the number of ranges they scan and then by the number of
+ * dimensions they constrain.
+ *
+ * The fraction of features matching an attribute constraint is taken from the
+ * numeric histogram of a numeric or temporal attribute, falling back to its
+ * range statistics, and from the count-min sketch of a text attribute,
+ * falling back to one over its HyperLogLog cardinality. The entries of
+ * several secondary indices are intersected on their primary rows before they
+ * are joined, adding indices from the most selective while that lowers the
+ * cost. Attributes are assumed to be independent.
+ *
+ * The estimates for every candidate are kept in the plan when debug logging
+ * is enabled, in rows when the feature count is known.
+ */
+public class ChooseCostBasedIndexQueryStrategy implements
+		SecondaryIndexQueryStrategySPI
+{
+	public static final String NAME = "Cost Based";
+	private final static Logger LOGGER = Logger.getLogger(ChooseCostBasedIndexQueryStrategy.class);
+	// the cost of fetching a primary row by its ID, relative to reading a row
+	// within a scanned range
+	static final double JOIN_LOOKUP_COST = 4;
+
+	@Override
+	public String toString() {
+		return NAME;
+	}
+
+	@Override
+	public CloseableIterator<Index<?, ?>> getIndices(
+			final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats,
+			final BasicQuery query,
+			final PrimaryIndex[] indices ) {
+		final QueryPlan plan = getQueryPlan(
+				stats,
+				query,
+				new PropertyConstraintSet(),
+				indices,
+				Collections.<SecondaryIndex<SimpleFeature>> emptyList());
+		if (plan.getPrimaryIndex() == null) {
+			return new CloseableIterator.Empty<Index<?, ?>>();
+		}
+		if (plan.getExplanation() != null) {
+			LOGGER.debug(plan.getExplanation());
+		}
+		return new CloseableIterator.Wrapper<Index<?, ?>>(
+				Collections.<Index<?, ?>> singletonList(
+						plan.getPrimaryIndex()).iterator());
+	}
+
+	@Override
+	public QueryPlan getQueryPlan(
+			final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats,
+			final BasicQuery query,
+			final PropertyConstraintSet attributeConstraints,
+			final PrimaryIndex[] indices,
+			final List<SecondaryIndex<SimpleFeature>> secondaryIndices ) {
+		final StatisticsSummary summary = new StatisticsSummary(
+				stats);
+		final StringBuilder plan = LOGGER.isDebugEnabled() ? new StringBuilder(
+				summary.totalCount < 0 ? "Query plan (estimated fraction of rows, ranges):"
+						: "Query plan (estimated rows, ranges):") : null;
+		PrimaryIndex bestIdx = null;
+		double bestSelectivity = Double.MAX_VALUE;
+		int bestRangeCount = Integer.MAX_VALUE;
+		int bestDimensionCount = -1;
+		for (final PrimaryIndex index : indices) {
+			final NumericDimensionDefinition[] dimensions = index.getIndexStrategy().getOrderedDimensionDefinitions();
+			if (dimensions.length == 0) {
+				continue;
+			}
+			final List<MultiDimensionalNumericData> constraints = query.getIndexConstraints(index.getIndexStrategy());
+			final double selectivity;
+			final int rangeCount;
+			if (IndexUtils.isFullTableScan(constraints)) {
+				selectivity = 1;
+				rangeCount = 1;
+			}
+			else {
+				final List<ByteArrayRange> ranges = DataStoreUtils.constraintsToByteArrayRanges(
+						constraints,
+						index.getIndexStrategy(),
+						ConstraintsQuery.MAX_RANGE_DECOMPOSITION);
+				rangeCount = ranges.size();
+				final DataStatistics<SimpleFeature> rangeStats = stats.get(RowRangeHistogramStatistics.composeId(index
+						.getId()));
+				if ((rangeStats instanceof RowRangeHistogramStatistics)
+						&& (((RowRangeHistogramStatistics<?>) rangeStats).totalSampleSize() > 0)) {
+					// the histogram counts the rows of its own index, so only
+					// the fraction is comparable with the other estimates
+					selectivity = Math.min(
+							1,
+							(double) DataStoreUtils.cardinality(
+									index,
+									stats,
+									ranges) / ((RowRangeHistogramStatistics<?>) rangeStats).totalSampleSize());
+				}
+				else {
+					selectivity = summary.getSelectivity(
+							dimensions,
+							constraints);
+				}
+			}
+			if (plan != null) {
+				plan.append(
+						"\n  ").append(
+						index.getId().getString()).append(
+						": ").append(
+						summary.format(selectivity)).append(
+						", ").append(
+						rangeCount);
+			}
+			if ((selectivity < bestSelectivity)
+					|| ((selectivity == bestSelectivity) && ((rangeCount < bestRangeCount) || ((rangeCount == bestRangeCount) && (dimensions.length > bestDimensionCount))))) {
+				bestIdx = index;
+				bestSelectivity = selectivity;
+				bestRangeCount = rangeCount;
+				bestDimensionCount = dimensions.length;
+			}
+		}
+
+		// the features matching the query, whichever indices are read
+		double resultSelectivity = bestIdx == null ? 1 : bestSelectivity;
+		for (final FilterableConstraints constraint : attributeConstraints.getConstraints()) {
+			final double selectivity = summary.getSelectivity(constraint);
+			if (!Double.isNaN(selectivity)) {
+				resultSelectivity *= selectivity;
+			}
+		}
+
+		final List<SecondaryIndexCandidate> candidates = new ArrayList<SecondaryIndexCandidate>();
+		for (final SecondaryIndex<SimpleFeature> index : secondaryIndices) {
+			final FilterableConstraints constraint = attributeConstraints.getConstraintsById(index.getFieldId());
+			if (!SecondaryIndexType.JOIN.equals(index.getSecondaryIndexType()) || (constraint == null)
+					|| !isSupported(
+							index,
+							constraint)) {
+				continue;
+			}
+			final double selectivity = summary.getSelectivity(constraint);
+			if (plan != null) {
+				plan.append(
+						"\n  ").append(
+						index.getId().getString()).append(
+						" on ").append(
+						index.getFieldId().getString()).append(
+						": ").append(
+						Double.isNaN(selectivity) ? "no statistics" : summary.format(selectivity));
+			}
+			// an index without statistics could match every feature
+			if (!Double.isNaN(selectivity)) {
+				candidates.add(new SecondaryIndexCandidate(
+						index,
+						selectivity));
+			}
+		}
+		Collections.sort(candidates);
+
+		// every entry of the intersected indices is read and the rows they
+		// share are joined
+		double bestCost = bestIdx == null ? Double.MAX_VALUE : bestSelectivity;
+		int bestCandidateCount = 0;
+		double entries = 0;
+		double joined = 1;
+		for (int i = 0; i < candidates.size(); i++) {
+			entries += candidates.get(i).selectivity;
+			joined *= candidates.get(i).selectivity;
+			final double cost = entries + (JOIN_LOOKUP_COST * joined);
+			if (cost < bestCost) {
+				bestCost = cost;
+				bestCandidateCount = i + 1;
+			}
+		}
+
+		final long estimatedRows = summary.totalCount < 0 ? -1 : (long) Math.ceil(summary.totalCount
+				* resultSelectivity);
+		if (bestCandidateCount > 0) {
+			final List<SecondaryIndex<SimpleFeature>> chosen = new ArrayList<SecondaryIndex<SimpleFeature>>();
+			for (int i = 0; i < bestCandidateCount; i++) {
+				chosen.add(candidates.get(i).index);
+			}
+			if (plan != null) {
+				plan.append("\n  chosen: ");
+				for (int i = 0; i < chosen.size(); i++) {
+					plan.append(
+							i == 0 ? "" : " intersected with ").append(
+							chosen.get(
+									i).getId().getString()).append(
+							" on ").append(
+							chosen.get(
+									i).getFieldId().getString());
+				}
+			}
+			return new QueryPlan(
+					chosen,
+					estimatedRows,
+					plan == null ? null : plan.append(
+							"\n  estimated rows: ").append(
+							summary.format(resultSelectivity)).toString());
+		}
+		if (plan != null) {
+			plan.append(
+					"\n  chosen: ").append(
+					bestIdx == null ? "none" : bestIdx.getId().getString()).append(
+					"\n  estimated rows: ").append(
+					summary.format(resultSelectivity));
+		}
+		return new QueryPlan(
+				bestIdx,
+				estimatedRows,
+				plan == null ? null : plan.toString());
+	}
+
+	private static boolean isSupported(
+			final SecondaryIndex<?> index,
+			final FilterableConstraints constraint ) {
+		final FieldIndexStrategy<?, ?> indexStrategy = index.getIndexStrategy();
+		return ((indexStrategy instanceof NumericFieldIndexStrategy) && (constraint instanceof NumericQueryConstraint))
+				|| ((indexStrategy instanceof TemporalIndexStrategy) && (constraint instanceof TemporalQueryConstraint))
+				|| ((indexStrategy instanceof TextIndexStrategy) && (constraint instanceof TextQueryConstraint));
+	}
+
+	private static class SecondaryIndexCandidate implements
+			Comparable<SecondaryIndexCandidate>
+	{
+		private final SecondaryIndex<SimpleFeature> index;
+		private final double selectivity;
+
+		private SecondaryIndexCandidate(
+				final SecondaryIndex<SimpleFeature> index,
+				final double selectivity ) {
+			this.index = index;
+			this.selectivity = selectivity;
+		}
+
+		@Override
+		public int compareTo(
+				final SecondaryIndexCandidate other ) {
+			return Double.compare(
+					selectivity,
+					other.selectivity);
+		}
+	}
+
+	/**
+	 * The statistics used to estimate the fraction of rows an index scans and
+	 * the fraction of features an attribute constraint matches
+	 */
+	static class StatisticsSummary
+	{
+		// above this many constraints the union is bounded by their envelope
+		private static final int MAX_UNION_CONSTRAINTS = 16;
+
+		private final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats;
+		private final long totalCount;
+		private double minX = Double.NaN;
+		private double maxX = Double.NaN;
+		private double minY = Double.NaN;
+		private double maxY = Double.NaN;
+		private double minTime = Double.NaN;
+		private double maxTime = Double.NaN;
+
+		StatisticsSummary(
+				final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats ) {
+			this.stats = stats;
+			final DataStatistics<SimpleFeature> countStats = stats.get(CountDataStatistics.STATS_ID);
+			if ((countStats instanceof CountDataStatistics) && ((CountDataStatistics<?>) countStats).isSet()) {
+				totalCount = ((CountDataStatistics<?>) countStats).getCount();
+			}
+			else {
+				totalCount = -1;
+			}
+			for (final DataStatistics<SimpleFeature> stat : stats.values()) {
+				if ((stat instanceof BoundingBoxDataStatistics) && ((BoundingBoxDataStatistics<?>) stat).isSet()) {
+					final BoundingBoxDataStatistics<?> bbox = (BoundingBoxDataStatistics<?>) stat;
+					minX = min(
+							minX,
+							bbox.getMinX());
+					maxX = max(
+							maxX,
+							bbox.getMaxX());
+					minY = min(
+							minY,
+							bbox.getMinY());
+					maxY = max(
+							maxY,
+							bbox.getMaxY());
+				}
+				else if ((stat instanceof TimeRangeDataStatistics) && ((TimeRangeDataStatistics<?>) stat).isSet()) {
+					final TimeRangeDataStatistics<?> timeRange = (TimeRangeDataStatistics<?>) stat;
+					minTime = min(
+							minTime,
+							timeRange.getMin());
+					maxTime = max(
+							maxTime,
+							timeRange.getMax());
+				}
+			}
+		}
+
+		/**
+		 * @return the estimated number of rows when the feature count is
+		 *         known, otherwise the fraction
+		 */
+		String format(
+				final double selectivity ) {
+			return totalCount < 0 ? String.valueOf(selectivity) : String.valueOf((long) Math.ceil(totalCount
+					* selectivity));
+		}
+
+		/**
+		 * @return the estimated fraction of features matching the attribute
+		 *         constraint, or NaN when there are no statistics for it
+		 */
+		double getSelectivity(
+				final FilterableConstraints constraint ) {
+			if (constraint instanceof NumericQueryConstraint) {
+				final NumericQueryConstraint numeric = (NumericQueryConstraint) constraint;
+				return getSelectivity(
+						constraint.getFieldId(),
+						numeric.getLowerValue().doubleValue(),
+						numeric.getUpperValue().doubleValue(),
+						numeric.isInclusiveLow(),
+						numeric.isInclusiveHigh());
+			}
+			if (constraint instanceof TemporalQueryConstraint) {
+				final TemporalQueryConstraint temporal = (TemporalQueryConstraint) constraint;
+				return getSelectivity(
+						constraint.getFieldId(),
+						toDouble(temporal.getStart().getTime()),
+						toDouble(temporal.getEnd().getTime()),
+						temporal.isInclusiveLow(),
+						temporal.isInclusiveHigh());
+			}
+			if (constraint instanceof TextQueryConstraint) {
+				final TextQueryConstraint text = (TextQueryConstraint) constraint;
+				final String fieldName = constraint.getFieldId().getString();
+				final DataStatistics<SimpleFeature> sketch = stats.get(FeatureCountMinSketchStatistics
+						.composeId(fieldName));
+				// the sketch counts the values as they were ingested
+				if (text.isCaseSensitive() && (sketch instanceof FeatureCountMinSketchStatistics)
+						&& (((FeatureCountMinSketchStatistics) sketch).totalSampleSize() > 0)) {
+					return Math.min(
+							1,
+							(double) ((FeatureCountMinSketchStatistics) sketch).count(text.getMatchValue())
+									/ ((FeatureCountMinSketchStatistics) sketch).totalSampleSize());
+				}
+				final DataStatistics<SimpleFeature> hll = stats.get(FeatureHyperLogLogStatistics.composeId(fieldName));
+				if ((hll instanceof FeatureHyperLogLogStatistics)
+						&& (((FeatureHyperLogLogStatistics) hll).cardinality() > 0)) {
+					return 1.0 / ((FeatureHyperLogLogStatistics) hll).cardinality();
+				}
+			}
+			return Double.NaN;
+		}
+
+		private double getSelectivity(
+				final ByteArrayId fieldId,
+				final double min,
+				final double max,
+				final boolean inclusiveLow,
+				final boolean inclusiveHigh ) {
+			if (max < min) {
+				return 0;
+			}
+			final String fieldName = fieldId.getString();
+			final DataStatistics<SimpleFeature> histogram = stats.get(FeatureNumericHistogramStatistics
+					.composeId(fieldName));
+			if ((histogram instanceof FeatureNumericHistogramStatistics)
+					&& (((FeatureNumericHistogramStatistics) histogram).totalSampleSize() > 0)) {
+				final FeatureNumericHistogramStatistics hist = (FeatureNumericHistogramStatistics) histogram;
+				// open bounds are not looked up in the histogram
+				final double upper = max >= Double.MAX_VALUE ? 1 : hist.cdf(inclusiveHigh ? max : Math.nextDown(max));
+				final double lower = min <= -Double.MAX_VALUE ? 0 : hist.cdf(inclusiveLow ? Math.nextDown(min) : min);
+				return Math.max(
+						0,
+						Math.min(
+								1,
+								upper - lower));
+			}
+			DataStatistics<SimpleFeature> range = stats.get(FeatureNumericRangeStatistics.composeId(fieldName));
+			if (!(range instanceof NumericRangeDataStatistics)) {
+				range = stats.get(FeatureTimeRangeStatistics.composeId(fieldName));
+			}
+			if ((range instanceof NumericRangeDataStatistics) && ((NumericRangeDataStatistics<?>) range).isSet()) {
+				final NumericRangeDataStatistics<?> numericRange = (NumericRangeDataStatistics<?>) range;
+				final double dataMin = numericRange.getMin();
+				final double dataMax = numericRange.getMax();
+				final double lower = Math.max(
+						min,
+						dataMin);
+				final double upper = Math.min(
+						max,
+						dataMax);
+				if (upper < lower) {
+					return 0;
+				}
+				if (dataMax <= dataMin) {
+					return 1;
+				}
+				return (upper - lower) / (dataMax - dataMin);
+			}
+			return Double.NaN;
+		}
+
+		private static double toDouble(
+				final long time ) {
+			if (time == Long.MIN_VALUE) {
+				return -Double.MAX_VALUE;
+			}
+			if (time == Long.MAX_VALUE) {
+				return Double.MAX_VALUE;
+			}
+			return time;
+		}
+
+		/**
+		 * @return the estimated fraction of rows within the union of the
+		 *         constraints, assuming the rows are spread uniformly and
+		 *         independently over the known data range of each dimension
+		 */
+		double getSelectivity(
+				final NumericDimensionDefinition[] dimensions,
+				final List<MultiDimensionalNumericData> constraints ) {
+			// the constraints as fractions of the known data ranges
+			final List<double[][]> boxes = new ArrayList<double[][]>();
+			for (final MultiDimensionalNumericData constraint : constraints) {
+				final NumericData[] dataPerDimension = constraint.getDataPerDimension();
+				final List<double[]> box = new ArrayList<double[]>();
+				boolean empty = false;
+				for (int d = 0; (d < dimensions.length) && (d < dataPerDimension.length); d++) {
+					final double[] fraction;
+					if (dimensions[d] instanceof LongitudeDefinition) {
+						fraction = fraction(
+								dataPerDimension[d],
+								minX,
+								maxX);
+					}
+					else if (dimensions[d] instanceof LatitudeDefinition) {
+						fraction = fraction(
+								dataPerDimension[d],
+								minY,
+								maxY);
+					}
+					else if (dimensions[d] instanceof TimeDefinition) {
+						fraction = fraction(
+								dataPerDimension[d],
+								minTime,
+								maxTime);
+					}
+					else {
+						continue;
+					}
+					if (fraction == null) {
+						empty = true;
+						break;
+					}
+					box.add(fraction);
+				}
+				if (!empty) {
+					boxes.add(box.toArray(new double[box.size()][]));
+				}
+			}
+			if (boxes.isEmpty()) {
+				return 0;
+			}
+			if (boxes.size() == 1) {
+				return volume(boxes.get(0));
+			}
+			if (boxes.size() > MAX_UNION_CONSTRAINTS) {
+				return volume(envelope(boxes));
+			}
+			return unionVolume(
+					boxes,
+					boxes.get(0).length);
+		}
+
+		/**
+		 * @return the part of the data range covered by the query range, as
+		 *         fractions of the data range, the whole range when the data
+		 *         range is unknown, or null when they do not intersect
+		 */
+		private static double[] fraction(
+				final NumericData queryRange,
+				final double dataMin,
+				final double dataMax ) {
+			if (Double.isNaN(dataMin) || Double.isNaN(dataMax)) {
+				return new double[] {
+					0,
+					1
+				};
+			}
+			final double min = Math.max(
+					queryRange.getMin(),
+					dataMin);
+			final double max = Math.min(
+					queryRange.getMax(),
+					dataMax);
+			if (max < min) {
+				return null;
+			}
+			if (dataMax <= dataMin) {
+				return new double[] {
+					0,
+					1
+				};
+			}
+			return new double[] {
+				(min - dataMin) / (dataMax - dataMin),
+				(max - dataMin) / (dataMax - dataMin)
+			};
+		}
+
+		private static double volume(
+				final double[][] box ) {
+			double volume = 1;
+			for (final double[] range : box) {
+				volume *= range[1] - range[0];
+			}
+			return volume;
+		}
+
+		private static double[][] envelope(
+				final List<double[][]> boxes ) {
+			final double[][] envelope = new double[boxes.get(0).length][];
+			for (int d = 0; d < envelope.length; d++) {
+				envelope[d] = new double[] {
+					1,
+					0
+				};
+				for (final double[][] box : boxes) {
+					envelope[d][0] = Math.min(
+							envelope[d][0],
+							box[d][0]);
+					envelope[d][1] = Math.max(
+							envelope[d][1],
+							box[d][1]);
+				}
+			}
+			return envelope;
+		}
+
+		/**
+		 * The volume of the union of the boxes, summing the cells between
+		 * consecutive box edges that are covered by any box
+		 */
+		private static double unionVolume(
+				final List<double[][]> boxes,
+				final int dimensionCount ) {
+			if (dimensionCount == 0) {
+				return 1;
+			}
+			final int d = dimensionCount - 1;
+			final TreeSet<Double> edges = new TreeSet<Double>();
+			for (final double[][] box : boxes) {
+				edges.add(box[d][0]);
+				edges.add(box[d][1]);
+			}
+			double volume = 0;
+			Double lower = null;
+			for (final Double upper : edges) {
+				if (lower != null) {
+					// the boxes covering this slice, projected on the other
+					// dimensions
+					final List<double[][]> covering = new ArrayList<double[][]>();
+					for (final double[][] box : boxes) {
+						if ((box[d][0] <= lower) && (box[d][1] >= upper)) {
+							covering.add(box);
+						}
+					}
+					if (!covering.isEmpty()) {
+						volume += (upper - lower) * unionVolume(
+								covering,
+								d);
+					}
+				}
+				lower = upper;
+			}
+			return volume;
+		}
+
+		private static double min(
+				final double current,
+				final double value ) {
+			return Double.isNaN(current) ? value : Math.min(
+					current,
+					value);
+		}
+
+		private static double max(
+				final double current,
+				final double value ) {
+			return Double.isNaN(current) ? value : Math.max(
+					current,
+					value);
+		}
+	}
+}
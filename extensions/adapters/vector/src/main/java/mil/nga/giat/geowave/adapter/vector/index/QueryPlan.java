@@ -0,0 +1,150 @@
+package mil.nga.giat.geowave.adapter.vector.index;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+import org.opengis.feature.simple.SimpleFeature;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+
+/**
+ * The indices chosen for a query: either a primary index, or one or more
+ * 'JOIN' secondary indices whose entries are intersected and joined to the
+ * primary rows they reference.
+ */
+public class QueryPlan
+{
+	private final static Logger LOGGER = Logger.getLogger(QueryPlan.class);
+
+	private final PrimaryIndex primaryIndex;
+	private final List<SecondaryIndex<SimpleFeature>> secondaryIndices;
+	private final long estimatedRows;
+	private final String explanation;
+
+	public QueryPlan(
+			final PrimaryIndex primaryIndex,
+			final long estimatedRows,
+			final String explanation ) {
+		this(
+				primaryIndex,
+				Collections.<SecondaryIndex<SimpleFeature>> emptyList(),
+				estimatedRows,
+				explanation);
+	}
+
+	public QueryPlan(
+			final List<SecondaryIndex<SimpleFeature>> secondaryIndices,
+			final long estimatedRows,
+			final String explanation ) {
+		this(
+				null,
+				secondaryIndices,
+				estimatedRows,
+				explanation);
+	}
+
+	private QueryPlan(
+			final PrimaryIndex primaryIndex,
+			final List<SecondaryIndex<SimpleFeature>> secondaryIndices,
+			final long estimatedRows,
+			final String explanation ) {
+		this.primaryIndex = primaryIndex;
+		this.secondaryIndices = secondaryIndices;
+		this.estimatedRows = estimatedRows;
+		this.explanation = explanation;
+	}
+
+	/**
+	 * @return the primary index to query, or null when the secondary indices
+	 *         are queried
+	 */
+	public PrimaryIndex getPrimaryIndex() {
+		return primaryIndex;
+	}
+
+	/**
+	 * @return the secondary indices to intersect, from the fewest to the most
+	 *         estimated entries, empty when the primary index is queried
+	 */
+	public List<SecondaryIndex<SimpleFeature>> getSecondaryIndices() {
+		return secondaryIndices;
+	}
+
+	public boolean isSecondaryIndexPlan() {
+		return !secondaryIndices.isEmpty();
+	}
+
+	/**
+	 * @return the estimated number of features matching the query, or -1 when
+	 *         the feature count is unknown
+	 */
+	public long getEstimatedRows() {
+		return estimatedRows;
+	}
+
+	/**
+	 * @return the estimate for every candidate and the choice made, or null
+	 *         when the plan was made without debug logging
+	 */
+	public String getExplanation() {
+		return explanation;
+	}
+
+	/**
+	 * When debug logging is enabled the results are counted as they are read,
+	 * and the actual number of rows is logged next to the plan once the
+	 * results are closed
+	 */
+	public <T> CloseableIterator<T> explain(
+			final CloseableIterator<T> results ) {
+		if ((explanation == null) || !LOGGER.isDebugEnabled()) {
+			return results;
+		}
+		return new CloseableIterator<T>() {
+			private long actualRows = 0;
+			private boolean exhausted = false;
+			private boolean closed = false;
+
+			@Override
+			public boolean hasNext() {
+				if (results.hasNext()) {
+					return true;
+				}
+				exhausted = true;
+				return false;
+			}
+
+			@Override
+			public T next() {
+				final T next = results.next();
+				actualRows++;
+				return next;
+			}
+
+			@Override
+			public void remove() {
+				results.remove();
+			}
+
+			@Override
+			public void close()
+					throws IOException {
+				if (!closed) {
+					closed = true;
+					LOGGER.debug(explanation + "\n  actual rows: " + actualRows
+							+ (exhausted ? "" : " (closed before the last row was read)"));
+				}
+				results.close();
+			}
+		};
+	}
+
+	@Override
+	public String toString() {
+		return explanation;
+	}
+}
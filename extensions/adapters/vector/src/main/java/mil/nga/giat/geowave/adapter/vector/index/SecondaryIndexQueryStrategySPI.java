@@ -0,0 +1,28 @@
+package mil.nga.giat.geowave.adapter.vector.index;
+
+import java.util.List;
+import java.util.Map;
+
+import org.opengis.feature.simple.SimpleFeature;
+
+import mil.nga.giat.geowave.adapter.vector.query.cql.PropertyConstraintSet;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.query.BasicQuery;
+
+/**
+ * An index query strategy that also plans the secondary indices of an adapter
+ * from the attribute constraints of a query
+ */
+public interface SecondaryIndexQueryStrategySPI extends
+		IndexQueryStrategySPI
+{
+	public QueryPlan getQueryPlan(
+			Map<ByteArrayId, DataStatistics<SimpleFeature>> stats,
+			BasicQuery query,
+			PropertyConstraintSet attributeConstraints,
+			PrimaryIndex[] indices,
+			List<SecondaryIndex<SimpleFeature>> secondaryIndices );
+}
@@ -134,7 +134,16 @@ abstract public class AbstractSimpleFeatureIngestPlugin<I> implements
 			final File input,
 			final Collection<ByteArrayId> primaryIndexIds,
 			final String globalVisibility ) {
-		final I[] hdfsObjects = toAvroObjects(input);
+		return toGeoWaveData(
+				toAvroObjects(input),
+				primaryIndexIds,
+				globalVisibility);
+	}
+
+	protected CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveData(
+			final I[] hdfsObjects,
+			final Collection<ByteArrayId> primaryIndexIds,
+			final String globalVisibility ) {
 		final List<CloseableIterator<GeoWaveData<SimpleFeature>>> allData = new ArrayList<CloseableIterator<GeoWaveData<SimpleFeature>>>();
 
 		for (final I hdfsObject : hdfsObjects) {
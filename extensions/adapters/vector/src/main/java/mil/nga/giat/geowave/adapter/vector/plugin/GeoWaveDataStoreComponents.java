@@ -2,14 +2,18 @@ package mil.nga.giat.geowave.adapter.vector.plugin;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import org.opengis.feature.simple.SimpleFeature;
 
 import mil.nga.giat.geowave.adapter.vector.GeotoolsFeatureDataAdapter;
+import mil.nga.giat.geowave.adapter.vector.index.QueryPlan;
+import mil.nga.giat.geowave.adapter.vector.index.SecondaryIndexQueryStrategySPI;
 import mil.nga.giat.geowave.adapter.vector.plugin.transaction.GeoWaveTransaction;
 import mil.nga.giat.geowave.adapter.vector.plugin.transaction.TransactionsAllocator;
+import mil.nga.giat.geowave.adapter.vector.query.cql.PropertyConstraintSet;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
@@ -23,6 +27,8 @@ import mil.nga.giat.geowave.core.store.data.visibility.UniformVisibilityWriter;
 import mil.nga.giat.geowave.core.store.index.Index;
 import mil.nga.giat.geowave.core.store.index.IndexStore;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
 import mil.nga.giat.geowave.core.store.query.BasicQuery;
 import mil.nga.giat.geowave.core.store.query.DataIdQuery;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
@@ -78,6 +84,10 @@ public class GeoWaveDataStoreComponents
 		return dataStatisticsStore;
 	}
 
+	public SecondaryIndexDataStore getSecondaryIndexDataStore() {
+		return gtStore.getSecondaryIndexDataStore();
+	}
+
 	public CloseableIterator<Index<?, ?>> getIndices(
 			final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats,
 			final BasicQuery query ) {
@@ -87,6 +97,27 @@ public class GeoWaveDataStoreComponents
 				gtStore.getIndicesForAdapter(adapter));
 	}
 
+	/**
+	 * @return the plan of the index query strategy over the primary and the
+	 *         given secondary indices, or null when the strategy does not plan
+	 *         secondary indices
+	 */
+	public QueryPlan getQueryPlan(
+			final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats,
+			final BasicQuery query,
+			final PropertyConstraintSet attributeConstraints,
+			final List<SecondaryIndex<SimpleFeature>> secondaryIndices ) {
+		if (!(getGTstore().getIndexQueryStrategy() instanceof SecondaryIndexQueryStrategySPI)) {
+			return null;
+		}
+		return ((SecondaryIndexQueryStrategySPI) getGTstore().getIndexQueryStrategy()).getQueryPlan(
+				stats,
+				query,
+				attributeConstraints,
+				gtStore.getIndicesForAdapter(adapter),
+				secondaryIndices);
+	}
+
 	public void remove(
 			final SimpleFeature feature,
 			final GeoWaveTransaction transaction )
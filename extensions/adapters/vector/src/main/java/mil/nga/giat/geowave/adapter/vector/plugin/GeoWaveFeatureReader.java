@@ -12,6 +12,7 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -20,6 +21,7 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TimeZone;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
 import org.geotools.data.FeatureReader;
 import org.geotools.data.Query;
@@ -39,12 +41,16 @@ import org.opengis.referencing.FactoryException;
 import org.opengis.referencing.operation.MathTransform2D;
 import org.opengis.referencing.operation.TransformException;
 
+import com.google.common.base.Predicate;
 import com.google.common.collect.Iterators;
 import com.vividsolutions.jts.geom.Envelope;
 import com.vividsolutions.jts.geom.Geometry;
 
+import mil.nga.giat.geowave.adapter.vector.index.QueryPlan;
 import mil.nga.giat.geowave.adapter.vector.plugin.transaction.GeoWaveTransaction;
 import mil.nga.giat.geowave.adapter.vector.query.cql.CQLQuery;
+import mil.nga.giat.geowave.adapter.vector.query.cql.PropertyConstraintSet;
+import mil.nga.giat.geowave.adapter.vector.query.cql.PropertyFilterVisitor;
 import mil.nga.giat.geowave.adapter.vector.render.DistributedRenderAggregation;
 import mil.nga.giat.geowave.adapter.vector.render.DistributedRenderOptions;
 import mil.nga.giat.geowave.adapter.vector.render.DistributedRenderResult;
@@ -62,12 +68,17 @@ import mil.nga.giat.geowave.core.store.CloseableIteratorWrapper;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
 import mil.nga.giat.geowave.core.store.index.Index;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataAdapter;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexType;
 import mil.nga.giat.geowave.core.store.query.BasicQuery;
 import mil.nga.giat.geowave.core.store.query.BasicQuery.Constraints;
 import mil.nga.giat.geowave.core.store.query.DataIdQuery;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
 import mil.nga.giat.geowave.core.store.query.aggregate.CountAggregation;
 import mil.nga.giat.geowave.core.store.query.aggregate.CountResult;
+import mil.nga.giat.geowave.core.store.util.SecondaryIndexIntersectionIterator;
+import mil.nga.giat.geowave.core.store.util.SecondaryIndexJoinIterator;
 
 /**
  * This class wraps a geotools data store as well as one for statistics (for
@@ -211,9 +222,32 @@ public class GeoWaveFeatureReader implements
 				jtsBounds,
 				timeBounds);
 
-		try (CloseableIterator<Index<?, ?>> indexIt = getComponents().getIndices(
+		// only queries returning every matching feature are planned, the
+		// secondary indices cannot answer aggregations or subsampling
+		QueryPlan plan = null;
+		PropertyConstraintSet attributeConstraints = null;
+		if ((issuer instanceof BaseIssuer) && ((BaseIssuer) issuer).returnsFeatures()) {
+			attributeConstraints = getAttributeConstraints(issuer.getFilter());
+			plan = components.getQueryPlan(
+					statsMap,
+					query,
+					attributeConstraints,
+					getJoinIndices());
+		}
+		if ((plan != null) && plan.isSecondaryIndexPlan()) {
+			return plan.explain(interweaveTransaction(
+					issuer.getLimit(),
+					issuer.getFilter(),
+					querySecondaryIndices(
+							plan,
+							attributeConstraints,
+							issuer.getFilter(),
+							issuer.getLimit())));
+		}
+
+		try (CloseableIterator<Index<?, ?>> indexIt = plan == null ? getComponents().getIndices(
 				statsMap,
-				query)) {
+				query) : getIndices(plan)) {
 			while (indexIt.hasNext()) {
 				final PrimaryIndex index = (PrimaryIndex) indexIt.next();
 
@@ -231,9 +265,9 @@ public class GeoWaveFeatureReader implements
 					e);
 		}
 		if (results.isEmpty()) {
-			return getNoData();
+			return plan == null ? getNoData() : plan.explain(getNoData());
 		}
-		return interweaveTransaction(
+		final CloseableIterator<SimpleFeature> it = interweaveTransaction(
 				issuer.getLimit(),
 				issuer.getFilter(),
 				new CloseableIteratorWrapper<SimpleFeature>(
@@ -248,6 +282,96 @@ public class GeoWaveFeatureReader implements
 							}
 						},
 						Iterators.concat(results.iterator())));
+		return plan == null ? it : plan.explain(it);
+	}
+
+	private static CloseableIterator<Index<?, ?>> getIndices(
+			final QueryPlan plan ) {
+		if (plan.getPrimaryIndex() == null) {
+			return new CloseableIterator.Empty<Index<?, ?>>();
+		}
+		return new CloseableIterator.Wrapper<Index<?, ?>>(
+				Collections.<Index<?, ?>> singletonList(
+						plan.getPrimaryIndex()).iterator());
+	}
+
+	private static PropertyConstraintSet getAttributeConstraints(
+			final Filter filter ) {
+		if (filter != null) {
+			final Object constraints = filter.accept(
+					new PropertyFilterVisitor(),
+					null);
+			if (constraints instanceof PropertyConstraintSet) {
+				return (PropertyConstraintSet) constraints;
+			}
+		}
+		return new PropertyConstraintSet();
+	}
+
+	/**
+	 * @return the 'JOIN' secondary indices of the adapter, the other types do
+	 *         not reference the primary rows
+	 */
+	private List<SecondaryIndex<SimpleFeature>> getJoinIndices() {
+		final List<SecondaryIndex<SimpleFeature>> joinIndices = new ArrayList<SecondaryIndex<SimpleFeature>>();
+		if ((components.getSecondaryIndexDataStore() != null)
+				&& (components.getAdapter() instanceof SecondaryIndexDataAdapter)) {
+			for (final SecondaryIndex<SimpleFeature> index : ((SecondaryIndexDataAdapter<SimpleFeature>) components
+					.getAdapter()).getSupportedSecondaryIndices()) {
+				if (SecondaryIndexType.JOIN.equals(index.getSecondaryIndexType())) {
+					joinIndices.add(index);
+				}
+			}
+		}
+		return joinIndices;
+	}
+
+	/**
+	 * Intersects the entries of the planned secondary indices on the primary
+	 * rows they reference and joins them to the features. The secondary index
+	 * ranges are inclusive and do not cover the spatial and temporal
+	 * constraints, so the features are filtered here. A feature written with
+	 * several rows is returned once.
+	 */
+	private CloseableIterator<SimpleFeature> querySecondaryIndices(
+			final QueryPlan plan,
+			final PropertyConstraintSet attributeConstraints,
+			final Filter filter,
+			final Integer limit ) {
+		final String[] authorizations = transaction.composeAuthorizations();
+		final List<CloseableIterator<Pair<ByteArrayId, ByteArrayId>>> joinEntries = new ArrayList<CloseableIterator<Pair<ByteArrayId, ByteArrayId>>>();
+		for (final SecondaryIndex<SimpleFeature> index : plan.getSecondaryIndices()) {
+			joinEntries.add(components.getSecondaryIndexDataStore().queryJoinEntries(
+					index,
+					index.getFieldId(),
+					components.getAdapter(),
+					new BasicQuery(
+							new Constraints(),
+							Collections.singletonMap(
+									index.getFieldId(),
+									attributeConstraints.getConstraintsById(index.getFieldId()))),
+					authorizations));
+		}
+		final SecondaryIndexJoinIterator<SimpleFeature> features = new SecondaryIndexJoinIterator<SimpleFeature>(
+				components.getDataStore(),
+				components.getAdapter().getAdapterId(),
+				joinEntries.size() == 1 ? joinEntries.get(0) : new SecondaryIndexIntersectionIterator(
+						joinEntries),
+				authorizations);
+		final Set<String> returnedIds = new HashSet<String>();
+		return new CloseableIteratorWrapper<SimpleFeature>(
+				features,
+				Iterators.filter(
+						features,
+						new Predicate<SimpleFeature>() {
+							@Override
+							public boolean apply(
+									final SimpleFeature feature ) {
+								return ((filter == null) || filter.evaluate(feature))
+										&& returnedIds.add(feature.getID());
+							}
+						}),
+				limit);
 	}
 
 	protected static boolean hasAtLeastSpatial(
@@ -332,6 +456,14 @@ public class GeoWaveFeatureReader implements
 		public Integer getLimit() {
 			return limit;
 		}
+
+		/**
+		 * @return whether the query returns the matching features rather than
+		 *         an aggregation or a subsample of them
+		 */
+		public boolean returnsFeatures() {
+			return true;
+		}
 	}
 
 	private class CountQueryIssuer extends
@@ -348,6 +480,11 @@ public class GeoWaveFeatureReader implements
 					limit);
 		}
 
+		@Override
+		public boolean returnsFeatures() {
+			return false;
+		}
+
 		@Override
 		public CloseableIterator<SimpleFeature> query(
 				final PrimaryIndex index,
@@ -415,6 +552,11 @@ public class GeoWaveFeatureReader implements
 
 		}
 
+		@Override
+		public boolean returnsFeatures() {
+			return false;
+		}
+
 		@Override
 		public CloseableIterator<SimpleFeature> query(
 				final PrimaryIndex index,
@@ -496,6 +638,11 @@ public class GeoWaveFeatureReader implements
 
 		}
 
+		@Override
+		public boolean returnsFeatures() {
+			return false;
+		}
+
 		@Override
 		public CloseableIterator<SimpleFeature> query(
 				final PrimaryIndex index,
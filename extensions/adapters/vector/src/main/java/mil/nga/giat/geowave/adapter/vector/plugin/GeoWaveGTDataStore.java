@@ -52,6 +52,7 @@ import mil.nga.giat.geowave.core.store.dimension.NumericDimensionField;
 import mil.nga.giat.geowave.core.store.index.Index;
 import mil.nga.giat.geowave.core.store.index.IndexStore;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
 import mil.nga.giat.geowave.core.store.query.EverythingQuery;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
 
@@ -84,6 +85,7 @@ public class GeoWaveGTDataStore extends
 	protected DataStatisticsStore dataStatisticsStore;
 	protected DataStore dataStore;
 	protected AdapterIndexMappingStore adapterIndexMappingStore;
+	protected SecondaryIndexDataStore secondaryIndexDataStore;
 	private final Map<String, PrimaryIndex[]> preferredIndexes = new ConcurrentHashMap<String, PrimaryIndex[]>();
 
 	private final VisibilityManagement<SimpleFeature> visibilityManagement = VisibilityManagementHelper
@@ -116,6 +118,7 @@ public class GeoWaveGTDataStore extends
 		indexStore = config.getIndexStore();
 		adapterStore = config.getAdapterStore();
 		adapterIndexMappingStore = config.getAdapterIndexMappingStore();
+		secondaryIndexDataStore = config.getSecondaryIndexDataStore();
 	}
 
 	public AuthorizationSPI getAuthorizationSPI() {
@@ -146,6 +149,10 @@ public class GeoWaveGTDataStore extends
 		return dataStatisticsStore;
 	}
 
+	public SecondaryIndexDataStore getSecondaryIndexDataStore() {
+		return secondaryIndexDataStore;
+	}
+
 	protected PrimaryIndex[] getIndicesForAdapter(
 			final GeotoolsFeatureDataAdapter adapter ) {
 		PrimaryIndex[] currentSelections = preferredIndexes.get(adapter.getType().getName().toString());
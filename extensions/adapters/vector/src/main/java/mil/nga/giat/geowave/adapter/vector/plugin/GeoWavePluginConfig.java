@@ -38,6 +38,7 @@ import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.config.ConfigOption;
 import mil.nga.giat.geowave.core.store.config.ConfigUtils;
 import mil.nga.giat.geowave.core.store.index.IndexStore;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
 import mil.nga.giat.geowave.core.store.operations.remote.options.DataStorePluginOptions;
 
 /**
@@ -110,6 +111,7 @@ public class GeoWavePluginConfig
 	private final DataStore dataStore;
 	private final IndexStore indexStore;
 	private final DataStatisticsStore dataStatisticsStore;
+	private final SecondaryIndexDataStore secondaryIndexDataStore;
 	private final String name;
 	private final URI featureNameSpaceURI;
 	private final LockingManagementFactory lockingManagementFactory;
@@ -248,6 +250,11 @@ public class GeoWavePluginConfig
 				ConfigUtils.populateOptionsFromList(
 						storeFactoryFamily.getAdapterIndexMappingStoreFactory().createOptionsInstance(),
 						paramStrs));
+		secondaryIndexDataStore = storeFactoryFamily.getSecondaryIndexDataStore().createStore(
+				ConfigUtils.populateOptionsFromList(
+						storeFactoryFamily.getSecondaryIndexDataStore().createOptionsInstance(),
+						paramStrs));
+		secondaryIndexDataStore.setDataStore(dataStore);
 		lockingManagementFactory = factory;
 
 		authorizationFactory = getAuthorizationFactory(params);
@@ -300,6 +307,10 @@ public class GeoWavePluginConfig
 		return dataStatisticsStore;
 	}
 
+	public SecondaryIndexDataStore getSecondaryIndexDataStore() {
+		return secondaryIndexDataStore;
+	}
+
 	public static IndexQueryStrategySPI getIndexQueryStrategy(
 			final Map<String, Serializable> params )
 			throws GeoWavePluginException {
@@ -2,9 +2,13 @@ package mil.nga.giat.geowave.adapter.vector.query.cql;
 
 import java.net.MalformedURLException;
 import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
 
+import mil.nga.giat.geowave.adapter.vector.FeatureDataAdapter;
 import mil.nga.giat.geowave.adapter.vector.GeotoolsFeatureDataAdapter;
 import mil.nga.giat.geowave.adapter.vector.util.FeatureDataUtils;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
@@ -17,10 +21,14 @@ import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 
 import org.apache.log4j.Logger;
+import org.geotools.data.DataUtilities;
 import org.geotools.filter.text.cql2.CQLException;
 import org.geotools.filter.text.ecql.ECQL;
+import org.geotools.filter.visitor.DefaultFilterVisitor;
 import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.filter.Filter;
+import org.opengis.filter.expression.Function;
 
 public class CQLQueryFilter implements
 		DistributableQueryFilter
@@ -28,6 +36,9 @@ public class CQLQueryFilter implements
 	private final static Logger LOGGER = Logger.getLogger(CQLQueryFilter.class);
 	private GeotoolsFeatureDataAdapter adapter;
 	private Filter filter;
+	// the fields the filter is bound to, or null if the filter must be
+	// evaluated against a fully decoded feature
+	private transient Set<ByteArrayId> filterFieldIds;
 
 	protected CQLQueryFilter() {
 		super();
@@ -48,6 +59,58 @@ public class CQLQueryFilter implements
 			this.filter = filter;
 		}
 		this.adapter = adapter;
+		filterFieldIds = getFilterFieldIds(
+				this.filter,
+				adapter);
+	}
+
+	/**
+	 * Bind the properties the filter references to the field IDs of the
+	 * adapter, so that only those fields need to be decoded to evaluate it.
+	 *
+	 * @return the referenced field IDs, or null if the filter can't be bound,
+	 *         such as when it uses a function that may read the feature
+	 *         directly
+	 */
+	private static Set<ByteArrayId> getFilterFieldIds(
+			final Filter filter,
+			final GeotoolsFeatureDataAdapter adapter ) {
+		// other adapters may decode features in ways that do not map fields to
+		// attributes one to one
+		if ((filter == null) || (adapter == null) || !FeatureDataAdapter.class.equals(adapter.getClass())) {
+			return null;
+		}
+		final SimpleFeatureType type = adapter.getType();
+		if (type == null) {
+			return null;
+		}
+		final UnboundFunctionVisitor visitor = new UnboundFunctionVisitor();
+		filter.accept(
+				visitor,
+				null);
+		if (visitor.hasUnboundFunction) {
+			return null;
+		}
+		final Set<ByteArrayId> fieldIds = new HashSet<ByteArrayId>();
+		for (final String attribute : DataUtilities.attributeNames(
+				filter,
+				type)) {
+			if (type.getDescriptor(attribute) == null) {
+				return null;
+			}
+			fieldIds.add(new ByteArrayId(
+					attribute));
+		}
+		return fieldIds;
+	}
+
+	/**
+	 *
+	 * @return the field IDs the filter is bound to, or null if it is evaluated
+	 *         against a fully decoded feature
+	 */
+	protected Set<ByteArrayId> getBoundFieldIds() {
+		return filterFieldIds;
 	}
 
 	@Override
@@ -57,6 +120,11 @@ public class CQLQueryFilter implements
 		if ((filter != null) && (indexModel != null) && (adapter != null)) {
 			if (adapter.getAdapterId().equals(
 					persistenceEncoding.getAdapterId())) {
+				if (filterFieldIds != null) {
+					return acceptBoundFields(
+							indexModel,
+							persistenceEncoding);
+				}
 				final PersistentDataset<Object> adapterExtendedValues = new PersistentDataset<Object>();
 				if (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding) {
 					((AbstractAdapterPersistenceEncoding) persistenceEncoding).convertUnknownValues(
@@ -100,6 +168,44 @@ public class CQLQueryFilter implements
 		return true;
 	}
 
+	/**
+	 * Evaluate the filter against a feature with only the fields the filter
+	 * references decoded
+	 */
+	private boolean acceptBoundFields(
+			final CommonIndexModel indexModel,
+			final IndexedPersistenceEncoding persistenceEncoding ) {
+		PersistentDataset<Object> adapterExtendedValues = null;
+		if (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding) {
+			((AbstractAdapterPersistenceEncoding) persistenceEncoding).convertUnknownValues(
+					adapter,
+					indexModel,
+					filterFieldIds);
+			adapterExtendedValues = ((AbstractAdapterPersistenceEncoding) persistenceEncoding)
+					.getAdapterExtendedData();
+		}
+		if (adapterExtendedValues == null) {
+			adapterExtendedValues = new PersistentDataset<Object>();
+		}
+		// the extended values are only read, so they don't need to be copied
+		final IndexedAdapterPersistenceEncoding encoding = new IndexedAdapterPersistenceEncoding(
+				persistenceEncoding.getAdapterId(),
+				persistenceEncoding.getDataId(),
+				persistenceEncoding.getIndexInsertionId(),
+				persistenceEncoding.getDuplicateCount(),
+				persistenceEncoding.getCommonData(),
+				new PersistentDataset<byte[]>(),
+				adapterExtendedValues);
+		final SimpleFeature feature = ((FeatureDataAdapter) adapter).decodeFields(
+				encoding,
+				indexModel,
+				filterFieldIds);
+		if (feature == null) {
+			return false;
+		}
+		return filter.evaluate(feature);
+	}
+
 	@Override
 	public byte[] toBinary() {
 		byte[] filterBytes;
@@ -175,5 +281,31 @@ public class CQLQueryFilter implements
 			LOGGER.warn("Feature Data Adapter is empty bytes");
 			adapter = null;
 		}
+		filterFieldIds = getFilterFieldIds(
+				filter,
+				adapter);
+	}
+
+	/**
+	 * Finds functions that don't take any property as a parameter, because
+	 * they may read the feature itself rather than the properties the filter
+	 * references (for example, property('name'))
+	 */
+	private static class UnboundFunctionVisitor extends
+			DefaultFilterVisitor
+	{
+		private boolean hasUnboundFunction = false;
+
+		@Override
+		public Object visit(
+				final Function expression,
+				final Object data ) {
+			if (DataUtilities.attributeNames(expression).length == 0) {
+				hasUnboundFunction = true;
+			}
+			return super.visit(
+					expression,
+					data);
+		}
 	}
 }
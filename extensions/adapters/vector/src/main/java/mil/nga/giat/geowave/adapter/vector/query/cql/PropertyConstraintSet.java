@@ -1,6 +1,8 @@
 package mil.nga.giat.geowave.adapter.vector.query.cql;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +12,9 @@ import mil.nga.giat.geowave.core.index.ByteArrayRange;
 import mil.nga.giat.geowave.core.store.filter.DistributableQueryFilter;
 import mil.nga.giat.geowave.core.store.index.FilterableConstraints;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericQueryConstraint;
+import mil.nga.giat.geowave.core.store.index.temporal.TemporalQueryConstraint;
+import mil.nga.giat.geowave.core.store.index.text.TextQueryConstraint;
 
 public class PropertyConstraintSet
 {
@@ -72,14 +77,26 @@ public class PropertyConstraintSet
 					constraint);
 		}
 		else if (intersect) {
-			constraints.put(
-					id,
-					constraintsForId.intersect(constraint));
+			final FilterableConstraints intersection = constraintsForId.intersect(constraint);
+			// either constraint bounds the intersection
+			if (intersection != null) {
+				constraints.put(
+						id,
+						intersection);
+			}
 		}
 		else {
-			constraints.put(
-					id,
-					constraintsForId.union(constraint));
+			final FilterableConstraints union = isSameType(
+					constraintsForId,
+					constraint) ? constraintsForId.union(constraint) : null;
+			if (union != null) {
+				constraints.put(
+						id,
+						union);
+			}
+			else {
+				constraints.remove(id);
+			}
 		}
 	}
 
@@ -92,12 +109,24 @@ public class PropertyConstraintSet
 		}
 	}
 
+	/**
+	 * A field is only constrained by the union when it is constrained by both
+	 * sets
+	 */
 	public void union(
 			final PropertyConstraintSet set ) {
+		final Iterator<ByteArrayId> it = constraints.keySet().iterator();
+		while (it.hasNext()) {
+			if (!set.constraints.containsKey(it.next())) {
+				it.remove();
+			}
+		}
 		for (final Map.Entry<ByteArrayId, FilterableConstraints> entry : set.constraints.entrySet()) {
-			add(
-					entry.getValue(),
-					false);
+			if (constraints.containsKey(entry.getKey())) {
+				add(
+						entry.getValue(),
+						false);
+			}
 		}
 	}
 
@@ -106,4 +135,20 @@ public class PropertyConstraintSet
 		return constraints.get(id);
 	}
 
+	public Collection<FilterableConstraints> getConstraints() {
+		return constraints.values();
+	}
+
+	public boolean isEmpty() {
+		return constraints.isEmpty();
+	}
+
+	private static boolean isSameType(
+			final FilterableConstraints constraint1,
+			final FilterableConstraints constraint2 ) {
+		return ((constraint1 instanceof NumericQueryConstraint) && (constraint2 instanceof NumericQueryConstraint))
+				|| ((constraint1 instanceof TemporalQueryConstraint) && (constraint2 instanceof TemporalQueryConstraint))
+				|| ((constraint1 instanceof TextQueryConstraint) && (constraint2 instanceof TextQueryConstraint));
+	}
+
 }
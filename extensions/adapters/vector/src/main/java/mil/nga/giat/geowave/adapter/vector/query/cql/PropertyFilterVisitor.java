@@ -1,5 +1,7 @@
 package mil.nga.giat.geowave.adapter.vector.query.cql;
 
+import java.util.Date;
+
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.index.numeric.NumericEqualsConstraint;
 import mil.nga.giat.geowave.core.store.index.numeric.NumericGreaterThanConstraint;
@@ -7,7 +9,7 @@ import mil.nga.giat.geowave.core.store.index.numeric.NumericGreaterThanOrEqualTo
 import mil.nga.giat.geowave.core.store.index.numeric.NumericLessThanConstraint;
 import mil.nga.giat.geowave.core.store.index.numeric.NumericLessThanOrEqualToConstraint;
 import mil.nga.giat.geowave.core.store.index.numeric.NumericQueryConstraint;
-import mil.nga.giat.geowave.core.store.index.text.TextExactMatchFilter;
+import mil.nga.giat.geowave.core.store.index.temporal.TemporalQueryConstraint;
 import mil.nga.giat.geowave.core.store.index.text.TextQueryConstraint;
 
 import org.geotools.filter.visitor.NullFilterVisitor;
@@ -30,6 +32,7 @@ import org.opengis.filter.PropertyIsNotEqualTo;
 import org.opengis.filter.PropertyIsNull;
 import org.opengis.filter.expression.Add;
 import org.opengis.filter.expression.Divide;
+import org.opengis.filter.expression.Expression;
 import org.opengis.filter.expression.Function;
 import org.opengis.filter.expression.Literal;
 import org.opengis.filter.expression.NilExpression;
@@ -60,16 +63,25 @@ import org.opengis.filter.temporal.OverlappedBy;
 import org.opengis.filter.temporal.TContains;
 import org.opengis.filter.temporal.TEquals;
 import org.opengis.filter.temporal.TOverlaps;
+import org.opengis.temporal.Instant;
+import org.opengis.temporal.Period;
+import org.opengis.temporal.Position;
 
 /**
- * CQL visitor to extract constraints for secondary indexing queries.
+ * CQL visitor to extract constraints for secondary indexing queries. Every
+ * feature matching the filter matches the extracted constraints, so a filter
+ * that cannot be bounded on a property leaves the property unconstrained.
  * 
- * TODO: compare operators for text (e.g. <,>,<=,>=) TODO: Temporal
+ * TODO: compare operators for text (e.g. <,>,<=,>=)
  * 
  */
 public class PropertyFilterVisitor extends
 		NullFilterVisitor
 {
+	private static final Date MIN_TIME = new Date(
+			Long.MIN_VALUE);
+	private static final Date MAX_TIME = new Date(
+			Long.MAX_VALUE);
 
 	public PropertyFilterVisitor() {
 		super();
@@ -135,16 +147,22 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final Or filter,
 			final Object data ) {
-		final PropertyConstraintSet constraints = new PropertyConstraintSet();
+		PropertyConstraintSet constraints = null;
 		for (final Filter f : filter.getChildren()) {
 			final Object output = f.accept(
 					this,
 					data);
-			if (output instanceof PropertyConstraintSet) {
+			if (!(output instanceof PropertyConstraintSet)) {
+				return new PropertyConstraintSet();
+			}
+			if (constraints == null) {
+				constraints = (PropertyConstraintSet) output;
+			}
+			else {
 				constraints.union((PropertyConstraintSet) output);
 			}
 		}
-		return constraints;
+		return constraints == null ? new PropertyConstraintSet() : constraints;
 	}
 
 	// t1 > t2
@@ -155,6 +173,20 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final After after,
 			final Object data ) {
+		final ByteArrayId fieldId = getFieldId(after.getExpression1());
+		final Object value = after.getExpression2().accept(
+				this,
+				data);
+		final Date time = value instanceof Period ? toDate(((Period) value).getEnding()) : toDate(value);
+		if ((fieldId != null) && (time != null)) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							time,
+							MAX_TIME,
+							false,
+							true));
+		}
 		return new PropertyConstraintSet();
 	}
 
@@ -174,6 +206,20 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final Before before,
 			final Object data ) {
+		final ByteArrayId fieldId = getFieldId(before.getExpression1());
+		final Object value = before.getExpression2().accept(
+				this,
+				data);
+		final Date time = value instanceof Period ? toDate(((Period) value).getBeginning()) : toDate(value);
+		if ((fieldId != null) && (time != null)) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							MIN_TIME,
+							time,
+							true,
+							false));
+		}
 		return new PropertyConstraintSet();
 	}
 
@@ -202,6 +248,23 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final During during,
 			final Object data ) {
+		final ByteArrayId fieldId = getFieldId(during.getExpression1());
+		final Object value = during.getExpression2().accept(
+				this,
+				data);
+		if ((fieldId != null) && (value instanceof Period)) {
+			final Date start = toDate(((Period) value).getBeginning());
+			final Date end = toDate(((Period) value).getEnding());
+			if ((start != null) && (end != null)) {
+				return new PropertyConstraintSet(
+						new TemporalQueryConstraint(
+								fieldId,
+								start,
+								end,
+								false,
+								false));
+			}
+		}
 		return new PropertyConstraintSet();
 	}
 
@@ -261,6 +324,19 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final TEquals equals,
 			final Object data ) {
+		final ByteArrayId fieldId = getFieldId(equals.getExpression1());
+		final Date time = toDate(equals.getExpression2().accept(
+				this,
+				data));
+		if ((fieldId != null) && (time != null)) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							time,
+							time,
+							true,
+							true));
+		}
 		return new PropertyConstraintSet();
 	}
 
@@ -283,27 +359,34 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final PropertyIsBetween filter,
 			final Object data ) {
-		final ByteArrayId leftResult = (ByteArrayId) filter.getExpression().accept(
-				this,
-				data);
+		final ByteArrayId fieldId = getFieldId(filter.getExpression());
 		final Object lower = filter.getLowerBoundary().accept(
 				this,
 				data);
-
 		final Object upper = filter.getUpperBoundary().accept(
 				this,
 				data);
-
-		if (lower instanceof Number) {
-
+		if (fieldId == null) {
+			return new PropertyConstraintSet();
+		}
+		if ((lower instanceof Number) && (upper instanceof Number)) {
 			return new PropertyConstraintSet(
 					new NumericQueryConstraint(
-							leftResult,
+							fieldId,
 							(Number) lower,
 							(Number) upper,
 							true,
 							true));
 		}
+		if ((lower instanceof Date) && (upper instanceof Date)) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							(Date) lower,
+							(Date) upper,
+							true,
+							true));
+		}
 		return new PropertyConstraintSet();
 
 	}
@@ -312,24 +395,33 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final PropertyIsEqualTo filter,
 			final Object data ) {
-		final ByteArrayId leftResult = (ByteArrayId) filter.getExpression1().accept(
-				this,
-				data);
-
+		final ByteArrayId fieldId = getFieldId(filter.getExpression1());
 		final Object value = filter.getExpression2().accept(
 				this,
 				data);
-
+		if (fieldId == null) {
+			return new PropertyConstraintSet();
+		}
 		if (value instanceof Number) {
 			return new PropertyConstraintSet(
 					new NumericEqualsConstraint(
-							leftResult,
+							fieldId,
 							(Number) value));
 		}
-		else if (value instanceof String) {
+		else if (value instanceof Date) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							(Date) value,
+							(Date) value,
+							true,
+							true));
+		}
+		else if ((value instanceof String) && filter.isMatchingCase()) {
+			// the text index only matches the exact value
 			return new PropertyConstraintSet(
 					new TextQueryConstraint(
-							leftResult,
+							fieldId,
 							(String) value,
 							true));
 		}
@@ -343,30 +435,35 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final PropertyIsNotEqualTo filter,
 			final Object data ) {
-		return filter.getExpression1().accept(
-				this,
-				data);
-
+		return new PropertyConstraintSet();
 	}
 
 	@Override
 	public Object visit(
 			final PropertyIsGreaterThan filter,
 			final Object data ) {
-		final ByteArrayId leftResult = (ByteArrayId) filter.getExpression1().accept(
-				this,
-				data);
-
+		final ByteArrayId fieldId = getFieldId(filter.getExpression1());
 		final Object value = filter.getExpression2().accept(
 				this,
 				data);
-
+		if (fieldId == null) {
+			return new PropertyConstraintSet();
+		}
 		if (value instanceof Number) {
 			return new PropertyConstraintSet(
 					new NumericGreaterThanConstraint(
-							leftResult,
+							fieldId,
 							(Number) value));
 		}
+		if (value instanceof Date) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							(Date) value,
+							MAX_TIME,
+							false,
+							true));
+		}
 		return new PropertyConstraintSet();
 	}
 
@@ -374,19 +471,28 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final PropertyIsGreaterThanOrEqualTo filter,
 			final Object data ) {
-		final ByteArrayId leftResult = (ByteArrayId) filter.getExpression1().accept(
-				this,
-				data);
+		final ByteArrayId fieldId = getFieldId(filter.getExpression1());
 		final Object value = filter.getExpression2().accept(
 				this,
 				data);
-
+		if (fieldId == null) {
+			return new PropertyConstraintSet();
+		}
 		if (value instanceof Number) {
 			return new PropertyConstraintSet(
 					new NumericGreaterThanOrEqualToConstraint(
-							leftResult,
+							fieldId,
 							(Number) value));
 		}
+		if (value instanceof Date) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							(Date) value,
+							MAX_TIME,
+							true,
+							true));
+		}
 		return new PropertyConstraintSet();
 	}
 
@@ -394,19 +500,28 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final PropertyIsLessThan filter,
 			final Object data ) {
-		final ByteArrayId leftResult = (ByteArrayId) filter.getExpression1().accept(
-				this,
-				data);
+		final ByteArrayId fieldId = getFieldId(filter.getExpression1());
 		final Object value = filter.getExpression2().accept(
 				this,
 				data);
-
+		if (fieldId == null) {
+			return new PropertyConstraintSet();
+		}
 		if (value instanceof Number) {
 			return new PropertyConstraintSet(
 					new NumericLessThanConstraint(
-							leftResult,
+							fieldId,
 							(Number) value));
 		}
+		if (value instanceof Date) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							MIN_TIME,
+							(Date) value,
+							true,
+							false));
+		}
 		return new PropertyConstraintSet();
 	}
 
@@ -414,21 +529,28 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final PropertyIsLessThanOrEqualTo filter,
 			final Object data ) {
-
-		final ByteArrayId leftResult = (ByteArrayId) filter.getExpression1().accept(
-				this,
-				data);
-
+		final ByteArrayId fieldId = getFieldId(filter.getExpression1());
 		final Object value = filter.getExpression2().accept(
 				this,
 				data);
-
+		if (fieldId == null) {
+			return new PropertyConstraintSet();
+		}
 		if (value instanceof Number) {
 			return new PropertyConstraintSet(
 					new NumericLessThanOrEqualToConstraint(
-							leftResult,
+							fieldId,
 							(Number) value));
 		}
+		if (value instanceof Date) {
+			return new PropertyConstraintSet(
+					new TemporalQueryConstraint(
+							fieldId,
+							MIN_TIME,
+							(Date) value,
+							true,
+							true));
+		}
 		return new PropertyConstraintSet();
 
 	}
@@ -579,9 +701,35 @@ public class PropertyFilterVisitor extends
 	public Object visit(
 			final Subtract expression,
 			final Object data ) {
-		return expression.accept(
-				this,
-				data);
+		return new PropertyConstraintSet();
+	}
+
+	/**
+	 * @return the ID of the field, or null when the expression is not a
+	 *         property and the filter does not constrain a field directly
+	 */
+	private static ByteArrayId getFieldId(
+			final Expression expression ) {
+		if (expression instanceof PropertyName) {
+			return new ByteArrayId(
+					((PropertyName) expression).getPropertyName());
+		}
+		return null;
+	}
+
+	private static Date toDate(
+			final Object value ) {
+		if (value instanceof Date) {
+			return (Date) value;
+		}
+		if (value instanceof Instant) {
+			final Position position = ((Instant) value).getPosition();
+			if (position.getDate() != null) {
+				return position.getDate();
+			}
+			return position.getTime();
+		}
+		return null;
 	}
 
 }
@@ -0,0 +1,528 @@
+package mil.nga.giat.geowave.adapter.vector.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.SchemaException;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+import com.vividsolutions.jts.geom.Envelope;
+
+import mil.nga.giat.geowave.adapter.vector.query.cql.PropertyConstraintSet;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureCountMinSketchStatistics;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureNumericHistogramStatistics;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LatitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LongitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.TemporalBinningStrategy.Unit;
+import mil.nga.giat.geowave.core.geotime.index.dimension.TimeDefinition;
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialDimensionalityTypeProvider.SpatialIndexBuilder;
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialTemporalDimensionalityTypeProvider.SpatialTemporalIndexBuilder;
+import mil.nga.giat.geowave.core.geotime.store.statistics.BoundingBoxDataStatistics;
+import mil.nga.giat.geowave.core.geotime.store.statistics.TimeRangeDataStatistics;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+import mil.nga.giat.geowave.core.store.adapter.statistics.CountDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.index.FieldIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.FilterableConstraints;
+import mil.nga.giat.geowave.core.store.index.Index;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexType;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericFieldIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericGreaterThanOrEqualToConstraint;
+import mil.nga.giat.geowave.core.store.index.numeric.NumericLessThanConstraint;
+import mil.nga.giat.geowave.core.store.index.text.TextIndexStrategy;
+import mil.nga.giat.geowave.core.store.index.text.TextQueryConstraint;
+import mil.nga.giat.geowave.core.store.query.BasicQuery;
+import mil.nga.giat.geowave.core.store.query.BasicQuery.ConstraintData;
+import mil.nga.giat.geowave.core.store.query.BasicQuery.ConstraintSet;
+import mil.nga.giat.geowave.core.store.query.BasicQuery.Constraints;
+
+public class ChooseCostBasedIndexQueryStrategyTest
+{
+	private static final int FEATURE_COUNT = 1000;
+	private static final double START_TIME = 1.1e12;
+	private static final double HOUR = 3600000;
+	private static final double YEAR = HOUR * 24 * 365;
+	private static final ByteArrayId POP = new ByteArrayId(
+			"pop");
+	private static final ByteArrayId RANK = new ByteArrayId(
+			"rank");
+	private static final ByteArrayId NAME = new ByteArrayId(
+			"name");
+
+	private final PrimaryIndex spatialIndex = new SpatialIndexBuilder().createIndex();
+	private final PrimaryIndex spatialTemporalIndex = new SpatialTemporalIndexBuilder().setPeriodicity(
+			Unit.YEAR).createIndex();
+	private final SecondaryIndex<SimpleFeature> popIndex = createSecondaryIndex(
+			new NumericFieldIndexStrategy(),
+			POP);
+	private final SecondaryIndex<SimpleFeature> rankIndex = createSecondaryIndex(
+			new NumericFieldIndexStrategy(),
+			RANK);
+	private final SecondaryIndex<SimpleFeature> nameIndex = createSecondaryIndex(
+			new TextIndexStrategy(),
+			NAME);
+	private final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats = new HashMap<ByteArrayId, DataStatistics<SimpleFeature>>();
+
+	@Before
+	public void setup()
+			throws SchemaException {
+		final ByteArrayId adapterId = new ByteArrayId(
+				"123");
+		final CountDataStatistics<SimpleFeature> countStats = new CountDataStatistics<SimpleFeature>(
+				adapterId);
+		// features spread over 10 degrees and a year
+		final BoundingBoxDataStatistics<SimpleFeature> bboxStats = new BoundingBoxDataStatistics<SimpleFeature>(
+				adapterId) {
+			private int i = 0;
+
+			@Override
+			protected Envelope getEnvelope(
+					final SimpleFeature entry ) {
+				final double x = (10.0 * (i % 100)) / 99;
+				final double y = (10.0 * (i++ / 10 % 100)) / 99;
+				return new Envelope(
+						x,
+						x,
+						y,
+						y);
+			}
+		};
+		final TimeRangeDataStatistics<SimpleFeature> timeStats = new TimeRangeDataStatistics<SimpleFeature>(
+				adapterId,
+				"when") {
+			private int i = 0;
+
+			@Override
+			protected NumericRange getRange(
+					final SimpleFeature entry ) {
+				final double time = START_TIME + ((YEAR * i++) / (FEATURE_COUNT - 1));
+				return new NumericRange(
+						time,
+						time);
+			}
+		};
+		// pop and rank hold each value from 0 to 999 once and name one of a
+		// hundred values
+		final SimpleFeatureType type = DataUtilities.createType(
+				"test",
+				"pop:Integer,rank:Integer,name:String");
+		final FeatureNumericHistogramStatistics popStats = new FeatureNumericHistogramStatistics(
+				adapterId,
+				POP.getString());
+		final FeatureNumericHistogramStatistics rankStats = new FeatureNumericHistogramStatistics(
+				adapterId,
+				RANK.getString());
+		final FeatureCountMinSketchStatistics nameStats = new FeatureCountMinSketchStatistics(
+				adapterId,
+				NAME.getString());
+		for (int i = 0; i < FEATURE_COUNT; i++) {
+			countStats.entryIngested(
+					null,
+					null);
+			bboxStats.entryIngested(
+					null,
+					null);
+			timeStats.entryIngested(
+					null,
+					null);
+			final SimpleFeature feature = SimpleFeatureBuilder.build(
+					type,
+					new Object[] {
+						i,
+						(i * 7) % FEATURE_COUNT,
+						"name" + (i % 100)
+					},
+					"id" + i);
+			popStats.entryIngested(
+					null,
+					feature);
+			rankStats.entryIngested(
+					null,
+					feature);
+			nameStats.entryIngested(
+					null,
+					feature);
+		}
+		for (final DataStatistics<SimpleFeature> stat : Arrays.<DataStatistics<SimpleFeature>> asList(
+				countStats,
+				bboxStats,
+				timeStats,
+				popStats,
+				rankStats,
+				nameStats)) {
+			stats.put(
+					stat.getStatisticsId(),
+					stat);
+		}
+	}
+
+	@Test
+	public void testChooseTemporalForLargeAreaShortTime() {
+		final Iterator<Index<?, ?>> it = getIndices(createQuery(
+				0,
+				10,
+				START_TIME,
+				START_TIME + HOUR));
+		assertTrue(it.hasNext());
+		assertEquals(
+				spatialTemporalIndex.getId(),
+				it.next().getId());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testChooseSpatialWithoutTime() {
+		final Iterator<Index<?, ?>> it = getIndices(createQuery(
+				1,
+				1.01,
+				Double.NaN,
+				Double.NaN));
+		assertTrue(it.hasNext());
+		assertEquals(
+				spatialIndex.getId(),
+				it.next().getId());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testChooseWithoutStats() {
+		stats.clear();
+		final Iterator<Index<?, ?>> it = getIndices(createQuery(
+				0,
+				10,
+				START_TIME,
+				START_TIME + HOUR));
+		assertTrue(it.hasNext());
+		// equal estimates choose the index that scans fewer ranges
+		assertEquals(
+				spatialTemporalIndex.getId(),
+				it.next().getId());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testChooseWithHistogramWithoutCount() {
+		stats.remove(CountDataStatistics.STATS_ID);
+		// only the spatial index has a histogram, holding one row per feature
+		final RowRangeHistogramStatistics<SimpleFeature> rangeStats = new RowRangeHistogramStatistics<SimpleFeature>(
+				new ByteArrayId(
+						"123"),
+				spatialIndex.getId());
+		for (int i = 0; i < FEATURE_COUNT; i++) {
+			final double x = (10.0 * (i % 100)) / 99;
+			final double y = (10.0 * (i / 10 % 100)) / 99;
+			rangeStats.entryIngested(
+					new DataStoreEntryInfo(
+							new byte[0],
+							new ArrayList<ByteArrayId>(),
+							spatialIndex.getIndexStrategy().getInsertionIds(
+									new BasicNumericDataset(
+											new NumericData[] {
+												new NumericRange(
+														x,
+														x),
+												new NumericRange(
+														y,
+														y)
+											})),
+							new ArrayList<FieldInfo<?>>()),
+					null);
+		}
+		stats.put(
+				rangeStats.getStatisticsId(),
+				rangeStats);
+		// the histogram estimates most rows for the large area, the time range
+		// an hour out of a year
+		final Iterator<Index<?, ?>> it = getIndices(createQuery(
+				0,
+				10,
+				START_TIME,
+				START_TIME + HOUR));
+		assertTrue(it.hasNext());
+		assertEquals(
+				spatialTemporalIndex.getId(),
+				it.next().getId());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testChooseSelectiveSecondaryIndex() {
+		// the whole area and year, only the attribute constraint is selective
+		final QueryPlan plan = getQueryPlan(
+				createQuery(
+						0,
+						10,
+						START_TIME,
+						START_TIME + YEAR),
+				new NumericLessThanConstraint(
+						POP,
+						10));
+		assertTrue(plan.isSecondaryIndexPlan());
+		assertEquals(
+				Arrays.asList(popIndex),
+				plan.getSecondaryIndices());
+		assertEquals(
+				10,
+				plan.getEstimatedRows(),
+				2);
+	}
+
+	@Test
+	public void testChooseCaseSensitiveTextSecondaryIndex() {
+		final QueryPlan plan = getQueryPlan(
+				createQuery(
+						0,
+						10,
+						START_TIME,
+						START_TIME + YEAR),
+				new TextQueryConstraint(
+						NAME,
+						"name7",
+						true));
+		assertTrue(plan.isSecondaryIndexPlan());
+		assertEquals(
+				Arrays.asList(nameIndex),
+				plan.getSecondaryIndices());
+	}
+
+	@Test
+	public void testIntersectSecondaryIndices() {
+		// each constraint matches a tenth of the features, reading both
+		// indices joins a hundredth of them
+		final QueryPlan plan = getQueryPlan(
+				createQuery(
+						0,
+						10,
+						START_TIME,
+						START_TIME + YEAR),
+				new NumericLessThanConstraint(
+						POP,
+						100),
+				new NumericGreaterThanOrEqualToConstraint(
+						RANK,
+						900));
+		assertTrue(plan.isSecondaryIndexPlan());
+		assertEquals(
+				2,
+				plan.getSecondaryIndices().size());
+		assertTrue(plan.getSecondaryIndices().contains(
+				popIndex));
+		assertTrue(plan.getSecondaryIndices().contains(
+				rankIndex));
+	}
+
+	@Test
+	public void testChoosePrimaryIndexOverUnselectiveAttribute() {
+		final QueryPlan plan = getQueryPlan(
+				createQuery(
+						1,
+						1.01,
+						Double.NaN,
+						Double.NaN),
+				new NumericLessThanConstraint(
+						POP,
+						900));
+		assertFalse(plan.isSecondaryIndexPlan());
+		assertEquals(
+				spatialIndex.getId(),
+				plan.getPrimaryIndex().getId());
+	}
+
+	@Test
+	public void testIgnoreSecondaryIndexWithoutStats() {
+		stats.remove(FeatureNumericHistogramStatistics.composeId(POP.getString()));
+		final QueryPlan plan = getQueryPlan(
+				createQuery(
+						0,
+						10,
+						START_TIME,
+						START_TIME + YEAR),
+				new NumericLessThanConstraint(
+						POP,
+						10));
+		// an index without statistics could match every feature
+		assertFalse(plan.isSecondaryIndexPlan());
+		assertNotNull(plan.getPrimaryIndex());
+	}
+
+	@Test
+	public void testOverlappingConstraints() {
+		final ChooseCostBasedIndexQueryStrategy.StatisticsSummary summary = new ChooseCostBasedIndexQueryStrategy.StatisticsSummary(
+				stats);
+		final NumericDimensionDefinition[] dimensions = spatialIndex.getIndexStrategy().getOrderedDimensionDefinitions();
+		// the same constraint twice
+		assertEquals(
+				0.5,
+				summary.getSelectivity(
+						dimensions,
+						Arrays.asList(
+								createConstraint(
+										0,
+										5,
+										0,
+										10),
+								createConstraint(
+										0,
+										5,
+										0,
+										10))),
+				0.000001);
+		// 0.6 + 0.3 - 0.1 of the area
+		assertEquals(
+				0.8,
+				summary.getSelectivity(
+						dimensions,
+						Arrays.asList(
+								createConstraint(
+										0,
+										6,
+										0,
+										10),
+								createConstraint(
+										4,
+										10,
+										0,
+										5))),
+				0.000001);
+		// disjoint constraints and one outside of the data
+		assertEquals(
+				0.25,
+				summary.getSelectivity(
+						dimensions,
+						Arrays.asList(
+								createConstraint(
+										0,
+										5,
+										0,
+										2.5),
+								createConstraint(
+										0,
+										5,
+										7.5,
+										10),
+								createConstraint(
+										20,
+										30,
+										20,
+										30))),
+				0.000001);
+	}
+
+	private static SecondaryIndex<SimpleFeature> createSecondaryIndex(
+			final FieldIndexStrategy<?, ?> indexStrategy,
+			final ByteArrayId fieldId ) {
+		return new SecondaryIndex<SimpleFeature>(
+				indexStrategy,
+				fieldId,
+				Collections.<DataStatistics<SimpleFeature>> emptyList(),
+				SecondaryIndexType.JOIN);
+	}
+
+	private static MultiDimensionalNumericData createConstraint(
+			final double minX,
+			final double maxX,
+			final double minY,
+			final double maxY ) {
+		return new BasicNumericDataset(
+				new NumericData[] {
+					new NumericRange(
+							minX,
+							maxX),
+					new NumericRange(
+							minY,
+							maxY)
+				});
+	}
+
+	private QueryPlan getQueryPlan(
+			final BasicQuery query,
+			final FilterableConstraints... attributeConstraints ) {
+		final PropertyConstraintSet constraints = new PropertyConstraintSet();
+		for (final FilterableConstraints constraint : attributeConstraints) {
+			constraints.add(
+					constraint,
+					true);
+		}
+		return new ChooseCostBasedIndexQueryStrategy().getQueryPlan(
+				stats,
+				query,
+				constraints,
+				new PrimaryIndex[] {
+					spatialIndex,
+					spatialTemporalIndex
+				},
+				Arrays.asList(
+						popIndex,
+						rankIndex,
+						nameIndex));
+	}
+
+	private Iterator<Index<?, ?>> getIndices(
+			final BasicQuery query ) {
+		return new ChooseCostBasedIndexQueryStrategy().getIndices(
+				stats,
+				query,
+				new PrimaryIndex[] {
+					spatialIndex,
+					spatialTemporalIndex
+				});
+	}
+
+	private static BasicQuery createQuery(
+			final double min,
+			final double max,
+			final double startTime,
+			final double endTime ) {
+		final ConstraintSet constraints = new ConstraintSet();
+		constraints.addConstraint(
+				LongitudeDefinition.class,
+				new ConstraintData(
+						new NumericRange(
+								min,
+								max),
+						true));
+		constraints.addConstraint(
+				LatitudeDefinition.class,
+				new ConstraintData(
+						new NumericRange(
+								min,
+								max),
+						true));
+		if (!Double.isNaN(startTime)) {
+			constraints.addConstraint(
+					TimeDefinition.class,
+					new ConstraintData(
+							new NumericRange(
+									startTime,
+									endTime),
+							true));
+		}
+		return new BasicQuery(
+				new Constraints(
+						constraints));
+	}
+}
@@ -1,13 +1,28 @@
 package mil.nga.giat.geowave.adapter.vector.query.cql;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.UUID;
 
 import mil.nga.giat.geowave.adapter.vector.FeatureDataAdapter;
 import mil.nga.giat.geowave.core.geotime.ingest.SpatialDimensionalityTypeProvider;
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialTemporalDimensionalityTypeProvider;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.adapter.AdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.data.PersistentDataset;
+import mil.nga.giat.geowave.core.store.data.PersistentValue;
 import mil.nga.giat.geowave.core.store.filter.DistributableFilterList;
 import mil.nga.giat.geowave.core.store.filter.DistributableQueryFilter;
 import mil.nga.giat.geowave.core.store.filter.QueryFilter;
@@ -15,16 +30,19 @@ import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
 
 import org.geotools.data.DataUtilities;
+import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.SchemaException;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.filter.FilterFactoryImpl;
 import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
 import org.junit.Before;
 import org.junit.Test;
 import org.opengis.feature.simple.SimpleFeature;
 import org.opengis.feature.simple.SimpleFeatureType;
 import org.opengis.feature.type.AttributeDescriptor;
 import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory2;
 import org.opengis.filter.expression.Expression;
 
 import com.vividsolutions.jts.geom.Coordinate;
@@ -44,7 +62,7 @@ public class CQLQueryFilterTest
 			CQLException {
 		type = DataUtilities.createType(
 				"geostuff",
-				"geom:Geometry:srid=4326,pop:java.lang.Long,pid:String");
+				"geom:Geometry:srid=4326,pop:java.lang.Long,pid:String,when:Date");
 
 		final List<AttributeDescriptor> descriptors = type.getAttributeDescriptors();
 		defaults = new Object[descriptors.size()];
@@ -93,6 +111,244 @@ public class CQLQueryFilterTest
 						0)));
 	}
 
+	@Test
+	public void testBoundFieldsAgreeWithFullDecode()
+			throws CQLException {
+		final Map<String, Boolean> filters = new LinkedHashMap<String, Boolean>();
+		// attribute filters
+		filters.put(
+				"pop > 50",
+				true);
+		filters.put(
+				"pop < 50",
+				false);
+		filters.put(
+				"pid = 'a89dhd-123-abc'",
+				true);
+		filters.put(
+				"pid LIKE 'a89%' AND pop = 100",
+				true);
+		filters.put(
+				"pop IS NULL",
+				false);
+		filters.put(
+				"NOT (pop > 50) OR pid = 'other'",
+				false);
+		filters.put(
+				"strToUpperCase(pid) = 'A89DHD-123-ABC'",
+				true);
+		// spatial filters
+		filters.put(
+				"BBOX(geom, 27, 41, 28, 42)",
+				true);
+		filters.put(
+				"BBOX(geom, 0, 0, 1, 1)",
+				false);
+		filters.put(
+				"INTERSECTS(geom, POLYGON((27 41, 28 41, 28 42, 27 42, 27 41)))",
+				true);
+		// temporal filters
+		filters.put(
+				"when AFTER 2016-01-01T00:00:00Z",
+				true);
+		filters.put(
+				"when BEFORE 2016-01-01T00:00:00Z",
+				false);
+		filters.put(
+				"when DURING 2017-01-01T00:00:00Z/2017-12-31T00:00:00Z",
+				true);
+		filters.put(
+				"BBOX(geom, 27, 41, 28, 42) AND when AFTER 2018-01-01T00:00:00Z",
+				false);
+
+		final FeatureDataAdapter adapter = new FeatureDataAdapter(
+				type);
+		final FeatureDataAdapter fullDecodeAdapter = createFullDecodeAdapter();
+		final SimpleFeature feature = createFeature();
+		for (final PrimaryIndex index : getIndices()) {
+			for (final Entry<String, Boolean> entry : filters.entrySet()) {
+				final Filter filter = ECQL.toFilter(entry.getKey());
+				final CQLQueryFilter boundFilter = new CQLQueryFilter(
+						filter,
+						adapter);
+				final CQLQueryFilter fullDecodeFilter = new CQLQueryFilter(
+						filter,
+						fullDecodeAdapter);
+				assertNotNull(
+						entry.getKey(),
+						boundFilter.getBoundFieldIds());
+				assertNull(
+						entry.getKey(),
+						fullDecodeFilter.getBoundFieldIds());
+				assertEquals(
+						entry.getKey(),
+						entry.getValue(),
+						fullDecodeFilter.accept(
+								index.getIndexModel(),
+								encodeAsStored(
+										fullDecodeAdapter,
+										index,
+										feature)));
+				assertEquals(
+						entry.getKey(),
+						entry.getValue(),
+						boundFilter.accept(
+								index.getIndexModel(),
+								encodeAsStored(
+										adapter,
+										index,
+										feature)));
+			}
+		}
+	}
+
+	@Test
+	public void testFunctionWithoutProperty()
+			throws CQLException {
+		final FeatureDataAdapter adapter = new FeatureDataAdapter(
+				type);
+		// the property function reads the feature by name, so the filter is
+		// not bound to the fields it references
+		final CQLQueryFilter filter = new CQLQueryFilter(
+				ECQL.toFilter("property('pop') > 50"),
+				adapter);
+		assertNull(filter.getBoundFieldIds());
+		for (final PrimaryIndex index : getIndices()) {
+			assertTrue(filter.accept(
+					index.getIndexModel(),
+					encodeAsStored(
+							adapter,
+							index,
+							createFeature())));
+		}
+	}
+
+	@Test
+	public void testDefaultGeometry() {
+		final FilterFactory2 ff = CommonFactoryFinder.getFilterFactory2();
+		final FeatureDataAdapter adapter = new FeatureDataAdapter(
+				type);
+		final FeatureDataAdapter fullDecodeAdapter = createFullDecodeAdapter();
+		final SimpleFeature feature = createFeature();
+		// an empty property name references the default geometry
+		final Filter inside = ff.bbox(
+				ff.property(""),
+				27,
+				41,
+				28,
+				42,
+				"EPSG:4326");
+		final Filter outside = ff.bbox(
+				ff.property(""),
+				0,
+				0,
+				1,
+				1,
+				"EPSG:4326");
+		for (final PrimaryIndex index : getIndices()) {
+			for (final Filter filter : Arrays.asList(
+					inside,
+					outside)) {
+				final boolean expected = filter == inside;
+				assertEquals(
+						expected,
+						new CQLQueryFilter(
+								filter,
+								fullDecodeAdapter).accept(
+								index.getIndexModel(),
+								encodeAsStored(
+										fullDecodeAdapter,
+										index,
+										feature)));
+				assertEquals(
+						expected,
+						new CQLQueryFilter(
+								filter,
+								adapter).accept(
+								index.getIndexModel(),
+								encodeAsStored(
+										adapter,
+										index,
+										feature)));
+			}
+		}
+	}
+
+	@Test
+	public void testBinaryRebindsFields()
+			throws CQLException {
+		final FeatureDataAdapter adapter = new FeatureDataAdapter(
+				type);
+		final CQLQueryFilter filter = new CQLQueryFilter(
+				ECQL.toFilter("pid = 'a89dhd-123-abc' AND BBOX(geom, 27, 41, 28, 42)"),
+				adapter);
+		final CQLQueryFilter restored = new CQLQueryFilter();
+		restored.fromBinary(filter.toBinary());
+		assertEquals(
+				new HashSet<ByteArrayId>(
+						Arrays.asList(
+								new ByteArrayId(
+										"pid"),
+								new ByteArrayId(
+										"geom"))),
+				restored.getBoundFieldIds());
+		for (final PrimaryIndex index : getIndices()) {
+			assertTrue(restored.accept(
+					index.getIndexModel(),
+					encodeAsStored(
+							adapter,
+							index,
+							createFeature())));
+		}
+	}
+
+	private static List<PrimaryIndex> getIndices() {
+		return Arrays.asList(
+				new SpatialDimensionalityTypeProvider().createPrimaryIndex(),
+				new SpatialTemporalDimensionalityTypeProvider().createPrimaryIndex());
+	}
+
+	/**
+	 * Only a FeatureDataAdapter itself binds filters to fields, so a subclass
+	 * evaluates filters against fully decoded features
+	 */
+	private FeatureDataAdapter createFullDecodeAdapter() {
+		return new FeatureDataAdapter(
+				type) {};
+	}
+
+	/**
+	 * Encode a feature as it is read back from a table, with the extended
+	 * fields still serialized
+	 */
+	private static IndexedAdapterPersistenceEncoding encodeAsStored(
+			final FeatureDataAdapter adapter,
+			final PrimaryIndex index,
+			final SimpleFeature feature ) {
+		final AdapterPersistenceEncoding encoding = adapter.encode(
+				feature,
+				index.getIndexModel());
+		final PersistentDataset<byte[]> unknownData = new PersistentDataset<byte[]>();
+		for (final PersistentValue<Object> value : encoding.getAdapterExtendedData().getValues()) {
+			if (value.getValue() != null) {
+				unknownData.addValue(new PersistentValue<byte[]>(
+						value.getId(),
+						adapter.getWriter(
+								value.getId()).writeField(
+								value.getValue())));
+			}
+		}
+		final List<ByteArrayId> insertionIds = encoding.getInsertionIds(index);
+		return new IndexedAdapterPersistenceEncoding(
+				encoding.getAdapterId(),
+				encoding.getDataId(),
+				insertionIds.get(0),
+				insertionIds.size(),
+				encoding.getCommonData(),
+				unknownData,
+				new PersistentDataset<Object>());
+	}
+
 	private SimpleFeature createFeature() {
 		final SimpleFeature instance = SimpleFeatureBuilder.build(
 				type,
@@ -109,6 +365,11 @@ public class CQLQueryFilterTest
 				factory.createPoint(new Coordinate(
 						27.25,
 						41.25)));
+		// 2017-06-01T00:00:00Z
+		instance.setAttribute(
+				"when",
+				new Date(
+						1496275200000L));
 		return instance;
 	}
 }
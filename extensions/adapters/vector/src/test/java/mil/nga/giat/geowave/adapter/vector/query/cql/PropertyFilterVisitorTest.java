@@ -2,20 +2,27 @@ package mil.nga.giat.geowave.adapter.vector.query.cql;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.index.numeric.NumberRangeFilter;
 import mil.nga.giat.geowave.core.store.index.numeric.NumericEqualsConstraint;
 import mil.nga.giat.geowave.core.store.index.numeric.NumericLessThanConstraint;
 import mil.nga.giat.geowave.core.store.index.numeric.NumericQueryConstraint;
+import mil.nga.giat.geowave.core.store.index.temporal.TemporalQueryConstraint;
 import mil.nga.giat.geowave.core.store.index.text.TextExactMatchFilter;
 import mil.nga.giat.geowave.core.store.index.text.TextQueryConstraint;
 
 import org.geotools.data.Query;
+import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.filter.text.cql2.CQL;
 import org.geotools.filter.text.cql2.CQLException;
 import org.junit.Test;
 import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory2;
 
 public class PropertyFilterVisitorTest
 {
@@ -36,7 +43,7 @@ public class PropertyFilterVisitorTest
 		NumberRangeFilter nf = (NumberRangeFilter) ((NumericLessThanConstraint) constraints
 				.getConstraintsById(new ByteArrayId(
 						"a"))).getFilter();
-		assertTrue(nf.getLowerValue().doubleValue() == Double.MIN_VALUE);
+		assertTrue(nf.getLowerValue().doubleValue() == -Double.MAX_VALUE);
 		assertEquals(
 				9,
 				nf.getUpperValue().longValue());
@@ -78,7 +85,7 @@ public class PropertyFilterVisitorTest
 		assertEquals(
 				12,
 				nf.getUpperValue().longValue());
-		assertTrue(nf.getLowerValue().doubleValue() == Double.MIN_VALUE);
+		assertTrue(nf.getLowerValue().doubleValue() == -Double.MAX_VALUE);
 		assertTrue(nf.isInclusiveHigh());
 		assertTrue(nf.isInclusiveLow());
 
@@ -139,4 +146,87 @@ public class PropertyFilterVisitorTest
 		assertTrue(tf.isCaseSensitive());
 
 	}
+
+	@Test
+	public void testOrConstrainsCommonFields()
+			throws CQLException {
+		final Filter filter = CQL.toFilter("a < 9 or (a > 20 and b = '10')");
+		final PropertyConstraintSet constraints = (PropertyConstraintSet) filter.accept(
+				new PropertyFilterVisitor(),
+				null);
+		final NumericQueryConstraint a = (NumericQueryConstraint) constraints.getConstraintsById(new ByteArrayId(
+				"a"));
+		assertTrue(a.getLowerValue().doubleValue() == -Double.MAX_VALUE);
+		assertTrue(a.getUpperValue().doubleValue() == Double.MAX_VALUE);
+		// b is not constrained when a < 9
+		assertNull(constraints.getConstraintsById(new ByteArrayId(
+				"b")));
+	}
+
+	@Test
+	public void testNotEqualToIsNotConstrained()
+			throws CQLException {
+		final Filter filter = CQL.toFilter("a <> 9");
+		final PropertyConstraintSet constraints = (PropertyConstraintSet) filter.accept(
+				new PropertyFilterVisitor(),
+				null);
+		assertTrue(constraints.isEmpty());
+	}
+
+	@Test
+	public void testTemporalTypes()
+			throws CQLException {
+		final Filter filter = CQL
+				.toFilter("when AFTER 2005-05-19T20:32:56Z and span DURING 2005-05-19T00:00:00Z/2005-05-20T00:00:00Z");
+		final PropertyConstraintSet constraints = (PropertyConstraintSet) filter.accept(
+				new PropertyFilterVisitor(),
+				null);
+		final TemporalQueryConstraint when = (TemporalQueryConstraint) constraints.getConstraintsById(new ByteArrayId(
+				"when"));
+		assertEquals(
+				1116534776000L,
+				when.getStart().getTime());
+		assertEquals(
+				Long.MAX_VALUE,
+				when.getEnd().getTime());
+		assertFalse(when.isInclusiveLow());
+		final TemporalQueryConstraint span = (TemporalQueryConstraint) constraints
+				.getConstraintsById(new ByteArrayId(
+						"span"));
+		assertEquals(
+				1116460800000L,
+				span.getStart().getTime());
+		assertEquals(
+				1116547200000L,
+				span.getEnd().getTime());
+		assertFalse(span.isInclusiveLow());
+		assertFalse(span.isInclusiveHigh());
+	}
+
+	@Test
+	public void testDateComparisons() {
+		final FilterFactory2 factory = CommonFactoryFinder.getFilterFactory2();
+		final Filter filter = factory.and(
+				factory.greaterOrEqual(
+						factory.property("when"),
+						factory.literal(new Date(
+								1000))),
+				factory.less(
+						factory.property("when"),
+						factory.literal(new Date(
+								2000))));
+		final PropertyConstraintSet constraints = (PropertyConstraintSet) filter.accept(
+				new PropertyFilterVisitor(),
+				null);
+		final TemporalQueryConstraint when = (TemporalQueryConstraint) constraints.getConstraintsById(new ByteArrayId(
+				"when"));
+		assertEquals(
+				1000,
+				when.getStart().getTime());
+		assertEquals(
+				2000,
+				when.getEnd().getTime());
+		assertTrue(when.isInclusiveLow());
+		assertFalse(when.isInclusiveHigh());
+	}
 }
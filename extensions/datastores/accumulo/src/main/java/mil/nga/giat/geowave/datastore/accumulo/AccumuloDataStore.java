@@ -346,6 +346,9 @@ public class AccumuloDataStore extends
 						statisticsStore,
 						sanitizedQueryOptions.getAuthorizations()),
 				sanitizedQueryOptions.getAuthorizations());
+		accumuloQuery.setDecodeParallelism(
+				sanitizedQueryOptions.getDecodeParallelism(),
+				sanitizedQueryOptions.isUnorderedResults());
 
 		return accumuloQuery.query(
 				accumuloOperations,
@@ -393,6 +396,9 @@ public class AccumuloDataStore extends
 				(ScanCallback<Object>) sanitizedQueryOptions.getScanCallback(),
 				filter,
 				sanitizedQueryOptions.getAuthorizations());
+		q.setDecodeParallelism(
+				sanitizedQueryOptions.getDecodeParallelism(),
+				sanitizedQueryOptions.isUnorderedResults());
 
 		return q.query(
 				accumuloOperations,
@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.datastore.accumulo;
 
 import java.io.Closeable;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
 
@@ -13,6 +14,7 @@ import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.Writer;
 import mil.nga.giat.geowave.core.store.callback.IngestCallback;
 import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
 import mil.nga.giat.geowave.core.store.index.DataStoreIndexWriter;
@@ -53,6 +55,10 @@ public class AccumuloIndexWriter<T> extends
 
 	protected synchronized void ensureOpen() {
 		if (writer == null) {
+			if (accumuloOptions.isBulkIngest()) {
+				writer = createBulkImportWriter();
+				return;
+			}
 			try {
 				writer = accumuloOperations.createWriter(
 						StringUtils.stringFromBinary(index.getId().getBytes()),
@@ -69,6 +75,32 @@ public class AccumuloIndexWriter<T> extends
 		}
 	}
 
+	private Writer<Mutation> createBulkImportWriter() {
+		final String tableName = StringUtils.stringFromBinary(index.getId().getBytes());
+		try {
+			if (accumuloOptions.isCreateTable()) {
+				accumuloOperations.createTable(
+						tableName,
+						true,
+						accumuloOptions.isEnableBlockCache(),
+						index.getIndexStrategy().getNaturalSplits());
+			}
+			return new BulkImportWriter(
+					accumuloOperations.getConnector(),
+					AccumuloUtils.getQualifiedTableName(
+							accumuloOperations.getGeoWaveNamespace(),
+							tableName),
+					accumuloOptions.getBulkIngestWorkDir(),
+					accumuloOptions.getBulkIngestBufferSize());
+		}
+		catch (IOException | TableNotFoundException e) {
+			// writing to a null writer would silently drop every entry
+			throw new RuntimeException(
+					"Unable to open bulk import writer for table '" + tableName + "'",
+					e);
+		}
+	}
+
 	@Override
 	protected DataStoreEntryInfo getEntryInfo(
 			final T entry,
@@ -0,0 +1,314 @@
+package mil.nga.giat.geowave.datastore.accumulo;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.data.ColumnUpdate;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.log4j.Logger;
+
+import mil.nga.giat.geowave.core.store.base.Writer;
+
+/**
+ * This writer bulk loads mutations into a table rather than sending them to the
+ * tablet servers with a BatchWriter. The key/values of the mutations are
+ * buffered in memory, and each time the buffer is full (or the writer is
+ * flushed) they are sorted and written as RFiles to a work directory, one file
+ * for each tablet of the table that the buffer has data for. When the writer is
+ * closed every file is imported into the table with a single importDirectory.
+ *
+ * Entries written this way are not visible until the writer is closed. The work
+ * directory must be on a file system that the tablet servers can read. If
+ * writing the files or importing them fails, flush() and close() throw a
+ * RuntimeException; the entries of a run that could not be written stay
+ * buffered, so that a later flush can write them again.
+ */
+public class BulkImportWriter implements
+		Writer<Mutation>
+{
+	private final static Logger LOGGER = Logger.getLogger(BulkImportWriter.class);
+	// an estimate of the memory used by a key/value beyond its data
+	private static final long ENTRY_OVERHEAD = 64;
+
+	private final Connector connector;
+	private final String tableName;
+	private final long maxMemory;
+	private final FileSystem fs;
+	private final Path workDir;
+	private final Path filesDir;
+	private final Path failuresDir;
+	private final List<Text> splits;
+	private final long timestamp;
+	private final List<KeyValue> buffer = new ArrayList<KeyValue>();
+	private long bufferedMemory = 0;
+	private int runCount = 0;
+	private boolean closed = false;
+
+	public BulkImportWriter(
+			final Connector connector,
+			final String tableName,
+			final String workDirectory,
+			final long maxMemory )
+			throws IOException,
+			TableNotFoundException {
+		this.connector = connector;
+		this.tableName = tableName;
+		this.maxMemory = maxMemory;
+		final Configuration conf = new Configuration();
+		workDir = new Path(
+				workDirectory,
+				tableName + "_" + UUID.randomUUID().toString());
+		fs = workDir.getFileSystem(conf);
+		filesDir = new Path(
+				workDir,
+				"files");
+		failuresDir = new Path(
+				workDir,
+				"failures");
+		if (!fs.mkdirs(filesDir) || !fs.mkdirs(failuresDir)) {
+			throw new IOException(
+					"Unable to create bulk import directory '" + workDir + "'");
+		}
+		try {
+			splits = new ArrayList<Text>(
+					connector.tableOperations().listSplits(
+							tableName));
+		}
+		catch (AccumuloSecurityException | AccumuloException e) {
+			throw new IOException(
+					"Unable to get the splits of table '" + tableName + "'",
+					e);
+		}
+		Collections.sort(splits);
+		timestamp = System.currentTimeMillis();
+	}
+
+	@Override
+	public synchronized void write(
+			final Iterable<Mutation> mutations ) {
+		for (final Mutation mutation : mutations) {
+			write(mutation);
+		}
+	}
+
+	@Override
+	public synchronized void write(
+			final Mutation mutation ) {
+		final byte[] row = mutation.getRow();
+		for (final ColumnUpdate update : mutation.getUpdates()) {
+			final Key key = new Key(
+					row,
+					update.getColumnFamily(),
+					update.getColumnQualifier(),
+					update.getColumnVisibility(),
+					update.hasTimestamp() ? update.getTimestamp() : timestamp,
+					update.isDeleted(),
+					false);
+			final Value value = new Value(
+					update.getValue(),
+					false);
+			buffer.add(new KeyValue(
+					key,
+					value));
+			bufferedMemory += key.getSize() + value.getSize() + ENTRY_OVERHEAD;
+		}
+		if (bufferedMemory >= maxMemory) {
+			flush();
+		}
+	}
+
+	/**
+	 * Write the buffered entries to RFiles, they are not imported until the
+	 * writer is closed
+	 */
+	@Override
+	public synchronized void flush() {
+		if (buffer.isEmpty()) {
+			return;
+		}
+		try {
+			writeRun();
+		}
+		catch (final IOException e) {
+			throw new RuntimeException(
+					"Unable to write bulk import files for table '" + tableName + "'",
+					e);
+		}
+		buffer.clear();
+		bufferedMemory = 0;
+	}
+
+	private void writeRun()
+			throws IOException {
+		Collections.sort(buffer);
+		final int run = runCount;
+		final AccumuloConfiguration accumuloConf = AccumuloConfiguration.getDefaultConfiguration();
+		final List<Path> runFiles = new ArrayList<Path>();
+		FileSKVWriter fileWriter = null;
+		int tablet = 0;
+		boolean written = false;
+		try {
+			for (final KeyValue entry : buffer) {
+				final Text row = entry.key.getRow();
+				// the end row of a tablet is inclusive
+				int entryTablet = tablet;
+				while ((entryTablet < splits.size()) && (row.compareTo(splits.get(entryTablet)) > 0)) {
+					entryTablet++;
+				}
+				if ((fileWriter == null) || (entryTablet != tablet)) {
+					if (fileWriter != null) {
+						fileWriter.close();
+					}
+					tablet = entryTablet;
+					final Path runFile = new Path(
+							filesDir,
+							"run" + run + "_tablet" + tablet + ".rf");
+					runFiles.add(runFile);
+					fileWriter = FileOperations.getInstance().openWriter(
+							runFile.toString(),
+							fs,
+							fs.getConf(),
+							accumuloConf);
+					fileWriter.startDefaultLocalityGroup();
+				}
+				fileWriter.append(
+						entry.key,
+						entry.value);
+			}
+			if (fileWriter != null) {
+				final FileSKVWriter lastWriter = fileWriter;
+				fileWriter = null;
+				lastWriter.close();
+			}
+			written = true;
+		}
+		finally {
+			if (!written) {
+				discardRun(
+						fileWriter,
+						runFiles);
+			}
+		}
+		runCount++;
+	}
+
+	/**
+	 * Remove the files of a run that failed, as the buffered entries are
+	 * written again by the next run
+	 */
+	private void discardRun(
+			final FileSKVWriter fileWriter,
+			final List<Path> runFiles ) {
+		if (fileWriter != null) {
+			try {
+				fileWriter.close();
+			}
+			catch (final IOException e) {
+				LOGGER.warn(
+						"Unable to close bulk import file",
+						e);
+			}
+		}
+		for (final Path runFile : runFiles) {
+			try {
+				fs.delete(
+						runFile,
+						false);
+			}
+			catch (final IOException e) {
+				LOGGER.warn(
+						"Unable to delete bulk import file '" + runFile + "'",
+						e);
+			}
+		}
+	}
+
+	/**
+	 * Import every file written into the table
+	 *
+	 * @throws RuntimeException
+	 *             if the buffered entries could not be written, in which case
+	 *             the writer stays open, or if any file could not be imported,
+	 *             in which case the files that failed remain in the work
+	 *             directory
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		flush();
+		closed = true;
+		try {
+			if (runCount > 0) {
+				connector.tableOperations().importDirectory(
+						tableName,
+						filesDir.toString(),
+						failuresDir.toString(),
+						false);
+				final FileStatus[] failures = fs.listStatus(failuresDir);
+				if ((failures != null) && (failures.length > 0)) {
+					throw new RuntimeException(
+							failures.length + " files failed to import into table '" + tableName
+									+ "', they remain in '" + failuresDir + "'");
+				}
+			}
+			fs.delete(
+					workDir,
+					true);
+		}
+		catch (IOException | AccumuloException | AccumuloSecurityException | TableNotFoundException e) {
+			throw new RuntimeException(
+					"Unable to bulk import into table '" + tableName + "'",
+					e);
+		}
+	}
+
+	private static class KeyValue implements
+			Comparable<KeyValue>
+	{
+		private final Key key;
+		private final Value value;
+
+		public KeyValue(
+				final Key key,
+				final Value value ) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public int compareTo(
+				final KeyValue other ) {
+			return key.compareTo(other.key);
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			return (obj instanceof KeyValue) && key.equals(((KeyValue) obj).key);
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode();
+		}
+	}
+}
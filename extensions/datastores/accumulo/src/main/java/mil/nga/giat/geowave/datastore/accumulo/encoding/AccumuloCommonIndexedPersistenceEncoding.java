@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.datastore.accumulo.encoding;
 
 import java.util.List;
+import java.util.Set;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
@@ -63,4 +64,28 @@ public class AccumuloCommonIndexedPersistenceEncoding extends
 		}
 	}
 
+	@Override
+	public void convertUnknownValues(
+			final DataAdapter<?> adapter,
+			final CommonIndexModel model,
+			final Set<ByteArrayId> fieldIds ) {
+		if (unreadData != null) {
+			final List<FlattenedFieldInfo> fields = unreadData.finishRead();
+			for (final FlattenedFieldInfo field : fields) {
+				final ByteArrayId fieldId = adapter.getFieldIdForPosition(
+						model,
+						field.getFieldPosition());
+				// only read the requested fields, and only once
+				if (!fieldIds.contains(fieldId) || (adapterExtendedData.getValue(fieldId) != null)) {
+					continue;
+				}
+				final FieldReader<Object> reader = adapter.getReader(fieldId);
+				final Object value = reader.readField(field.getValue());
+				adapterExtendedData.addValue(new PersistentValue<Object>(
+						fieldId,
+						value));
+			}
+		}
+	}
+
 }
@@ -1,13 +1,11 @@
 package mil.nga.giat.geowave.datastore.accumulo.index.secondary;
 
-import java.io.Closeable;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import org.apache.accumulo.core.client.BatchScanner;
 import org.apache.accumulo.core.client.IteratorSetting;
-import org.apache.accumulo.core.client.Scanner;
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Range;
@@ -17,16 +15,12 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.io.Text;
 import org.apache.log4j.Logger;
 
-import com.google.common.collect.Iterators;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.ByteArrayRange;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
-import mil.nga.giat.geowave.core.store.CloseableIteratorWrapper;
 import mil.nga.giat.geowave.core.store.DataStore;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
-import mil.nga.giat.geowave.core.store.base.CastIterator;
 import mil.nga.giat.geowave.core.store.base.Writer;
 import mil.nga.giat.geowave.core.store.index.BaseSecondaryIndexDataStore;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
@@ -34,8 +28,7 @@ import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndexType;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndexUtils;
 import mil.nga.giat.geowave.core.store.query.DistributableQuery;
-import mil.nga.giat.geowave.core.store.query.PrefixIdQuery;
-import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.util.SecondaryIndexJoinIterator;
 import mil.nga.giat.geowave.datastore.accumulo.AccumuloOperations;
 import mil.nga.giat.geowave.datastore.accumulo.operations.config.AccumuloOptions;
 
@@ -191,18 +184,13 @@ public class AccumuloSecondaryIndexDataStore extends
 			final PrimaryIndex primaryIndex,
 			final DistributableQuery query,
 			final String... authorizations ) {
-		final Scanner scanner = getScanner(
-				StringUtils.stringFromBinary(secondaryIndex.getId().getBytes()),
+		final BatchScanner scanner = getScanner(
+				secondaryIndex,
+				indexedAttributeFieldId,
+				adapter,
+				query,
 				authorizations);
 		if (scanner != null) {
-			scanner.fetchColumnFamily(new Text(
-					SecondaryIndexUtils.constructColumnFamily(
-							adapter.getAdapterId(),
-							indexedAttributeFieldId)));
-			final Collection<Range> ranges = getScanRanges(query.getSecondaryIndexConstraints(secondaryIndex));
-			for (final Range range : ranges) {
-				scanner.setRange(range);
-			}
 			if (!secondaryIndex.getSecondaryIndexType().equals(
 					SecondaryIndexType.JOIN)) {
 				final IteratorSetting iteratorSettings = new IteratorSetting(
@@ -216,51 +204,64 @@ public class AccumuloSecondaryIndexDataStore extends
 						primaryIndex);
 			}
 			else {
-				final List<CloseableIterator<Object>> allResults = new ArrayList<>();
-				try (final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> joinEntryIterator = new AccumuloSecondaryIndexJoinEntryIteratorWrapper<T>(
-						scanner,
-						adapter)) {
-					while (joinEntryIterator.hasNext()) {
-						final Pair<ByteArrayId, ByteArrayId> entry = joinEntryIterator.next();
-						final ByteArrayId primaryIndexId = entry.getLeft();
-						final ByteArrayId primaryIndexRowId = entry.getRight();
-						final CloseableIterator<Object> intermediateResults = dataStore.query(
-								new QueryOptions(
-										adapter.getAdapterId(),
-										primaryIndexId),
-								new PrefixIdQuery(
-										primaryIndexRowId));
-						allResults.add(intermediateResults);
-						return new CloseableIteratorWrapper<T>(
-								new Closeable() {
-									@Override
-									public void close()
-											throws IOException {
-										for (CloseableIterator<Object> resultIter : allResults) {
-											resultIter.close();
-										}
-									}
-								},
-								Iterators.concat(new CastIterator<T>(
-										allResults.iterator())));
-					}
-				}
-				catch (final IOException e) {
-					LOGGER.error(
-							"Could not close iterator",
-							e);
-				}
+				return new SecondaryIndexJoinIterator<T>(
+						dataStore,
+						adapter.getAdapterId(),
+						new AccumuloSecondaryIndexJoinEntryIteratorWrapper<T>(
+								scanner,
+								adapter),
+						authorizations);
 			}
 		}
 		return new CloseableIterator.Empty<T>();
 	}
 
-	private Scanner getScanner(
+	@Override
+	public <T> CloseableIterator<Pair<ByteArrayId, ByteArrayId>> queryJoinEntries(
+			final SecondaryIndex<T> secondaryIndex,
+			final ByteArrayId indexedAttributeFieldId,
+			final DataAdapter<T> adapter,
+			final DistributableQuery query,
+			final String... authorizations ) {
+		final BatchScanner scanner = getScanner(
+				secondaryIndex,
+				indexedAttributeFieldId,
+				adapter,
+				query,
+				authorizations);
+		if (scanner != null) {
+			return new AccumuloSecondaryIndexJoinEntryIteratorWrapper<T>(
+					scanner,
+					adapter);
+		}
+		return new CloseableIterator.Empty<Pair<ByteArrayId, ByteArrayId>>();
+	}
+
+	private <T> BatchScanner getScanner(
+			final SecondaryIndex<T> secondaryIndex,
+			final ByteArrayId indexedAttributeFieldId,
+			final DataAdapter<T> adapter,
+			final DistributableQuery query,
+			final String... authorizations ) {
+		final BatchScanner scanner = getScanner(
+				StringUtils.stringFromBinary(secondaryIndex.getId().getBytes()),
+				authorizations);
+		if (scanner != null) {
+			scanner.fetchColumnFamily(new Text(
+					SecondaryIndexUtils.constructColumnFamily(
+							adapter.getAdapterId(),
+							indexedAttributeFieldId)));
+			scanner.setRanges(getScanRanges(query.getSecondaryIndexConstraints(secondaryIndex)));
+		}
+		return scanner;
+	}
+
+	private BatchScanner getScanner(
 			final String secondaryIndexId,
 			final String... visibility ) {
-		Scanner scanner = null;
+		BatchScanner scanner = null;
 		try {
-			scanner = accumuloOperations.createScanner(
+			scanner = accumuloOperations.createBatchScanner(
 					secondaryIndexId,
 					visibility);
 		}
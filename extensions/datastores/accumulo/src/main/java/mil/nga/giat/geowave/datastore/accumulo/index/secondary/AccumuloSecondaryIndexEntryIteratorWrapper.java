@@ -3,7 +3,7 @@ package mil.nga.giat.geowave.datastore.accumulo.index.secondary;
 import java.io.IOException;
 import java.util.Map.Entry;
 
-import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.ScannerBase;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.log4j.Logger;
@@ -22,11 +22,11 @@ public class AccumuloSecondaryIndexEntryIteratorWrapper<T> extends
 {
 
 	private final static Logger LOGGER = Logger.getLogger(AccumuloSecondaryIndexEntryIteratorWrapper.class);
-	private final Scanner scanner;
+	private final ScannerBase scanner;
 	private final PrimaryIndex index;
 
 	public AccumuloSecondaryIndexEntryIteratorWrapper(
-			final Scanner scanner,
+			final ScannerBase scanner,
 			final DataAdapter<T> adapter,
 			final PrimaryIndex index ) {
 		super(
@@ -32,6 +32,15 @@ public class AccumuloOptions implements
 	@Parameter(names = "--enableBlockCache", hidden = true, arity = 1)
 	protected boolean enableBlockCache = true;
 
+	@Parameter(names = "--bulkIngest", hidden = true, arity = 1, description = "Load index data by importing sorted RFiles rather than with a BatchWriter")
+	protected boolean bulkIngest = false;
+
+	@Parameter(names = "--bulkIngestWorkDir", hidden = true, description = "The directory for bulk ingest files, it must be readable by the tablet servers")
+	protected String bulkIngestWorkDir = System.getProperty("java.io.tmpdir");
+
+	@Parameter(names = "--bulkIngestBufferSize", hidden = true, description = "The bytes of entries buffered before they are written to a bulk ingest file")
+	protected long bulkIngestBufferSize = 64L * 1024 * 1024;
+
 	public boolean isPersistDataStatistics() {
 		return persistDataStatistics;
 	}
@@ -94,4 +103,39 @@ public class AccumuloOptions implements
 			boolean enableBlockCache ) {
 		this.enableBlockCache = enableBlockCache;
 	}
+
+	public boolean isBulkIngest() {
+		return bulkIngest;
+	}
+
+	/**
+	 * Write index data by importing sorted RFiles when each index writer is
+	 * closed, see BulkImportWriter. Metadata such as statistics is still
+	 * written with a BatchWriter.
+	 *
+	 * @param bulkIngest
+	 *            whether to bulk ingest index data
+	 */
+	public void setBulkIngest(
+			final boolean bulkIngest ) {
+		this.bulkIngest = bulkIngest;
+	}
+
+	public String getBulkIngestWorkDir() {
+		return bulkIngestWorkDir;
+	}
+
+	public void setBulkIngestWorkDir(
+			final String bulkIngestWorkDir ) {
+		this.bulkIngestWorkDir = bulkIngestWorkDir;
+	}
+
+	public long getBulkIngestBufferSize() {
+		return bulkIngestBufferSize;
+	}
+
+	public void setBulkIngestBufferSize(
+			final long bulkIngestBufferSize ) {
+		this.bulkIngestBufferSize = bulkIngestBufferSize;
+	}
 }
@@ -1,5 +1,6 @@
 package mil.nga.giat.geowave.datastore.accumulo.query;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
@@ -22,6 +23,8 @@ import mil.nga.giat.geowave.core.store.filter.FilterList;
 import mil.nga.giat.geowave.core.store.filter.QueryFilter;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.FilteredIndexQuery;
+import mil.nga.giat.geowave.core.store.util.EntryIteratorWrapper;
+import mil.nga.giat.geowave.core.store.util.ParallelDecodeIterator;
 import mil.nga.giat.geowave.datastore.accumulo.AccumuloOperations;
 import mil.nga.giat.geowave.datastore.accumulo.util.AccumuloEntryIteratorWrapper;
 import mil.nga.giat.geowave.datastore.accumulo.util.ScannerClosableWrapper;
@@ -33,6 +36,8 @@ public abstract class AccumuloFilteredIndexQuery extends
 	protected List<QueryFilter> clientFilters;
 	private final static Logger LOGGER = Logger.getLogger(AccumuloFilteredIndexQuery.class);
 	protected final ScanCallback<?> scanCallback;
+	private int decodeParallelism = 1;
+	private boolean unorderedResults = false;
 
 	public AccumuloFilteredIndexQuery(
 			final List<ByteArrayId> adapterIds,
@@ -60,6 +65,23 @@ public abstract class AccumuloFilteredIndexQuery extends
 		this.clientFilters = clientFilters;
 	}
 
+	/**
+	 * Decode the scanned rows with up to the given number of threads rather
+	 * than on the caller's thread
+	 *
+	 * @param decodeParallelism
+	 *            the number of decode threads, 1 or less to decode on the
+	 *            caller's thread
+	 * @param unorderedResults
+	 *            whether results may be returned out of scan order
+	 */
+	public void setDecodeParallelism(
+			final int decodeParallelism,
+			final boolean unorderedResults ) {
+		this.decodeParallelism = decodeParallelism;
+		this.unorderedResults = unorderedResults;
+	}
+
 	protected abstract void addScanIteratorSettings(
 			final ScannerBase scanner );
 
@@ -96,14 +118,35 @@ public abstract class AccumuloFilteredIndexQuery extends
 		Iterator it = initIterator(
 				adapterStore,
 				scanner);
+		Closeable closeable = new ScannerClosableWrapper(
+				scanner);
+		if ((decodeParallelism > 1) && (it instanceof EntryIteratorWrapper)) {
+			final ParallelDecodeIterator decodeIt = new ParallelDecodeIterator(
+					(EntryIteratorWrapper) it,
+					decodeParallelism,
+					!unorderedResults);
+			it = decodeIt;
+			closeable = new Closeable() {
+				@Override
+				public void close()
+						throws IOException {
+					// stop decoding before closing the scanner it reads from
+					try {
+						decodeIt.close();
+					}
+					finally {
+						scanner.close();
+					}
+				}
+			};
+		}
 		if ((limit != null) && (limit > 0)) {
 			it = Iterators.limit(
 					it,
 					limit);
 		}
 		return new CloseableIteratorWrapper(
-				new ScannerClosableWrapper(
-						scanner),
+				closeable,
 				it);
 	}
 
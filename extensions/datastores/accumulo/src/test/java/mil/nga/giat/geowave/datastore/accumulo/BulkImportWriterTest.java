@@ -0,0 +1,187 @@
+package mil.nga.giat.geowave.datastore.accumulo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map.Entry;
+import java.util.TreeSet;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.TableExistsException;
+import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.io.Text;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BulkImportWriterTest
+{
+	private static final String TABLE_NAME = "bulk_test";
+	private Connector connector;
+	private File workDir;
+
+	@Before
+	public void setUp()
+			throws AccumuloException,
+			AccumuloSecurityException,
+			TableExistsException,
+			TableNotFoundException,
+			IOException {
+		connector = new MockInstance().getConnector(
+				"root",
+				new PasswordToken(
+						new byte[0]));
+		connector.tableOperations().create(
+				TABLE_NAME);
+		final TreeSet<Text> splits = new TreeSet<Text>();
+		splits.add(new Text(
+				"row_3"));
+		splits.add(new Text(
+				"row_6"));
+		connector.tableOperations().addSplits(
+				TABLE_NAME,
+				splits);
+		workDir = Files.createTempDirectory(
+				"bulk").toFile();
+	}
+
+	@After
+	public void tearDown()
+			throws IOException {
+		FileUtils.deleteDirectory(workDir);
+	}
+
+	@Test
+	public void testBulkImport()
+			throws IOException,
+			TableNotFoundException {
+		// a small buffer spills several sorted runs
+		final BulkImportWriter writer = new BulkImportWriter(
+				connector,
+				TABLE_NAME,
+				workDir.getAbsolutePath(),
+				1000);
+		writeRows(writer);
+		writer.close();
+		assertImported();
+	}
+
+	@Test
+	public void testFailedRunIsKept()
+			throws IOException,
+			TableNotFoundException {
+		final BulkImportWriter writer = new BulkImportWriter(
+				connector,
+				TABLE_NAME,
+				workDir.getAbsolutePath(),
+				Long.MAX_VALUE);
+		writeRows(writer);
+		// replace the files directory with a file so that no run can be
+		// written
+		final File filesDir = new File(
+				workDir.listFiles()[0],
+				"files");
+		FileUtils.deleteDirectory(filesDir);
+		Assert.assertTrue(filesDir.createNewFile());
+		try {
+			writer.flush();
+			Assert.fail("Expected the run to fail");
+		}
+		catch (final RuntimeException e) {
+			// expected
+		}
+		try {
+			writer.close();
+			Assert.fail("Expected close to fail");
+		}
+		catch (final RuntimeException e) {
+			// expected
+		}
+		Assert.assertTrue(filesDir.delete());
+		Assert.assertTrue(filesDir.mkdir());
+		// the entries are still buffered and the writer is still open
+		writer.close();
+		assertImported();
+	}
+
+	@Test
+	public void testImportFailure()
+			throws IOException,
+			TableNotFoundException,
+			AccumuloException,
+			AccumuloSecurityException {
+		final BulkImportWriter writer = new BulkImportWriter(
+				connector,
+				TABLE_NAME,
+				workDir.getAbsolutePath(),
+				1000);
+		writeRows(writer);
+		connector.tableOperations().delete(
+				TABLE_NAME);
+		try {
+			writer.close();
+			Assert.fail("Expected the import to fail");
+		}
+		catch (final RuntimeException e) {
+			// expected
+		}
+		// the files are kept for a later import
+		Assert.assertEquals(
+				1,
+				workDir.list().length);
+	}
+
+	private static void writeRows(
+			final BulkImportWriter writer ) {
+		for (int i = 9; i >= 0; i--) {
+			final Mutation mutation = new Mutation(
+					"row_" + i);
+			for (int j = 0; j < 10; j++) {
+				mutation.put(
+						"cf",
+						"cq_" + j,
+						"value_" + i + "_" + j);
+			}
+			writer.write(mutation);
+		}
+	}
+
+	private void assertImported()
+			throws TableNotFoundException {
+		final Scanner scanner = connector.createScanner(
+				TABLE_NAME,
+				new Authorizations());
+		int count = 0;
+		Key previousKey = null;
+		for (final Entry<Key, Value> entry : scanner) {
+			if (previousKey != null) {
+				Assert.assertTrue(previousKey.compareTo(entry.getKey()) < 0);
+			}
+			previousKey = entry.getKey();
+			Assert.assertEquals(
+					"value_" + entry.getKey().getRow().toString().substring(
+							4) + "_" + entry.getKey().getColumnQualifier().toString().substring(
+							3),
+					entry.getValue().toString());
+			count++;
+		}
+		Assert.assertEquals(
+				100,
+				count);
+		// the imported files are removed
+		Assert.assertEquals(
+				0,
+				workDir.list().length);
+	}
+}
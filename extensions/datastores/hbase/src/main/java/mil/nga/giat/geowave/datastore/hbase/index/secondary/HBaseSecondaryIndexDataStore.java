@@ -1,6 +1,5 @@
 package mil.nga.giat.geowave.datastore.hbase.index.secondary;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,19 +10,17 @@ import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.RowMutations;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.hadoop.hbase.security.visibility.CellVisibility;
 import org.apache.log4j.Logger;
 
-import com.google.common.collect.Iterators;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.ByteArrayRange;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
-import mil.nga.giat.geowave.core.store.CloseableIteratorWrapper;
 import mil.nga.giat.geowave.core.store.DataStore;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
-import mil.nga.giat.geowave.core.store.base.CastIterator;
 import mil.nga.giat.geowave.core.store.base.Writer;
 import mil.nga.giat.geowave.core.store.index.BaseSecondaryIndexDataStore;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
@@ -31,8 +28,7 @@ import mil.nga.giat.geowave.core.store.index.SecondaryIndex;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndexType;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndexUtils;
 import mil.nga.giat.geowave.core.store.query.DistributableQuery;
-import mil.nga.giat.geowave.core.store.query.QueryOptions;
-import mil.nga.giat.geowave.core.store.query.RowIdQuery;
+import mil.nga.giat.geowave.core.store.util.SecondaryIndexJoinIterator;
 import mil.nga.giat.geowave.datastore.hbase.io.HBaseWriter;
 import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
 import mil.nga.giat.geowave.datastore.hbase.operations.config.HBaseOptions;
@@ -202,101 +198,97 @@ public class HBaseSecondaryIndexDataStore extends
 			final PrimaryIndex primaryIndex,
 			final DistributableQuery query,
 			final String... authorizations ) {
-		final List<Scan> scans = new ArrayList<Scan>();
 		final byte[] columnFamily = SecondaryIndexUtils.constructColumnFamily(
 				adapter.getAdapterId(),
 				indexedAttributeFieldId);
+		final ResultScanner resultScanner = getScannedResults(
+				secondaryIndex,
+				columnFamily,
+				query,
+				authorizations);
+		if (resultScanner != null) {
+			if (secondaryIndex.getSecondaryIndexType().equals(
+					SecondaryIndexType.JOIN)) {
+				return new SecondaryIndexJoinIterator<T>(
+						dataStore,
+						adapter.getAdapterId(),
+						new HBaseSecondaryIndexJoinEntryIteratorWrapper<T>(
+								resultScanner,
+								columnFamily,
+								adapter),
+						authorizations);
+			}
+			return new HBaseSecondaryIndexEntryIteratorWrapper<T>(
+					resultScanner,
+					columnFamily,
+					adapter,
+					primaryIndex);
+		}
+		return new CloseableIterator.Empty<T>();
+	}
+
+	@Override
+	public <T> CloseableIterator<Pair<ByteArrayId, ByteArrayId>> queryJoinEntries(
+			final SecondaryIndex<T> secondaryIndex,
+			final ByteArrayId indexedAttributeFieldId,
+			final DataAdapter<T> adapter,
+			final DistributableQuery query,
+			final String... authorizations ) {
+		final byte[] columnFamily = SecondaryIndexUtils.constructColumnFamily(
+				adapter.getAdapterId(),
+				indexedAttributeFieldId);
+		final ResultScanner resultScanner = getScannedResults(
+				secondaryIndex,
+				columnFamily,
+				query,
+				authorizations);
+		if (resultScanner != null) {
+			return new HBaseSecondaryIndexJoinEntryIteratorWrapper<T>(
+					resultScanner,
+					columnFamily,
+					adapter);
+		}
+		return new CloseableIterator.Empty<Pair<ByteArrayId, ByteArrayId>>();
+	}
+
+	private ResultScanner getScannedResults(
+			final SecondaryIndex<?> secondaryIndex,
+			final byte[] columnFamily,
+			final DistributableQuery query,
+			final String... authorizations ) {
 		final List<ByteArrayRange> scanRanges = query.getSecondaryIndexConstraints(secondaryIndex);
+		if ((scanRanges == null) || scanRanges.isEmpty()) {
+			return null;
+		}
+		// a single scan over every constraint range
+		final List<RowRange> rowRanges = new ArrayList<RowRange>();
 		for (final ByteArrayRange scanRange : scanRanges) {
-			final Scan scan = new Scan();
-			scan.addFamily(columnFamily);
-			scan.setStartRow(scanRange.getStart().getBytes());
-			scan.setStopRow((scanRange.isSingleValue()) ? scanRange.getStart().getBytes() : scanRange
-					.getEnd()
-					.getBytes());
-			scans.add(scan);
+			rowRanges.add(new RowRange(
+					scanRange.getStart().getBytes(),
+					true,
+					scanRange.isSingleValue() ? scanRange.getStart().getBytes() : scanRange.getEnd().getBytes(),
+					true));
 		}
-		final List<ResultScanner> results = new ArrayList<ResultScanner>();
-		for (final Scan scan : scans) {
-			try {
-				final ResultScanner resultScanner = hbaseOperations.getScannedResults(
-						scan,
-						secondaryIndex.getId().getString(),
-						authorizations);
-				if (resultScanner != null) {
-					results.add(resultScanner);
-				}
-			}
-			catch (final IOException e) {
-				LOGGER.warn(
-						"Could not get the results from scanner ",
-						e);
-			}
+		final Scan scan = new Scan();
+		scan.addFamily(columnFamily);
+		try {
+			final MultiRowRangeFilter filter = new MultiRowRangeFilter(
+					rowRanges);
+			final List<RowRange> sortedRanges = filter.getRowRanges();
+			scan.setStartRow(sortedRanges.get(
+					0).getStartRow());
+			scan.setFilter(filter);
+			return hbaseOperations.getScannedResults(
+					scan,
+					secondaryIndex.getId().getString(),
+					authorizations);
 		}
-		if (!results.isEmpty()) {
-			final List<CloseableIterator<Object>> allResultsList = new ArrayList<>();
-			for (final ResultScanner resultsScan : results) {
-				if (secondaryIndex.getSecondaryIndexType().equals(
-						SecondaryIndexType.JOIN)) {
-					final List<CloseableIterator<Object>> allResults = new ArrayList<>();
-					try (final CloseableIterator<Pair<ByteArrayId, ByteArrayId>> joinEntryIterator = new HBaseSecondaryIndexJoinEntryIteratorWrapper<T>(
-							resultsScan,
-							columnFamily,
-							adapter)) {
-						while (joinEntryIterator.hasNext()) {
-							final Pair<ByteArrayId, ByteArrayId> entry = joinEntryIterator.next();
-							final ByteArrayId primaryIndexId = entry.getLeft();
-							final ByteArrayId primaryIndexRowId = entry.getRight();
-							final CloseableIterator<Object> intermediateResults = dataStore.query(
-									new QueryOptions(
-											adapter.getAdapterId(),
-											primaryIndexId),
-									new RowIdQuery(
-											primaryIndexRowId));
-							allResults.add(intermediateResults);
-							final CloseableIterator<Object> intermediateResultsWrapper = new CloseableIteratorWrapper<Object>(
-									new Closeable() {
-										@Override
-										public void close()
-												throws IOException {
-											for (CloseableIterator<Object> resultIter : allResults) {
-												resultIter.close();
-											}
-										}
-									},
-									Iterators.concat(new CastIterator<Object>(
-											allResults.iterator())));
-							allResultsList.add(intermediateResultsWrapper);
-						}
-					}
-					catch (final IOException e) {
-						LOGGER.error(
-								"Could not close iterator",
-								e);
-					}
-				}
-				else {
-					allResultsList.add(new HBaseSecondaryIndexEntryIteratorWrapper<T>(
-							resultsScan,
-							columnFamily,
-							adapter,
-							primaryIndex));
-				}
-			}
-			return new CloseableIteratorWrapper<T>(
-					new Closeable() {
-						@Override
-						public void close()
-								throws IOException {
-							for (final CloseableIterator<Object> closeableIterator : allResultsList) {
-								closeableIterator.close();
-							}
-						}
-					},
-					Iterators.concat(new CastIterator<T>(
-							allResultsList.iterator())));
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Could not get the results from scanner ",
+					e);
 		}
-		return new CloseableIterator.Empty<T>();
+		return null;
 	}
 
-}
\ No newline at end of file
+}
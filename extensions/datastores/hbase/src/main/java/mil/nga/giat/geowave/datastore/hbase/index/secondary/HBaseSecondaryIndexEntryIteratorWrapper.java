@@ -16,7 +16,7 @@ import mil.nga.giat.geowave.datastore.hbase.util.HBaseSecondaryIndexUtils;
  * type
  */
 public class HBaseSecondaryIndexEntryIteratorWrapper<T> extends
-		SecondaryIndexEntryIteratorWrapper<T, Object>
+		SecondaryIndexEntryIteratorWrapper<T, T>
 {
 	private final static Logger LOGGER = Logger.getLogger(HBaseSecondaryIndexEntryIteratorWrapper.class);
 	private final ResultScanner scanner;
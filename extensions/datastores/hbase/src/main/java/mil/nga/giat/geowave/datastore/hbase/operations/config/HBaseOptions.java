@@ -35,6 +35,9 @@ public class HBaseOptions implements
 	@Parameter(names = "--scanCacheSize")
 	protected int scanCacheSize = HConstants.DEFAULT_HBASE_CLIENT_SCANNER_CACHING;
 
+	@Parameter(names = "--scanParallelism", description = "The number of region scans run concurrently by a query, 1 to scan every range with a single scan")
+	protected int scanParallelism = 1;
+
 	@Parameter(names = "--enableCustomFilters")
 	protected boolean enableCustomFilters = false;
 
@@ -121,6 +124,15 @@ public class HBaseOptions implements
 		this.scanCacheSize = scanCacheSize;
 	}
 
+	public int getScanParallelism() {
+		return scanParallelism;
+	}
+
+	public void setScanParallelism(
+			final int scanParallelism ) {
+		this.scanParallelism = scanParallelism;
+	}
+
 	public boolean isEnableCustomFilters() {
 		return enableCustomFilters;
 	}
@@ -9,6 +9,7 @@ import java.util.Map;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.RegionLocator;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.Scan;
@@ -39,6 +40,7 @@ import mil.nga.giat.geowave.datastore.hbase.util.HBaseEntryIteratorWrapper;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseUtils;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseUtils.MultiScannerClosableWrapper;
 import mil.nga.giat.geowave.datastore.hbase.util.MergingEntryIterator;
+import mil.nga.giat.geowave.datastore.hbase.util.ParallelScanIterator;
 
 public abstract class HBaseFilteredIndexQuery extends
 		HBaseQuery implements
@@ -130,6 +132,35 @@ public abstract class HBaseFilteredIndexQuery extends
 
 		final String tableName = StringUtils.stringFromBinary(index.getId().getBytes());
 
+		final List<Scan> regionScans = getRegionScans(
+				operations,
+				tableName,
+				limit,
+				maxResolutionSubsamplingPerDimension);
+		if ((regionScans != null) && (regionScans.size() > 1)) {
+			final ParallelScanIterator parallelScanIterator = new ParallelScanIterator(
+					operations,
+					tableName,
+					authorizations,
+					regionScans,
+					options.getScanParallelism());
+			Iterator it = initIterator(
+					adapterStore,
+					parallelScanIterator,
+					maxResolutionSubsamplingPerDimension,
+					decodePersistenceEncoding);
+
+			if ((limit != null) && (limit > 0)) {
+				it = Iterators.limit(
+						it,
+						limit);
+			}
+
+			return new CloseableIteratorWrapper(
+					parallelScanIterator,
+					it);
+		}
+
 		final Scan multiScanner = getMultiScanner(
 				limit,
 				maxResolutionSubsamplingPerDimension);
@@ -180,11 +211,74 @@ public abstract class HBaseFilteredIndexQuery extends
 		return new CloseableIterator.Empty();
 	}
 
-	// experiment to test a single multi-scanner vs multiple single-range
-	// scanners
+	/**
+	 * Plan one scan per group of regions when scans may run in parallel, with
+	 * each scan covering only the query ranges within its regions
+	 *
+	 * @return the scans in row order, or null to use a single scan for all of
+	 *         the ranges
+	 */
+	protected List<Scan> getRegionScans(
+			final BasicHBaseOperations operations,
+			final String tableName,
+			final Integer limit,
+			final double[] maxResolutionSubsamplingPerDimension ) {
+		if ((options == null) || (options.getScanParallelism() <= 1)) {
+			return null;
+		}
+		final MultiRowRangeFilter filter = getFilter(getRanges());
+		if (filter == null) {
+			return null;
+		}
+		final List<List<RowRange>> rangesPerRegion;
+		try (RegionLocator regionLocator = operations.getRegionLocator(tableName)) {
+			final org.apache.hadoop.hbase.util.Pair<byte[][], byte[][]> regionKeys = regionLocator.getStartEndKeys();
+			rangesPerRegion = HBaseUtils.groupRowRangesByRegion(
+					filter.getRowRanges(),
+					regionKeys.getFirst(),
+					regionKeys.getSecond());
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to locate regions of table '" + tableName + "', using a single scan",
+					e);
+			return null;
+		}
+		if (rangesPerRegion.size() <= 1) {
+			return null;
+		}
+		final List<Scan> scans = new ArrayList<Scan>();
+		for (final List<RowRange> regionRanges : rangesPerRegion) {
+			try {
+				scans.add(getMultiScanner(
+						limit,
+						maxResolutionSubsamplingPerDimension,
+						new MultiRowRangeFilter(
+								regionRanges)));
+			}
+			catch (final IOException e) {
+				LOGGER.warn(
+						"Error creating range filter, using a single scan",
+						e);
+				return null;
+			}
+		}
+		return scans;
+	}
+
 	protected Scan getMultiScanner(
 			final Integer limit,
 			final double[] maxResolutionSubsamplingPerDimension ) {
+		return getMultiScanner(
+				limit,
+				maxResolutionSubsamplingPerDimension,
+				getFilter(getRanges()));
+	}
+
+	protected Scan getMultiScanner(
+			final Integer limit,
+			final double[] maxResolutionSubsamplingPerDimension,
+			final MultiRowRangeFilter filter ) {
 		// Single scan w/ multiple ranges
 		final Scan scanner = new Scan();
 
@@ -202,9 +296,6 @@ public abstract class HBaseFilteredIndexQuery extends
 			}
 		}
 
-		final List<ByteArrayRange> ranges = getRanges();
-
-		final MultiRowRangeFilter filter = getFilter(ranges);
 		if (filter != null) {
 			filterList.addFilter(filter);
 			final List<RowRange> rowRanges = filter.getRowRanges();
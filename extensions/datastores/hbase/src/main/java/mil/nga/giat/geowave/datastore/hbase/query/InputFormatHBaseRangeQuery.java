@@ -16,6 +16,7 @@ import mil.nga.giat.geowave.core.store.filter.DedupeFilter;
 import mil.nga.giat.geowave.core.store.filter.QueryFilter;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseInputFormatIteratorWrapper;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseUtils;
 
@@ -96,6 +97,16 @@ public class InputFormatHBaseRangeQuery extends
 								filters));
 	}
 
+	@Override
+	protected List<Scan> getRegionScans(
+			final BasicHBaseOperations operations,
+			final String tableName,
+			final Integer limit,
+			final double[] maxResolutionSubsamplingPerDimension ) {
+		// the input format already splits the query by region
+		return null;
+	}
+
 	@Override
 	protected Scan getMultiScanner(
 			final Integer limit,
@@ -20,6 +20,8 @@ import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.RowMutations;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.log4j.Logger;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
@@ -121,6 +123,114 @@ public class HBaseUtils
 				prefix).getStopRow();
 	}
 
+	/**
+	 * Group sorted, non-overlapping row ranges by the region they fall in.
+	 * Ranges that span a region boundary are split at the boundary.
+	 *
+	 * @param rowRanges
+	 *            the sorted row ranges
+	 * @param regionStartKeys
+	 *            the start key of each region, in order
+	 * @param regionEndKeys
+	 *            the end key of each region, in order
+	 * @return the ranges of each region that has any, in region order
+	 */
+	public static List<List<RowRange>> groupRowRangesByRegion(
+			final List<RowRange> rowRanges,
+			final byte[][] regionStartKeys,
+			final byte[][] regionEndKeys ) {
+		final List<List<RowRange>> rangesPerRegion = new ArrayList<List<RowRange>>();
+		if ((regionStartKeys == null) || (regionStartKeys.length == 0)) {
+			rangesPerRegion.add(rowRanges);
+			return rangesPerRegion;
+		}
+		int currentRegion = -1;
+		List<RowRange> currentRanges = null;
+		for (final RowRange range : rowRanges) {
+			byte[] startRow = range.getStartRow();
+			boolean startRowInclusive = range.isStartRowInclusive();
+			final byte[] stopRow = range.getStopRow();
+			int region = getRegionIndex(
+					regionStartKeys,
+					startRow);
+			while (true) {
+				if (region != currentRegion) {
+					currentRegion = region;
+					currentRanges = new ArrayList<RowRange>();
+					rangesPerRegion.add(currentRanges);
+				}
+				final byte[] regionEnd = regionEndKeys[region];
+				if (isLastRegion(
+						regionEndKeys,
+						region) || endsBefore(
+						stopRow,
+						range.isStopRowInclusive(),
+						regionEnd)) {
+					currentRanges.add(new RowRange(
+							startRow,
+							startRowInclusive,
+							stopRow,
+							range.isStopRowInclusive()));
+					break;
+				}
+				// the end key of a region is exclusive, and the start key of
+				// the
+				// next region
+				currentRanges.add(new RowRange(
+						startRow,
+						startRowInclusive,
+						regionEnd,
+						false));
+				startRow = regionEnd;
+				startRowInclusive = true;
+				region++;
+			}
+		}
+		return rangesPerRegion;
+	}
+
+	private static boolean isLastRegion(
+			final byte[][] regionEndKeys,
+			final int region ) {
+		return (region >= (regionEndKeys.length - 1)) || (regionEndKeys[region].length == 0);
+	}
+
+	private static boolean endsBefore(
+			final byte[] stopRow,
+			final boolean stopRowInclusive,
+			final byte[] regionEnd ) {
+		// an empty stop row is unbounded
+		if (stopRow.length == 0) {
+			return false;
+		}
+		final int compare = Bytes.compareTo(
+				stopRow,
+				regionEnd);
+		return (compare < 0) || ((compare == 0) && !stopRowInclusive);
+	}
+
+	/**
+	 * @return the index of the last region starting at or before the row
+	 */
+	private static int getRegionIndex(
+			final byte[][] regionStartKeys,
+			final byte[] row ) {
+		int low = 0;
+		int high = regionStartKeys.length - 1;
+		while (low < high) {
+			final int mid = (low + high + 1) >>> 1;
+			if (Bytes.compareTo(
+					regionStartKeys[mid],
+					row) <= 0) {
+				low = mid;
+			}
+			else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
 	public static <T> DataStoreEntryInfo write(
 			final WritableDataAdapter<T> writableAdapter,
 			final PrimaryIndex index,
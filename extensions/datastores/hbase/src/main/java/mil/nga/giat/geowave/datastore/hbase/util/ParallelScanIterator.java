@@ -0,0 +1,92 @@
+package mil.nga.giat.geowave.datastore.hbase.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.CloseableIteratorWrapper;
+import mil.nga.giat.geowave.core.store.util.ParallelCloseableIterator;
+import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
+
+/**
+ * Runs several scans of a table concurrently and returns their results one scan
+ * after another, in the order the scans are given. Each scan is read into its
+ * own bounded buffer, so scans that are not being consumed yet read ahead until
+ * their buffer is full.
+ *
+ * When the scans cover ascending, non-overlapping row ranges (such as one scan
+ * per region) the results are returned in the same row order as a single scan
+ * over all of the ranges.
+ */
+public class ParallelScanIterator extends
+		ParallelCloseableIterator<Result>
+{
+	private static final int DEFAULT_BUFFER_SIZE = 1000;
+
+	public ParallelScanIterator(
+			final BasicHBaseOperations operations,
+			final String tableName,
+			final String[] authorizations,
+			final List<Scan> scans,
+			final int parallelism ) {
+		this(
+				operations,
+				tableName,
+				authorizations,
+				scans,
+				parallelism,
+				DEFAULT_BUFFER_SIZE);
+	}
+
+	public ParallelScanIterator(
+			final BasicHBaseOperations operations,
+			final String tableName,
+			final String[] authorizations,
+			final List<Scan> scans,
+			final int parallelism,
+			final int bufferSize ) {
+		super(
+				toSources(
+						operations,
+						tableName,
+						authorizations,
+						scans),
+				Math.min(
+						parallelism,
+						scans.size()),
+				true,
+				bufferSize);
+	}
+
+	private static Iterator<Callable<CloseableIterator<Result>>> toSources(
+			final BasicHBaseOperations operations,
+			final String tableName,
+			final String[] authorizations,
+			final List<Scan> scans ) {
+		final List<Callable<CloseableIterator<Result>>> sources = new ArrayList<Callable<CloseableIterator<Result>>>(
+				scans.size());
+		for (final Scan scan : scans) {
+			sources.add(new Callable<CloseableIterator<Result>>() {
+				@Override
+				public CloseableIterator<Result> call()
+						throws IOException {
+					final ResultScanner scanner = operations.getScannedResults(
+							scan,
+							tableName,
+							authorizations);
+					return new CloseableIteratorWrapper<Result>(
+							scanner,
+							scanner.iterator());
+				}
+			});
+		}
+		return sources.iterator();
+	}
+}
@@ -0,0 +1,361 @@
+package mil.nga.giat.geowave.datastore.hbase.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HBaseUtilsTest
+{
+	private static final byte[] EMPTY = new byte[0];
+
+	// three regions: [,c) [c,f) [f,)
+	private static final byte[][] START_KEYS = new byte[][] {
+		EMPTY,
+		Bytes.toBytes("c"),
+		Bytes.toBytes("f")
+	};
+	private static final byte[][] END_KEYS = new byte[][] {
+		Bytes.toBytes("c"),
+		Bytes.toBytes("f"),
+		EMPTY
+	};
+
+	@Test
+	public void testWithoutRegions() {
+		final List<RowRange> ranges = Arrays.asList(
+				range(
+						"a",
+						true,
+						"d",
+						false),
+				range(
+						"e",
+						true,
+						"g",
+						false));
+		final List<List<RowRange>> grouped = HBaseUtils.groupRowRangesByRegion(
+				ranges,
+				null,
+				null);
+		Assert.assertEquals(
+				1,
+				grouped.size());
+		Assert.assertEquals(
+				ranges,
+				grouped.get(0));
+	}
+
+	@Test
+	public void testRangesWithinRegions() {
+		final List<List<RowRange>> grouped = HBaseUtils.groupRowRangesByRegion(
+				Arrays.asList(
+						range(
+								"a",
+								true,
+								"b",
+								false),
+						range(
+								"b",
+								true,
+								"bb",
+								false),
+						range(
+								"g",
+								true,
+								"h",
+								true)),
+				START_KEYS,
+				END_KEYS);
+		// the middle region has no ranges
+		Assert.assertEquals(
+				2,
+				grouped.size());
+		Assert.assertEquals(
+				2,
+				grouped.get(
+						0).size());
+		assertRange(
+				grouped.get(
+						0).get(
+						1),
+				"b",
+				true,
+				"bb",
+				false);
+		Assert.assertEquals(
+				1,
+				grouped.get(
+						1).size());
+		assertRange(
+				grouped.get(
+						1).get(
+						0),
+				"g",
+				true,
+				"h",
+				true);
+	}
+
+	@Test
+	public void testRangesCrossingRegions() {
+		final List<List<RowRange>> grouped = HBaseUtils.groupRowRangesByRegion(
+				Arrays.asList(
+						range(
+								"a",
+								false,
+								"d",
+								false),
+						range(
+								"e",
+								true,
+								"z",
+								true)),
+				START_KEYS,
+				END_KEYS);
+		Assert.assertEquals(
+				3,
+				grouped.size());
+		Assert.assertEquals(
+				1,
+				grouped.get(
+						0).size());
+		// the region end key is exclusive and starts the next region
+		assertRange(
+				grouped.get(
+						0).get(
+						0),
+				"a",
+				false,
+				"c",
+				false);
+		Assert.assertEquals(
+				2,
+				grouped.get(
+						1).size());
+		assertRange(
+				grouped.get(
+						1).get(
+						0),
+				"c",
+				true,
+				"d",
+				false);
+		assertRange(
+				grouped.get(
+						1).get(
+						1),
+				"e",
+				true,
+				"f",
+				false);
+		Assert.assertEquals(
+				1,
+				grouped.get(
+						2).size());
+		assertRange(
+				grouped.get(
+						2).get(
+						0),
+				"f",
+				true,
+				"z",
+				true);
+	}
+
+	@Test
+	public void testEmptyStartAndStopRows() {
+		// an empty start row is the start of the table and an empty stop row
+		// is the end of the table
+		final List<List<RowRange>> grouped = HBaseUtils.groupRowRangesByRegion(
+				Collections.singletonList(range(
+						"",
+						true,
+						"",
+						false)),
+				START_KEYS,
+				END_KEYS);
+		Assert.assertEquals(
+				3,
+				grouped.size());
+		assertRange(
+				grouped.get(
+						0).get(
+						0),
+				"",
+				true,
+				"c",
+				false);
+		assertRange(
+				grouped.get(
+						1).get(
+						0),
+				"c",
+				true,
+				"f",
+				false);
+		assertRange(
+				grouped.get(
+						2).get(
+						0),
+				"f",
+				true,
+				"",
+				false);
+	}
+
+	@Test
+	public void testSingleRowRanges() {
+		final List<List<RowRange>> grouped = HBaseUtils.groupRowRangesByRegion(
+				Arrays.asList(
+						range(
+								"b",
+								true,
+								"b",
+								true),
+						// the start key of a region belongs to that region
+						range(
+								"c",
+								true,
+								"c",
+								true),
+						// a range ending on the boundary, inclusive, spans both
+						range(
+								"e",
+								true,
+								"f",
+								true)),
+				START_KEYS,
+				END_KEYS);
+		Assert.assertEquals(
+				3,
+				grouped.size());
+		Assert.assertEquals(
+				1,
+				grouped.get(
+						0).size());
+		assertRange(
+				grouped.get(
+						0).get(
+						0),
+				"b",
+				true,
+				"b",
+				true);
+		Assert.assertEquals(
+				2,
+				grouped.get(
+						1).size());
+		assertRange(
+				grouped.get(
+						1).get(
+						0),
+				"c",
+				true,
+				"c",
+				true);
+		assertRange(
+				grouped.get(
+						1).get(
+						1),
+				"e",
+				true,
+				"f",
+				false);
+		Assert.assertEquals(
+				1,
+				grouped.get(
+						2).size());
+		assertRange(
+				grouped.get(
+						2).get(
+						0),
+				"f",
+				true,
+				"f",
+				true);
+	}
+
+	@Test
+	public void testEveryRowCovered() {
+		final List<RowRange> ranges = new ArrayList<RowRange>();
+		for (char c = 'a'; c < 'z'; c += 2) {
+			ranges.add(range(
+					String.valueOf(c),
+					true,
+					String.valueOf((char) (c + 2)),
+					false));
+		}
+		final List<List<RowRange>> grouped = HBaseUtils.groupRowRangesByRegion(
+				ranges,
+				START_KEYS,
+				END_KEYS);
+		for (char c = 'a'; c < 'z'; c++) {
+			final byte[] row = Bytes.toBytes(String.valueOf(c));
+			int matches = 0;
+			for (int region = 0; region < grouped.size(); region++) {
+				for (final RowRange range : grouped.get(region)) {
+					if (contains(
+							range,
+							row)) {
+						matches++;
+					}
+				}
+			}
+			Assert.assertEquals(
+					"row " + c,
+					1,
+					matches);
+		}
+	}
+
+	private static boolean contains(
+			final RowRange range,
+			final byte[] row ) {
+		final int start = Bytes.compareTo(
+				range.getStartRow(),
+				row);
+		final int stop = range.getStopRow().length == 0 ? 1 : Bytes.compareTo(
+				range.getStopRow(),
+				row);
+		return ((start < 0) || ((start == 0) && range.isStartRowInclusive()))
+				&& ((stop > 0) || ((stop == 0) && range.isStopRowInclusive()));
+	}
+
+	private static RowRange range(
+			final String startRow,
+			final boolean startRowInclusive,
+			final String stopRow,
+			final boolean stopRowInclusive ) {
+		return new RowRange(
+				Bytes.toBytes(startRow),
+				startRowInclusive,
+				Bytes.toBytes(stopRow),
+				stopRowInclusive);
+	}
+
+	private static void assertRange(
+			final RowRange range,
+			final String startRow,
+			final boolean startRowInclusive,
+			final String stopRow,
+			final boolean stopRowInclusive ) {
+		Assert.assertEquals(
+				startRow,
+				Bytes.toString(range.getStartRow()));
+		Assert.assertEquals(
+				startRowInclusive,
+				range.isStartRowInclusive());
+		Assert.assertEquals(
+				stopRow,
+				Bytes.toString(range.getStopRow()));
+		Assert.assertEquals(
+				stopRowInclusive,
+				range.isStopRowInclusive());
+	}
+}
@@ -0,0 +1,268 @@
+package mil.nga.giat.geowave.datastore.hbase.util;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Connection;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
+
+public class ParallelScanIteratorTest
+{
+	private static final byte[] FAMILY = Bytes.toBytes("f");
+	private static final byte[] QUALIFIER = Bytes.toBytes("q");
+	private static final int ROWS_PER_SCAN = 100;
+
+	@Test
+	public void testScansAreReturnedInOrder()
+			throws IOException {
+		final MockOperations operations = new MockOperations(
+				-1);
+		final List<Scan> scans = createScans(20);
+		final ParallelScanIterator it = new ParallelScanIterator(
+				operations,
+				"table",
+				null,
+				scans,
+				4,
+				10);
+		int count = 0;
+		while (it.hasNext()) {
+			final Result result = it.next();
+			Assert.assertEquals(
+					rowId(
+							count / ROWS_PER_SCAN,
+							count % ROWS_PER_SCAN),
+					Bytes.toString(result.getRow()));
+			count++;
+		}
+		it.close();
+		Assert.assertEquals(
+				scans.size() * ROWS_PER_SCAN,
+				count);
+		Assert.assertEquals(
+				scans.size(),
+				operations.opened.get());
+		Assert.assertEquals(
+				scans.size(),
+				operations.closed.get());
+	}
+
+	@Test
+	public void testEmptyScans()
+			throws IOException {
+		final MockOperations operations = new MockOperations(
+				-1);
+		final ParallelScanIterator it = new ParallelScanIterator(
+				operations,
+				"table",
+				null,
+				new ArrayList<Scan>(),
+				4);
+		Assert.assertFalse(it.hasNext());
+		it.close();
+	}
+
+	@Test(timeout = 60000)
+	public void testFailedScanIsPropagated()
+			throws IOException {
+		final MockOperations operations = new MockOperations(
+				5);
+		final ParallelScanIterator it = new ParallelScanIterator(
+				operations,
+				"table",
+				null,
+				createScans(10),
+				4,
+				10);
+		try {
+			while (it.hasNext()) {
+				it.next();
+			}
+			Assert.fail("the failed scan should fail the iteration");
+		}
+		catch (final RuntimeException e) {
+			// expected
+		}
+		finally {
+			it.close();
+		}
+		Assert.assertEquals(
+				operations.opened.get(),
+				operations.closed.get());
+	}
+
+	@Test(timeout = 60000)
+	public void testCloseBeforeConsumed()
+			throws IOException {
+		final MockOperations operations = new MockOperations(
+				-1);
+		final ParallelScanIterator it = new ParallelScanIterator(
+				operations,
+				"table",
+				null,
+				createScans(10),
+				4,
+				10);
+		for (int i = 0; i < 15; i++) {
+			Assert.assertTrue(it.hasNext());
+			it.next();
+		}
+		it.close();
+		Assert.assertEquals(
+				operations.opened.get(),
+				operations.closed.get());
+	}
+
+	private static List<Scan> createScans(
+			final int numScans ) {
+		final List<Scan> scans = new ArrayList<Scan>();
+		for (int i = 0; i < numScans; i++) {
+			scans.add(new Scan(
+					Bytes.toBytes(rowId(
+							i,
+							0))));
+		}
+		return scans;
+	}
+
+	private static String rowId(
+			final int scan,
+			final int row ) {
+		return String.format(
+				"%03d-%03d",
+				scan,
+				row);
+	}
+
+	private static Connection createConnection() {
+		return (Connection) Proxy.newProxyInstance(
+				ParallelScanIteratorTest.class.getClassLoader(),
+				new Class[] {
+					Connection.class
+				},
+				new InvocationHandler() {
+					@Override
+					public Object invoke(
+							final Object proxy,
+							final Method method,
+							final Object[] args ) {
+						if (method.getName().equals(
+								"getConfiguration")) {
+							return new Configuration();
+						}
+						return null;
+					}
+				});
+	}
+
+	/**
+	 * Returns ROWS_PER_SCAN rows for each scan, starting from the start row of
+	 * the scan, and counts the scanners opened and closed
+	 */
+	private static class MockOperations extends
+			BasicHBaseOperations
+	{
+		private final int failingScan;
+		private final AtomicInteger opened = new AtomicInteger();
+		private final AtomicInteger closed = new AtomicInteger();
+
+		private MockOperations(
+				final int failingScan ) {
+			super(
+					createConnection());
+			this.failingScan = failingScan;
+		}
+
+		@Override
+		public ResultScanner getScannedResults(
+				final Scan scan,
+				final String tableName,
+				final String... authorizations )
+				throws IOException {
+			final int scanIndex = Integer.parseInt(Bytes.toString(
+					scan.getStartRow()).substring(
+					0,
+					3));
+			if (scanIndex == failingScan) {
+				throw new IOException(
+						"Unable to open scan " + scanIndex);
+			}
+			final List<Result> results = new ArrayList<Result>();
+			for (int i = 0; i < ROWS_PER_SCAN; i++) {
+				results.add(Result.create(new Cell[] {
+					new KeyValue(
+							Bytes.toBytes(rowId(
+									scanIndex,
+									i)),
+							FAMILY,
+							QUALIFIER,
+							Bytes.toBytes(i))
+				}));
+			}
+			opened.incrementAndGet();
+			return new MockResultScanner(
+					results.iterator(),
+					closed);
+		}
+	}
+
+	private static class MockResultScanner implements
+			ResultScanner
+	{
+		private final Iterator<Result> results;
+		private final AtomicInteger closed;
+		private boolean isClosed = false;
+
+		private MockResultScanner(
+				final Iterator<Result> results,
+				final AtomicInteger closed ) {
+			this.results = results;
+			this.closed = closed;
+		}
+
+		@Override
+		public Iterator<Result> iterator() {
+			return results;
+		}
+
+		@Override
+		public Result next() {
+			return results.hasNext() ? results.next() : null;
+		}
+
+		@Override
+		public Result[] next(
+				final int nbRows ) {
+			final List<Result> batch = new ArrayList<Result>();
+			while ((batch.size() < nbRows) && results.hasNext()) {
+				batch.add(results.next());
+			}
+			return batch.toArray(new Result[batch.size()]);
+		}
+
+		@Override
+		public synchronized void close() {
+			// closing a scanner more than once has no effect
+			if (!isClosed) {
+				isClosed = true;
+				closed.incrementAndGet();
+			}
+		}
+	}
+}
@@ -21,11 +21,13 @@ import mil.nga.giat.geowave.core.geotime.store.dimension.GeometryWrapper;
 import mil.nga.giat.geowave.core.geotime.store.dimension.Time;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.StringUtils;
+import mil.nga.giat.geowave.core.ingest.ConcurrentIngestPlugin;
 import mil.nga.giat.geowave.core.ingest.GeoWaveData;
 import mil.nga.giat.geowave.core.ingest.IngestPluginBase;
 import mil.nga.giat.geowave.core.ingest.avro.WholeFile;
 import mil.nga.giat.geowave.core.ingest.hdfs.mapreduce.IngestWithMapper;
 import mil.nga.giat.geowave.core.ingest.hdfs.mapreduce.IngestWithReducer;
+import mil.nga.giat.geowave.core.ingest.local.ConcurrentLocalFileIngestPlugin;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
@@ -46,12 +48,12 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 /*
  */
 public class GDELTIngestPlugin extends
-		AbstractSimpleFeatureIngestPlugin<WholeFile>
+		AbstractSimpleFeatureIngestPlugin<WholeFile> implements
+		ConcurrentLocalFileIngestPlugin<SimpleFeature>
 {
 
 	private final static Logger LOGGER = Logger.getLogger(GDELTIngestPlugin.class);
 
-	private SimpleFeatureBuilder gdeltEventBuilder;
 	private SimpleFeatureType gdeltEventType;
 
 	private final ByteArrayId eventKey;
@@ -74,8 +76,6 @@ public class GDELTIngestPlugin extends
 		this.includeSupplementalFields = includeSupplementalFields;
 
 		gdeltEventType = GDELTUtils.createGDELTEventDataType(includeSupplementalFields);
-		gdeltEventBuilder = new SimpleFeatureBuilder(
-				gdeltEventType);
 	}
 
 	public void setDataSchemaOptionProvider(
@@ -163,6 +163,9 @@ public class GDELTIngestPlugin extends
 			final String globalVisibility ) {
 
 		final List<GeoWaveData<SimpleFeature>> featureData = new ArrayList<GeoWaveData<SimpleFeature>>();
+		// a builder per file so that files can be parsed concurrently
+		final SimpleFeatureBuilder gdeltEventBuilder = new SimpleFeatureBuilder(
+				gdeltEventType);
 
 		final InputStream in = new ByteArrayInputStream(
 				hfile.getOriginalFile().array());
@@ -384,7 +387,8 @@ public class GDELTIngestPlugin extends
 	}
 
 	public static class IngestGDELTFromHdfs extends
-			AbstractIngestSimpleFeatureWithMapper<WholeFile>
+			AbstractIngestSimpleFeatureWithMapper<WholeFile> implements
+			ConcurrentIngestPlugin<WholeFile, SimpleFeature>
 	{
 		public IngestGDELTFromHdfs() {
 			this(
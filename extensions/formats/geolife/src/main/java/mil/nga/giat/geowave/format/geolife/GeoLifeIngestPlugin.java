@@ -21,11 +21,13 @@ import mil.nga.giat.geowave.core.geotime.store.dimension.GeometryWrapper;
 import mil.nga.giat.geowave.core.geotime.store.dimension.Time;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.StringUtils;
+import mil.nga.giat.geowave.core.ingest.ConcurrentIngestPlugin;
 import mil.nga.giat.geowave.core.ingest.GeoWaveData;
 import mil.nga.giat.geowave.core.ingest.IngestPluginBase;
 import mil.nga.giat.geowave.core.ingest.avro.WholeFile;
 import mil.nga.giat.geowave.core.ingest.hdfs.mapreduce.IngestWithMapper;
 import mil.nga.giat.geowave.core.ingest.hdfs.mapreduce.IngestWithReducer;
+import mil.nga.giat.geowave.core.ingest.local.ConcurrentLocalFileIngestPlugin;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
@@ -47,15 +49,13 @@ import com.vividsolutions.jts.geom.GeometryFactory;
 /*
  */
 public class GeoLifeIngestPlugin extends
-		AbstractSimpleFeatureIngestPlugin<WholeFile>
+		AbstractSimpleFeatureIngestPlugin<WholeFile> implements
+		ConcurrentLocalFileIngestPlugin<SimpleFeature>
 {
 
 	private final static Logger LOGGER = Logger.getLogger(GeoLifeIngestPlugin.class);
 
-	private final SimpleFeatureBuilder geolifePointBuilder;
 	private final SimpleFeatureType geolifePointType;
-
-	private final SimpleFeatureBuilder geolifeTrackBuilder;
 	private final SimpleFeatureType geolifeTrackType;
 
 	private final ByteArrayId pointKey;
@@ -67,14 +67,10 @@ public class GeoLifeIngestPlugin extends
 		geolifePointType = GeoLifeUtils.createGeoLifePointDataType();
 		pointKey = new ByteArrayId(
 				StringUtils.stringToBinary(GeoLifeUtils.GEOLIFE_POINT_FEATURE));
-		geolifePointBuilder = new SimpleFeatureBuilder(
-				geolifePointType);
 
 		geolifeTrackType = GeoLifeUtils.createGeoLifeTrackDataType();
 		trackKey = new ByteArrayId(
 				StringUtils.stringToBinary(GeoLifeUtils.GEOLIFE_TRACK_FEATURE));
-		geolifeTrackBuilder = new SimpleFeatureBuilder(
-				geolifeTrackType);
 		try {
 			crs = CRS.decode("EPSG:4326");
 		}
@@ -162,6 +158,11 @@ public class GeoLifeIngestPlugin extends
 			final String globalVisibility ) {
 
 		final List<GeoWaveData<SimpleFeature>> featureData = new ArrayList<GeoWaveData<SimpleFeature>>();
+		// builders per file so that files can be parsed concurrently
+		final SimpleFeatureBuilder geolifePointBuilder = new SimpleFeatureBuilder(
+				geolifePointType);
+		final SimpleFeatureBuilder geolifeTrackBuilder = new SimpleFeatureBuilder(
+				geolifeTrackType);
 
 		final InputStream in = new ByteArrayInputStream(
 				hfile.getOriginalFile().array());
@@ -300,7 +301,8 @@ public class GeoLifeIngestPlugin extends
 	}
 
 	public static class IngestGeoLifeFromHdfs extends
-			AbstractIngestSimpleFeatureWithMapper<WholeFile>
+			AbstractIngestSimpleFeatureWithMapper<WholeFile> implements
+			ConcurrentIngestPlugin<WholeFile, SimpleFeature>
 	{
 		public IngestGeoLifeFromHdfs() {
 			this(
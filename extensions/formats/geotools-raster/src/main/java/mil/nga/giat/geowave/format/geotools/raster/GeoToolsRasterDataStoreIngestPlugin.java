@@ -201,6 +201,7 @@ public class GeoToolsRasterDataStoreIngestPlugin implements
 								new double[][] {
 									nodata[b]
 								});
+						adapter.setCompression(optionProvider.getCompression());
 						coverages.add(new GeoWaveData<GridCoverage>(
 								adapter,
 								primaryIndexIds,
@@ -217,6 +218,7 @@ public class GeoToolsRasterDataStoreIngestPlugin implements
 							optionProvider.isBuildPyramid(),
 							optionProvider.isBuildHistogream(),
 							optionProvider.getNodata(coverage.getNumSampleDimensions()));
+					adapter.setCompression(optionProvider.getCompression());
 					coverages.add(new GeoWaveData<GridCoverage>(
 							adapter,
 							primaryIndexIds,
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.converters.DoubleConverter;
 
+import mil.nga.giat.geowave.adapter.raster.adapter.DataBufferCodec.Compression;
 import mil.nga.giat.geowave.adapter.raster.adapter.RasterDataAdapter;
 import mil.nga.giat.geowave.adapter.raster.adapter.merge.RasterTileMergeStrategy;
 import mil.nga.giat.geowave.core.ingest.spi.IngestFormatOptionProvider;
@@ -48,6 +49,9 @@ public class RasterOptionProvider implements
 	@Parameter(names = "--mergeStrategy", description = "Optional parameter to choose a tile merge strategy used for mosaic.  Default behavior will be `none`.  Alternatively 'no-data' will mosaic the most recent tile over previous tiles, except where there are no data values.")
 	private final String mergeStrategy = NoMergeStrategyProvider.NAME;
 
+	@Parameter(names = "--compression", description = "Optional parameter to compress the data of each stored tile, either NONE or DEFLATE (default is NONE)")
+	private final Compression compression = Compression.NONE;
+
 	public RasterOptionProvider() {}
 
 	public boolean isBuildPyramid() {
@@ -58,6 +62,10 @@ public class RasterOptionProvider implements
 		return tileSize;
 	}
 
+	public Compression getCompression() {
+		return compression;
+	}
+
 	public boolean isSeparateBands() {
 		return separateBands;
 	}
@@ -10,7 +10,9 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import mil.nga.giat.geowave.adapter.vector.ingest.AbstractSimpleFeatureIngestPlugin;
 import mil.nga.giat.geowave.adapter.vector.utils.SimpleFeatureUserDataConfigurationSet;
@@ -19,10 +21,14 @@ import mil.nga.giat.geowave.core.geotime.store.dimension.GeometryWrapper;
 import mil.nga.giat.geowave.core.geotime.store.dimension.Time;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.StringUtils;
+import mil.nga.giat.geowave.core.ingest.ConcurrentIngestPlugin;
 import mil.nga.giat.geowave.core.ingest.GeoWaveData;
 import mil.nga.giat.geowave.core.ingest.IngestPluginBase;
 import mil.nga.giat.geowave.core.ingest.hdfs.mapreduce.IngestWithMapper;
 import mil.nga.giat.geowave.core.ingest.hdfs.mapreduce.IngestWithReducer;
+import mil.nga.giat.geowave.core.ingest.local.FileLineIndex;
+import mil.nga.giat.geowave.core.ingest.local.FileSplitLineReader;
+import mil.nga.giat.geowave.core.ingest.local.SplittableLocalFileIngestPlugin;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
@@ -40,24 +46,46 @@ import com.vividsolutions.jts.geom.Coordinate;
 /*
  */
 public class TdriveIngestPlugin extends
-		AbstractSimpleFeatureIngestPlugin<TdrivePoint>
+		AbstractSimpleFeatureIngestPlugin<TdrivePoint> implements
+		SplittableLocalFileIngestPlugin<SimpleFeature>
 {
 
 	private final static Logger LOGGER = Logger.getLogger(TdriveIngestPlugin.class);
+	private final static int MAX_LINE_INDICES = 16;
 
-	private final SimpleFeatureBuilder tdrivepointBuilder;
+	// files can be parsed concurrently so each thread has its own builder
+	private final ThreadLocal<SimpleFeatureBuilder> tdrivepointBuilder;
 	private final SimpleFeatureType tdrivepointType;
 
 	private final ByteArrayId pointKey;
 
+	// the ranges of a split file share the line index of the file
+	private final Map<File, LazyLineIndex> lineIndices = new LinkedHashMap<File, LazyLineIndex>(
+			MAX_LINE_INDICES,
+			0.75f,
+			true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				final Map.Entry<File, LazyLineIndex> eldest ) {
+			return size() > MAX_LINE_INDICES;
+		}
+	};
+
 	public TdriveIngestPlugin() {
 
 		tdrivepointType = TdriveUtils.createTdrivePointDataType();
 
 		pointKey = new ByteArrayId(
 				StringUtils.stringToBinary(TdriveUtils.TDRIVE_POINT_FEATURE));
-		tdrivepointBuilder = new SimpleFeatureBuilder(
-				tdrivepointType);
+		tdrivepointBuilder = new ThreadLocal<SimpleFeatureBuilder>() {
+			@Override
+			protected SimpleFeatureBuilder initialValue() {
+				return new SimpleFeatureBuilder(
+						tdrivepointType);
+			}
+		};
 	}
 
 	@Override
@@ -112,24 +140,9 @@ public class TdriveIngestPlugin extends
 			String line;
 			try {
 				while ((line = br.readLine()) != null) {
-
-					final String[] vals = line.split(",");
-					final TdrivePoint td = new TdrivePoint();
-					td.setTaxiid(Integer.parseInt(vals[0]));
-					try {
-						td.setTimestamp(TdriveUtils.parseDate(
-								vals[1]).getTime());
-					}
-					catch (final ParseException e) {
-						td.setTimestamp(0l);
-						LOGGER.warn(
-								"Couldn't parse time format: " + vals[1],
-								e);
-					}
-					td.setLongitude(Double.parseDouble(vals[2]));
-					td.setLatitude(Double.parseDouble(vals[3]));
-					td.setPointinstance(pointInstance);
-					pts.add(td);
+					pts.add(toPoint(
+							line,
+							pointInstance));
 					pointInstance++;
 				}
 			}
@@ -154,6 +167,97 @@ public class TdriveIngestPlugin extends
 		return pts.toArray(new TdrivePoint[pts.size()]);
 	}
 
+	private TdrivePoint[] toAvroObjects(
+			final File input,
+			final long start,
+			final long end ) {
+		final List<TdrivePoint> pts = new ArrayList<TdrivePoint>();
+		try (FileSplitLineReader reader = new FileSplitLineReader(
+				input,
+				start,
+				end,
+				StringUtils.GEOWAVE_CHAR_SET)) {
+			// point instances are numbered by line within the whole file
+			long pointInstance = getLineIndex(
+					input).getLineNumber(
+					reader.getPosition());
+			String line;
+			while ((line = reader.readLine()) != null) {
+				pts.add(toPoint(
+						line,
+						pointInstance));
+				pointInstance++;
+			}
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Error reading tdrive file: " + input.getName(),
+					e);
+		}
+		return pts.toArray(new TdrivePoint[pts.size()]);
+	}
+
+	private FileLineIndex getLineIndex(
+			final File input )
+			throws IOException {
+		LazyLineIndex lineIndex;
+		synchronized (lineIndices) {
+			lineIndex = lineIndices.get(input);
+			if (lineIndex == null) {
+				lineIndex = new LazyLineIndex(
+						input);
+				lineIndices.put(
+						input,
+						lineIndex);
+			}
+		}
+		return lineIndex.get();
+	}
+
+	private static TdrivePoint toPoint(
+			final String line,
+			final long pointInstance ) {
+		final String[] vals = line.split(",");
+		final TdrivePoint td = new TdrivePoint();
+		td.setTaxiid(Integer.parseInt(vals[0]));
+		try {
+			td.setTimestamp(TdriveUtils.parseDate(
+					vals[1]).getTime());
+		}
+		catch (final ParseException e) {
+			td.setTimestamp(0l);
+			LOGGER.warn(
+					"Couldn't parse time format: " + vals[1],
+					e);
+		}
+		td.setLongitude(Double.parseDouble(vals[2]));
+		td.setLatitude(Double.parseDouble(vals[3]));
+		td.setPointinstance(pointInstance);
+		return td;
+	}
+
+	@Override
+	public boolean isSplittable(
+			final File file ) {
+		return true;
+	}
+
+	@Override
+	public CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveData(
+			final File input,
+			final long start,
+			final long end,
+			final Collection<ByteArrayId> primaryIndexIds,
+			final String globalVisibility ) {
+		return toGeoWaveData(
+				toAvroObjects(
+						input,
+						start,
+						end),
+				primaryIndexIds,
+				globalVisibility);
+	}
+
 	@Override
 	public boolean isUseReducerPreferred() {
 		return false;
@@ -180,32 +284,32 @@ public class TdriveIngestPlugin extends
 
 		final List<GeoWaveData<SimpleFeature>> featureData = new ArrayList<GeoWaveData<SimpleFeature>>();
 
-		// tdrivepointBuilder = new SimpleFeatureBuilder(tdrivepointType);
-		tdrivepointBuilder.set(
+		final SimpleFeatureBuilder builder = tdrivepointBuilder.get();
+		builder.set(
 				"geometry",
 				GeometryUtils.GEOMETRY_FACTORY.createPoint(new Coordinate(
 						tdrivePoint.getLongitude(),
 						tdrivePoint.getLatitude())));
-		tdrivepointBuilder.set(
+		builder.set(
 				"taxiid",
 				tdrivePoint.getTaxiid());
-		tdrivepointBuilder.set(
+		builder.set(
 				"pointinstance",
 				tdrivePoint.getPointinstance());
-		tdrivepointBuilder.set(
+		builder.set(
 				"Timestamp",
 				new Date(
 						tdrivePoint.getTimestamp()));
-		tdrivepointBuilder.set(
+		builder.set(
 				"Latitude",
 				tdrivePoint.getLatitude());
-		tdrivepointBuilder.set(
+		builder.set(
 				"Longitude",
 				tdrivePoint.getLongitude());
 		featureData.add(new GeoWaveData<SimpleFeature>(
 				pointKey,
 				primaryIndexIds,
-				tdrivepointBuilder.buildFeature(tdrivePoint.getTaxiid() + "_" + tdrivePoint.getPointinstance())));
+				builder.buildFeature(tdrivePoint.getTaxiid() + "_" + tdrivePoint.getPointinstance())));
 
 		return new CloseableIterator.Wrapper<GeoWaveData<SimpleFeature>>(
 				featureData.iterator());
@@ -217,7 +321,8 @@ public class TdriveIngestPlugin extends
 	}
 
 	public static class IngestTdrivePointFromHdfs extends
-			AbstractIngestSimpleFeatureWithMapper<TdrivePoint>
+			AbstractIngestSimpleFeatureWithMapper<TdrivePoint> implements
+			ConcurrentIngestPlugin<TdrivePoint, SimpleFeature>
 	{
 		public IngestTdrivePointFromHdfs() {
 			this(
@@ -245,4 +350,28 @@ public class TdriveIngestPlugin extends
 			Time.class
 		};
 	}
+
+	/**
+	 * Builds the line index of a file once, when the first of its ranges needs
+	 * it
+	 */
+	private static class LazyLineIndex
+	{
+		private final File file;
+		private FileLineIndex index;
+
+		private LazyLineIndex(
+				final File file ) {
+			this.file = file;
+		}
+
+		private synchronized FileLineIndex get()
+				throws IOException {
+			if ((index == null) || index.isStale()) {
+				index = new FileLineIndex(
+						file);
+			}
+			return index;
+		}
+	}
 }